@@ -8,13 +8,13 @@ INSERT INTO agent VALUES (NULL, 'Arnaldo@email.com', 'Arnaldo Pereira', '1111-11
                          (NULL, 'Rodrigo@email.com', 'Rodrigo da Silva', '2222-2222', 2),
                          (NULL, 'Patricia@email.com', 'Patricia Ferreira', '3333-333', 3);
 
-INSERT INTO section VALUES (NULL, 80, 100, 'Fresco', 1),
-                           (NULL, 115, 200, 'Refrigerado', 1),
-                           (NULL, 95, 300, 'Congelado', 1),
-                           (NULL, 55, 800, 'Fresco', 2),
-                           (NULL, 75, 200, 'Refrigerado', 2),
-                           (NULL, 0, 150, 'Congelado', 2),
-                           (NULL, 0, 600, 'Congelado', 3);
+INSERT INTO section (id, current_product_load, max_product_load, product_type, warehouse_id, version) VALUES (NULL, 80, 100, 'Fresco', 1, 0),
+                           (NULL, 115, 200, 'Refrigerado', 1, 0),
+                           (NULL, 95, 300, 'Congelado', 1, 0),
+                           (NULL, 55, 800, 'Fresco', 2, 0),
+                           (NULL, 75, 200, 'Refrigerado', 2, 0),
+                           (NULL, 0, 150, 'Congelado', 2, 0),
+                           (NULL, 0, 600, 'Congelado', 3, 0);
 
 INSERT INTO product VALUES (NULL, 'Maçã', 20.10, 'Fresco'),
                            (NULL, 'Iogurte', 20.10, 'Refrigerado'),
@@ -36,29 +36,44 @@ INSERT INTO order_entry VALUES (NULL, "2022-08-08", 1),
                                (NULL, "2022-08-11", 4),
                                (NULL, "2022-08-12", 5);
 
-INSERT INTO batch VALUES (NULL, 30, 17.0, "2022-09-30", 30, "2022-07-15", "12:06:50", 10.0, 1, 1),
-                         (NULL, 50, 24.0, "2022-10-12", 50, "2022-07-15", "15:30:54", 20.0, 1, 4),
-                         (NULL, 15, 8.0, "2022-12-31", 15, "2022-07-15", "11:12:30", 1.0, 2, 8),
-                         (NULL, 100, 1.0, "2023-02-18", 100, "2022-07-15", "10:22:05", 0.0, 2, 2),
-                         (NULL, 25, 10.0, "2022-11-25", 25, "2022-07-15", "16:19:20", 15.0, 3, 9),
-                         (NULL, 70, 12.0, "2023-01-05", 98, "2022-07-15", "17:45:10", 8.0, 3, 3),
-                         (NULL, 55, 9.0, "2022-08-30", 57, "2022-07-15", "14:39:40", 12.0, 4, 7),
-                         (NULL, 60, 10.0, "2022-08-30", 60, "2022-07-15", "14:39:40", 15.0, 5, 8),
-                         (NULL, 15, 1.0, "2023-01-15", 89, "2022-07-15", "14:39:40", 5.0, 5, 6);
+INSERT INTO batch (id, current_quantity, current_temperature, due_date, initial_quantity, manufacturing_date, manufacturing_time, minimum_temperature, order_entry_id, product_id, version) VALUES (1, 30, 17.0, "2022-09-30", 30, "2022-07-15", "12:06:50", 10.0, 1, 1, 0),
+                         (2, 50, 24.0, "2022-10-12", 50, "2022-07-15", "15:30:54", 20.0, 1, 4, 0),
+                         (3, 15, 8.0, "2022-12-31", 15, "2022-07-15", "11:12:30", 1.0, 2, 8, 0),
+                         (4, 100, 1.0, "2023-02-18", 100, "2022-07-15", "10:22:05", 0.0, 2, 2, 0),
+                         (5, 25, 10.0, "2022-11-25", 25, "2022-07-15", "16:19:20", 15.0, 3, 9, 0),
+                         (6, 70, 12.0, "2023-01-05", 98, "2022-07-15", "17:45:10", 8.0, 3, 3, 0),
+                         (7, 55, 9.0, "2022-08-30", 57, "2022-07-15", "14:39:40", 12.0, 4, 7, 0),
+                         (8, 60, 10.0, "2022-08-30", 60, "2022-07-15", "14:39:40", 15.0, 5, 8, 0),
+                         (9, 15, 1.0, "2023-01-15", 89, "2022-07-15", "14:39:40", 5.0, 5, 6, 0);
 
-INSERT INTO cart VALUES (NULL, "2022-08-08", "OPEN", 1),
-                        (NULL, "2022-08-08", "OPEN", 1),
-                        (NULL, "2022-08-08", "OPEN", 1),
-                        (NULL, "2022-08-08", "OPEN", 1),
-                        (NULL, "2022-08-08", "OPEN", 1);
+-- os ids dos lotes vem de uma sequencia com alocacao em blocos de 50; reserva os ids usados acima
+UPDATE batch_seq SET next_val = 101;
 
-INSERT INTO product_cart VALUES (NULL, 2, 1, 1),
-                         (NULL, 3, 1, 3),
-                         (NULL, 1, 2, 5),
-                         (NULL, 5, 2, 7),
-                         (NULL, 2, 3, 9),
-                         (NULL, 3, 3, 2),
-                         (NULL, 4, 4, 4),
-                         (NULL, 1, 4, 6),
-                         (NULL, 1, 5, 8),
-                         (NULL, 2, 5, 1);
\ No newline at end of file
+-- resumo de estoque por produto, armazem e data de validade, calculado a partir dos lotes acima
+INSERT INTO product_stock_summary (product_id, warehouse_id, due_date, quantity)
+SELECT b.product_id, s.warehouse_id, b.due_date, SUM(b.current_quantity) FROM batch b
+    JOIN order_entry o ON o.id = b.order_entry_id
+    JOIN section s ON s.id = o.section_id
+    GROUP BY b.product_id, s.warehouse_id, b.due_date;
+
+INSERT INTO cart (id, date, status, customer_id) VALUES (1, "2022-08-08", "OPEN", 1),
+                                                        (2, "2022-08-08", "OPEN", 1),
+                                                        (3, "2022-08-08", "OPEN", 1),
+                                                        (4, "2022-08-08", "OPEN", 1),
+                                                        (5, "2022-08-08", "OPEN", 1);
+
+-- os ids dos carrinhos e dos itens vem de sequencias com alocacao em blocos de 50; reserva os ids usados
+UPDATE cart_seq SET next_val = 101;
+
+INSERT INTO product_cart (id, quantity, cart_id, product_id) VALUES (1, 2, 1, 1),
+                                                                    (2, 3, 1, 3),
+                                                                    (3, 1, 2, 5),
+                                                                    (4, 5, 2, 7),
+                                                                    (5, 2, 3, 9),
+                                                                    (6, 3, 3, 2),
+                                                                    (7, 4, 4, 4),
+                                                                    (8, 1, 4, 6),
+                                                                    (9, 1, 5, 8),
+                                                                    (10, 2, 5, 1);
+
+UPDATE product_cart_seq SET next_val = 101;
@@ -0,0 +1,62 @@
+package dh.meli.projeto_integrador.benchmark;
+
+import dh.meli.projeto_integrador.dto.dtoOutput.BatchStockDto;
+import dh.meli.projeto_integrador.model.Batch;
+import dh.meli.projeto_integrador.model.OrderEntry;
+import dh.meli.projeto_integrador.model.Product;
+import dh.meli.projeto_integrador.service.BatchService;
+import dh.meli.projeto_integrador.util.Generators;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of BatchService.filterBatchStockByDueDate. The method works on an in-memory list, so the batches are
+ * built from the Generators fixtures instead of being read from the database.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class BatchFilterBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int batches;
+
+    @Param({"30", "180"})
+    public long numberOfDays;
+
+    private final BatchService batchService = new BatchService();
+
+    private List<Batch> batchList;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Product product = Generators.getProduct();
+        OrderEntry orderEntry = Generators.getOrderEntry();
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDate today = LocalDate.now();
+
+        batchList = new ArrayList<>(batches);
+
+        for (int i = 0; i < batches; i++) {
+            Batch batch = Generators.getCleanBatch(product, orderEntry);
+            batch.setId(i + 1);
+            batch.setDueDate(today.plusDays(random.nextInt(-30, 365)));
+            batchList.add(batch);
+        }
+    }
+
+    @Benchmark
+    public List<BatchStockDto> filterBatchStockByDueDate() {
+        return batchService.filterBatchStockByDueDate(numberOfDays, batchList);
+    }
+}
@@ -0,0 +1,226 @@
+package dh.meli.projeto_integrador.benchmark;
+
+import dh.meli.projeto_integrador.ProjetoIntegradorApplication;
+import dh.meli.projeto_integrador.model.*;
+import dh.meli.projeto_integrador.repository.*;
+import dh.meli.projeto_integrador.service.ProductStockSummaryService;
+import dh.meli.projeto_integrador.util.Generators;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JMH state that boots the application against an embedded H2 database seeded with the given number of batches.
+ * Warehouses, sections, agents, products and order entries are created with the Generators fixtures; the batches are
+ * copies of Generators.getCleanBatch written with JDBC batch inserts, so large scales seed in seconds.
+ * The data is deterministic: batch i belongs to product i % PRODUCTS and is due in 21 + i % 365 days, so every batch
+ * can still be sold to carts.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@State(Scope.Benchmark)
+public class BenchmarkDatabase {
+
+    static final int PRODUCTS = 100;
+
+    static final int BATCHES_PER_ORDER_ENTRY = 1000;
+
+    static final int BATCH_QUANTITY = 1_000_000;
+
+    static final int MINIMUM_DUE_DAYS = 21;
+
+    @Param({"1000", "100000", "1000000"})
+    public int batches;
+
+    private ConfigurableApplicationContext context;
+
+    private Warehouse warehouse;
+
+    private Section section;
+
+    private Agent agent;
+
+    private Customer customer;
+
+    private final List<Long> productIds = new ArrayList<>();
+
+    /**
+     * Returns the MySQL database given by the system property benchmark.mysql.url, used instead of H2 by the JDBC
+     * tuning benchmark and, optionally, by the load test.
+     * @return the JDBC url of the database, or null when the property is not set
+     */
+    static String mySqlUrl() {
+        return System.getProperty("benchmark.mysql.url");
+    }
+
+    /**
+     * Builds the arguments that boot the application on a MySQL database, with the credentials given by the system
+     * properties benchmark.mysql.username (root by default) and benchmark.mysql.password (empty by default).
+     * @param url the JDBC url of the database
+     * @return the arguments, in the --name=value form accepted by start
+     */
+    static List<String> mySqlArgs(String url) {
+        return List.of(
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=" + System.getProperty("benchmark.mysql.username", "root"),
+                "--spring.datasource.password=" + System.getProperty("benchmark.mysql.password", ""),
+                "--spring.datasource.driverClassName=com.mysql.cj.jdbc.Driver",
+                "--spring.jpa.database-platform=org.hibernate.dialect.MySQL8Dialect");
+    }
+
+    @Setup(Level.Trial)
+    public void start() {
+        start(WebApplicationType.NONE);
+    }
+
+    /**
+     * Boots the application and seeds the database. The load test boots it with the embedded web server, and the
+     * JDBC tuning benchmark boots it on a MySQL database.
+     * @param webApplicationType the type of application to boot
+     * @param args command line arguments, in the --name=value form, added to the benchmark ones; an argument naming
+     * a benchmark property replaces it
+     */
+    void start(WebApplicationType webApplicationType, String... args) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("spring.profiles.active", "test");
+        properties.put("spring.datasource.url", "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+        properties.put("reactive.r2dbc.url", "r2dbc:h2:mem:///benchmark");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("spring.h2.console.enabled", "false");
+        properties.put("logging.level.root", "WARN");
+
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            properties.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+
+        context = new SpringApplicationBuilder(ProjetoIntegradorApplication.class)
+                .web(webApplicationType)
+                .logStartupInfo(false)
+                .run(properties.entrySet().stream()
+                        .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                        .toArray(String[]::new));
+
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public Warehouse getWarehouse() {
+        return warehouse;
+    }
+
+    public Section getSection() {
+        return section;
+    }
+
+    public Agent getAgent() {
+        return agent;
+    }
+
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    public long getProductId(int index) {
+        return productIds.get(index % productIds.size());
+    }
+
+    private void seed() {
+        warehouse = getBean(IWarehouseRepository.class).save(Generators.getCleanWarehouse(0));
+
+        Section cleanSection = Generators.getCleanSection(warehouse, 0);
+        cleanSection.setId(0);
+        cleanSection.setMaxProductLoad(Long.MAX_VALUE / 2);
+        section = getBean(ISectionRepository.class).save(cleanSection);
+
+        agent = getBean(IAgentRepository.class).save(Generators.getCleanAgent(warehouse));
+
+        Customer cleanCustomer = Generators.validCustomer1();
+        cleanCustomer.setId(0L);
+        customer = getBean(ICustomerRepository.class).save(cleanCustomer);
+
+        IProductRepository productRepository = getBean(IProductRepository.class);
+        List<Product> products = new ArrayList<>();
+
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = Generators.getCleanProduct();
+            product.setName(product.getName() + " " + i);
+            product.setType(section.getProductType());
+            products.add(product);
+        }
+
+        productRepository.saveAll(products).forEach(product -> productIds.add(product.getId()));
+
+        IOrderRepository orderRepository = getBean(IOrderRepository.class);
+        List<Long> orderEntryIds = new ArrayList<>();
+
+        for (int i = 0; i < Math.max(1, batches / BATCHES_PER_ORDER_ENTRY); i++) {
+            OrderEntry orderEntry = Generators.getCleanOrderEntry(section);
+            orderEntry.setId(0);
+            orderEntryIds.add(orderRepository.save(orderEntry).getId());
+        }
+
+        insertBatches(orderEntryIds);
+    }
+
+    private void insertBatches(List<Long> orderEntryIds) {
+        JdbcTemplate jdbcTemplate = getBean(JdbcTemplate.class);
+        Batch template = Generators.getCleanBatch(null, null);
+        LocalDate today = LocalDate.now();
+        List<Object[]> rows = new ArrayList<>();
+
+        for (int i = 1; i <= batches; i++) {
+            rows.add(new Object[]{
+                    i,
+                    BATCH_QUANTITY,
+                    template.getCurrentTemperature(),
+                    Date.valueOf(today.plusDays(MINIMUM_DUE_DAYS + i % 365)),
+                    BATCH_QUANTITY,
+                    Date.valueOf(template.getManufacturingDate()),
+                    Time.valueOf(template.getManufacturingTime()),
+                    template.getMinimumTemperature(),
+                    orderEntryIds.get((i - 1) / BATCHES_PER_ORDER_ENTRY % orderEntryIds.size()),
+                    getProductId(i)
+            });
+
+            if (rows.size() == 10_000 || i == batches) {
+                jdbcTemplate.batchUpdate("INSERT INTO batch (id, current_quantity, current_temperature, due_date, " +
+                        "initial_quantity, manufacturing_date, manufacturing_time, minimum_temperature, " +
+                        "order_entry_id, product_id, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)", rows);
+                rows.clear();
+            }
+        }
+
+        // Ids are handed out by a pooled sequence of 50, so restart it past every id inserted above; MySQL emulates
+        // the sequence with a table
+        if (getBean(Environment.class).getProperty("spring.datasource.url", "").startsWith("jdbc:mysql:")) {
+            jdbcTemplate.update("UPDATE batch_seq SET next_val = ?", batches + 100);
+        } else {
+            jdbcTemplate.execute("ALTER SEQUENCE batch_seq RESTART WITH " + (batches + 100));
+        }
+
+        // Batches written with JDBC bypass the services, so the stock summary is computed from them afterwards
+        getBean(ProductStockSummaryService.class).rebuild();
+    }
+}
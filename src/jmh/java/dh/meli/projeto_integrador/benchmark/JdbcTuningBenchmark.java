@@ -0,0 +1,105 @@
+package dh.meli.projeto_integrador.benchmark;
+
+import dh.meli.projeto_integrador.dto.dtoInput.BatchDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.TotalPriceDto;
+import dh.meli.projeto_integrador.service.CartService;
+import dh.meli.projeto_integrador.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of the cart and inbound order write paths on MySQL, with the Connector/J driver as it comes
+ * (jdbc=default) and tuned by MySqlDataSourcePostProcessor (jdbc=tuned): cached server prepared statements and
+ * batches rewritten into multi-row inserts. The showSql parameter adds the cost of spring.jpa.show-sql on top.
+ * The database is given by the system properties benchmark.mysql.url, benchmark.mysql.username and
+ * benchmark.mysql.password. It is cleaned and seeded by BenchmarkDatabase at each trial, so it must be a schema used
+ * only by the benchmark:
+ * mvn -P benchmark verify -Djmh.exclude.args= -Djmh.args="JdbcTuningBenchmark -jvmArgsAppend -Dbenchmark.mysql.url=jdbc:mysql://localhost:3306/benchmark"
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class JdbcTuningBenchmark {
+
+    /**
+     * State that boots the application on the MySQL database with the JDBC settings under test.
+     */
+    @State(Scope.Benchmark)
+    public static class MySqlDatabase {
+
+        @Param({"default", "tuned"})
+        public String jdbc;
+
+        @Param({"false"})
+        public boolean showSql;
+
+        @Param({"100000"})
+        public int batches;
+
+        BenchmarkDatabase database;
+
+        @Setup(Level.Trial)
+        public void start() {
+            String url = BenchmarkDatabase.mySqlUrl();
+
+            if (url == null) {
+                throw new IllegalStateException("JdbcTuningBenchmark runs on MySQL: set the benchmark.mysql.url "
+                        + "system property, e.g. -jvmArgsAppend -Dbenchmark.mysql.url=jdbc:mysql://localhost:3306/benchmark");
+            }
+
+            List<String> args = new ArrayList<>(BenchmarkDatabase.mySqlArgs(url));
+            args.add("--spring.jpa.show-sql=" + showSql);
+            args.add("--datasource.mysql.tuning.enabled=" + jdbc.equals("tuned"));
+
+            database = new BenchmarkDatabase();
+            database.batches = batches;
+            database.start(WebApplicationType.NONE, args.toArray(new String[0]));
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            database.stop();
+        }
+    }
+
+    /**
+     * Per thread state holding the services and a random generator with a fixed seed, so every run writes the same
+     * sequence of carts and inbound orders.
+     */
+    @State(Scope.Thread)
+    public static class Services {
+
+        CartService cartService;
+
+        OrderService orderService;
+
+        SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void setup(MySqlDatabase mySql) {
+            cartService = mySql.database.getBean(CartService.class);
+            orderService = mySql.database.getBean(OrderService.class);
+            random = new SplittableRandom(42);
+        }
+    }
+
+    @Benchmark
+    public TotalPriceDto createCart(MySqlDatabase mySql, Services services) {
+        return services.cartService.createCart(ServiceBenchmark.newCart(mySql.database, services.random));
+    }
+
+    @Benchmark
+    public List<BatchDto> createInboundOrder(MySqlDatabase mySql, Services services) {
+        return services.orderService.createInboundOrder(
+                ServiceBenchmark.newInboundOrder(mySql.database, services.random));
+    }
+}
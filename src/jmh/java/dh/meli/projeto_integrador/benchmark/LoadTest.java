@@ -0,0 +1,267 @@
+package dh.meli.projeto_integrador.benchmark;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed loop HTTP load test that compares the throughput and the latency of the application running its requests on
+ * the Tomcat platform thread pool and on virtual threads (spring.threads.virtual.enabled).
+ * For each mode the application is booted with the embedded web server on the database seeded by BenchmarkDatabase,
+ * and for each number of clients every client sends a request as soon as the previous one is answered, during a
+ * warmup and then a measured period. The clients are asynchronous requests of a single HttpClient, so ten thousand
+ * clients do not need ten thousand client threads; the open file limit (ulimit -n) must allow one connection per
+ * client. The virtual mode is skipped when the JVM is older than Java 21.
+ * The database is the in-memory H2 by default, where a request never waits on the database, so the comparison only
+ * shows the cost of the threads themselves. To see threads blocked on JDBC, run it on a MySQL schema used only by
+ * the benchmark, given as in JdbcTuningBenchmark by the system properties benchmark.mysql.url,
+ * benchmark.mysql.username and benchmark.mysql.password:
+ * mvn -P benchmark verify -Djmh.skip=true -Dload-test.skip=false -Dload-test.jvm.args="-Dbenchmark.mysql.url=jdbc:mysql://localhost:3306/benchmark"
+ * Requests that waited longer than spring.datasource.hikari.connection-timeout for a JDBC connection are counted
+ * apart from the other errors (hikaricp.connections.timeout), since they measure the pool and not the threads.
+ * Options, all optional: --clients=1000,5000,10000 --modes=platform,virtual --warmup=10 --duration=30 (seconds)
+ * --batches=100000 --path=/api/v1/fresh-products/warehouse/product/{productId}
+ * The results are printed and written to target/load-test-result.csv.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+public final class LoadTest {
+
+    private static final String PRODUCT_ID = "{productId}";
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int[] clients = Arrays.stream(options.getOrDefault("clients", "1000,5000,10000").split(","))
+                .mapToInt(Integer::parseInt).toArray();
+        List<String> modes = List.of(options.getOrDefault("modes", "platform,virtual").split(","));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+        int batches = Integer.parseInt(options.getOrDefault("batches", "100000"));
+        String path = options.getOrDefault("path", "/api/v1/fresh-products/warehouse/product/" + PRODUCT_ID);
+
+        String mySqlUrl = BenchmarkDatabase.mySqlUrl();
+        List<Result> results = new ArrayList<>();
+
+        if (mySqlUrl == null) {
+            System.out.println("Running on the in-memory H2 database: set benchmark.mysql.url to measure requests "
+                    + "blocked on JDBC");
+        }
+
+        for (String mode : modes) {
+            boolean virtual = mode.equals("virtual");
+
+            if (virtual && !supportsVirtualThreads()) {
+                System.out.printf("Skipping the virtual mode: Java %s has no virtual threads%n",
+                        System.getProperty("java.version"));
+                continue;
+            }
+
+            List<String> startArgs = new ArrayList<>();
+            startArgs.add("--server.port=0");
+            startArgs.add("--server.tomcat.max-connections=" + (Arrays.stream(clients).max().orElse(0) + 1000));
+            startArgs.add("--server.tomcat.accept-count=1000");
+            startArgs.add("--spring.threads.virtual.enabled=" + virtual);
+
+            if (mySqlUrl != null) {
+                startArgs.addAll(BenchmarkDatabase.mySqlArgs(mySqlUrl));
+            }
+
+            BenchmarkDatabase database = new BenchmarkDatabase();
+            database.batches = batches;
+            database.start(WebApplicationType.SERVLET, startArgs.toArray(new String[0]));
+
+            try {
+                String baseUrl = "http://localhost:"
+                        + database.getBean(Environment.class).getProperty("local.server.port");
+
+                for (int clientCount : clients) {
+                    run(database, baseUrl + path, clientCount, warmup);
+                    Result result = run(database, baseUrl + path, clientCount, duration);
+                    result.mode = mode;
+                    results.add(result);
+                    System.out.println(result);
+                }
+            } finally {
+                database.stop();
+            }
+        }
+
+        writeResults(results, Path.of("target", "load-test-result.csv"));
+    }
+
+    /**
+     * Runs the given number of closed loop clients against the url until the duration is over.
+     * @param database the seeded application, used to pick existing product ids
+     * @param url the url requested, where {productId} is replaced by a random product id
+     * @param clientCount the number of concurrent clients
+     * @param duration the time during which the clients send requests
+     * @return the throughput and latency measured
+     */
+    private static Result run(BenchmarkDatabase database, String url, int clientCount, Duration duration) {
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .executor(clientExecutor)
+                .build();
+
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        LongAdder errors = new LongAdder();
+        long poolTimeoutsBefore = poolTimeouts(database);
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        List<CompletableFuture<Void>> done = new ArrayList<>();
+
+        for (int i = 0; i < clientCount; i++) {
+            CompletableFuture<Void> clientDone = new CompletableFuture<>();
+            done.add(clientDone);
+            sendNext(http, database, url, deadline, latencies, errors, clientDone);
+        }
+
+        CompletableFuture.allOf(done.toArray(new CompletableFuture[0])).join();
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        clientExecutor.shutdown();
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        Result result = new Result();
+        result.clients = clientCount;
+        result.requests = sorted.length;
+        result.errors = errors.sum();
+        result.poolTimeouts = poolTimeouts(database) - poolTimeoutsBefore;
+        result.throughput = sorted.length / elapsedSeconds;
+        result.p50Millis = percentile(sorted, 0.50) / 1e6;
+        result.p99Millis = percentile(sorted, 0.99) / 1e6;
+
+        return result;
+    }
+
+    /**
+     * Sends the next request of a client, and the one after it when the response arrives, until the deadline.
+     */
+    private static void sendNext(HttpClient http, BenchmarkDatabase database, String url, long deadline,
+                                 ConcurrentLinkedQueue<Long> latencies, LongAdder errors,
+                                 CompletableFuture<Void> clientDone) {
+        if (System.nanoTime() >= deadline) {
+            clientDone.complete(null);
+            return;
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url.replace(PRODUCT_ID,
+                        String.valueOf(database.getProductId(ThreadLocalRandom.current().nextInt(
+                                BenchmarkDatabase.PRODUCTS))))))
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+        long sentAt = System.nanoTime();
+
+        http.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            if (error != null || response.statusCode() >= 500) {
+                errors.increment();
+            } else {
+                latencies.add(System.nanoTime() - sentAt);
+            }
+            sendNext(http, database, url, deadline, latencies, errors, clientDone);
+        });
+    }
+
+    /**
+     * Returns how many times the application gave up waiting for a JDBC connection since it started.
+     */
+    private static long poolTimeouts(BenchmarkDatabase database) {
+        Counter counter = database.getBean(MeterRegistry.class).find("hikaricp.connections.timeout").counter();
+        return counter == null ? 0 : (long) counter.count();
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    private static boolean supportsVirtualThreads() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+
+        return options;
+    }
+
+    private static void writeResults(List<Result> results, Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file))) {
+            writer.println("mode,clients,requests,errors,pool_timeouts,throughput_per_second,p50_ms,p99_ms");
+            results.forEach(result -> writer.printf("%s,%d,%d,%d,%d,%.1f,%.2f,%.2f%n", result.mode, result.clients,
+                    result.requests, result.errors - result.poolTimeouts, result.poolTimeouts, result.throughput,
+                    result.p50Millis, result.p99Millis));
+        }
+    }
+
+    /**
+     * Measurement of a mode at a given number of clients.
+     */
+    private static final class Result {
+
+        String mode;
+
+        int clients;
+
+        long requests;
+
+        long errors;
+
+        long poolTimeouts;
+
+        double throughput;
+
+        double p50Millis;
+
+        double p99Millis;
+
+        @Override
+        public String toString() {
+            return String.format("%-8s clients=%-6d requests=%-8d errors=%-6d poolTimeouts=%-6d throughput=%.1f/s "
+                            + "p50=%.2fms p99=%.2fms",
+                    mode, clients, requests, errors - poolTimeouts, poolTimeouts, throughput, p50Millis, p99Millis);
+        }
+    }
+}
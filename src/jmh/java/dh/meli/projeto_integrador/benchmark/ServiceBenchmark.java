@@ -0,0 +1,144 @@
+package dh.meli.projeto_integrador.benchmark;
+
+import dh.meli.projeto_integrador.dto.dtoInput.BatchDto;
+import dh.meli.projeto_integrador.dto.dtoInput.CartDto;
+import dh.meli.projeto_integrador.dto.dtoInput.OrderEntryDto;
+import dh.meli.projeto_integrador.dto.dtoInput.ProductDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.ListProductByWarehouseDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.ProductStockDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.TotalPriceDto;
+import dh.meli.projeto_integrador.enumClass.PurchaseOrderStatusEnum;
+import dh.meli.projeto_integrador.service.CartService;
+import dh.meli.projeto_integrador.service.OrderService;
+import dh.meli.projeto_integrador.service.ProductService;
+import dh.meli.projeto_integrador.util.Generators;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of the service hot paths, executed against the embedded H2 database seeded by BenchmarkDatabase.
+ * Every benchmark reports throughput and the sampled latency distribution.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ServiceBenchmark {
+
+    private static final int CART_LINES = 5;
+
+    private static final int INBOUND_ORDER_BATCHES = 20;
+
+    /**
+     * Per thread state holding the services and a random generator with a fixed seed, so every run picks the same
+     * sequence of products.
+     */
+    @State(Scope.Thread)
+    public static class Services {
+
+        CartService cartService;
+
+        OrderService orderService;
+
+        ProductService productService;
+
+        SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void setup(BenchmarkDatabase database) {
+            cartService = database.getBean(CartService.class);
+            orderService = database.getBean(OrderService.class);
+            productService = database.getBean(ProductService.class);
+            random = new SplittableRandom(42);
+        }
+
+        long nextProductId(BenchmarkDatabase database) {
+            return database.getProductId(random.nextInt(BenchmarkDatabase.PRODUCTS));
+        }
+    }
+
+    @Benchmark
+    public TotalPriceDto createCart(BenchmarkDatabase database, Services services) {
+        return services.cartService.createCart(newCart(database, services.random));
+    }
+
+    @Benchmark
+    public List<BatchDto> createInboundOrder(BenchmarkDatabase database, Services services) {
+        return services.orderService.createInboundOrder(newInboundOrder(database, services.random));
+    }
+
+    /**
+     * Builds a cart with CART_LINES consecutive products, starting at a random one.
+     * @param database the seeded database
+     * @param random the random generator of the thread
+     * @return the CartDto to create
+     */
+    static CartDto newCart(BenchmarkDatabase database, SplittableRandom random) {
+        List<ProductDto> products = new ArrayList<>();
+        int first = random.nextInt(BenchmarkDatabase.PRODUCTS);
+
+        for (int i = 0; i < CART_LINES; i++) {
+            products.add(new ProductDto(database.getProductId(first + i), 1));
+        }
+
+        return CartDto.builder()
+                .date(LocalDate.now())
+                .buyerId(database.getCustomer().getId())
+                .orderStatus(PurchaseOrderStatusEnum.OPEN)
+                .products(products)
+                .build();
+    }
+
+    /**
+     * Builds an inbound order with INBOUND_ORDER_BATCHES batches of random products.
+     * @param database the seeded database
+     * @param random the random generator of the thread
+     * @return the OrderEntryDto to create
+     */
+    static OrderEntryDto newInboundOrder(BenchmarkDatabase database, SplittableRandom random) {
+        OrderEntryDto orderEntryDto = Generators.getCleanOrderEntryDto(database.getAgent().getId(),
+                database.getWarehouse().getId(), database.getSection().getId(),
+                database.getProductId(random.nextInt(BenchmarkDatabase.PRODUCTS)));
+        BatchDto template = orderEntryDto.getBatchStock().iterator().next();
+        Set<BatchDto> batchStock = new HashSet<>();
+
+        for (int i = 0; i < INBOUND_ORDER_BATCHES; i++) {
+            BatchDto batchDto = new BatchDto();
+
+            batchDto.setProductId(database.getProductId(random.nextInt(BenchmarkDatabase.PRODUCTS)));
+            batchDto.setCurrentQuantity(template.getCurrentQuantity());
+            batchDto.setInitialQuantity(template.getInitialQuantity());
+            batchDto.setCurrentTemperature(template.getCurrentTemperature());
+            batchDto.setMinimumTemperature(template.getMinimumTemperature());
+            batchDto.setManufacturingDate(template.getManufacturingDate());
+            batchDto.setManufacturingTime(template.getManufacturingTime());
+            batchDto.setDueDate(template.getDueDate().plusDays(30 + i));
+
+            batchStock.add(batchDto);
+        }
+
+        orderEntryDto.setBatchStock(batchStock);
+
+        return orderEntryDto;
+    }
+
+    @Benchmark
+    public ListProductByWarehouseDto listProductByWarehouse(BenchmarkDatabase database, Services services) {
+        return services.productService.listProductByWarehouse(services.nextProductId(database));
+    }
+
+    @Benchmark
+    public ProductStockDto getProductBatchProps(BenchmarkDatabase database, Services services) {
+        return services.productService.getProductBatchProps(services.nextProductId(database), 'V');
+    }
+}
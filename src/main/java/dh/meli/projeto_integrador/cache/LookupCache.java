@@ -0,0 +1,167 @@
+package dh.meli.projeto_integrador.cache;
+
+import dh.meli.projeto_integrador.dto.dtoOutput.CacheStatisticsDto;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded read-through cache. Entries expire after a fixed time to live and, when the cache is full, the least
+ * recently used entry is evicted. Hits, misses, evictions, expirations and invalidations are counted.
+ * @param <K> the type of the keys
+ * @param <V> the type of the cached values
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+public class LookupCache<K, V> {
+
+    private final String name;
+
+    private final int maxSize;
+
+    private final long ttlNanos;
+
+    private final LongSupplier nanoClock;
+
+    private final LinkedHashMap<K, CacheEntry<V>> entries;
+
+    /**
+     * Incremented on every invalidation, so a value loaded before an invalidation is not stored after it.
+     */
+    private long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Constructor of a cache that measures the time to live with System.nanoTime.
+     * @param name String that identifies the cache in the statistics
+     * @param maxSize int. Maximum number of entries
+     * @param ttl Duration. Time an entry is kept after being loaded
+     */
+    public LookupCache(String name, int maxSize, Duration ttl) {
+        this(name, maxSize, ttl, System::nanoTime);
+    }
+
+    LookupCache(String name, int maxSize, Duration ttl, LongSupplier nanoClock) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+                if (size() > LookupCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Method that returns the cached value of a key, loading and caching it when absent or expired. The loader runs
+     * outside the cache lock; an exception thrown by it is propagated and nothing is cached.
+     * @param key the key to look up
+     * @param loader Function that reads the value from its source
+     * @return the cached or loaded value
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        long loadGeneration;
+
+        synchronized (entries) {
+            CacheEntry<V> entry = entries.get(key);
+
+            if (entry != null) {
+                if (entry.expiresAt - nanoClock.getAsLong() > 0) {
+                    hits.increment();
+                    return entry.value;
+                }
+                entries.remove(key);
+                expirations.increment();
+            }
+            loadGeneration = generation;
+        }
+
+        misses.increment();
+        V value = loader.apply(key);
+
+        if (value != null) {
+            synchronized (entries) {
+                if (loadGeneration == generation) {
+                    entries.put(key, new CacheEntry<>(value, nanoClock.getAsLong() + ttlNanos));
+                }
+            }
+        }
+
+        return value;
+    }
+
+    /**
+     * Method that removes a key from the cache.
+     * @param key the key to be removed
+     */
+    public void invalidate(K key) {
+        synchronized (entries) {
+            generation++;
+            entries.remove(key);
+        }
+        invalidations.increment();
+    }
+
+    /**
+     * Method that removes every entry of the cache.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation++;
+            entries.clear();
+        }
+        invalidations.increment();
+    }
+
+    /**
+     * Method to read the counters of the cache.
+     * @return an object of type CacheStatisticsDto
+     */
+    public CacheStatisticsDto getStatistics() {
+        int size;
+
+        synchronized (entries) {
+            size = entries.size();
+        }
+
+        long hitCount = hits.sum();
+        long requestCount = hitCount + misses.sum();
+
+        return CacheStatisticsDto.builder()
+                .name(name)
+                .size(size)
+                .maxSize(maxSize)
+                .hits(hitCount)
+                .misses(requestCount - hitCount)
+                .hitRate(requestCount == 0 ? 0.0 : (double) hitCount / requestCount)
+                .evictions(evictions.sum())
+                .expirations(expirations.sum())
+                .invalidations(invalidations.sum())
+                .build();
+    }
+
+    private static class CacheEntry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private CacheEntry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
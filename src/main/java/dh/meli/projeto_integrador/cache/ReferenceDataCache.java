@@ -0,0 +1,120 @@
+package dh.meli.projeto_integrador.cache;
+
+import dh.meli.projeto_integrador.dto.dtoOutput.CacheStatisticsDto;
+import dh.meli.projeto_integrador.model.Agent;
+import dh.meli.projeto_integrador.model.Product;
+import dh.meli.projeto_integrador.model.Section;
+import dh.meli.projeto_integrador.model.Warehouse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Class that holds the caches of the reference data read on every inbound order and cart: products, sections,
+ * warehouses and agents. Cached entities are detached, so they must only be read or used as association targets;
+ * code that changes an entity must load it from its repository.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@Component
+public class ReferenceDataCache {
+
+    private final LookupCache<Long, Product> products;
+
+    private final LookupCache<Long, Section> sections;
+
+    private final LookupCache<Long, Warehouse> warehouses;
+
+    private final LookupCache<Long, Agent> agents;
+
+    /**
+     * Constructor that creates every cache with the same bounds.
+     * @param maxSize int. Maximum number of entries of each cache
+     * @param ttlSeconds long. Seconds an entry is kept after being loaded
+     */
+    public ReferenceDataCache(@Value("${reference-cache.max-size:10000}") int maxSize,
+                              @Value("${reference-cache.ttl-seconds:300}") long ttlSeconds) {
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+
+        this.products = new LookupCache<>("products", maxSize, ttl);
+        this.sections = new LookupCache<>("sections", maxSize, ttl);
+        this.warehouses = new LookupCache<>("warehouses", maxSize, ttl);
+        this.agents = new LookupCache<>("agents", maxSize, ttl);
+    }
+
+    /**
+     * Method to access the cache of products by id.
+     * @return a LookupCache of Product
+     */
+    public LookupCache<Long, Product> products() {
+        return products;
+    }
+
+    /**
+     * Method to access the cache of sections by id.
+     * @return a LookupCache of Section
+     */
+    public LookupCache<Long, Section> sections() {
+        return sections;
+    }
+
+    /**
+     * Method to access the cache of warehouses by id.
+     * @return a LookupCache of Warehouse
+     */
+    public LookupCache<Long, Warehouse> warehouses() {
+        return warehouses;
+    }
+
+    /**
+     * Method to access the cache of agents by id.
+     * @return a LookupCache of Agent
+     */
+    public LookupCache<Long, Agent> agents() {
+        return agents;
+    }
+
+    /**
+     * Method that invalidates the cached copy of a changed entity. When called inside a transaction the entry is
+     * invalidated again after the transaction completes, so a copy read by a concurrent request before the commit
+     * is not kept.
+     * @param entity the changed entity
+     */
+    public void invalidate(Object entity) {
+        invalidateNow(entity);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidateNow(entity);
+                }
+            });
+        }
+    }
+
+    /**
+     * Method to read the counters of every cache.
+     * @return a List of objects of type CacheStatisticsDto
+     */
+    public List<CacheStatisticsDto> getStatistics() {
+        return List.of(products.getStatistics(), sections.getStatistics(), warehouses.getStatistics(),
+                agents.getStatistics());
+    }
+
+    private void invalidateNow(Object entity) {
+        if (entity instanceof Product) {
+            products.invalidate(((Product) entity).getId());
+        } else if (entity instanceof Section) {
+            sections.invalidate(((Section) entity).getId());
+        } else if (entity instanceof Warehouse) {
+            warehouses.invalidate(((Warehouse) entity).getId());
+        } else if (entity instanceof Agent) {
+            agents.invalidate(((Agent) entity).getId());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package dh.meli.projeto_integrador.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * JPA entity listener that invalidates the cached copy of a reference entity whenever it is updated or removed,
+ * whichever service or repository made the change.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+public class ReferenceDataCacheListener {
+
+    /**
+     * Dependency Injection of the ReferenceDataCache.
+     */
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    /**
+     * Method called by JPA after an entity is updated or removed.
+     * @param entity the changed entity
+     */
+    @PostUpdate
+    @PostRemove
+    public void invalidate(Object entity) {
+        referenceDataCache.invalidate(entity);
+    }
+}
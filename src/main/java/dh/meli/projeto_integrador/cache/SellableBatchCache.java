@@ -0,0 +1,100 @@
+package dh.meli.projeto_integrador.cache;
+
+import dh.meli.projeto_integrador.dto.dtoOutput.BatchDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.CacheStatisticsDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Class that holds, per product, the snapshot of its sellable batches read by ProductService.getProductBatchProps.
+ * The snapshot of a product is invalidated whenever one of its batches is inserted, updated, removed or has stock
+ * reserved. On the first read after local midnight, when the due date window moves, the snapshot is moved to the new
+ * day in memory, since the only batches it loses are the ones that entered the window.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@Component
+public class SellableBatchCache {
+
+    private final LookupCache<Long, SellableBatches> batches;
+
+    private final Clock clock;
+
+    /**
+     * Constructor of the cache used by the application, that reads the day from the system clock.
+     * @param maxSize int. Maximum number of products kept in the cache
+     * @param ttlSeconds long. Seconds a snapshot is kept after being loaded, if not invalidated before
+     */
+    @Autowired
+    public SellableBatchCache(@Value("${sellable-batch-cache.max-size:10000}") int maxSize,
+                              @Value("${sellable-batch-cache.ttl-seconds:3600}") long ttlSeconds) {
+        this(maxSize, ttlSeconds, Clock.systemDefaultZone());
+    }
+
+    SellableBatchCache(int maxSize, long ttlSeconds, Clock clock) {
+        this.batches = new LookupCache<>("sellable-batches", maxSize, Duration.ofSeconds(ttlSeconds));
+        this.clock = clock;
+    }
+
+    /**
+     * Method that returns the sellable batches of a product for the current day, loading them when absent or expired.
+     * A snapshot computed on a previous day is moved to the current day without calling the loader.
+     * @param productId long. Product identifier
+     * @param loader Function that reads every batch of the product
+     * @return an object of type SellableBatches
+     */
+    public SellableBatches get(long productId, Function<Long, List<BatchDto>> loader) {
+        LocalDate today = LocalDate.now(clock);
+        Function<Long, SellableBatches> snapshotLoader = id -> SellableBatches.of(today, loader.apply(id));
+
+        SellableBatches sellableBatches = batches.get(productId, snapshotLoader);
+
+        if (sellableBatches.getDay().isBefore(today)) {
+            // After midnight the snapshot only loses the batches that entered the due date window
+            SellableBatches previousDay = sellableBatches;
+            batches.invalidate(productId);
+            sellableBatches = batches.get(productId, id -> previousDay.rollTo(today));
+        } else if (!sellableBatches.getDay().equals(today)) {
+            batches.invalidate(productId);
+            sellableBatches = batches.get(productId, snapshotLoader);
+        }
+
+        return sellableBatches;
+    }
+
+    /**
+     * Method that invalidates the snapshot of a product whose batches changed. When called inside a transaction the
+     * snapshot is invalidated again after the transaction completes, so a snapshot read by a concurrent request
+     * before the commit is not kept.
+     * @param productId long. Product identifier
+     */
+    public void invalidate(long productId) {
+        batches.invalidate(productId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    batches.invalidate(productId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Method to read the counters of the cache.
+     * @return an object of type CacheStatisticsDto
+     */
+    public CacheStatisticsDto getStatistics() {
+        return batches.getStatistics();
+    }
+}
@@ -0,0 +1,37 @@
+package dh.meli.projeto_integrador.cache;
+
+import dh.meli.projeto_integrador.model.Batch;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * JPA entity listener that invalidates the sellable batches of a product whenever one of its batches is inserted,
+ * updated or removed, whichever service or repository made the change. Bulk updates do not trigger it, so the
+ * services that run them invalidate the cache themselves.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+public class SellableBatchCacheListener {
+
+    /**
+     * Dependency Injection of the SellableBatchCache.
+     */
+    @Autowired
+    private SellableBatchCache sellableBatchCache;
+
+    /**
+     * Method called by JPA after a batch is inserted, updated or removed.
+     * @param batch the changed batch
+     */
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void invalidate(Batch batch) {
+        if (batch.getProduct() != null) {
+            sellableBatchCache.invalidate(batch.getProduct().getId());
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package dh.meli.projeto_integrador.cache;
+
+import dh.meli.projeto_integrador.dto.dtoOutput.BatchDto;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshot of the batches of a product that can still be sold on a given day, that is, batches due more
+ * than 21 days after it. The batches are kept sorted in each order offered by ProductService.getProductBatchProps,
+ * so every order is served from the snapshot without sorting.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+public class SellableBatches {
+
+    /**
+     * Batches due within this number of days can no longer be sold.
+     */
+    public static final int MINIMUM_DAYS_TO_DUE_DATE = 21;
+
+    private static final Comparator<BatchDto> BY_BATCH_NUMBER = Comparator.comparingLong(BatchDto::getBatchNumber);
+
+    private final LocalDate day;
+
+    private final boolean productHasBatches;
+
+    private final List<BatchDto> byBatchNumber;
+
+    private final List<BatchDto> byCurrentQuantity;
+
+    private final List<BatchDto> byDueDate;
+
+    private SellableBatches(LocalDate day, boolean productHasBatches, List<BatchDto> byBatchNumber,
+                            List<BatchDto> byCurrentQuantity, List<BatchDto> byDueDate) {
+        this.day = day;
+        this.productHasBatches = productHasBatches;
+        this.byBatchNumber = byBatchNumber;
+        this.byCurrentQuantity = byCurrentQuantity;
+        this.byDueDate = byDueDate;
+    }
+
+    private SellableBatches(LocalDate day, boolean productHasBatches, BatchDto[] sellable) {
+        this.day = day;
+        this.productHasBatches = productHasBatches;
+
+        Arrays.sort(sellable, BY_BATCH_NUMBER);
+        this.byBatchNumber = List.of(sellable);
+
+        Arrays.sort(sellable, Comparator.comparingInt(BatchDto::getCurrentQuantity).thenComparing(BY_BATCH_NUMBER));
+        this.byCurrentQuantity = List.of(sellable);
+
+        Arrays.sort(sellable, Comparator.comparing(BatchDto::getDueDate).thenComparing(BY_BATCH_NUMBER));
+        this.byDueDate = List.of(sellable);
+    }
+
+    /**
+     * Method that filters and sorts the batches of a product for the given day.
+     * @param day LocalDate. The day the due date window is computed from
+     * @param batches a List of every BatchDto of the product
+     * @return an object of type SellableBatches
+     */
+    public static SellableBatches of(LocalDate day, List<BatchDto> batches) {
+        LocalDate lastUnsellableDueDate = day.plusDays(MINIMUM_DAYS_TO_DUE_DATE);
+
+        BatchDto[] sellable = batches.stream()
+                .filter(batch -> batch.getDueDate().isAfter(lastUnsellableDueDate))
+                .toArray(BatchDto[]::new);
+
+        return new SellableBatches(day, !batches.isEmpty(), sellable);
+    }
+
+    /**
+     * Method that moves the snapshot to a later day. The batches of a day are the batches of any earlier day minus
+     * the ones that entered the due date window, so the snapshot is filtered in memory, keeping its orders, instead
+     * of being loaded again.
+     * @param laterDay LocalDate. A day after the day of the snapshot
+     * @return an object of type SellableBatches
+     */
+    public SellableBatches rollTo(LocalDate laterDay) {
+        LocalDate lastUnsellableDueDate = laterDay.plusDays(MINIMUM_DAYS_TO_DUE_DATE);
+
+        if (byDueDate.isEmpty() || byDueDate.get(0).getDueDate().isAfter(lastUnsellableDueDate)) {
+            return new SellableBatches(laterDay, productHasBatches, byBatchNumber, byCurrentQuantity, byDueDate);
+        }
+
+        Predicate<BatchDto> sellable = batch -> batch.getDueDate().isAfter(lastUnsellableDueDate);
+
+        return new SellableBatches(laterDay, productHasBatches,
+                byBatchNumber.stream().filter(sellable).collect(Collectors.toUnmodifiableList()),
+                byCurrentQuantity.stream().filter(sellable).collect(Collectors.toUnmodifiableList()),
+                byDueDate.stream().filter(sellable).collect(Collectors.toUnmodifiableList()));
+    }
+
+    /**
+     * Method to read the day the snapshot was computed for.
+     * @return a LocalDate
+     */
+    public LocalDate getDay() {
+        return day;
+    }
+
+    /**
+     * Method to tell whether the product has any batch, sellable or not.
+     * @return true if at least one batch of the product exists
+     */
+    public boolean productHasBatches() {
+        return productHasBatches;
+    }
+
+    /**
+     * Method to list the sellable batches in the given order: 'L' by batch number, 'Q' by current quantity and any
+     * other value by due date. The returned list is shared and cannot be modified.
+     * @param order Character that identifies the order
+     * @return an unmodifiable List of BatchDto
+     */
+    public List<BatchDto> sortedBy(Character order) {
+        switch (order) {
+            case 'L':
+                return byBatchNumber;
+            case 'Q':
+                return byCurrentQuantity;
+            default:
+                return byDueDate;
+        }
+    }
+}
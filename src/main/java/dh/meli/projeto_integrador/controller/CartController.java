@@ -2,12 +2,15 @@ package dh.meli.projeto_integrador.controller;
 
 import dh.meli.projeto_integrador.dto.dtoInput.CartDto;
 import dh.meli.projeto_integrador.dto.dtoOutput.CartOutputDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.CartResultDto;
 import dh.meli.projeto_integrador.dto.dtoOutput.TotalPriceDto;
 
 
 import dh.meli.projeto_integrador.dto.dtoOutput.UpdateStatusDto;
 import dh.meli.projeto_integrador.enumClass.PurchaseOrderStatusEnum;
 import dh.meli.projeto_integrador.exception.ForbiddenException;
+import dh.meli.projeto_integrador.idempotency.IdempotencyStore;
+import dh.meli.projeto_integrador.monitoring.QueryBudget;
 import dh.meli.projeto_integrador.service.CartService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -15,6 +18,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.util.List;
 
 
 /**
@@ -33,17 +37,41 @@ public class CartController {
     private CartService cartService;
 
     /**
-     * A POST method responsible for saving the infos of a new cart at application's database.
+     * Dependency Injection of the IdempotencyStore.
+     */
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    /**
+     * A POST method responsible for saving the infos of a new cart at application's database. When an
+     * Idempotency-Key header is sent, a retry with the same key and body gets the response of the first request and
+     * the cart is created only once; the same key with another body is rejected.
      * @param cartDto a valid CartDto instance received by the request body.
+     * @param idempotencyKey a String received by the Idempotency-Key header, optional.
      * @return Response Entity of type TotalPriceDto, with the cart total price and the corresponding HttpStatus.
      */
     @PostMapping("/orders")
-    public ResponseEntity<TotalPriceDto> createNewPurchaseOrder(@RequestBody @Valid CartDto cartDto) {
+    @QueryBudget(statements = 15)
+    public ResponseEntity<TotalPriceDto> createNewPurchaseOrder(@RequestBody @Valid CartDto cartDto,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
         if (cartDto.getOrderStatus().equals(PurchaseOrderStatusEnum.FINISHED)) {
             throw new ForbiddenException("The new cart cannot be created with order status 'FINISHED'");
         }
-        TotalPriceDto createdCart = cartService.createCart(cartDto);
-        return new ResponseEntity<>(createdCart, HttpStatus.CREATED);
+        return idempotencyStore.execute("POST /fresh-products/orders", idempotencyKey, cartDto, () -> {
+            TotalPriceDto createdCart = cartService.createCart(cartDto);
+            return new ResponseEntity<>(createdCart, HttpStatus.CREATED);
+        });
+    }
+
+    /**
+     * A POST method responsible for saving many new carts at once. Each cart is validated on its own and the
+     * response tells, in request order, which carts were accepted and why the others were rejected.
+     * @param cartDtos a list of CartDto instances received by the request body.
+     * @return Response Entity with a list of CartResultDto, one per cart, and the corresponding HttpStatus.
+     */
+    @PostMapping("/orders/bulk")
+    public ResponseEntity<List<CartResultDto>> createNewPurchaseOrders(@RequestBody List<CartDto> cartDtos) {
+        return ResponseEntity.ok(cartService.createCarts(cartDtos));
     }
 
     /**
@@ -52,6 +80,7 @@ public class CartController {
      * @return Response Entity of type  CartOutputDto and the corresponding HttpStatus ;
      */
     @GetMapping("/orders/{id}")
+    @QueryBudget(statements = 1)
     public ResponseEntity<CartOutputDto> getCartById(@PathVariable Long id) {
         return ResponseEntity.ok(cartService.getCartById(id));
     }
@@ -62,6 +91,7 @@ public class CartController {
      * @return Response Entity of type UpdateStatusSto, with a message.
      */
     @PutMapping("/{id}")
+    @QueryBudget(statements = 5)
     public ResponseEntity<UpdateStatusDto> updatePurchaseOrder(@PathVariable Long id) {
         UpdateStatusDto result = cartService.updateStatusCart(id);
         return new ResponseEntity<>(result, HttpStatus.OK);
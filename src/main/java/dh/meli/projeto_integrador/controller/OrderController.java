@@ -1,13 +1,22 @@
 package dh.meli.projeto_integrador.controller;
 
 import dh.meli.projeto_integrador.dto.dtoInput.BatchDto;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import dh.meli.projeto_integrador.dto.dtoInput.OrderEntryDto;
+import dh.meli.projeto_integrador.idempotency.IdempotencyStore;
+import dh.meli.projeto_integrador.service.InboundOrderImportService;
 import dh.meli.projeto_integrador.service.OrderService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 /**
@@ -19,6 +28,8 @@ import java.util.List;
 @RequestMapping("/api/v1")
 public class OrderController {
 
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+
     /**
      * Dependency Injection of the OrderService.
      */
@@ -26,27 +37,81 @@ public class OrderController {
     private OrderService orderService;
 
     /**
-     * A post method responsible for saving a new product batch at application database's;
+     * Dependency Injection of the InboundOrderImportService.
+     */
+    @Autowired
+    private InboundOrderImportService inboundOrderImportService;
+
+    /**
+     * Dependency Injection of the ObjectMapper.
+     */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Dependency Injection of the IdempotencyStore.
+     */
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    /**
+     * A post method responsible for saving a new product batch at application database's. When an Idempotency-Key
+     * header is sent, a retry with the same key and body gets the response of the first request and the batches are
+     * created only once; the same key with another body is rejected;
      * @param orderEntryDto a valid OrderEntryDto instance received by the request body;
+     * @param idempotencyKey a String received by the Idempotency-Key header, optional;
      * @return Response Entity of type propertyDto and the corresponding HttpStatus;
      */
     @PostMapping("/fresh-products/inboundorder")
-    public ResponseEntity<List<BatchDto>> createInboundOrder(@RequestBody OrderEntryDto orderEntryDto) {
-        List<BatchDto> batchDtoList = orderService.createInboundOrder(orderEntryDto);
+    public ResponseEntity<List<BatchDto>> createInboundOrder(@RequestBody OrderEntryDto orderEntryDto,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        return idempotencyStore.execute("POST /fresh-products/inboundorder", idempotencyKey, orderEntryDto, () -> {
+            List<BatchDto> batchDtoList = orderService.createInboundOrder(orderEntryDto);
+
+            return new ResponseEntity<List<BatchDto>>(batchDtoList, HttpStatus.CREATED);
+        });
+    }
+
+    /**
+     * A post method responsible for saving many inbound orders sent as newline delimited JSON, one order per line.
+     * The orders are read while they arrive and saved in chunks, and the result of each order is written back, one
+     * per line, as soon as its chunk is committed;
+     * @param body the request body with one OrderEntryDto per line;
+     * @return Response Entity with the streamed results and the corresponding HttpStatus;
+     */
+    @PostMapping(value = "/fresh-products/inboundorder/bulk", consumes = NDJSON_VALUE, produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> createInboundOrders(InputStream body) {
+        StreamingResponseBody results = outputStream -> {
+            try (MappingIterator<OrderEntryDto> orders = objectMapper.readerFor(OrderEntryDto.class)
+                    .readValues(body)) {
+                inboundOrderImportService.importInboundOrders(orders, result -> {
+                    try {
+                        outputStream.write(objectMapper.writeValueAsBytes(result));
+                        outputStream.write('\n');
+                        outputStream.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
 
-        return new ResponseEntity<List<BatchDto>>(batchDtoList, HttpStatus.CREATED);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON_VALUE)).body(results);
     }
 
     /**
-     * A put method responsible for updating a product batch at application database's;
+     * A put method responsible for updating the product batches of an inbound order at application database's.
+     * Batches sent with a batchNumber are updated, batches without one are created and the batches of the order that
+     * are not sent are removed;
      * @param orderEntryDto a valid OrderEntryDto instance received by the request body;
      * @param id long id received by endpoint variable
-     * @return Response Entity of type BatchDto and the corresponding HttpStatus;
+     * @return Response Entity with the list of every batch of the order and the corresponding HttpStatus;
      */
     @PutMapping("/fresh-products/inboundorder/{id}")
-    public ResponseEntity<BatchDto> updateInboundOrder(@RequestBody OrderEntryDto orderEntryDto, @PathVariable Long id) {
-        BatchDto batch = orderService.updateInboundOrder(orderEntryDto, id);
+    public ResponseEntity<List<BatchDto>> updateInboundOrder(@RequestBody OrderEntryDto orderEntryDto,
+                                                             @PathVariable Long id) {
+        List<BatchDto> batches = orderService.updateInboundOrder(orderEntryDto, id);
 
-        return new ResponseEntity<BatchDto>(batch, HttpStatus.OK);
+        return new ResponseEntity<List<BatchDto>>(batches, HttpStatus.OK);
     }
 }
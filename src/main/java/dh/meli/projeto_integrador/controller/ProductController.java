@@ -1,18 +1,25 @@
 package dh.meli.projeto_integrador.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import dh.meli.projeto_integrador.dto.dtoOutput.ProductOutputDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.ProductPageDto;
 import dh.meli.projeto_integrador.dto.dtoOutput.ProductStockDto;
 import dh.meli.projeto_integrador.dto.dtoOutput.ListProductByWarehouseDto;
+import dh.meli.projeto_integrador.monitoring.QueryBudget;
 import dh.meli.projeto_integrador.service.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 /**
@@ -24,6 +31,10 @@ import java.util.List;
 @RequestMapping("/api/v1")
 public class ProductController {
 
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     /**
      * Dependency Injection of the ProductService.
      */
@@ -31,23 +42,62 @@ public class ProductController {
     private ProductService productService;
 
     /**
-     * A get method that when called will return in the body request a list of products present in the Database
+     * Dependency Injection of the ObjectMapper.
+     */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * A get method that when called will return in the body request a page of products present in the Database.
+     * Products are listed by id; when there are more products the id to be sent as cursor for the next page is
+     * returned in the X-Next-Cursor header
+     * @param cursor the X-Next-Cursor of the previous page, 0 (default) for the first page
+     * @param limit the maximum number of products of the page, capped by the configured maximum page size
      * @return Response Entity of type List of productDto and the corresponding HttpStatus ;
      */
     @GetMapping("/fresh-products")
-    public ResponseEntity<List<ProductOutputDto>> listAllProducts(){
-        return ResponseEntity.ok(productService.getAllProducts());
+    @QueryBudget(statements = 2)
+    public ResponseEntity<List<ProductOutputDto>> listAllProducts(
+            @RequestParam(required = false, defaultValue = "0") long cursor,
+            @RequestParam(required = false) Integer limit) {
+        return toPageResponse(productService.getAllProducts(cursor, limit));
     }
 
     /**
-     * A get method that when called will return in the body request a list of products of a specified category,
-     * present in the Database
+     * A get method that streams all products present in the Database as newline delimited JSON, one product per
+     * line, without loading the whole catalogue in memory
+     * @return Response Entity with the streamed body and the corresponding HttpStatus ;
+     */
+    @GetMapping(value = "/fresh-products", produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAllProducts() {
+        return toNdjsonResponse(null);
+    }
+
+    /**
+     * A get method that when called will return in the body request a page of products of a specified category,
+     * present in the Database. Paginated as listAllProducts
      * @param category a String received by the URL request to determine the type of product returned
+     * @param cursor the X-Next-Cursor of the previous page, 0 (default) for the first page
+     * @param limit the maximum number of products of the page, capped by the configured maximum page size
      * @return Response Entity of type List of productDto and the corresponding HttpStatus ;
      */
     @GetMapping("/fresh-products/{category}")
-    public ResponseEntity<List<ProductOutputDto>> listProductByCategory(@PathVariable String category) {
-        return ResponseEntity.ok(productService.getProductsByCategory(category));
+    @QueryBudget(statements = 2)
+    public ResponseEntity<List<ProductOutputDto>> listProductByCategory(
+            @PathVariable String category,
+            @RequestParam(required = false, defaultValue = "0") long cursor,
+            @RequestParam(required = false) Integer limit) {
+        return toPageResponse(productService.getProductsByCategory(category, cursor, limit));
+    }
+
+    /**
+     * A get method that streams the products of a specified category as newline delimited JSON
+     * @param category a String received by the URL request to determine the type of product returned
+     * @return Response Entity with the streamed body and the corresponding HttpStatus ;
+     */
+    @GetMapping(value = "/fresh-products/{category}", produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportProductsByCategory(@PathVariable String category) {
+        return toNdjsonResponse(category);
     }
 
     /**
@@ -56,6 +106,7 @@ public class ProductController {
      * @return Response Entity of a list which type is ListProductByWarehouseDto and the corresponding HttpStatus;
      */
     @GetMapping("/fresh-products/warehouse/product/{productId}")
+    @QueryBudget(statements = 2, entityLoads = 1)
     public ResponseEntity<ListProductByWarehouseDto> listProductByWarehouse(@PathVariable long productId) {
         ListProductByWarehouseDto listProductByWarehouseDto = productService.listProductByWarehouse(productId);
 
@@ -70,10 +121,43 @@ public class ProductController {
      * @return a list of properties for the specified product.
      */
     @GetMapping("/fresh-products/list/{id}")
+    @QueryBudget(statements = 4)
     public ResponseEntity<ProductStockDto> getProductBatches(@PathVariable long id,
                                                              @RequestParam (required = false, defaultValue = "V") Character order) {
         return ResponseEntity.ok(productService.getProductBatchProps(id, order));
         
     }
 
+    /**
+     * Method to build the response of a page of products, adding the X-Next-Cursor header when there is a next page
+     * @param page an object of type ProductPageDto
+     * @return Response Entity of type List of productDto and the corresponding HttpStatus ;
+     */
+    private static ResponseEntity<List<ProductOutputDto>> toPageResponse(ProductPageDto page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.getNextCursor()));
+        }
+
+        return response.body(page.getProducts());
+    }
+
+    /**
+     * Method to build a newline delimited JSON response that writes the products while they are read
+     * @param category a String with the product type, null for all products
+     * @return Response Entity with the streamed body and the corresponding HttpStatus ;
+     */
+    private ResponseEntity<StreamingResponseBody> toNdjsonResponse(String category) {
+        StreamingResponseBody body = outputStream -> productService.exportProducts(category, product -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(product));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON_VALUE)).body(body);
+    }
 }
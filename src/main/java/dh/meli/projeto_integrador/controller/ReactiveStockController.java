@@ -0,0 +1,99 @@
+package dh.meli.projeto_integrador.controller;
+
+import dh.meli.projeto_integrador.dto.dtoInput.CategoryDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.BatchStockDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.ListProductByWarehouseDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.ProductOutputDto;
+import dh.meli.projeto_integrador.service.ReactiveStockService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Class responsible for the non-blocking versions of the catalogue and stock queries of ProductController and
+ * BatchController. When the client accepts application/x-ndjson the lists are streamed one element per line, and each
+ * element is only read from the database when the previous one was written; otherwise they are sent as a JSON array.
+ * No servlet thread is held while the database answers.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@RestController
+@RequestMapping("/api/v1/reactive")
+public class ReactiveStockController {
+
+    /**
+     * Dependency Injection of the ReactiveStockService.
+     */
+    @Autowired
+    private ReactiveStockService reactiveStockService;
+
+    /**
+     * A get method that streams all products present in the Database, ordered by id
+     * @return Mono of the Response Entity with the stream of ProductOutputDto;
+     */
+    @GetMapping("/fresh-products")
+    public Mono<ResponseEntity<Flux<ProductOutputDto>>> listAllProducts() {
+        return toStreamResponse(reactiveStockService.streamProducts(null));
+    }
+
+    /**
+     * A get method that streams the products of a specified category, ordered by id
+     * @param category a String received by the URL request to determine the type of product returned
+     * @return Mono of the Response Entity with the stream of ProductOutputDto;
+     */
+    @GetMapping("/fresh-products/{category}")
+    public Mono<ResponseEntity<Flux<ProductOutputDto>>> listProductByCategory(@PathVariable String category) {
+        return toStreamResponse(reactiveStockService.streamProducts(category));
+    }
+
+    /**
+     * A get method responsible for listing product stock by warehouse
+     * @param productId a valid product entity identifier received by path variable;
+     * @return Mono of the ListProductByWarehouseDto;
+     */
+    @GetMapping("/fresh-products/warehouse/product/{productId}")
+    public Mono<ListProductByWarehouseDto> listProductByWarehouse(@PathVariable long productId) {
+        return reactiveStockService.listProductByWarehouse(productId);
+    }
+
+    /**
+     * A get method that streams the batch stock of a section, ordered by due date asc
+     * @param sectionId long that represents Section entity identifier
+     * @param numberOfDays of type long represents the amount of days further than now to query batchStock
+     * @return Mono of the Response Entity with the stream of BatchStockDto;
+     */
+    @GetMapping("/fresh-products/due-date/section/{sectionId}/number-of-days/{numberOfDays}")
+    public Mono<ResponseEntity<Flux<BatchStockDto>>> getBatchBySectionOrderedByDueDate(@PathVariable long sectionId,
+                                                                                       @PathVariable long numberOfDays) {
+        return toStreamResponse(reactiveStockService.streamBatchBySectionOrderedByDueDate(sectionId, numberOfDays));
+    }
+
+    /**
+     * A get method that streams the batch stock of a product type, ordered by due date asc
+     * @param numberOfDays of type long represents the amount of days further than now to query batchStock
+     * @param category String code that represents a product type attribute
+     * @return Mono of the Response Entity with the stream of BatchStockDto;
+     */
+    @GetMapping("/fresh-products/due-date/number-of-days/{numberOfDays}/category/{category}")
+    public Mono<ResponseEntity<Flux<BatchStockDto>>> getBatchByProductTypeOrderedByDueDate(
+            @PathVariable long numberOfDays,
+            @PathVariable String category) {
+        return toStreamResponse(reactiveStockService.streamBatchByProductTypeOrderedByDueDate(numberOfDays,
+                new CategoryDto(category)));
+    }
+
+    /**
+     * Method to build the response of a stream. The status is decided when the Mono completes, before the first
+     * element is written
+     * @param stream a Mono emitting the Flux to be streamed
+     * @return Mono of the Response Entity with the stream;
+     */
+    private static <T> Mono<ResponseEntity<Flux<T>>> toStreamResponse(Mono<Flux<T>> stream) {
+        return stream.map(ResponseEntity::ok);
+    }
+}
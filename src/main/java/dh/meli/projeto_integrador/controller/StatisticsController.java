@@ -0,0 +1,83 @@
+package dh.meli.projeto_integrador.controller;
+
+import dh.meli.projeto_integrador.cache.ReferenceDataCache;
+import dh.meli.projeto_integrador.cache.SellableBatchCache;
+import dh.meli.projeto_integrador.dto.dtoOutput.CacheStatisticsDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.ConflictRetryStatisticsDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.QueryStatisticsDto;
+import dh.meli.projeto_integrador.monitoring.QueryStatistics;
+import dh.meli.projeto_integrador.retry.ConflictRetryStatistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class responsible for exposing the operational statistics collected by the application;
+ * @author Diovana Valim
+ * @version 0.0.1;
+ */
+@RestController
+@RequestMapping("/api/v1/statistics")
+public class StatisticsController {
+
+    /**
+     * Dependency Injection of the ConflictRetryStatistics.
+     */
+    @Autowired
+    private ConflictRetryStatistics conflictRetryStatistics;
+
+    /**
+     * Dependency Injection of the ReferenceDataCache.
+     */
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    /**
+     * Dependency Injection of the SellableBatchCache.
+     */
+    @Autowired
+    private SellableBatchCache sellableBatchCache;
+
+    /**
+     * Dependency Injection of the QueryStatistics.
+     */
+    @Autowired
+    private QueryStatistics queryStatistics;
+
+    /**
+     * A get method responsible for listing the conflict and retry counters of the concurrent write operations
+     * @return Response Entity with a List of ConflictRetryStatisticsDto and the corresponding HttpStatus;
+     */
+    @GetMapping("/conflict-retries")
+    public ResponseEntity<List<ConflictRetryStatisticsDto>> getConflictRetryStatistics() {
+        return ResponseEntity.ok(conflictRetryStatistics.getStatistics());
+    }
+
+    /**
+     * A get method responsible for listing the size and the hit, miss and eviction counters of the reference data and
+     * sellable batch caches
+     * @return Response Entity with a List of CacheStatisticsDto and the corresponding HttpStatus;
+     */
+    @GetMapping("/caches")
+    public ResponseEntity<List<CacheStatisticsDto>> getCacheStatistics() {
+        List<CacheStatisticsDto> statistics = new ArrayList<>(referenceDataCache.getStatistics());
+        statistics.add(sellableBatchCache.getStatistics());
+
+        return ResponseEntity.ok(statistics);
+    }
+
+    /**
+     * A get method responsible for listing, per controller method, the SQL statements, rows and entity loads used by
+     * the requests and how many of them went over the declared query budget
+     * @return Response Entity with a List of QueryStatisticsDto and the corresponding HttpStatus;
+     */
+    @GetMapping("/queries")
+    public ResponseEntity<List<QueryStatisticsDto>> getQueryStatistics() {
+        return ResponseEntity.ok(queryStatistics.getStatistics());
+    }
+}
@@ -0,0 +1,36 @@
+package dh.meli.projeto_integrador.controller;
+
+import dh.meli.projeto_integrador.dto.dtoOutput.UpdateStatusDto;
+import dh.meli.projeto_integrador.service.ProductStockSummaryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Class responsible for the maintenance operations of the product stock summary;
+ * @author Diovana Valim
+ * @version 0.0.1;
+ */
+@RestController
+@RequestMapping("/api/v1/stock-summary")
+public class StockSummaryController {
+
+    /**
+     * Dependency Injection of the ProductStockSummary Service.
+     */
+    @Autowired
+    private ProductStockSummaryService productStockSummaryService;
+
+    /**
+     * A POST method responsible for recomputing the whole stock summary from the batches, e.g. after batches were
+     * loaded directly into the database
+     * @return Response Entity of type UpdateStatusDto, with the number of summary rows, and the corresponding HttpStatus;
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<UpdateStatusDto> rebuild() {
+        int rows = productStockSummaryService.rebuild();
+        return ResponseEntity.ok(new UpdateStatusDto(String.format("Stock summary rebuilt with %d rows", rows)));
+    }
+}
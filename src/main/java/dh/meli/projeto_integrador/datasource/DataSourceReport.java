@@ -0,0 +1,158 @@
+package dh.meli.projeto_integrador.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class that logs, once the application is ready, how the JDBC pool and the JPA layer are tuned, and warns about the
+ * settings that cost latency on the write paths: SQL logged by show-sql, inserts not grouped in JDBC batches, MySQL
+ * statements neither cached nor rewritten into multi-row batches, queries without a timeout, and a pool larger than
+ * the connections the server accepts or living longer than the server keeps an idle connection.
+ * With datasource.validation.fail-on-warning=true any warning stops the startup instead.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@Component
+public class DataSourceReport {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DataSourceReport.class);
+
+    /**
+     * Driver properties that must be enabled on a MySQL pool.
+     */
+    static final List<String> REQUIRED_MYSQL_PROPERTIES =
+            List.of("cachePrepStmts", "useServerPrepStmts", "rewriteBatchedStatements");
+
+    /**
+     * Dependency Injection of the DataSource.
+     */
+    @Autowired
+    private DataSource dataSource;
+
+    /**
+     * Dependency Injection of the Environment.
+     */
+    @Autowired
+    private Environment environment;
+
+    /**
+     * Stops the startup when a setting is reported as a warning.
+     */
+    @Value("${datasource.validation.fail-on-warning:false}")
+    private boolean failOnWarning;
+
+    /**
+     * Method that logs the report when the application is ready.
+     * @throws SQLException when the pool can not be unwrapped
+     * @throws IllegalStateException when a warning is found and datasource.validation.fail-on-warning is true
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() throws SQLException {
+        if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+            LOGGER.info("JDBC pool: {} is not a HikariCP pool, nothing to report", dataSource.getClass().getName());
+            return;
+        }
+
+        HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+        Map<String, Object> serverVariables = MySqlDataSourcePostProcessor.isMySql(pool.getJdbcUrl())
+                ? new JdbcTemplate(dataSource).queryForMap("SELECT @@max_connections AS max_connections, "
+                        + "@@wait_timeout AS wait_timeout")
+                : Map.of();
+
+        LOGGER.info("JDBC pool: url={}, maximumPoolSize={}, minimumIdle={}, connectionTimeout={}ms, "
+                        + "maxLifetime={}ms, idleTimeout={}ms, driverProperties={}", stripQuery(pool.getJdbcUrl()),
+                pool.getMaximumPoolSize(), pool.getMinimumIdle(), pool.getConnectionTimeout(), pool.getMaxLifetime(),
+                pool.getIdleTimeout(), pool.getDataSourceProperties());
+        LOGGER.info("JPA: show-sql={}, jdbc.batch_size={}, query.timeout={}ms, transaction.default-timeout={}, "
+                        + "server={}", showSql(), batchSize(), queryTimeout(), transactionTimeout(), serverVariables);
+
+        List<String> warnings = findWarnings(pool, serverVariables);
+
+        warnings.forEach(warning -> LOGGER.warn("JDBC tuning: {}", warning));
+
+        if (failOnWarning && !warnings.isEmpty()) {
+            throw new IllegalStateException("JDBC tuning validation failed: " + String.join("; ", warnings));
+        }
+    }
+
+    /**
+     * Method that checks the pool and the JPA settings.
+     * @param pool the HikariDataSource
+     * @param serverVariables max_connections and wait_timeout of a MySQL server, empty for other databases
+     * @return the warnings found, empty when everything is tuned
+     */
+    List<String> findWarnings(HikariDataSource pool, Map<String, Object> serverVariables) {
+        List<String> warnings = new ArrayList<>();
+
+        if (showSql()) {
+            warnings.add("spring.jpa.show-sql is true, every statement is written to the standard output");
+        }
+
+        if (batchSize() <= 1) {
+            warnings.add("hibernate.jdbc.batch_size is not set, inserts and updates are sent one by one");
+        }
+
+        if (queryTimeout() <= 0 && transactionTimeout() == null) {
+            warnings.add("no query timeout, set javax.persistence.query.timeout or spring.transaction.default-timeout");
+        }
+
+        if (MySqlDataSourcePostProcessor.isMySql(pool.getJdbcUrl())) {
+            for (String name : REQUIRED_MYSQL_PROPERTIES) {
+                if (!Boolean.parseBoolean(MySqlDataSourcePostProcessor.driverProperty(pool, name))) {
+                    warnings.add(String.format("driver property %s is not enabled", name));
+                }
+            }
+        }
+
+        Object maxConnections = serverVariables.get("max_connections");
+
+        if (maxConnections != null && pool.getMaximumPoolSize() > ((Number) maxConnections).longValue()) {
+            warnings.add(String.format("maximumPoolSize %d is over the max_connections %s of the server",
+                    pool.getMaximumPoolSize(), maxConnections));
+        }
+
+        Object waitTimeout = serverVariables.get("wait_timeout");
+
+        if (waitTimeout != null && (pool.getMaxLifetime() == 0
+                || pool.getMaxLifetime() >= ((Number) waitTimeout).longValue() * 1000)) {
+            warnings.add(String.format("maxLifetime %dms is not below the wait_timeout %ss of the server, "
+                    + "connections closed by the server stay in the pool", pool.getMaxLifetime(), waitTimeout));
+        }
+
+        return warnings;
+    }
+
+    private boolean showSql() {
+        return environment.getProperty("spring.jpa.show-sql", Boolean.class, false);
+    }
+
+    private int batchSize() {
+        return environment.getProperty("spring.jpa.properties.hibernate.jdbc.batch_size", Integer.class, 0);
+    }
+
+    private long queryTimeout() {
+        return environment.getProperty("spring.jpa.properties.javax.persistence.query.timeout", Long.class, 0L);
+    }
+
+    private String transactionTimeout() {
+        return environment.getProperty("spring.transaction.default-timeout");
+    }
+
+    private static String stripQuery(String jdbcUrl) {
+        return jdbcUrl == null || jdbcUrl.indexOf('?') < 0 ? jdbcUrl : jdbcUrl.substring(0, jdbcUrl.indexOf('?'));
+    }
+}
@@ -0,0 +1,110 @@
+package dh.meli.projeto_integrador.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Class that tunes the MySQL Connector/J driver of the HikariCP pool. Prepared statements are cached per connection
+ * and prepared once on the server, the batches of inserts and updates sent by Hibernate are rewritten into multi-row
+ * statements, and the driver stops asking the server for session state it already knows. The properties are only
+ * defaults: a value set in spring.datasource.hikari.data-source-properties or in the JDBC URL wins, and
+ * datasource.mysql.tuning.enabled=false turns the whole class off. Pools of other databases are not changed.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@Component
+@ConditionalOnProperty(name = "datasource.mysql.tuning.enabled", havingValue = "true", matchIfMissing = true)
+public class MySqlDataSourcePostProcessor implements BeanPostProcessor {
+
+    /**
+     * Driver properties added to the MySQL pools, in the order they are reported.
+     */
+    public static final Map<String, String> DRIVER_PROPERTIES = driverProperties();
+
+    private static Map<String, String> driverProperties() {
+        Map<String, String> properties = new LinkedHashMap<>();
+
+        properties.put("cachePrepStmts", "true");
+        properties.put("prepStmtCacheSize", "250");
+        properties.put("prepStmtCacheSqlLimit", "2048");
+        properties.put("useServerPrepStmts", "true");
+        properties.put("rewriteBatchedStatements", "true");
+        properties.put("useLocalSessionState", "true");
+        properties.put("cacheResultSetMetadata", "true");
+        properties.put("cacheServerConfiguration", "true");
+        properties.put("elideSetAutoCommits", "true");
+        properties.put("maintainTimeStats", "false");
+
+        return Collections.unmodifiableMap(properties);
+    }
+
+    /**
+     * Method that adds the driver properties before the pool is initialized, so the first connection already uses
+     * them.
+     * @param bean the bean being initialized
+     * @param beanName the name of the bean
+     * @return the same bean
+     */
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource && isMySql(((HikariDataSource) bean).getJdbcUrl())) {
+            tune((HikariDataSource) bean);
+        }
+        return bean;
+    }
+
+    /**
+     * Method that tells if a JDBC URL points to a MySQL server.
+     * @param jdbcUrl the JDBC URL, may be null
+     * @return true for a MySQL URL
+     */
+    public static boolean isMySql(String jdbcUrl) {
+        return jdbcUrl != null && jdbcUrl.startsWith("jdbc:mysql:");
+    }
+
+    /**
+     * Method that tells if the driver property is set in the pool or in the query string of the JDBC URL.
+     * @param dataSource the HikariDataSource
+     * @param name the name of the driver property
+     * @return the value set for the property, or null when it is not set
+     */
+    static String driverProperty(HikariDataSource dataSource, String name) {
+        String value = dataSource.getDataSourceProperties().getProperty(name);
+
+        if (value != null || dataSource.getJdbcUrl() == null) {
+            return value;
+        }
+
+        int query = dataSource.getJdbcUrl().indexOf('?');
+
+        if (query < 0) {
+            return null;
+        }
+
+        for (String parameter : dataSource.getJdbcUrl().substring(query + 1).split("&")) {
+            int equals = parameter.indexOf('=');
+
+            if (equals > 0 && parameter.substring(0, equals).equalsIgnoreCase(name)) {
+                return parameter.substring(equals + 1);
+            }
+        }
+        return null;
+    }
+
+    private static void tune(HikariDataSource dataSource) {
+        Properties properties = dataSource.getDataSourceProperties();
+
+        DRIVER_PROPERTIES.forEach((name, value) -> {
+            if (driverProperty(dataSource, name) == null) {
+                properties.setProperty(name, value);
+            }
+        });
+    }
+}
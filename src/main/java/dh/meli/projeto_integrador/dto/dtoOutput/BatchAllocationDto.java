@@ -0,0 +1,32 @@
+package dh.meli.projeto_integrador.dto.dtoOutput;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Method Getter implemented by Lombok lib for get access the private attributes of the BatchAllocationDto Class
+ */
+@Getter
+/**
+ * Method Setter implemented by Lombok lib for set the private attributes of the BatchAllocationDto Class
+ */
+@Setter
+/**
+ * Method Constructor with all arguments implemented by Lombok lib
+ */
+@AllArgsConstructor
+/**
+ * Class used to carry a batch that is candidate to fulfill a cart line, without loading the whole Batch entity
+ * @author Gabriela Azevedo
+ * @version 0.0.1
+ * @see java.lang.Object
+ */
+public class BatchAllocationDto {
+    private long batchId;
+    private int currentQuantity;
+    private long warehouseId;
+    private LocalDate dueDate;
+}
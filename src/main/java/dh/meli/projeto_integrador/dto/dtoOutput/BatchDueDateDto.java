@@ -0,0 +1,31 @@
+package dh.meli.projeto_integrador.dto.dtoOutput;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Method Getter implemented by Lombok lib for get access the private attributes of the BatchDueDateDto Class
+ */
+@Getter
+/**
+ * Method Setter implemented by Lombok lib for set the private attributes of the BatchDueDateDto Class
+ */
+@Setter
+/**
+ * Method Constructor with all arguments implemented by Lombok lib
+ */
+@AllArgsConstructor
+/**
+ * Class used to carry the due date of a batch to the DueDateIndex, without loading the whole Batch entity
+ * @author Diovana Valim
+ * @version 0.0.1
+ * @see java.lang.Object
+ */
+public class BatchDueDateDto {
+    private long batchId;
+    private long productId;
+    private LocalDate dueDate;
+}
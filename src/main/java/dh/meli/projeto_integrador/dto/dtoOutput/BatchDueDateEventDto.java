@@ -0,0 +1,26 @@
+package dh.meli.projeto_integrador.dto.dtoOutput;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * Method Getter implemented by Lombok lib for get access the private attributes of the BatchDueDateEventDto Class
+ */
+@Getter
+/**
+ * Method Constructor with all arguments implemented by Lombok lib
+ */
+@AllArgsConstructor
+/**
+ * Class used as the payload of the due date events of the batches in the outbox
+ * @author Diovana Valim
+ * @version 0.0.1
+ * @see java.lang.Object
+ */
+public class BatchDueDateEventDto {
+    private long batchId;
+    private long productId;
+    private LocalDate day;
+}
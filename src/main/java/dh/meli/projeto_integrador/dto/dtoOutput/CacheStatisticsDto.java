@@ -0,0 +1,41 @@
+package dh.meli.projeto_integrador.dto.dtoOutput;
+
+import lombok.*;
+
+/**
+ * Method Getter implemented by Lombok lib for get access the private attributes of the CacheStatisticsDto Class
+ */
+@Getter
+/**
+ * Method Setter implemented by Lombok lib for set the private attributes of the CacheStatisticsDto Class
+ */
+@Setter
+/**
+ * Method Default Constructor implemented by Lombok lib
+ */
+@NoArgsConstructor
+/**
+ * Method Constructor with all arguments implemented by Lombok lib
+ */
+@AllArgsConstructor
+/**
+ * Method builder implemented by Lombok lib
+ */
+@Builder
+/**
+ * Class used to create a Data Transfer Output Object with the size and the counters of a cache
+ * @author Diovana Valim
+ * @version 0.0.1
+ * @see java.lang.Object
+ */
+public class CacheStatisticsDto {
+    private String name;
+    private int size;
+    private int maxSize;
+    private long hits;
+    private long misses;
+    private double hitRate;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+}
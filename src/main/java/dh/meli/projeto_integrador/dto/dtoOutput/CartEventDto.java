@@ -0,0 +1,31 @@
+package dh.meli.projeto_integrador.dto.dtoOutput;
+
+import dh.meli.projeto_integrador.dto.dtoInput.ProductDto;
+import dh.meli.projeto_integrador.enumClass.PurchaseOrderStatusEnum;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Method Getter implemented by Lombok lib for get access the private attributes of the CartEventDto Class
+ */
+@Getter
+/**
+ * Method Constructor with all arguments implemented by Lombok lib
+ */
+@AllArgsConstructor
+/**
+ * Class used as the payload of the cart events of the outbox
+ * @author Diovana Valim
+ * @version 0.0.1
+ * @see java.lang.Object
+ */
+public class CartEventDto {
+    private long cartId;
+    private long buyerId;
+    private PurchaseOrderStatusEnum status;
+    private LocalDate date;
+    private List<ProductDto> products;
+}
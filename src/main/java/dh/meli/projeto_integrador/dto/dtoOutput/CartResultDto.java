@@ -0,0 +1,73 @@
+package dh.meli.projeto_integrador.dto.dtoOutput;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+/**
+ * Method Getter implemented by Lombok lib for get access the private attributes of CartResultDto Class
+ */
+@Getter
+/**
+ * Method Setter implemented by Lombok lib for set the private attributes of CartResultDto Class
+ */
+@Setter
+/**
+ * Method Default Constructor implemented by Lombok lib
+ */
+@NoArgsConstructor
+/**
+ * Method Constructor with all arguments implemented by Lombok lib
+ */
+@AllArgsConstructor
+/**
+ * Method builder implemented by Lombok lib
+ */
+@Builder
+/**
+ * Only the attributes that apply to the result are written, so an accepted cart has no message and a rejected
+ * cart has no id nor total price
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+/**
+ * Class used to create a Data Transfer Output Object for the result of each cart of a bulk purchase order
+ * @author Gabriela Azevedo
+ * @version 0.0.1
+ * @see java.lang.Object
+ */
+public class CartResultDto {
+
+    public static final String ACCEPTED = "ACCEPTED";
+
+    public static final String REJECTED = "REJECTED";
+
+    private long index;
+
+    private String status;
+
+    private Long cartId;
+
+    private Double totalPrice;
+
+    private String message;
+
+    /**
+     * Method that builds the result of a cart that was saved
+     * @param index of type long. Position of the cart in the request, starting at 1
+     * @param cartId of type long. Identifier of the saved cart
+     * @param totalPrice of type double. Total price of the cart
+     * @return an object of type CartResultDto
+     */
+    public static CartResultDto accepted(long index, long cartId, double totalPrice) {
+        return CartResultDto.builder().index(index).status(ACCEPTED).cartId(cartId).totalPrice(totalPrice).build();
+    }
+
+    /**
+     * Method that builds the result of a cart that was not saved
+     * @param index of type long. Position of the cart in the request, starting at 1
+     * @param message a String with the reason the cart was rejected
+     * @return an object of type CartResultDto
+     */
+    public static CartResultDto rejected(long index, String message) {
+        return CartResultDto.builder().index(index).status(REJECTED).message(message).build();
+    }
+}
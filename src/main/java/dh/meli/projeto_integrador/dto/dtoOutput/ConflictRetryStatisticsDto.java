@@ -0,0 +1,39 @@
+package dh.meli.projeto_integrador.dto.dtoOutput;
+
+import lombok.*;
+
+/**
+ * Method Getter implemented by Lombok lib for get access the private attributes of the ConflictRetryStatisticsDto Class
+ */
+@Getter
+/**
+ * Method Setter implemented by Lombok lib for set the private attributes of the ConflictRetryStatisticsDto Class
+ */
+@Setter
+/**
+ * Method Default Constructor implemented by Lombok lib
+ */
+@NoArgsConstructor
+/**
+ * Method Constructor with all arguments implemented by Lombok lib
+ */
+@AllArgsConstructor
+/**
+ * Method builder implemented by Lombok lib
+ */
+@Builder
+/**
+ * Class used to create a Data Transfer Output Object with the conflict and retry counters of an operation
+ * @author Diovana Valim
+ * @version 0.0.1
+ * @see java.lang.Object
+ */
+public class ConflictRetryStatisticsDto {
+    private String operation;
+    private long invocations;
+    private long conflicts;
+    private long retries;
+    private long exhausted;
+    private double conflictRate;
+    private double retryRate;
+}
@@ -0,0 +1,28 @@
+package dh.meli.projeto_integrador.dto.dtoOutput;
+
+import dh.meli.projeto_integrador.dto.dtoInput.BatchDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Method Getter implemented by Lombok lib for get access the private attributes of the InboundOrderEventDto Class
+ */
+@Getter
+/**
+ * Method Constructor with all arguments implemented by Lombok lib
+ */
+@AllArgsConstructor
+/**
+ * Class used as the payload of the inbound order events of the outbox
+ * @author Diovana Valim
+ * @version 0.0.1
+ * @see java.lang.Object
+ */
+public class InboundOrderEventDto {
+    private long orderEntryId;
+    private long sectionId;
+    private List<BatchDto> batchStock;
+    private List<Long> removedBatchIds;
+}
@@ -0,0 +1,73 @@
+package dh.meli.projeto_integrador.dto.dtoOutput;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import dh.meli.projeto_integrador.dto.dtoInput.BatchDto;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Method Getter implemented by Lombok lib for get access the private attributes of InboundOrderResultDto Class
+ */
+@Getter
+/**
+ * Method Setter implemented by Lombok lib for set the private attributes of InboundOrderResultDto Class
+ */
+@Setter
+/**
+ * Method Default Constructor implemented by Lombok lib
+ */
+@NoArgsConstructor
+/**
+ * Method Constructor with all arguments implemented by Lombok lib
+ */
+@AllArgsConstructor
+/**
+ * Method builder implemented by Lombok lib
+ */
+@Builder
+/**
+ * Only the attributes that apply to the result are written, so a created order has no message and a rejected
+ * order has no batch stock
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+/**
+ * Class used to create a Data Transfer Output Object for the result of each order of a bulk inbound order upload
+ * @author Diovana Valim
+ * @version 0.0.1
+ * @see java.lang.Object
+ */
+public class InboundOrderResultDto {
+
+    public static final String CREATED = "CREATED";
+
+    public static final String REJECTED = "REJECTED";
+
+    private long index;
+
+    private String status;
+
+    private String message;
+
+    private List<BatchDto> batchStock;
+
+    /**
+     * Method that builds the result of an order that was saved
+     * @param index of type long. Position of the order in the upload, starting at 1
+     * @param batchStock a list of objects of type BatchDto with the saved batches
+     * @return an object of type InboundOrderResultDto
+     */
+    public static InboundOrderResultDto created(long index, List<BatchDto> batchStock) {
+        return InboundOrderResultDto.builder().index(index).status(CREATED).batchStock(batchStock).build();
+    }
+
+    /**
+     * Method that builds the result of an order that was not saved
+     * @param index of type long. Position of the order in the upload, starting at 1
+     * @param message a String with the reason the order was rejected
+     * @return an object of type InboundOrderResultDto
+     */
+    public static InboundOrderResultDto rejected(long index, String message) {
+        return InboundOrderResultDto.builder().index(index).status(REJECTED).message(message).build();
+    }
+}
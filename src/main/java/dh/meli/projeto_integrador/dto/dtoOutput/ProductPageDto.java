@@ -0,0 +1,31 @@
+package dh.meli.projeto_integrador.dto.dtoOutput;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Method Getter implemented by Lombok lib for get access the private attributes of the ProductPageDto Class
+ */
+@Getter
+/**
+ * Method Setter implemented by Lombok lib for set the private attributes of the ProductPageDto Class
+ */
+@Setter
+/**
+ * Method Constructor with all arguments implemented by Lombok lib
+ */
+@AllArgsConstructor
+/**
+ * Class used to create a Data Transfer Object for a page of products. The nextCursor is the identifier of the last
+ * product of the page, or null when there are no more products to list
+ * @author Rafael Cavalcante
+ * @version 0.0.1
+ * @see java.lang.Object
+ */
+public class ProductPageDto {
+    private List<ProductOutputDto> products;
+    private Long nextCursor;
+}
@@ -0,0 +1,31 @@
+package dh.meli.projeto_integrador.dto.dtoOutput;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Method Getter implemented by Lombok lib for get access the private attributes of the
+ * ProductStockAggregateDto Class
+ */
+@Getter
+/**
+ * Method Setter implemented by Lombok lib for set the private attributes of the
+ * ProductStockAggregateDto Class
+ */
+@Setter
+/**
+ * Method Constructor with all arguments implemented by Lombok lib
+ */
+@AllArgsConstructor
+/**
+ * Class used to carry the per-product stock aggregate computed by the Batch Repository layer
+ * @author Gabriela Azevedo
+ * @version 0.0.1
+ * @see java.lang.Object
+ */
+public class ProductStockAggregateDto {
+    private long productId;
+    private long totalQuantity;
+    private long invalidDueDateBatches;
+}
@@ -0,0 +1,40 @@
+package dh.meli.projeto_integrador.dto.dtoOutput;
+
+import lombok.*;
+
+/**
+ * Method Getter implemented by Lombok lib for get access the private attributes of the QueryStatisticsDto Class
+ */
+@Getter
+/**
+ * Method Setter implemented by Lombok lib for set the private attributes of the QueryStatisticsDto Class
+ */
+@Setter
+/**
+ * Method Default Constructor implemented by Lombok lib
+ */
+@NoArgsConstructor
+/**
+ * Method Constructor with all arguments implemented by Lombok lib
+ */
+@AllArgsConstructor
+/**
+ * Method builder implemented by Lombok lib
+ */
+@Builder
+/**
+ * Class used to create a Data Transfer Output Object with the SQL statement, row and entity load counters of a controller method
+ * @author Diovana Valim
+ * @version 0.0.1
+ * @see java.lang.Object
+ */
+public class QueryStatisticsDto {
+    private String operation;
+    private long requests;
+    private long statements;
+    private long rows;
+    private long entityLoads;
+    private long maxStatements;
+    private double averageStatements;
+    private long budgetViolations;
+}
@@ -26,5 +26,5 @@ import lombok.Setter;
  */
 public class TotalProductByWarehouseDto {
     private long warehouseCode;
-    private int totalQuantity;
+    private long totalQuantity;
 }
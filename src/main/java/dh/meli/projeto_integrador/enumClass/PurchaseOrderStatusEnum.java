@@ -1,13 +1,14 @@
 package dh.meli.projeto_integrador.enumClass;
 
 /**
- * Class of type Enum for set the cart status as "OPEN" or "FINISHED"
+ * Class of type Enum for set the cart status as "OPEN", "FINISHED" or "CANCELLED", the last one for a cart whose
+ * stock admitted in memory could not be reserved
  * @author Gabriela Azevedo
  * @version 0.0.1
  * @see java.lang.Object
  */
 public enum PurchaseOrderStatusEnum {
-    OPEN("Open"), FINISHED("Finished"); // enums são constantes
+    OPEN("Open"), FINISHED("Finished"), CANCELLED("Cancelled"); // enums são constantes
 
     String statusCart;
 
@@ -0,0 +1,21 @@
+package dh.meli.projeto_integrador.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Class that extends of the RunTimeException error class. It represents the custom Exception 409 ConflictException.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConflictException extends RuntimeException {
+
+    /**
+     * Constructor method called whether an operation could not be completed because of concurrent changes.
+     * @param message custom message displayed to user by the server response.
+     */
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,22 @@
+package dh.meli.projeto_integrador.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Class that extends of the RunTimeException error class. It represents the custom Exception 422
+ * UnprocessableEntityException.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class UnprocessableEntityException extends RuntimeException {
+
+    /**
+     * Constructor method called whether a well formed request can not be processed as sent.
+     * @param message custom message displayed to user by the server response.
+     */
+    public UnprocessableEntityException(String message) {
+        super(message);
+    }
+}
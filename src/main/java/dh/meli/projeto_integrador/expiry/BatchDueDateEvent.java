@@ -0,0 +1,47 @@
+package dh.meli.projeto_integrador.expiry;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Method Getter implemented by Lombok lib for get access the private attributes of the BatchDueDateEvent Class
+ */
+@Getter
+/**
+ * Method Constructor with all arguments implemented by Lombok lib
+ */
+@AllArgsConstructor
+/**
+ * Class of the application event published by the ExpiryScheduler at each day rollover, once for the batches that
+ * can no longer be sold and once for the batches that reached their due date
+ * @author Diovana Valim
+ * @version 0.0.1
+ * @see java.lang.Object
+ */
+public class BatchDueDateEvent {
+
+    /**
+     * Stages of the life of a batch reported by the event.
+     */
+    public enum Stage {
+        /**
+         * The batch entered the due date window and can no longer be sold.
+         */
+        LEFT_SALE,
+        /**
+         * The batch reached its due date.
+         */
+        EXPIRED
+    }
+
+    private final Stage stage;
+
+    private final LocalDate day;
+
+    private final Set<Long> batchIds;
+
+    private final Set<Long> productIds;
+}
@@ -0,0 +1,111 @@
+package dh.meli.projeto_integrador.expiry;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * In-memory index of the batches by due date, with one bucket per day. The ExpiryScheduler reads the buckets of the
+ * days that entered the due date window or were reached at each day rollover, so it never scans the batches that
+ * are not affected by the rollover.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@Component
+public class DueDateIndex {
+
+    /**
+     * Buckets of the batches due on each day, as a Map of batch id to product id.
+     */
+    private final NavigableMap<LocalDate, Map<Long, Long>> buckets = new TreeMap<>();
+
+    private final Map<Long, LocalDate> dueDates = new HashMap<>();
+
+    /**
+     * Method that adds a batch to the bucket of its due date, moving it when its due date changed.
+     * @param batchId long. Batch identifier
+     * @param productId long. Product identifier
+     * @param dueDate LocalDate. Due date of the batch
+     */
+    public synchronized void put(long batchId, long productId, LocalDate dueDate) {
+        LocalDate previousDueDate = dueDates.put(batchId, dueDate);
+
+        if (previousDueDate != null && !previousDueDate.equals(dueDate)) {
+            removeFromBucket(batchId, previousDueDate);
+        }
+
+        buckets.computeIfAbsent(dueDate, day -> new HashMap<>()).put(batchId, productId);
+    }
+
+    /**
+     * Method that removes a batch from the index.
+     * @param batchId long. Batch identifier
+     */
+    public synchronized void remove(long batchId) {
+        LocalDate dueDate = dueDates.remove(batchId);
+
+        if (dueDate != null) {
+            removeFromBucket(batchId, dueDate);
+        }
+    }
+
+    /**
+     * Method that lists the batches due after a day and up to another one.
+     * @param fromExclusive LocalDate. Batches due on this day or before are not returned
+     * @param toInclusive LocalDate. Batches due after this day are not returned
+     * @return a Map of batch id to product id
+     */
+    public synchronized Map<Long, Long> findDueBetween(LocalDate fromExclusive, LocalDate toInclusive) {
+        Map<Long, Long> batches = new HashMap<>();
+
+        if (fromExclusive.isBefore(toInclusive)) {
+            buckets.subMap(fromExclusive, false, toInclusive, true).values().forEach(batches::putAll);
+        }
+
+        return batches;
+    }
+
+    /**
+     * Method that removes from the index and returns the batches due on a day or before it.
+     * @param day LocalDate. The last due date removed
+     * @return a Map of batch id to product id
+     */
+    public synchronized Map<Long, Long> pollDueUpTo(LocalDate day) {
+        Map<Long, Long> batches = new HashMap<>();
+        Iterator<Map<Long, Long>> dueBuckets = buckets.headMap(day, true).values().iterator();
+
+        while (dueBuckets.hasNext()) {
+            Map<Long, Long> bucket = dueBuckets.next();
+            bucket.keySet().forEach(dueDates::remove);
+            batches.putAll(bucket);
+            dueBuckets.remove();
+        }
+
+        return batches;
+    }
+
+    /**
+     * Method to read the number of indexed batches.
+     * @return the number of batches in the index
+     */
+    public synchronized int size() {
+        return dueDates.size();
+    }
+
+    private void removeFromBucket(long batchId, LocalDate dueDate) {
+        Map<Long, Long> bucket = buckets.get(dueDate);
+
+        if (bucket != null) {
+            bucket.remove(batchId);
+
+            if (bucket.isEmpty()) {
+                buckets.remove(dueDate);
+            }
+        }
+    }
+}
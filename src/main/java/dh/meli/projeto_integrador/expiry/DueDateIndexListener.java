@@ -0,0 +1,65 @@
+package dh.meli.projeto_integrador.expiry;
+
+import dh.meli.projeto_integrador.model.Batch;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * JPA entity listener that keeps the DueDateIndex in step with the batches. Changes made inside a transaction are
+ * applied to the index only after it commits, so a rolled back inbound order never shows up in the index.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+public class DueDateIndexListener {
+
+    /**
+     * Dependency Injection of the DueDateIndex.
+     */
+    @Autowired
+    private DueDateIndex dueDateIndex;
+
+    /**
+     * Method called by JPA after a batch is inserted or updated.
+     * @param batch the changed batch
+     */
+    @PostPersist
+    @PostUpdate
+    public void put(Batch batch) {
+        if (batch.getProduct() != null && batch.getDueDate() != null) {
+            long batchId = batch.getId();
+            long productId = batch.getProduct().getId();
+
+            afterCommit(() -> dueDateIndex.put(batchId, productId, batch.getDueDate()));
+        }
+    }
+
+    /**
+     * Method called by JPA after a batch is removed.
+     * @param batch the removed batch
+     */
+    @PostRemove
+    public void remove(Batch batch) {
+        long batchId = batch.getId();
+
+        afterCommit(() -> dueDateIndex.remove(batchId));
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,139 @@
+package dh.meli.projeto_integrador.expiry;
+
+import dh.meli.projeto_integrador.cache.SellableBatches;
+import dh.meli.projeto_integrador.monitoring.BusinessMetrics;
+import dh.meli.projeto_integrador.repository.IBatchRepository;
+import dh.meli.projeto_integrador.service.OutboxService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Map;
+
+/**
+ * Class that reacts to the due dates of the batches. At each day rollover it reads from the DueDateIndex the batches
+ * that entered the due date window, so they can no longer be sold, and the batches that reached their due date. Each
+ * batch is recorded in the outbox, as a BATCH_LEFT_SALE or BATCH_EXPIRED event, for the consumers outside the
+ * application, and a BatchDueDateEvent is published in-process for each group. Sellability itself is not stored: the request paths already filter
+ * by due date through an index, and the cached sellable batches move to the new day in memory.
+ * Section loads and the stock summary are not changed, since expired batches keep their place in the section until
+ * an agent removes them, and the stock summary is already kept per due date.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@Component
+public class ExpiryScheduler {
+
+    private final IBatchRepository batchRepository;
+
+    private final DueDateIndex dueDateIndex;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final BusinessMetrics businessMetrics;
+
+    private final OutboxService outboxService;
+
+    private final TransactionTemplate transaction;
+
+    private final Clock clock;
+
+    private LocalDate lastRolledDay;
+
+    /**
+     * Constructor of the scheduler used by the application, that reads the day from the system clock.
+     * @param batchRepository the Batch Repository, read once to fill the index
+     * @param dueDateIndex the DueDateIndex
+     * @param eventPublisher the ApplicationEventPublisher of the application
+     * @param businessMetrics the BusinessMetrics
+     * @param outboxService the OutboxService, that records the events of the batches
+     * @param transactionManager the PlatformTransactionManager, that runs the transaction of the outbox events
+     */
+    @Autowired
+    public ExpiryScheduler(IBatchRepository batchRepository, DueDateIndex dueDateIndex,
+                           ApplicationEventPublisher eventPublisher, BusinessMetrics businessMetrics,
+                           OutboxService outboxService, PlatformTransactionManager transactionManager) {
+        this(batchRepository, dueDateIndex, eventPublisher, businessMetrics, outboxService, transactionManager,
+                Clock.systemDefaultZone());
+    }
+
+    ExpiryScheduler(IBatchRepository batchRepository, DueDateIndex dueDateIndex,
+                    ApplicationEventPublisher eventPublisher, BusinessMetrics businessMetrics,
+                    OutboxService outboxService, PlatformTransactionManager transactionManager, Clock clock) {
+        this.batchRepository = batchRepository;
+        this.dueDateIndex = dueDateIndex;
+        this.eventPublisher = eventPublisher;
+        this.businessMetrics = businessMetrics;
+        this.outboxService = outboxService;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+    }
+
+    /**
+     * Method that fills the index with the batches not yet due when the application starts. Later changes reach the
+     * index through the DueDateIndexListener.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void loadIndex() {
+        LocalDate today = LocalDate.now(clock);
+
+        batchRepository.findBatchDueDatesAfter(today).forEach(batch ->
+                dueDateIndex.put(batch.getBatchId(), batch.getProductId(), batch.getDueDate()));
+
+        lastRolledDay = today;
+    }
+
+    /**
+     * Method run by the scheduler at each day rollover.
+     */
+    @Scheduled(cron = "${expiry.cron:0 0 0 * * *}")
+    public void rollOver() {
+        rollOver(LocalDate.now(clock));
+    }
+
+    /**
+     * Method that publishes the batches that left sale and the batches that expired since the last rollover. Days
+     * missed while the application was down, or by a late run, are covered by the same run. The index only moves to
+     * the new day once the outbox events are committed, so a failed run is repeated whole by the next one.
+     * @param today LocalDate. The day the application rolled over to
+     */
+    public synchronized void rollOver(LocalDate today) {
+        if (lastRolledDay == null || !today.isAfter(lastRolledDay)) {
+            return;
+        }
+
+        Map<Long, Long> leftSale = dueDateIndex.findDueBetween(
+                lastRolledDay.plusDays(SellableBatches.MINIMUM_DAYS_TO_DUE_DATE),
+                today.plusDays(SellableBatches.MINIMUM_DAYS_TO_DUE_DATE));
+        Map<Long, Long> expired = dueDateIndex.findDueBetween(LocalDate.MIN, today);
+
+        transaction.executeWithoutResult(status -> {
+            outboxService.batchesLeftSale(today, leftSale);
+            outboxService.batchesExpired(today, expired);
+        });
+
+        dueDateIndex.pollDueUpTo(today);
+        lastRolledDay = today;
+
+        publish(BatchDueDateEvent.Stage.LEFT_SALE, today, leftSale);
+        businessMetrics.recordBatchesLeftSale(leftSale.size());
+
+        publish(BatchDueDateEvent.Stage.EXPIRED, today, expired);
+        businessMetrics.recordBatchesExpired(expired.size());
+    }
+
+    private void publish(BatchDueDateEvent.Stage stage, LocalDate today, Map<Long, Long> batches) {
+        if (!batches.isEmpty()) {
+            eventPublisher.publishEvent(new BatchDueDateEvent(stage, today, new HashSet<>(batches.keySet()),
+                    new HashSet<>(batches.values())));
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package dh.meli.projeto_integrador.handler;
 
 import dh.meli.projeto_integrador.exception.*;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -83,4 +85,58 @@ public class ErrorHandler {
                 .build(),
                 HttpStatus.BAD_REQUEST);
     }
+
+    /**
+     * Method that captures a ConflictException and build a response to send through HTTP request.
+     * @param e instance of ConflictException class captured during the code execution flow.
+     * @return a ResponseEntity containing details of the exception and a compatible HTTP status code.
+     */
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ExceptionDetails> conflictExceptionHandler(ConflictException e) {
+        return new ResponseEntity<ExceptionDetails>(ExceptionDetails
+                .builder()
+                .title("Conflict")
+                .status(HttpStatus.CONFLICT.value())
+                .message(e.getMessage())
+                .timestamp(LocalDateTime.now())
+                .build(),
+                HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Method that captures a UnprocessableEntityException and build a response to send through HTTP request.
+     * @param e instance of UnprocessableEntityException class captured during the code execution flow.
+     * @return a ResponseEntity containing details of the exception and a compatible HTTP status code.
+     */
+    @ExceptionHandler(UnprocessableEntityException.class)
+    public ResponseEntity<ExceptionDetails> unprocessableEntityExceptionHandler(UnprocessableEntityException e) {
+        return new ResponseEntity<ExceptionDetails>(ExceptionDetails
+                .builder()
+                .title("Unprocessable Entity")
+                .status(HttpStatus.UNPROCESSABLE_ENTITY.value())
+                .message(e.getMessage())
+                .timestamp(LocalDateTime.now())
+                .build(),
+                HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    /**
+     * Method that captures a TaskRejectedException, thrown when the thread pool of the NDJSON streams and its queue
+     * are full, and build a response to send through HTTP request. The content type is set because the client of a
+     * stream accepts only NDJSON.
+     * @param e instance of TaskRejectedException class captured during the code execution flow.
+     * @return a ResponseEntity containing details of the exception and a compatible HTTP status code.
+     */
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<ExceptionDetails> taskRejectedExceptionHandler(TaskRejectedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ExceptionDetails
+                        .builder()
+                        .title("Service Unavailable")
+                        .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                        .message("Too many streams in progress, try again later")
+                        .timestamp(LocalDateTime.now())
+                        .build());
+    }
 }
@@ -0,0 +1,390 @@
+package dh.meli.projeto_integrador.hotstock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class that keeps in memory the sellable stock of the hot products, the ones a promotion sends thousands of carts to
+ * at once. The stock of each product is striped in one counter per warehouse, and a cart takes its quantity from the
+ * stripes with compare-and-set decrements, starting at a random stripe so concurrent carts spread over them; no lock
+ * is taken and no query is run to admit the cart.
+ * The database stays the source of truth. The counters are seeded from the stock summary by the HotStockReconciler,
+ * which also reserves the batches of the admitted carts in the background and reseeds a product after every change
+ * to its stock. The quantity admitted in memory and not yet reserved is the pending quantity of the product; it is
+ * capped by hot-stock.max-pending-quantity, which bounds how much can be oversold when the counters are ahead of the
+ * database. Over the cap the cart still takes its quantity from the counters but reserves its batches synchronously.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@Component
+public class HotStockCounters {
+
+    private final boolean enabled;
+
+    private final Set<Long> hotProductIds;
+
+    private final long maxPendingQuantity;
+
+    private final Map<Long, ProductCounter> counters = new ConcurrentHashMap<>();
+
+    private final Set<Long> changedProductIds = ConcurrentHashMap.newKeySet();
+
+    private final Queue<List<Long>> pendingCarts = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Constructor of the counters.
+     * @param enabled boolean. Turns the in-memory admission on
+     * @param hotProductIds a Set of Long with the identifiers of the hot products
+     * @param maxPendingQuantity long. Maximum quantity of a product admitted in memory and not yet reserved
+     */
+    @Autowired
+    public HotStockCounters(@Value("${hot-stock.enabled:false}") boolean enabled,
+                            @Value("${hot-stock.product-ids:}") Set<Long> hotProductIds,
+                            @Value("${hot-stock.max-pending-quantity:1000}") long maxPendingQuantity) {
+        this.enabled = enabled;
+        this.hotProductIds = Set.copyOf(hotProductIds);
+        this.maxPendingQuantity = maxPendingQuantity;
+    }
+
+    /**
+     * Method that tells if the in-memory admission is turned on.
+     * @return true when it is turned on
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Method to read the configured hot products.
+     * @return a Set of Long with the product identifiers
+     */
+    public Set<Long> getHotProductIds() {
+        return hotProductIds;
+    }
+
+    /**
+     * Method that tells if the stock of a product is admitted in memory. A hot product is only admitted once its
+     * counters were seeded.
+     * @param productId long. Product identifier
+     * @return true when the product is hot and seeded
+     */
+    public boolean isHot(long productId) {
+        return enabled && hotProductIds.contains(productId) && counters.containsKey(productId);
+    }
+
+    /**
+     * Method that takes the demanded quantity of every product from its counters, or of none of them. Inside a
+     * transaction the quantities are given back if it rolls back.
+     * @param demand a Map of product id to the quantity demanded
+     * @return a Set of Long with the products that do not have enough stock, empty when every quantity was taken
+     */
+    public Set<Long> acquire(Map<Long, Long> demand) {
+        Map<Long, Long> acquired = new HashMap<>();
+        Set<Long> rejected = new HashSet<>();
+
+        demand.forEach((productId, quantity) -> {
+            if (counters.get(productId).tryAcquire(quantity)) {
+                acquired.put(productId, quantity);
+            } else {
+                rejected.add(productId);
+            }
+        });
+
+        if (!rejected.isEmpty()) {
+            release(acquired);
+            return rejected;
+        }
+
+        afterRollback(() -> release(acquired));
+
+        return rejected;
+    }
+
+    /**
+     * Method that adds the demanded quantities to the pending quantity of their products, so their batches are
+     * reserved later, if none of the products goes over the cap. Inside a transaction the quantities are removed
+     * again if it rolls back.
+     * @param demand a Map of product id to the quantity demanded
+     * @return true when the batches can be reserved later, false when they must be reserved now
+     */
+    public boolean defer(Map<Long, Long> demand) {
+        Map<Long, Long> deferred = new HashMap<>();
+
+        for (Map.Entry<Long, Long> entry : demand.entrySet()) {
+            if (!counters.get(entry.getKey()).tryAddPending(entry.getValue(), maxPendingQuantity)) {
+                settle(deferred);
+                return false;
+            }
+            deferred.put(entry.getKey(), entry.getValue());
+        }
+
+        afterRollback(() -> settle(deferred));
+
+        return true;
+    }
+
+    /**
+     * Method that queues the lines of a cart whose batches are reserved later. Inside a transaction they are only
+     * queued once it commits.
+     * @param productCartIds a List of Long with the identifiers of the cart lines
+     */
+    public void enqueue(List<Long> productCartIds) {
+        afterCommit(() -> pendingCarts.add(List.copyOf(productCartIds)));
+    }
+
+    /**
+     * Method that takes queued carts until their lines reach the given number.
+     * @param maxLines int. Number of lines after which no other cart is taken
+     * @return a List of the carts taken, each one a List with the identifiers of its lines
+     */
+    public List<List<Long>> pollPendingCarts(int maxLines) {
+        List<List<Long>> carts = new ArrayList<>();
+        int lines = 0;
+
+        while (lines < maxLines) {
+            List<Long> cart = pendingCarts.poll();
+
+            if (cart == null) {
+                break;
+            }
+            carts.add(cart);
+            lines += cart.size();
+        }
+
+        return carts;
+    }
+
+    /**
+     * Method that puts carts back at the end of the queue, when their reservation must be tried again.
+     * @param carts a Collection of carts, each one a List with the identifiers of its lines
+     */
+    public void requeue(Collection<List<Long>> carts) {
+        pendingCarts.addAll(carts);
+    }
+
+    /**
+     * Method that adds to the pending quantity of their products the quantities of carts queued again at startup.
+     * @param quantities a Map of product id to quantity
+     */
+    public void addPending(Map<Long, Long> quantities) {
+        quantities.forEach((productId, quantity) -> {
+            ProductCounter counter = counters.get(productId);
+
+            if (counter != null) {
+                counter.pending.addAndGet(quantity);
+            }
+        });
+    }
+
+    /**
+     * Method that removes reserved or cancelled quantities from the pending quantity of their products.
+     * @param quantities a Map of product id to quantity
+     */
+    public void settle(Map<Long, Long> quantities) {
+        quantities.forEach((productId, quantity) -> {
+            ProductCounter counter = counters.get(productId);
+
+            if (counter != null) {
+                counter.pending.addAndGet(-quantity);
+            }
+        });
+    }
+
+    /**
+     * Method that marks the stock of products as changed in the database, so the reconciler reseeds their counters.
+     * Inside a transaction they are only marked once it commits.
+     * @param productIds a Collection of Long with the product identifiers
+     */
+    public void markChanged(Collection<Long> productIds) {
+        if (!enabled) {
+            return;
+        }
+
+        Set<Long> hotChanged = new HashSet<>(productIds);
+        hotChanged.retainAll(hotProductIds);
+
+        if (!hotChanged.isEmpty()) {
+            afterCommit(() -> changedProductIds.addAll(hotChanged));
+        }
+    }
+
+    /**
+     * Method that takes the products marked as changed since the last call.
+     * @return a Set of Long with the product identifiers
+     */
+    public Set<Long> pollChangedProducts() {
+        Set<Long> changed = new HashSet<>(changedProductIds);
+        changedProductIds.removeAll(changed);
+        return changed;
+    }
+
+    /**
+     * Method that moves the counters of a product to the stock sellable in the database less its pending quantity.
+     * The stripes are moved with atomic additions, so a concurrent cart still takes its quantity from them.
+     * @param productId long. Product identifier
+     * @param sellableByWarehouse a Map of warehouse id to the quantity sellable in the database
+     */
+    public void reseed(long productId, Map<Long, Long> sellableByWarehouse) {
+        ProductCounter counter = counters.computeIfAbsent(productId, id -> new ProductCounter());
+        long pending = counter.pending.get();
+
+        for (Map.Entry<Long, Long> entry : new TreeMap<>(sellableByWarehouse).entrySet()) {
+            long target = Math.max(0, entry.getValue() - pending);
+            pending -= entry.getValue() - target;
+
+            AtomicLong stripe = counter.stripe(entry.getKey());
+            stripe.addAndGet(target - stripe.get());
+        }
+
+        counter.stripes.forEach((warehouseId, stripe) -> {
+            if (!sellableByWarehouse.containsKey(warehouseId)) {
+                stripe.addAndGet(-stripe.get());
+            }
+        });
+    }
+
+    /**
+     * Method to read the quantity of a product still available in memory.
+     * @param productId long. Product identifier
+     * @return the sum of the stripes of the product, 0 when it is not seeded
+     */
+    public long getAvailable(long productId) {
+        ProductCounter counter = counters.get(productId);
+        return counter == null ? 0 : Arrays.stream(counter.stripeArray).mapToLong(AtomicLong::get).sum();
+    }
+
+    /**
+     * Method to read the quantity of a product admitted in memory and not yet reserved.
+     * @param productId long. Product identifier
+     * @return the pending quantity of the product, 0 when it is not seeded
+     */
+    public long getPending(long productId) {
+        ProductCounter counter = counters.get(productId);
+        return counter == null ? 0 : counter.pending.get();
+    }
+
+    private void release(Map<Long, Long> quantities) {
+        quantities.forEach((productId, quantity) -> counters.get(productId).release(quantity));
+    }
+
+    private static void afterRollback(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        change.run();
+                    }
+                }
+            });
+        }
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    /**
+     * The counters of a single product: one stripe per warehouse and the pending quantity.
+     */
+    private static final class ProductCounter {
+
+        private final Map<Long, AtomicLong> stripes = new ConcurrentHashMap<>();
+
+        private volatile AtomicLong[] stripeArray = new AtomicLong[0];
+
+        private final AtomicLong pending = new AtomicLong();
+
+        private synchronized AtomicLong stripe(long warehouseId) {
+            AtomicLong stripe = stripes.get(warehouseId);
+
+            if (stripe == null) {
+                stripe = new AtomicLong();
+                stripes.put(warehouseId, stripe);
+                stripeArray = stripes.values().toArray(new AtomicLong[0]);
+            }
+            return stripe;
+        }
+
+        private boolean tryAcquire(long quantity) {
+            AtomicLong[] current = stripeArray;
+
+            if (current.length == 0) {
+                return false;
+            }
+
+            long[] taken = new long[current.length];
+            long remaining = quantity;
+            int start = ThreadLocalRandom.current().nextInt(current.length);
+
+            for (int i = 0; i < current.length && remaining > 0; i++) {
+                int index = (start + i) % current.length;
+                AtomicLong stripe = current[index];
+                long available = stripe.get();
+
+                while (available > 0 && remaining > 0) {
+                    long quantityTaken = Math.min(available, remaining);
+
+                    if (stripe.compareAndSet(available, available - quantityTaken)) {
+                        taken[index] += quantityTaken;
+                        remaining -= quantityTaken;
+                    }
+                    available = stripe.get();
+                }
+            }
+
+            if (remaining > 0) {
+                for (int i = 0; i < current.length; i++) {
+                    current[i].addAndGet(taken[i]);
+                }
+                return false;
+            }
+            return true;
+        }
+
+        private void release(long quantity) {
+            AtomicLong[] current = stripeArray;
+            current[ThreadLocalRandom.current().nextInt(current.length)].addAndGet(quantity);
+        }
+
+        private boolean tryAddPending(long quantity, long maxPendingQuantity) {
+            long current = pending.get();
+
+            while (current + quantity <= maxPendingQuantity) {
+                if (pending.compareAndSet(current, current + quantity)) {
+                    return true;
+                }
+                current = pending.get();
+            }
+            return false;
+        }
+    }
+}
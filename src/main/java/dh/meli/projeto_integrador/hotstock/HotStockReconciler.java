@@ -0,0 +1,321 @@
+package dh.meli.projeto_integrador.hotstock;
+
+import dh.meli.projeto_integrador.enumClass.PurchaseOrderStatusEnum;
+import dh.meli.projeto_integrador.exception.ConflictException;
+import dh.meli.projeto_integrador.exception.ForbiddenException;
+import dh.meli.projeto_integrador.expiry.BatchDueDateEvent;
+import dh.meli.projeto_integrador.model.Cart;
+import dh.meli.projeto_integrador.model.ProductCart;
+import dh.meli.projeto_integrador.monitoring.BusinessMetrics;
+import dh.meli.projeto_integrador.repository.ICartRepository;
+import dh.meli.projeto_integrador.repository.IProductCartRepository;
+import dh.meli.projeto_integrador.repository.IProductStockSummaryRepository;
+import dh.meli.projeto_integrador.service.OutboxService;
+import dh.meli.projeto_integrador.service.StockReservationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Class that keeps the HotStockCounters in step with the database. It seeds the counters of the hot products when the
+ * application starts, reserves in the background, in small batches, the batches of the carts admitted in memory, and
+ * reseeds a product after every change to its stock: reservations, inbound orders and batches leaving sale at the day
+ * rollover. Reserving many carts at once decrements each batch once for all of them.
+ * A batch of carts the database can not cover is reserved again cart by cart, and the carts that still can not be
+ * reserved are cancelled. The lines of admitted carts are flagged in the database until reserved, so the carts queued
+ * when the application stops are queued again when it starts.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@Component
+public class HotStockReconciler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HotStockReconciler.class);
+
+    /**
+     * Dependency Injection of the HotStockCounters.
+     */
+    @Autowired
+    private HotStockCounters hotStockCounters;
+
+    /**
+     * Dependency Injection of the StockReservation Service.
+     */
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    /**
+     * Dependency Injection of the ProductCart Repository.
+     */
+    @Autowired
+    private IProductCartRepository productCartRepository;
+
+    /**
+     * Dependency Injection of the Cart Repository.
+     */
+    @Autowired
+    private ICartRepository cartRepository;
+
+    /**
+     * Dependency Injection of the ProductStockSummary Repository.
+     */
+    @Autowired
+    private IProductStockSummaryRepository productStockSummaryRepository;
+
+    /**
+     * Dependency Injection of the Outbox Service.
+     */
+    @Autowired
+    private OutboxService outboxService;
+
+    /**
+     * Dependency Injection of the BusinessMetrics.
+     */
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
+    /**
+     * Dependency Injection of the Transaction Manager.
+     */
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Number of cart lines reserved in each transaction.
+     */
+    @Value("${hot-stock.reconcile-batch-size:100}")
+    private int batchSize;
+
+    /**
+     * Method that seeds the counters of the hot products and queues again the carts left pending by the last run.
+     * The counters are seeded a second time once the pending quantities of those carts are known.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!hotStockCounters.isEnabled()) {
+            return;
+        }
+
+        hotStockCounters.getHotProductIds().forEach(this::reseed);
+
+        List<Long> pendingIds = productCartRepository.findStockPendingIds();
+
+        for (int i = 0; i < pendingIds.size(); i += batchSize) {
+            List<ProductCart> lines = productCartRepository.findWithCartAndProductByIdIn(
+                    pendingIds.subList(i, Math.min(i + batchSize, pendingIds.size())));
+
+            lines.stream()
+                    .collect(Collectors.groupingBy(line -> line.getCart().getId(), TreeMap::new,
+                            Collectors.mapping(ProductCart::getId, Collectors.toList())))
+                    .values()
+                    .forEach(hotStockCounters::enqueue);
+            hotStockCounters.addPending(demandOf(lines));
+        }
+
+        if (!pendingIds.isEmpty()) {
+            LOGGER.info("{} hot stock cart lines queued again for reservation", pendingIds.size());
+            hotStockCounters.getHotProductIds().forEach(this::reseed);
+        }
+    }
+
+    /**
+     * Method run by the scheduler that reserves the batches of every queued cart and reseeds the changed products.
+     * A run stops early when a batch of carts has to be tried again, so it does not spin on a failing database.
+     * @return the number of cart lines reserved
+     */
+    @Scheduled(fixedDelayString = "${hot-stock.reconcile-delay-ms:100}")
+    public synchronized int reconcile() {
+        if (!hotStockCounters.isEnabled()) {
+            return 0;
+        }
+
+        int reserved = 0;
+        List<List<Long>> carts;
+
+        do {
+            carts = hotStockCounters.pollPendingCarts(batchSize);
+            int lines = carts.isEmpty() ? 0 : reserve(carts);
+
+            hotStockCounters.pollChangedProducts().forEach(this::reseed);
+
+            if (lines < 0) {
+                break;
+            }
+            reserved += lines;
+        } while (!carts.isEmpty());
+
+        return reserved;
+    }
+
+    /**
+     * Method that reseeds the counters of the products whose batches left sale at the day rollover.
+     * @param event the BatchDueDateEvent published by the ExpiryScheduler
+     */
+    @EventListener
+    public void onBatchDueDate(BatchDueDateEvent event) {
+        hotStockCounters.markChanged(event.getProductIds());
+    }
+
+    /**
+     * Method that reserves the batches of a batch of carts in a single transaction.
+     * @param carts the carts, each one a List with the identifiers of its lines
+     * @return the number of cart lines reserved, -1 when some carts were queued again
+     */
+    private int reserve(List<List<Long>> carts) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        try {
+            List<ProductCart> lines = transaction.execute(status -> reserveLines(carts.stream()
+                    .flatMap(Collection::stream)
+                    .collect(Collectors.toList())));
+
+            hotStockCounters.settle(demandOf(lines));
+            return lines.size();
+        } catch (ForbiddenException e) {
+            // Some product was oversold: only the carts the database can not cover are cancelled
+            int reserved = 0;
+            boolean requeued = false;
+
+            for (List<Long> cart : carts) {
+                int lines = reserveOrCancel(transaction, cart);
+                requeued |= lines < 0;
+                reserved += Math.max(lines, 0);
+            }
+            return requeued ? -1 : reserved;
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not reserve {} hot stock carts, retrying later: {}", carts.size(), e.getMessage());
+            hotStockCounters.requeue(carts);
+            return -1;
+        }
+    }
+
+    private int reserveOrCancel(TransactionTemplate transaction, List<Long> cart) {
+        try {
+            List<ProductCart> lines = transaction.execute(status -> reserveLines(cart));
+
+            hotStockCounters.settle(demandOf(lines));
+            return lines.size();
+        } catch (ForbiddenException e) {
+            List<ProductCart> lines = transaction.execute(status -> cancel(cart));
+
+            hotStockCounters.settle(demandOf(lines));
+            return 0;
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not reserve hot stock cart lines {}, retrying later: {}", cart, e.getMessage());
+            hotStockCounters.requeue(List.of(cart));
+            return -1;
+        }
+    }
+
+    /**
+     * Method that claims the lines still flagged as pending and reserves their batches. Lines already reserved or
+     * cancelled, by this or another instance, are skipped, so a cart queued twice is never reserved twice.
+     * @param productCartIds a List of Long with the identifiers of the cart lines
+     * @return every line given, so the pending quantity of the skipped ones is settled as well
+     */
+    private List<ProductCart> reserveLines(List<Long> productCartIds) {
+        List<ProductCart> lines = productCartRepository.findWithCartAndProductByIdIn(productCartIds);
+        List<ProductCart> pendingLines = claim(lines);
+
+        if (!pendingLines.isEmpty()) {
+            stockReservationService.reserve(pendingLines);
+        }
+
+        return lines;
+    }
+
+    private List<ProductCart> cancel(List<Long> productCartIds) {
+        List<ProductCart> lines = productCartRepository.findWithCartAndProductByIdIn(productCartIds);
+
+        if (claim(lines).isEmpty()) {
+            return lines;
+        }
+
+        Cart cart = lines.get(0).getCart();
+
+        if (cart.getStatus() != PurchaseOrderStatusEnum.OPEN) {
+            // A cart with pending lines can not be finished, so this is never expected; the cart is left untouched
+            LOGGER.error("Cart {} is {} and its stock could not be reserved, it was not cancelled",
+                    cart.getId(), cart.getStatus());
+            return lines;
+        }
+
+        cart.setStatus(PurchaseOrderStatusEnum.CANCELLED);
+        cartRepository.save(cart);
+        outboxService.cartCancelled(cart);
+        businessMetrics.recordCartCancelled();
+
+        LOGGER.warn("Cart {} cancelled: the stock admitted in memory could not be reserved", cart.getId());
+
+        return lines;
+    }
+
+    /**
+     * Method that claims the lines still flagged as pending. When another instance claimed some of them first the
+     * transaction is rolled back and the cart tried again, to be skipped once that instance committed.
+     * @param lines the cart lines, as loaded
+     * @return the lines claimed
+     * @throws ConflictException when a line flagged as pending was claimed concurrently
+     */
+    private List<ProductCart> claim(List<ProductCart> lines) {
+        List<ProductCart> pendingLines = lines.stream()
+                .filter(ProductCart::isStockPending)
+                .collect(Collectors.toList());
+
+        if (pendingLines.isEmpty()) {
+            return pendingLines;
+        }
+
+        List<Long> ids = pendingLines.stream().map(ProductCart::getId).collect(Collectors.toList());
+
+        if (productCartRepository.claimStockPending(ids) != ids.size()) {
+            throw new ConflictException("Hot stock cart lines were claimed by another instance");
+        }
+
+        return pendingLines;
+    }
+
+    /**
+     * Method that reads from the stock summary the stock of a product that can still be sold and reseeds its
+     * counters. As in the database path, a product with stock inside the due date window can not be sold at all.
+     * @param productId long. Product identifier
+     */
+    private void reseed(long productId) {
+        LocalDate minimumDueDate = LocalDate.now().plusDays(21);
+        Map<Long, Long> sellableByWarehouse = new LinkedHashMap<>();
+
+        productStockSummaryRepository.findSellableQuantityByWarehouse(productId, minimumDueDate)
+                .forEach(stock -> sellableByWarehouse.put(stock.getWarehouseCode(), stock.getTotalQuantity()));
+
+        boolean invalidDueDate = productStockSummaryRepository
+                .findStockAggregateByProductIds(Set.of(productId), minimumDueDate).stream()
+                .anyMatch(stock -> stock.getInvalidDueDateBatches() > 0);
+
+        if (invalidDueDate) {
+            sellableByWarehouse.replaceAll((warehouseId, quantity) -> 0L);
+        }
+
+        hotStockCounters.reseed(productId, sellableByWarehouse);
+    }
+
+    private static Map<Long, Long> demandOf(List<ProductCart> lines) {
+        return lines.stream().collect(Collectors.groupingBy(line -> line.getProduct().getId(),
+                Collectors.summingLong(ProductCart::getQuantity)));
+    }
+}
@@ -0,0 +1,218 @@
+package dh.meli.projeto_integrador.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dh.meli.projeto_integrador.exception.ConflictException;
+import dh.meli.projeto_integrador.exception.InternalServerErrorException;
+import dh.meli.projeto_integrador.exception.InvalidParameterTypeException;
+import dh.meli.projeto_integrador.exception.UnprocessableEntityException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * In-memory store of the responses of the POST requests sent with an Idempotency-Key header. The first request with
+ * a key runs the operation and its response is kept for a fixed time to live; a replay of the key gets the stored
+ * response without running the operation again, and a replay that arrives while the first request is still running
+ * waits for its response instead of racing it.
+ * Only successful responses are kept: when the operation fails the waiting replays get the same exception and the
+ * key is released, so the client can retry it.
+ * The key is bound to a SHA-256 hash of the request body: a replay with a different body is rejected with 422 instead
+ * of getting the response of another request, so a reused or guessed key does not hand out someone else's response.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@Component
+public class IdempotencyStore {
+
+    /**
+     * Name of the request header that carries the idempotency key.
+     */
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final ConcurrentHashMap<String, Execution> executions = new ConcurrentHashMap<>();
+
+    /**
+     * Completed executions in completion order. The time to live is the same for every key, so the oldest ones are
+     * always at the head.
+     */
+    private final Queue<Execution> completed = new ConcurrentLinkedQueue<>();
+
+    private final int maxSize;
+
+    private final long ttlNanos;
+
+    private final long inFlightTimeoutMs;
+
+    private final LongSupplier nanoClock;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructor of the store used by the application, that measures the time to live with System.nanoTime.
+     * @param maxSize int. Maximum number of stored responses
+     * @param ttlSeconds long. Seconds a response is kept after the operation completes
+     * @param inFlightTimeoutMs long. Milliseconds a replay waits for the first request before giving up
+     * @param objectMapper ObjectMapper. Writes the request bodies that are hashed
+     */
+    @Autowired
+    public IdempotencyStore(@Value("${idempotency.max-size:100000}") int maxSize,
+                            @Value("${idempotency.ttl-seconds:86400}") long ttlSeconds,
+                            @Value("${idempotency.in-flight-timeout-ms:30000}") long inFlightTimeoutMs,
+                            ObjectMapper objectMapper) {
+        this(maxSize, Duration.ofSeconds(ttlSeconds), inFlightTimeoutMs, System::nanoTime, objectMapper);
+    }
+
+    IdempotencyStore(int maxSize, Duration ttl, long inFlightTimeoutMs, LongSupplier nanoClock,
+                     ObjectMapper objectMapper) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.inFlightTimeoutMs = inFlightTimeoutMs;
+        this.nanoClock = nanoClock;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Method that runs the operation once per idempotency key. Without a key the operation always runs.
+     * @param operation String that identifies the endpoint, so the same key can be used on different endpoints
+     * @param key String received in the Idempotency-Key header, or null
+     * @param request Object received in the request body, that a replay of the key must repeat
+     * @param action Supplier that runs the operation and builds its response
+     * @return the response of the operation, stored or just built
+     * @param <T> the type of the response body
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> execute(String operation, String key, Object request,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (key == null) {
+            return action.get();
+        }
+
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidParameterTypeException(String.format("The %s header must have between 1 and %d " +
+                    "characters", HEADER, MAX_KEY_LENGTH));
+        }
+
+        evictExpired();
+
+        String storeKey = operation + " " + key;
+        Execution execution = new Execution(storeKey, hash(request));
+
+        while (true) {
+            Execution existing = executions.putIfAbsent(storeKey, execution);
+
+            if (existing == null) {
+                return (ResponseEntity<T>) run(execution, action);
+            }
+
+            if (!existing.isExpired()) {
+                if (!MessageDigest.isEqual(existing.requestHash, execution.requestHash)) {
+                    throw new UnprocessableEntityException(String.format("The %s was already used with a " +
+                            "different request body", HEADER));
+                }
+                return (ResponseEntity<T>) await(existing);
+            }
+
+            executions.remove(storeKey, existing);
+        }
+    }
+
+    /**
+     * Method to read the number of stored and running executions.
+     * @return the number of keys in the store
+     */
+    public int size() {
+        return executions.size();
+    }
+
+    private ResponseEntity<?> run(Execution execution, Supplier<? extends ResponseEntity<?>> action) {
+        ResponseEntity<?> response;
+
+        try {
+            response = action.get();
+        } catch (RuntimeException | Error e) {
+            executions.remove(execution.storeKey, execution);
+            execution.response.completeExceptionally(e);
+            throw e;
+        }
+
+        execution.completedAt = nanoClock.getAsLong();
+        execution.response.complete(response);
+        completed.add(execution);
+
+        return response;
+    }
+
+    private ResponseEntity<?> await(Execution execution) {
+        try {
+            return execution.response.get(inFlightTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw (Error) e.getCause();
+        } catch (TimeoutException e) {
+            throw new ConflictException(String.format("A request with the same %s is still being processed",
+                    HEADER));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException(String.format("Interrupted while waiting for the request with the same %s",
+                    HEADER));
+        }
+    }
+
+    private byte[] hash(Object request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new InternalServerErrorException(e.getMessage());
+        }
+    }
+
+    /**
+     * Method that removes the completed executions whose time to live has passed, and the oldest ones while the
+     * store has no room for a new key. Running executions are never removed.
+     */
+    private void evictExpired() {
+        Execution oldest;
+
+        while ((oldest = completed.peek()) != null && (oldest.isExpired() || executions.size() >= maxSize)) {
+            if (completed.remove(oldest)) {
+                executions.remove(oldest.storeKey, oldest);
+            }
+        }
+    }
+
+    private class Execution {
+        private final String storeKey;
+        private final byte[] requestHash;
+        private final CompletableFuture<ResponseEntity<?>> response = new CompletableFuture<>();
+        private volatile Long completedAt;
+
+        private Execution(String storeKey, byte[] requestHash) {
+            this.storeKey = storeKey;
+            this.requestHash = requestHash;
+        }
+
+        private boolean isExpired() {
+            Long completion = completedAt;
+            return completion != null && nanoClock.getAsLong() - completion >= ttlNanos;
+        }
+    }
+}
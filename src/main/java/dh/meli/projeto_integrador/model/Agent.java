@@ -1,6 +1,7 @@
 package dh.meli.projeto_integrador.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import dh.meli.projeto_integrador.cache.ReferenceDataCacheListener;
 import lombok.*;
 
 import javax.persistence.*;
@@ -21,7 +22,12 @@ import javax.persistence.*;
 /**
  * The @Table annotation is used to specify table details that will be used to persist our entities in the database.
  */
-@Table(name = "agent")
+@Table(name = "agent", indexes = @Index(name = "idx_agent_warehouse", columnList = "warehouse_id"))
+/**
+ * The @EntityListeners annotation registers the listener that invalidates the cached copy of the Agent
+ * when it is updated or removed.
+ */
+@EntityListeners(ReferenceDataCacheListener.class)
 /**
  * Method builder implemented by Lombok lib
  */
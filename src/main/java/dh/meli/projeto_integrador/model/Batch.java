@@ -1,6 +1,8 @@
 package dh.meli.projeto_integrador.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import dh.meli.projeto_integrador.cache.SellableBatchCacheListener;
+import dh.meli.projeto_integrador.expiry.DueDateIndexListener;
 import lombok.*;
 
 import javax.persistence.*;
@@ -23,8 +25,19 @@ import java.util.Set;
 @Entity
 /**
  * The @Table annotation is used to specify table details that will be used to persist our entities in the database.
+ * The indexes are created by the Flyway migrations; they cover the stock reservation and the due date window
+ * queries by product and by section (through order_entry_id).
  */
-@Table(name = "batch")
+@Table(name = "batch", indexes = {
+        @Index(name = "idx_batch_order_entry_due_date_stock",
+                columnList = "order_entry_id, due_date, product_id, current_quantity"),
+        @Index(name = "idx_batch_product_due_date_quantity", columnList = "product_id, due_date, current_quantity")
+})
+/**
+ * The @EntityListeners annotation registers the listeners that invalidate the cached sellable batches of the
+ * product and keep the due date index of the expiry scheduler when a batch is inserted, updated or removed.
+ */
+@EntityListeners({SellableBatchCacheListener.class, DueDateIndexListener.class})
 /**
  * Method builder implemented by Lombok lib
  */
@@ -46,7 +59,8 @@ import java.util.Set;
 public class Batch {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "batch_seq")
+    @SequenceGenerator(name = "batch_seq", sequenceName = "batch_seq", allocationSize = 50)
     private long id;
 
     @Column(name = "current_temperature")
@@ -70,6 +84,10 @@ public class Batch {
     @Column(name = "due_date")
     private LocalDate dueDate;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     @ManyToOne
     @JoinColumn(name = "product_id", referencedColumnName = "id")
     @JsonIgnoreProperties("batches")
@@ -25,7 +25,7 @@ import java.util.Set;
 /**
  * The @Table annotation is used to specify table details that will be used to persist our entities in the database.
  */
-@Table(name = "cart")
+@Table(name = "cart", indexes = @Index(name = "idx_cart_customer", columnList = "customer_id"))
 /**
  * Method Builder implemented by Lombok lib
  */
@@ -48,7 +48,8 @@ import java.util.Set;
 public class Cart {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_seq")
+    @SequenceGenerator(name = "cart_seq", sequenceName = "cart_seq", allocationSize = 50)
     private long id;
 
     @ManyToOne
@@ -23,7 +23,7 @@ import java.util.Set;
 /**
  * The @Table annotation is used to specify table details that will be used to persist our entities in the database.
  */
-@Table(name = "order_entry")
+@Table(name = "order_entry", indexes = @Index(name = "idx_order_entry_section", columnList = "section_id"))
 /**
  * Method builder implemented by Lombok lib
  */
@@ -0,0 +1,67 @@
+package dh.meli.projeto_integrador.model;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Method Getter implemented by Lombok lib for get access the private attributes of the OutboxEvent Class
+ */
+@Getter
+/**
+ * Method Setter implemented by Lombok lib for set the private attributes of the OutboxEvent Class
+ */
+@Setter
+/**
+ * The @Entity annotation marks the OutboxEvent Class as an entity bean,
+ * so it must have a no-argument constructor that is visible at least with a protected scope.
+ */
+@Entity
+/**
+ * The @Table annotation is used to specify table details that will be used to persist our entities in the database.
+ */
+@Table(name = "outbox_event")
+/**
+ * Method builder implemented by Lombok lib
+ */
+@Builder
+/**
+ * Method Default Constructor implemented by Lombok lib
+ */
+@NoArgsConstructor
+/**
+ * Method Constructor with all arguments implemented by Lombok lib
+ */
+@AllArgsConstructor
+/**
+ * Class created for modeling the transactional outbox: a domain event saved in the same transaction as the change it
+ * describes, and deleted once the OutboxPublisher ships it to the configured sink. Downstream systems read the
+ * events instead of polling the cart and batch tables.
+ * @author Diovana Valim
+ * @version 0.0.1
+ * @see java.lang.Object
+ */
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    @SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_event_seq", allocationSize = 50)
+    private long id;
+
+    @Column(name = "aggregate_type", nullable = false)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private long aggregateId;
+
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+
+    @Lob
+    @Column(name = "payload", nullable = false)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -3,6 +3,7 @@ package dh.meli.projeto_integrador.model;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import dh.meli.projeto_integrador.cache.ReferenceDataCacheListener;
 
 import lombok.Builder;
 import lombok.Getter;
@@ -42,7 +43,12 @@ import java.util.Set;
 /**
  * The @Table annotation is used to specify table details that will be used to persist our entities in the database.
  */
-@Table(name = "product")
+@Table(name = "product", indexes = @Index(name = "idx_product_type_id", columnList = "type, id"))
+/**
+ * The @EntityListeners annotation registers the listener that invalidates the cached copy of the Product
+ * when it is updated or removed.
+ */
+@EntityListeners(ReferenceDataCacheListener.class)
 /**
  * Class created for modeling the Product entity on the database
  * @author Diovana Valim
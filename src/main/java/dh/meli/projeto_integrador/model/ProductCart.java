@@ -21,7 +21,10 @@ import javax.persistence.*;
 /**
  * The @Table annotation is used to specify table details that will be used to persist our entities in the database.
  */
-@Table(name = "product_cart")
+@Table(name = "product_cart", indexes = {
+        @Index(name = "idx_product_cart_cart", columnList = "cart_id"),
+        @Index(name = "idx_product_cart_product", columnList = "product_id")
+})
 /**
  * Method Builder implemented by Lombok lib
  */
@@ -43,7 +46,8 @@ import javax.persistence.*;
 public class ProductCart {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_cart_seq")
+    @SequenceGenerator(name = "product_cart_seq", sequenceName = "product_cart_seq", allocationSize = 50)
     private long id;
 
     @ManyToOne
@@ -59,4 +63,7 @@ public class ProductCart {
     @Column(name = "quantity", nullable = false)
     private int quantity;
 
+    @Column(name = "stock_pending", nullable = false)
+    private boolean stockPending;
+
 }
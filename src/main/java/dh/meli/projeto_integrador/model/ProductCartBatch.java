@@ -0,0 +1,65 @@
+package dh.meli.projeto_integrador.model;
+
+import com.fasterxml.jackson.annotation.JsonBackReference;
+import lombok.*;
+
+import javax.persistence.*;
+
+/**
+ * Method Getter implemented by Lombok lib for get access the private attributes of the ProductCartBatch Class
+ */
+@Getter
+/**
+ * Method Setter implemented by Lombok lib for set access the private attributes of the ProductCartBatch Class
+ */
+@Setter
+/**
+ * The @Entity annotation marks the ProductCartBatch Class as an entity bean,
+ * so it must have a no-argument constructor that is visible at least with a protected scope.
+ */
+@Entity
+/**
+ * The @Table annotation is used to specify table details that will be used to persist our entities in the database.
+ */
+@Table(name = "product_cart_batch", indexes = {
+        @Index(name = "idx_product_cart_batch_product_cart", columnList = "product_cart_id"),
+        @Index(name = "idx_product_cart_batch_batch", columnList = "batch_id")
+})
+/**
+ * Method Builder implemented by Lombok lib
+ */
+@Builder
+/**
+ * Method Constructor with all arguments implemented by Lombok lib
+ */
+@AllArgsConstructor
+/**
+ * Method Constructor with no arguments implemented by Lombok lib
+ */
+@NoArgsConstructor
+/**
+ * Class created for modeling which batch (and how much of it) was reserved to fulfill a ProductCart line
+ * @author Gabriela Azevedo
+ * @version 0.0.1
+ * @see java.lang.Object
+ */
+public class ProductCartBatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_cart_batch_seq")
+    @SequenceGenerator(name = "product_cart_batch_seq", sequenceName = "product_cart_batch_seq", allocationSize = 50)
+    private long id;
+
+    @ManyToOne
+    @JoinColumn(name = "product_cart_id", referencedColumnName = "id", nullable = false)
+    @JsonBackReference
+    private ProductCart productCart;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "batch_id", referencedColumnName = "id", nullable = false)
+    @JsonBackReference
+    private Batch batch;
+
+    @Column(name = "quantity", nullable = false)
+    private int quantity;
+}
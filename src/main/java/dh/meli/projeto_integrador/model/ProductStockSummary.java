@@ -0,0 +1,48 @@
+package dh.meli.projeto_integrador.model;
+
+import lombok.*;
+
+import javax.persistence.*;
+
+/**
+ * Method Getter implemented by Lombok lib for get access the private attributes of the ProductStockSummary Class
+ */
+@Getter
+/**
+ * Method Setter implemented by Lombok lib for set the private attributes of the ProductStockSummary Class
+ */
+@Setter
+/**
+ * The @Entity annotation marks the ProductStockSummary Class as an entity bean,
+ * so it must have a no-argument constructor that is visible at least with a protected scope.
+ */
+@Entity
+/**
+ * The @Table annotation is used to specify table details that will be used to persist our entities in the database.
+ */
+@Table(name = "product_stock_summary")
+/**
+ * Method Default Constructor implemented by Lombok lib
+ */
+@NoArgsConstructor
+/**
+ * Method Constructor with all arguments implemented by Lombok lib
+ */
+@AllArgsConstructor
+/**
+ * Class created for modeling the stock summary read model: the current quantity of all the batches of a product,
+ * stored in a warehouse, that share the same due date. Stock checks read a few summary rows by primary key prefix
+ * instead of every batch of the product, and the quantity that can still be sold is the sum of the rows due far
+ * enough in the future.
+ * @author Diovana Valim
+ * @version 0.0.1
+ * @see java.lang.Object
+ */
+public class ProductStockSummary {
+
+    @EmbeddedId
+    private ProductStockSummaryId id;
+
+    @Column(name = "quantity", nullable = false)
+    private long quantity;
+}
@@ -0,0 +1,72 @@
+package dh.meli.projeto_integrador.model;
+
+import lombok.*;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Comparator;
+
+/**
+ * Method Getter implemented by Lombok lib for get access the private attributes of the ProductStockSummaryId Class
+ */
+@Getter
+/**
+ * Method Setter implemented by Lombok lib for set the private attributes of the ProductStockSummaryId Class
+ */
+@Setter
+/**
+ * Methods equals and hashCode implemented by Lombok lib, required for composite keys
+ */
+@EqualsAndHashCode
+/**
+ * The @Embeddable annotation marks the ProductStockSummaryId Class as the composite key of ProductStockSummary.
+ */
+@Embeddable
+/**
+ * Method Default Constructor implemented by Lombok lib
+ */
+@NoArgsConstructor
+/**
+ * Method Constructor with all arguments implemented by Lombok lib
+ */
+@AllArgsConstructor
+/**
+ * Class created for modeling the key of a stock summary row: a product, the warehouse that stores it and a due date.
+ * Keys are ordered by product, warehouse and due date, the order in which summary rows are locked.
+ * @author Diovana Valim
+ * @version 0.0.1
+ * @see java.lang.Object
+ */
+public class ProductStockSummaryId implements Serializable, Comparable<ProductStockSummaryId> {
+
+    private static final Comparator<ProductStockSummaryId> ORDER = Comparator
+            .comparingLong(ProductStockSummaryId::getProductId)
+            .thenComparingLong(ProductStockSummaryId::getWarehouseId)
+            .thenComparing(ProductStockSummaryId::getDueDate);
+
+    @Column(name = "product_id")
+    private long productId;
+
+    @Column(name = "warehouse_id")
+    private long warehouseId;
+
+    @Column(name = "due_date")
+    private LocalDate dueDate;
+
+    /**
+     * Method that builds the key of the summary row a batch belongs to.
+     * @param batch an object of type Batch, with its order entry, section and warehouse
+     * @return an object of type ProductStockSummaryId
+     */
+    public static ProductStockSummaryId of(Batch batch) {
+        return new ProductStockSummaryId(batch.getProduct().getId(),
+                batch.getOrderEntry().getSection().getWarehouse().getId(), batch.getDueDate());
+    }
+
+    @Override
+    public int compareTo(ProductStockSummaryId other) {
+        return ORDER.compare(this, other);
+    }
+}
@@ -1,6 +1,7 @@
 package dh.meli.projeto_integrador.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import dh.meli.projeto_integrador.cache.ReferenceDataCacheListener;
 import lombok.*;
 
 import javax.persistence.*;
@@ -22,7 +23,12 @@ import java.util.Set;
 /**
  * The @Table annotation is used to specify table details that will be used to persist our entities in the database.
  */
-@Table(name = "section")
+@Table(name = "section", indexes = @Index(name = "idx_section_warehouse", columnList = "warehouse_id"))
+/**
+ * The @EntityListeners annotation registers the listener that invalidates the cached copy of the Section
+ * when it is updated or removed.
+ */
+@EntityListeners(ReferenceDataCacheListener.class)
 /**
  * Method builder implemented by Lombok lib
  */
@@ -65,4 +71,8 @@ public class Section {
     @Column(name = "current_product_load")
     private long currentProductLoad;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
 }
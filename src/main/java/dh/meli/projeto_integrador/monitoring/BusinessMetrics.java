@@ -0,0 +1,115 @@
+package dh.meli.projeto_integrador.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Class that records the business metrics of the cart and inbound order flows: the size of each cart and inbound
+ * order, how many of them are rejected for lack of stock or of section capacity, and how many batches leave sale or
+ * expire at each day rollover. The latency of the service methods is recorded by their @Timed annotations. Every
+ * meter name starts with "business", the prefix used to enable their percentile histograms in application.properties.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@Component
+public class BusinessMetrics {
+
+    private final DistributionSummary cartLines;
+
+    private final DistributionSummary inboundOrderBatches;
+
+    private final Counter stockRejections;
+
+    private final Counter sectionCapacityRejections;
+
+    private final Counter batchesLeftSale;
+
+    private final Counter batchesExpired;
+
+    private final Counter cartsCancelled;
+
+    /**
+     * Constructor that registers the meters in the given registry.
+     * @param registry the MeterRegistry of the application
+     */
+    public BusinessMetrics(MeterRegistry registry) {
+        this.cartLines = DistributionSummary.builder("business.cart.lines")
+                .description("Number of product lines of each cart")
+                .baseUnit("lines")
+                .register(registry);
+        this.inboundOrderBatches = DistributionSummary.builder("business.inbound.order.batches")
+                .description("Number of batches of each inbound order")
+                .baseUnit("batches")
+                .register(registry);
+        this.stockRejections = Counter.builder("business.stock.rejections")
+                .description("Carts rejected because a product does not have enough stock with a valid due date")
+                .register(registry);
+        this.sectionCapacityRejections = Counter.builder("business.section.capacity.rejections")
+                .description("Inbound orders rejected because their batches overtake the section maximum load")
+                .register(registry);
+        this.batchesLeftSale = Counter.builder("business.batches.left.sale")
+                .description("Batches that entered the due date window and can no longer be sold")
+                .register(registry);
+        this.batchesExpired = Counter.builder("business.batches.expired")
+                .description("Batches that reached their due date")
+                .register(registry);
+        this.cartsCancelled = Counter.builder("business.carts.cancelled")
+                .description("Carts admitted by the hot stock counters whose batches could not be reserved")
+                .register(registry);
+    }
+
+    /**
+     * Method that records the number of lines of a cart.
+     * @param lines int. Number of product lines
+     */
+    public void recordCartLines(int lines) {
+        cartLines.record(lines);
+    }
+
+    /**
+     * Method that records the number of batches of an inbound order.
+     * @param batches int. Number of batches
+     */
+    public void recordInboundOrderBatches(int batches) {
+        inboundOrderBatches.record(batches);
+    }
+
+    /**
+     * Method that counts a cart rejected for lack of stock.
+     */
+    public void recordStockRejection() {
+        stockRejections.increment();
+    }
+
+    /**
+     * Method that counts an inbound order rejected for lack of section capacity.
+     */
+    public void recordSectionCapacityRejection() {
+        sectionCapacityRejections.increment();
+    }
+
+    /**
+     * Method that counts the batches that can no longer be sold after a day rollover.
+     * @param batches int. Number of batches
+     */
+    public void recordBatchesLeftSale(int batches) {
+        batchesLeftSale.increment(batches);
+    }
+
+    /**
+     * Method that counts the batches that reached their due date after a day rollover.
+     * @param batches int. Number of batches
+     */
+    public void recordBatchesExpired(int batches) {
+        batchesExpired.increment(batches);
+    }
+
+    /**
+     * Method that counts a cart cancelled because the stock admitted in memory could not be reserved.
+     */
+    public void recordCartCancelled() {
+        cartsCancelled.increment();
+    }
+}
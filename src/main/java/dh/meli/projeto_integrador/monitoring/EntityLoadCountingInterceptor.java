@@ -0,0 +1,21 @@
+package dh.meli.projeto_integrador.monitoring;
+
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+
+/**
+ * Hibernate interceptor that counts, in the RequestQueryCounter of the current thread, every entity hydrated from the
+ * database. Lazy associations navigated one by one show up here as many loads for a single request.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+public class EntityLoadCountingInterceptor extends EmptyInterceptor {
+
+    @Override
+    public boolean onLoad(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types) {
+        RequestQueryCounter.recordEntityLoad();
+        return false;
+    }
+}
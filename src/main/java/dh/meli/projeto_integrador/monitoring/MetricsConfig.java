@@ -0,0 +1,26 @@
+package dh.meli.projeto_integrador.monitoring;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Class that enables the @Timed annotations of the service methods. Their timers, the business metrics and the
+ * HikariCP and Hibernate metrics are exposed in Prometheus format at /actuator/prometheus.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Method that creates the aspect recording the methods annotated with @Timed.
+     * @param registry the MeterRegistry of the application
+     * @return the TimedAspect
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -0,0 +1,27 @@
+package dh.meli.projeto_integrador.monitoring;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation that declares how many SQL statements and entity loads a controller method may use to answer a request.
+ * A request over the budget is counted as a violation in the query statistics, and fails the integration tests.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    /**
+     * Maximum number of SQL statements executed while handling the request.
+     */
+    int statements();
+
+    /**
+     * Maximum number of entities loaded by Hibernate while handling the request.
+     */
+    int entityLoads() default Integer.MAX_VALUE;
+}
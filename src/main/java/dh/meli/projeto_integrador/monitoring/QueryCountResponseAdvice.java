@@ -0,0 +1,64 @@
+package dh.meli.projeto_integrador.monitoring;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Class that, before a response body is written, adds the query counters of the request as response headers and
+ * checks them against the QueryBudget of the controller method. A request over its budget is only counted as a
+ * violation: the body is written after the transaction committed, so failing the request here would report as
+ * failed a change that was saved. The budgets are enforced by the tests, from the response headers.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@ControllerAdvice
+public class QueryCountResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String STATEMENTS_HEADER = "X-Query-Count";
+
+    public static final String ROWS_HEADER = "X-Query-Rows";
+
+    public static final String ENTITY_LOADS_HEADER = "X-Entity-Loads";
+
+    /**
+     * Dependency Injection of the QueryStatistics.
+     */
+    @Autowired
+    private QueryStatistics statistics;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestQueryCounter counter = RequestQueryCounter.current();
+
+        if (counter == null) {
+            return body;
+        }
+
+        response.getHeaders().set(STATEMENTS_HEADER, String.valueOf(counter.getStatements()));
+        response.getHeaders().set(ROWS_HEADER, String.valueOf(counter.getRows()));
+        response.getHeaders().set(ENTITY_LOADS_HEADER, String.valueOf(counter.getEntityLoads()));
+
+        QueryBudget budget = returnType.getMethodAnnotation(QueryBudget.class);
+
+        if (budget != null && (counter.getStatements() > budget.statements()
+                || counter.getEntityLoads() > budget.entityLoads())) {
+            statistics.recordBudgetViolation(
+                    returnType.getContainingClass().getSimpleName() + "." + returnType.getMethod().getName());
+        }
+
+        return body;
+    }
+}
@@ -0,0 +1,96 @@
+package dh.meli.projeto_integrador.monitoring;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Class that wraps the application DataSource, so every statement executed and every row read through it is counted
+ * by the RequestQueryCounter of the current thread. Connections, statements and result sets are wrapped with JDK
+ * proxies that delegate every call to the pooled objects.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@Component
+public class QueryCountingDataSourcePostProcessor implements BeanPostProcessor {
+
+    /**
+     * Method that wraps the DataSource beans after they were configured, so pool properties are still bound to the
+     * original bean.
+     * @param bean the initialized bean
+     * @param beanName the name of the bean
+     * @return the wrapped DataSource, or the bean itself for any other type
+     */
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource && !Proxy.isProxyClass(bean.getClass())) {
+            return wrap(bean, DataSource.class);
+        }
+        return bean;
+    }
+
+    private static <T> T wrap(Object target, Class<T> type) {
+        return type.cast(Proxy.newProxyInstance(QueryCountingDataSourcePostProcessor.class.getClassLoader(),
+                new Class<?>[]{type}, new CountingHandler(target)));
+    }
+
+    private static class CountingHandler implements InvocationHandler {
+
+        private final Object target;
+
+        private CountingHandler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            if (name.equals("unwrap") && ((Class<?>) args[0]).isInstance(proxy)) {
+                return proxy;
+            }
+
+            if (name.equals("next") && target instanceof ResultSet) {
+                boolean hasRow = (boolean) delegate(method, args);
+                if (hasRow) {
+                    RequestQueryCounter.recordRow();
+                }
+                return hasRow;
+            }
+
+            if (name.startsWith("execute") && target instanceof Statement) {
+                RequestQueryCounter.recordStatement();
+            }
+
+            Object result = delegate(method, args);
+
+            // Statements created by a connection and result sets created by a statement are wrapped as well
+            if (result instanceof Statement && !(target instanceof ResultSet)) {
+                return wrap(result, method.getReturnType());
+            }
+            if (result instanceof ResultSet && !(target instanceof ResultSet)) {
+                return wrap(result, ResultSet.class);
+            }
+            if (result instanceof Connection && target instanceof DataSource) {
+                return wrap(result, Connection.class);
+            }
+            return result;
+        }
+
+        private Object delegate(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package dh.meli.projeto_integrador.monitoring;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Interceptor that starts a RequestQueryCounter when a controller method is about to handle a request and records
+ * the counted queries in the QueryStatistics once the request completes.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+public class QueryCountingHandlerInterceptor implements AsyncHandlerInterceptor {
+
+    private final QueryStatistics statistics;
+
+    /**
+     * Constructor method of the interceptor.
+     * @param statistics the QueryStatistics where the counted queries are recorded
+     */
+    public QueryCountingHandlerInterceptor(QueryStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            RequestQueryCounter.start();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        RequestQueryCounter counter = RequestQueryCounter.stop();
+
+        if (counter != null && handler instanceof HandlerMethod) {
+            statistics.recordRequest(operation((HandlerMethod) handler), counter);
+        }
+    }
+
+    /**
+     * Method called when the controller method starts an asynchronous response. The counter of the request thread is
+     * discarded; the asynchronous dispatch starts a new one.
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        RequestQueryCounter.stop();
+    }
+
+    /**
+     * Method to build the name under which the queries of a controller method are recorded.
+     * @param handlerMethod the controller method
+     * @return a String in the format Controller.method
+     */
+    static String operation(HandlerMethod handlerMethod) {
+        return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+    }
+}
@@ -0,0 +1,40 @@
+package dh.meli.projeto_integrador.monitoring;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Class that registers the query counting interceptors in Hibernate and in Spring MVC.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@Configuration
+public class QueryMonitoringConfig implements WebMvcConfigurer {
+
+    /**
+     * Method that creates the QueryStatistics shared by the request interceptor and the response advice.
+     * @return the QueryStatistics of the application
+     */
+    @Bean
+    public QueryStatistics queryStatistics() {
+        return new QueryStatistics();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new QueryCountingHandlerInterceptor(queryStatistics()));
+    }
+
+    /**
+     * Method that registers the EntityLoadCountingInterceptor for every Hibernate session.
+     * @return the customizer of the Hibernate properties
+     */
+    @Bean
+    public HibernatePropertiesCustomizer entityLoadCountingCustomizer() {
+        return properties -> properties.put("hibernate.session_factory.interceptor",
+                new EntityLoadCountingInterceptor());
+    }
+}
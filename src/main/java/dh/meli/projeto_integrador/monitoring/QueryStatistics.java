@@ -0,0 +1,83 @@
+package dh.meli.projeto_integrador.monitoring;
+
+import dh.meli.projeto_integrador.dto.dtoOutput.QueryStatisticsDto;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Class that keeps, for each controller method, how many requests it handled, the SQL statements, rows and entity
+ * loads they used and how many requests went over the declared QueryBudget. Registered by QueryMonitoringConfig.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+public class QueryStatistics {
+
+    private final Map<String, Counters> countersByOperation = new ConcurrentHashMap<>();
+
+    /**
+     * Method to register the queries used by a request.
+     * @param operation String that identifies the controller method
+     * @param counter the RequestQueryCounter of the request
+     */
+    public void recordRequest(String operation, RequestQueryCounter counter) {
+        Counters counters = counters(operation);
+
+        counters.requests.increment();
+        counters.statements.add(counter.getStatements());
+        counters.rows.add(counter.getRows());
+        counters.entityLoads.add(counter.getEntityLoads());
+        counters.maxStatements.accumulate(counter.getStatements());
+    }
+
+    /**
+     * Method to register a request that went over the QueryBudget of its controller method.
+     * @param operation String that identifies the controller method
+     */
+    public void recordBudgetViolation(String operation) {
+        counters(operation).budgetViolations.increment();
+    }
+
+    /**
+     * Method to list the counters of every controller method.
+     * @return a List of objects of type QueryStatisticsDto
+     */
+    public List<QueryStatisticsDto> getStatistics() {
+        return countersByOperation.entrySet().stream()
+                .map(entry -> entry.getValue().toDto(entry.getKey()))
+                .collect(Collectors.toList());
+    }
+
+    private Counters counters(String operation) {
+        return countersByOperation.computeIfAbsent(operation, key -> new Counters());
+    }
+
+    private static class Counters {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder entityLoads = new LongAdder();
+        private final LongAdder budgetViolations = new LongAdder();
+        private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+
+        private QueryStatisticsDto toDto(String operation) {
+            long requestCount = requests.sum();
+            long statementCount = statements.sum();
+
+            return QueryStatisticsDto.builder()
+                    .operation(operation)
+                    .requests(requestCount)
+                    .statements(statementCount)
+                    .rows(rows.sum())
+                    .entityLoads(entityLoads.sum())
+                    .maxStatements(maxStatements.get())
+                    .averageStatements(requestCount == 0 ? 0.0 : (double) statementCount / requestCount)
+                    .budgetViolations(budgetViolations.sum())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package dh.meli.projeto_integrador.monitoring;
+
+/**
+ * Class that keeps, for the request handled by the current thread, how many SQL statements were executed, how many
+ * rows were fetched and how many entities were loaded. Nothing is counted on threads without a started counter.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+public final class RequestQueryCounter {
+
+    private static final ThreadLocal<RequestQueryCounter> CURRENT = new ThreadLocal<>();
+
+    private long statements;
+
+    private long rows;
+
+    private long entityLoads;
+
+    private RequestQueryCounter() {
+    }
+
+    /**
+     * Method to start counting the queries of the current thread, discarding any previous count.
+     * @return the new counter
+     */
+    public static RequestQueryCounter start() {
+        RequestQueryCounter counter = new RequestQueryCounter();
+        CURRENT.set(counter);
+        return counter;
+    }
+
+    /**
+     * Method to stop counting the queries of the current thread.
+     * @return the counter that was active, or null if none was started
+     */
+    public static RequestQueryCounter stop() {
+        RequestQueryCounter counter = CURRENT.get();
+        CURRENT.remove();
+        return counter;
+    }
+
+    /**
+     * Method to get the counter of the current thread.
+     * @return the active counter, or null if none was started
+     */
+    public static RequestQueryCounter current() {
+        return CURRENT.get();
+    }
+
+    static void recordStatement() {
+        RequestQueryCounter counter = CURRENT.get();
+        if (counter != null) {
+            counter.statements++;
+        }
+    }
+
+    static void recordRow() {
+        RequestQueryCounter counter = CURRENT.get();
+        if (counter != null) {
+            counter.rows++;
+        }
+    }
+
+    static void recordEntityLoad() {
+        RequestQueryCounter counter = CURRENT.get();
+        if (counter != null) {
+            counter.entityLoads++;
+        }
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getEntityLoads() {
+        return entityLoads;
+    }
+}
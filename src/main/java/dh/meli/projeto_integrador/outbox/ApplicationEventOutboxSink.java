@@ -0,0 +1,35 @@
+package dh.meli.projeto_integrador.outbox;
+
+import dh.meli.projeto_integrador.model.OutboxEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * In-process stand-in for a broker, used by default: each outbox event is published as a Spring application event,
+ * so consumers in the application receive it through @EventListener.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "application-event", matchIfMissing = true)
+public class ApplicationEventOutboxSink implements OutboxEventSink {
+
+    /**
+     * Dependency Injection of the ApplicationEventPublisher.
+     */
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Method that publishes each event as an application event.
+     * @param events a List of objects of type OutboxEvent ordered by id
+     */
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        events.forEach(eventPublisher::publishEvent);
+    }
+}
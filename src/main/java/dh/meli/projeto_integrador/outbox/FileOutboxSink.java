@@ -0,0 +1,72 @@
+package dh.meli.projeto_integrador.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dh.meli.projeto_integrador.model.OutboxEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * File stand-in for a broker: each batch of outbox events is appended to a file, one JSON object per line (NDJSON),
+ * and forced to disk before the events are deleted from the outbox. Consumers tail the file.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "file")
+public class FileOutboxSink implements OutboxEventSink {
+
+    private final Path path;
+
+    /**
+     * Dependency Injection of the ObjectMapper.
+     */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Constructor of the sink.
+     * @param path String. Path of the file the events are appended to
+     */
+    public FileOutboxSink(@Value("${outbox.file-path:outbox-events.ndjson}") String path) {
+        this.path = Path.of(path);
+    }
+
+    /**
+     * Method that appends the events to the file, one line per event.
+     * @param events a List of objects of type OutboxEvent ordered by id
+     */
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) {
+        StringBuilder lines = new StringBuilder();
+
+        try {
+            for (OutboxEvent event : events) {
+                lines.append(objectMapper.writeValueAsString(event)).append('\n');
+            }
+
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND)) {
+                ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package dh.meli.projeto_integrador.outbox;
+
+import dh.meli.projeto_integrador.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Interface of the destination of the outbox events, implemented by each broker the OutboxPublisher can ship to.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+public interface OutboxEventSink {
+
+    /**
+     * Method that ships a batch of events, in order. It must only return after the events were accepted by the
+     * destination, since they are deleted from the outbox afterwards; an exception keeps them for the next run.
+     * @param events a List of objects of type OutboxEvent ordered by id
+     */
+    void publish(List<OutboxEvent> events);
+}
@@ -0,0 +1,82 @@
+package dh.meli.projeto_integrador.outbox;
+
+import dh.meli.projeto_integrador.model.OutboxEvent;
+import dh.meli.projeto_integrador.repository.IOutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Class that ships the outbox events to the configured OutboxEventSink. Events are read in id order, in batches,
+ * and each batch is deleted in the same transaction that read it, after the sink accepted it. Delivery is at least
+ * once: a batch whose deletion fails after the sink accepted it is shipped again on the next run.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@Component
+public class OutboxPublisher {
+
+    /**
+     * Dependency Injection of the OutboxEvent Repository.
+     */
+    @Autowired
+    private IOutboxEventRepository outboxEventRepository;
+
+    /**
+     * Dependency Injection of the OutboxEventSink.
+     */
+    @Autowired
+    private OutboxEventSink outboxEventSink;
+
+    /**
+     * Dependency Injection of the Transaction Manager.
+     */
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Maximum number of events shipped to the sink at once.
+     */
+    @Value("${outbox.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Method run by the scheduler that ships every pending event, batch by batch.
+     * @return the number of events shipped
+     */
+    @Scheduled(initialDelayString = "${outbox.publish-delay-ms:1000}",
+            fixedDelayString = "${outbox.publish-delay-ms:1000}")
+    public synchronized int publishPending() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int published = 0;
+        int batch;
+
+        do {
+            batch = transaction.execute(status -> publishBatch());
+            published += batch;
+        } while (batch == batchSize);
+
+        return published;
+    }
+
+    private int publishBatch() {
+        List<OutboxEvent> events = outboxEventRepository.findByOrderByIdAsc(PageRequest.of(0, batchSize));
+
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        outboxEventSink.publish(events);
+        outboxEventRepository.deleteAllByIdInBatch(events.stream().map(OutboxEvent::getId)
+                .collect(Collectors.toList()));
+
+        return events.size();
+    }
+}
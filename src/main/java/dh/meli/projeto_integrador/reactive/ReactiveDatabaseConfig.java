@@ -0,0 +1,74 @@
+package dh.meli.projeto_integrador.reactive;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * Class that creates the non-blocking R2DBC client used by the read only endpoints under /api/v1/reactive. The
+ * queries of those endpoints do not hold a servlet thread while the database answers, and their rows are read as the
+ * client consumes the response.
+ * The connection pool is kept inside this class instead of being a ConnectionFactory bean: Spring Boot does not
+ * create the JDBC DataSource when such a bean exists, and JPA keeps using JDBC for every other endpoint. For the same
+ * reason the R2DBC auto-configuration is excluded in application.properties.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@Configuration
+public class ReactiveDatabaseConfig implements DisposableBean {
+
+    /**
+     * R2DBC url of the database, the same database used by JPA.
+     */
+    @Value("${reactive.r2dbc.url}")
+    private String url;
+
+    @Value("${reactive.r2dbc.username:}")
+    private String username;
+
+    @Value("${reactive.r2dbc.password:}")
+    private String password;
+
+    /**
+     * Maximum number of R2DBC connections, independent of the JDBC pool.
+     */
+    @Value("${reactive.r2dbc.pool.max-size:10}")
+    private int maxPoolSize = 10;
+
+    private ConnectionPool connectionPool;
+
+    /**
+     * Method that creates the pooled R2DBC client.
+     * @return a DatabaseClient backed by the R2DBC connection pool
+     */
+    @Bean
+    public DatabaseClient reactiveDatabaseClient() {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .initialSize(1)
+                .maxSize(maxPoolSize)
+                .build());
+
+        return DatabaseClient.create(connectionPool);
+    }
+
+    /**
+     * Method that closes the connections of the pool when the application stops.
+     */
+    @Override
+    public void destroy() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
@@ -1,12 +1,19 @@
 package dh.meli.projeto_integrador.repository;
 
+import dh.meli.projeto_integrador.dto.dtoOutput.BatchAllocationDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.BatchDueDateDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.BatchStockDto;
 import dh.meli.projeto_integrador.model.Batch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import dh.meli.projeto_integrador.model.OrderEntry;
 import dh.meli.projeto_integrador.model.Product;
 
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -15,7 +22,7 @@ import java.util.List;
  * @author Diovana Valim, Thiago Almeida
  * @version 0.0.2
  */
-public interface IBatchRepository extends CrudRepository<Batch, Long> {
+public interface IBatchRepository extends JpaRepository<Batch, Long> {
 
     /**
      * Method that find a batch by product;
@@ -41,24 +48,48 @@ public interface IBatchRepository extends CrudRepository<Batch, Long> {
 	List<Batch> findByOrderEntry(OrderEntry orderEntry);
 
 	/**
-	 * Method to find all batches querying by section_id parameter;
+	 * Method to find the stock of a section whose due date falls inside the given window, ordered by due date;
 	 * @param sectionId long that represents Section identifier;
-	 * @return a List of objects of type Batch;
+	 * @param startDate LocalDate. Only batches due after this date are returned;
+	 * @param endDate LocalDate. Only batches due before this date are returned;
+	 * @return a List of objects of type BatchStockDto ordered by due date;
 	 */
-	@Query(value = "SELECT * from batch " +
-			"JOIN order_entry ON order_entry.id = batch.id " +
-			"JOIN section ON section.id = order_entry.section_id  " +
-			"WHERE section.id = ?1", nativeQuery = true)
-	List<Batch> findBatchBySectionId(long sectionId);
+	@Query("SELECT new dh.meli.projeto_integrador.dto.dtoOutput.BatchStockDto(b.id, p.id, p.type, b.dueDate, " +
+			"b.currentQuantity) FROM Batch b JOIN b.product p JOIN b.orderEntry o " +
+			"WHERE o.section.id = :sectionId AND b.dueDate > :startDate AND b.dueDate < :endDate " +
+			"ORDER BY b.dueDate, b.id")
+	List<BatchStockDto> findBatchStockBySectionIdAndDueDateBetween(@Param("sectionId") long sectionId,
+																   @Param("startDate") LocalDate startDate,
+																   @Param("endDate") LocalDate endDate);
 
 	/**
-	 * Method to find all batches querying by associated product type;
-	 * @param category String;
-	 * @return a List of objects of type Batch;
+	 * Method to find the stock of a product type whose due date falls inside the given window, ordered by due date;
+	 * @param productType String that represents the product type;
+	 * @param startDate LocalDate. Only batches due after this date are returned;
+	 * @param endDate LocalDate. Only batches due before this date are returned;
+	 * @return a List of objects of type BatchStockDto ordered by due date;
 	 */
-	@Query(value = "SELECT * FROM batch JOIN product ON product.id = batch.product_id WHERE product.type = ?1",
-			nativeQuery = true)
-	List<Batch> findBatchByProductType(String category);
+	@Query("SELECT new dh.meli.projeto_integrador.dto.dtoOutput.BatchStockDto(b.id, p.id, p.type, b.dueDate, " +
+			"b.currentQuantity) FROM Batch b JOIN b.product p " +
+			"WHERE p.type = :productType AND b.dueDate > :startDate AND b.dueDate < :endDate " +
+			"ORDER BY b.dueDate, b.id")
+	List<BatchStockDto> findBatchStockByProductTypeAndDueDateBetween(@Param("productType") String productType,
+																	 @Param("startDate") LocalDate startDate,
+																	 @Param("endDate") LocalDate endDate);
+
+	/**
+	 * Method to check if a section stores any batch;
+	 * @param sectionId long that represents Section identifier;
+	 * @return true if at least one batch belongs to the section;
+	 */
+	boolean existsByOrderEntrySectionId(long sectionId);
+
+	/**
+	 * Method to check if there is any batch of a given product type;
+	 * @param productType String that represents the product type;
+	 * @return true if at least one batch has a product of the given type;
+	 */
+	boolean existsByProductType(String productType);
 
 	/**
 	 * Method to sum current_quantity in all batches querying by associated product Id;
@@ -68,4 +99,68 @@ public interface IBatchRepository extends CrudRepository<Batch, Long> {
 	@Query(value = "SELECT SUM(current_quantity) FROM batch WHERE product_id=?1",
 			nativeQuery = true)
     Integer findTotalQuantityByProductId(Long productId);
+
+	/**
+	 * Method to find the batches of a product that can still be sold, in first-expire-first-out order;
+	 * @param productId long that represents Product identifier;
+	 * @param minimumDueDate LocalDate. Only batches due on or after this date are returned;
+	 * @return a List of objects of type BatchAllocationDto ordered by due date;
+	 */
+	@Query("SELECT new dh.meli.projeto_integrador.dto.dtoOutput.BatchAllocationDto(b.id, b.currentQuantity, " +
+			"s.warehouse.id, b.dueDate) FROM Batch b JOIN b.orderEntry o JOIN o.section s " +
+			"WHERE b.product.id = :productId AND b.currentQuantity > 0 " +
+			"AND b.dueDate >= :minimumDueDate ORDER BY b.dueDate, b.id")
+	List<BatchAllocationDto> findReservableBatchesByProductId(@Param("productId") long productId,
+															  @Param("minimumDueDate") LocalDate minimumDueDate);
+
+	/**
+	 * Method to find the due date of every batch due after a given day;
+	 * @param day LocalDate. Only batches due after this day are returned;
+	 * @return a List of objects of type BatchDueDateDto;
+	 */
+	@Query("SELECT new dh.meli.projeto_integrador.dto.dtoOutput.BatchDueDateDto(b.id, b.product.id, b.dueDate) " +
+			"FROM Batch b WHERE b.dueDate > :day")
+	List<BatchDueDateDto> findBatchDueDatesAfter(@Param("day") LocalDate day);
+
+	/**
+	 * Method to atomically decrement the current quantity of a batch. The row is only updated if it still holds
+	 * enough quantity, so concurrent reservations can never take the stock below zero. The version is incremented so
+	 * optimistic writers holding a stale copy of the batch are rejected;
+	 * @param batchId long that represents Batch identifier;
+	 * @param quantity int. Quantity to be removed from the batch;
+	 * @return the number of updated rows, 0 when the batch no longer holds the given quantity;
+	 */
+	@Modifying
+	@Query("UPDATE Batch b SET b.currentQuantity = b.currentQuantity - :quantity, b.version = b.version + 1 " +
+			"WHERE b.id = :batchId AND b.currentQuantity >= :quantity")
+	int decrementCurrentQuantity(@Param("batchId") long batchId, @Param("quantity") int quantity);
+
+	/**
+	 * Method to give back to a batch a quantity taken by decrementCurrentQuantity in the same transaction;
+	 * @param batchId long that represents Batch identifier;
+	 * @param quantity int. Quantity to be returned to the batch;
+	 * @return the number of updated rows;
+	 */
+	@Modifying
+	@Query("UPDATE Batch b SET b.currentQuantity = b.currentQuantity + :quantity, b.version = b.version + 1 " +
+			"WHERE b.id = :batchId")
+	int incrementCurrentQuantity(@Param("batchId") long batchId, @Param("quantity") int quantity);
+
+	/**
+	 * Method to read the latest committed current quantity of a batch, locking its row until the end of the
+	 * transaction;
+	 * @param batchId long that represents Batch identifier;
+	 * @return the current quantity of the batch;
+	 */
+	@Query(value = "SELECT current_quantity FROM batch WHERE id = ?1 FOR UPDATE", nativeQuery = true)
+	Integer findCurrentQuantityForUpdate(long batchId);
+
+	/**
+	 * Method to find which of the given batches already had stock reserved by a cart;
+	 * @param batchIds a Collection of Long with the Batch identifiers;
+	 * @return a List of Long with the identifiers of the reserved batches, in ascending order;
+	 */
+	@Query("SELECT DISTINCT pcb.batch.id FROM ProductCartBatch pcb WHERE pcb.batch.id IN :batchIds " +
+			"ORDER BY pcb.batch.id")
+	List<Long> findReservedIds(@Param("batchIds") Collection<Long> batchIds);
 }
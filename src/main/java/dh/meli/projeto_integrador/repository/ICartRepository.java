@@ -1,7 +1,13 @@
 package dh.meli.projeto_integrador.repository;
 
 import dh.meli.projeto_integrador.model.Cart;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
+import java.util.Optional;
 
 /**
  * Interface ICartRepository will manage data persistence for Cart object instances.
@@ -10,4 +16,14 @@ import org.springframework.data.repository.CrudRepository;
  * @version 0.0.1
  */
 public interface ICartRepository extends CrudRepository<Cart, Long> {
+
+    /**
+     * Method to find a cart together with its customer, its lines and the product of each line, in a single query;
+     * @param id long that represents Cart identifier;
+     * @return an Optional of Cart, empty when the cart does not exist;
+     */
+    @Query("SELECT DISTINCT c FROM Cart c JOIN FETCH c.customer LEFT JOIN FETCH c.productCarts pc " +
+            "LEFT JOIN FETCH pc.product WHERE c.id = :id")
+    @QueryHints(@QueryHint(name = "hibernate.query.passDistinctThrough", value = "false"))
+    Optional<Cart> findCartWithProductsById(@Param("id") long id);
 }
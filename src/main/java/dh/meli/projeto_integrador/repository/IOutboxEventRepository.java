@@ -0,0 +1,22 @@
+package dh.meli.projeto_integrador.repository;
+
+import dh.meli.projeto_integrador.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+/**
+ * Interface IOutboxEventRepository will manage data persistence for OutboxEvent object instances.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+public interface IOutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Method to find the oldest events not yet published, reading the primary key in order;
+     * @param pageable the number of events to be read;
+     * @return a List of objects of type OutboxEvent ordered by id;
+     */
+    List<OutboxEvent> findByOrderByIdAsc(Pageable pageable);
+}
@@ -0,0 +1,13 @@
+package dh.meli.projeto_integrador.repository;
+
+import dh.meli.projeto_integrador.model.ProductCartBatch;
+import org.springframework.data.repository.CrudRepository;
+
+/**
+ * Interface IProductCartBatchRepository will manage data persistence for ProductCartBatch object instances.
+ * Will read, save, update and delete data through the GET, POST, PUT and DELETE requests.
+ * @author Gabriela Azevedo
+ * @version 0.0.1
+ */
+public interface IProductCartBatchRepository extends CrudRepository<ProductCartBatch, Long> {
+}
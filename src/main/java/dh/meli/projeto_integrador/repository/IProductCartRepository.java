@@ -1,7 +1,13 @@
 package dh.meli.projeto_integrador.repository;
 
 import dh.meli.projeto_integrador.model.ProductCart;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Interface IProductCartRepository will manage data persistence for ProductCart object instances.
@@ -10,4 +16,38 @@ import org.springframework.data.repository.CrudRepository;
  * @version 0.0.1
  */
 public interface IProductCartRepository extends CrudRepository<ProductCart, Long> {
+
+    /**
+     * Method to find the cart lines whose stock was admitted in memory and is still waiting for its batches to be
+     * reserved;
+     * @return a List of Long with the cart line identifiers, in ascending order;
+     */
+    @Query("SELECT pc.id FROM ProductCart pc WHERE pc.stockPending = true ORDER BY pc.id")
+    List<Long> findStockPendingIds();
+
+    /**
+     * Method to check if a cart still has lines waiting for their batches to be reserved;
+     * @param cartId long. Cart identifier;
+     * @return true when some line of the cart is still waiting;
+     */
+    @Query("SELECT COUNT(pc) > 0 FROM ProductCart pc WHERE pc.cart.id = :cartId AND pc.stockPending = true")
+    boolean hasStockPending(@Param("cartId") long cartId);
+
+    /**
+     * Method to load cart lines together with their cart and product;
+     * @param ids a Collection of Long with the cart line identifiers;
+     * @return a List of ProductCart, in ascending id order;
+     */
+    @Query("SELECT pc FROM ProductCart pc JOIN FETCH pc.cart JOIN FETCH pc.product WHERE pc.id IN :ids ORDER BY pc.id")
+    List<ProductCart> findWithCartAndProductByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Method to claim cart lines still waiting for their batches to be reserved, marking them as no longer waiting.
+     * Lines already claimed, by this or a concurrent transaction, are not updated;
+     * @param ids a Collection of Long with the cart line identifiers;
+     * @return the number of lines claimed;
+     */
+    @Modifying
+    @Query("UPDATE ProductCart pc SET pc.stockPending = false WHERE pc.id IN :ids AND pc.stockPending = true")
+    int claimStockPending(@Param("ids") Collection<Long> ids);
 }
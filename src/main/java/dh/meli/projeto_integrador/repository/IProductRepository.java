@@ -1,10 +1,19 @@
 package dh.meli.projeto_integrador.repository;
 
+import dh.meli.projeto_integrador.dto.dtoOutput.ProductOutputDto;
 import dh.meli.projeto_integrador.model.Product;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 /**
  * Interface IProductRepository will manage data persistence for Product object instances.
@@ -21,4 +30,40 @@ public interface IProductRepository extends CrudRepository<Product, Long> {
      * @return an object of type Product filtered by type
      */
     List<Product> findAllByType(String type);
+
+    /**
+     * Method to find a page of products after a given product id, ordered by id (keyset pagination)
+     * @param id long. Only products with a greater id are returned
+     * @param pageable the page size
+     * @return a list of objects of type Product ordered by id
+     */
+    List<Product> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
+    /**
+     * Method to find a page of products of a type after a given product id, ordered by id (keyset pagination)
+     * @param type String
+     * @param id long. Only products with a greater id are returned
+     * @param pageable the page size
+     * @return a list of objects of type Product filtered by type and ordered by id
+     */
+    List<Product> findByTypeAndIdGreaterThanOrderByIdAsc(String type, long id, Pageable pageable);
+
+    /**
+     * Method to stream all products, ordered by id. Must be consumed inside a transaction and closed after use
+     * @return a Stream of objects of type ProductOutputDto
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new dh.meli.projeto_integrador.dto.dtoOutput.ProductOutputDto(p.name, p.type, p.price) " +
+            "FROM Product p ORDER BY p.id")
+    Stream<ProductOutputDto> streamAll();
+
+    /**
+     * Method to stream the products of a type, ordered by id. Must be consumed inside a transaction and closed after use
+     * @param type String
+     * @return a Stream of objects of type ProductOutputDto filtered by type
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new dh.meli.projeto_integrador.dto.dtoOutput.ProductOutputDto(p.name, p.type, p.price) " +
+            "FROM Product p WHERE p.type = :type ORDER BY p.id")
+    Stream<ProductOutputDto> streamAllByType(@Param("type") String type);
 }
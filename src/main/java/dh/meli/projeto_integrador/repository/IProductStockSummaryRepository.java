@@ -0,0 +1,105 @@
+package dh.meli.projeto_integrador.repository;
+
+import dh.meli.projeto_integrador.dto.dtoOutput.ProductStockAggregateDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.TotalProductByWarehouseDto;
+import dh.meli.projeto_integrador.model.ProductStockSummary;
+import dh.meli.projeto_integrador.model.ProductStockSummaryId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Interface IProductStockSummaryRepository will manage data persistence for ProductStockSummary object instances.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+public interface IProductStockSummaryRepository extends JpaRepository<ProductStockSummary, ProductStockSummaryId> {
+
+    /**
+     * Method to add a quantity, negative to remove stock, to a summary row on MySQL, creating the row when it does not
+     * exist. The row is written by a single statement, so concurrent writers never lose an update;
+     * @param id the key of the summary row;
+     * @param quantity long. Quantity to be added;
+     * @return the number of affected rows;
+     */
+    @Modifying
+    @Query(value = "INSERT INTO product_stock_summary (product_id, warehouse_id, due_date, quantity) " +
+            "VALUES (:#{#id.productId}, :#{#id.warehouseId}, :#{#id.dueDate}, :quantity) " +
+            "ON DUPLICATE KEY UPDATE quantity = quantity + VALUES(quantity)", nativeQuery = true)
+    int upsertQuantityMySql(@Param("id") ProductStockSummaryId id, @Param("quantity") long quantity);
+
+    /**
+     * Method to add a quantity, negative to remove stock, to a summary row on H2, creating the row when it does not
+     * exist, with a single MERGE statement;
+     * @param id the key of the summary row;
+     * @param quantity long. Quantity to be added;
+     * @return the number of affected rows;
+     */
+    @Modifying
+    @Query(value = "MERGE INTO product_stock_summary s USING (VALUES (CAST(:#{#id.productId} AS BIGINT), " +
+            "CAST(:#{#id.warehouseId} AS BIGINT), CAST(:#{#id.dueDate} AS DATE), CAST(:quantity AS BIGINT))) " +
+            "v (product_id, warehouse_id, due_date, quantity) ON s.product_id = v.product_id " +
+            "AND s.warehouse_id = v.warehouse_id AND s.due_date = v.due_date " +
+            "WHEN MATCHED THEN UPDATE SET s.quantity = s.quantity + v.quantity " +
+            "WHEN NOT MATCHED THEN INSERT (product_id, warehouse_id, due_date, quantity) " +
+            "VALUES (v.product_id, v.warehouse_id, v.due_date, v.quantity)", nativeQuery = true)
+    int mergeQuantityH2(@Param("id") ProductStockSummaryId id, @Param("quantity") long quantity);
+
+    /**
+     * Method to aggregate the stock of a set of products. For each product it returns the total quantity and how many
+     * due dates with stock fall before the given limit;
+     * @param productIds a Collection of Long with the product identifiers;
+     * @param dueDateLimit LocalDate. Stock due before this date can no longer be sold;
+     * @return a List of objects of type ProductStockAggregateDto, one per product that has a summary row;
+     */
+    @Query("SELECT new dh.meli.projeto_integrador.dto.dtoOutput.ProductStockAggregateDto(s.id.productId, " +
+            "SUM(s.quantity), SUM(CASE WHEN s.id.dueDate < :dueDateLimit AND s.quantity > 0 THEN 1 ELSE 0 END)) " +
+            "FROM ProductStockSummary s WHERE s.id.productId IN :productIds GROUP BY s.id.productId")
+    List<ProductStockAggregateDto> findStockAggregateByProductIds(@Param("productIds") Collection<Long> productIds,
+                                                                  @Param("dueDateLimit") LocalDate dueDateLimit);
+
+    /**
+     * Method to sum, per warehouse, the stock of a product;
+     * @param productId long that represents Product identifier;
+     * @return a List of objects of type TotalProductByWarehouseDto ordered by warehouse identifier;
+     */
+    @Query("SELECT new dh.meli.projeto_integrador.dto.dtoOutput.TotalProductByWarehouseDto(s.id.warehouseId, " +
+            "SUM(s.quantity)) FROM ProductStockSummary s WHERE s.id.productId = :productId " +
+            "GROUP BY s.id.warehouseId ORDER BY s.id.warehouseId")
+    List<TotalProductByWarehouseDto> findTotalQuantityByWarehouse(@Param("productId") long productId);
+
+    /**
+     * Method to sum per warehouse the stock of a product that can still be sold, due on or after the given date;
+     * @param productId long that represents Product identifier;
+     * @param minimumDueDate LocalDate. Stock due before this date is not counted;
+     * @return a List of objects of type TotalProductByWarehouseDto ordered by warehouse identifier;
+     */
+    @Query("SELECT new dh.meli.projeto_integrador.dto.dtoOutput.TotalProductByWarehouseDto(s.id.warehouseId, " +
+            "SUM(s.quantity)) FROM ProductStockSummary s WHERE s.id.productId = :productId " +
+            "AND s.id.dueDate >= :minimumDueDate GROUP BY s.id.warehouseId ORDER BY s.id.warehouseId")
+    List<TotalProductByWarehouseDto> findSellableQuantityByWarehouse(@Param("productId") long productId,
+                                                                     @Param("minimumDueDate") LocalDate minimumDueDate);
+
+    /**
+     * Method to delete every summary row;
+     */
+    @Modifying
+    @Query("DELETE FROM ProductStockSummary")
+    void deleteAllRows();
+
+    /**
+     * Method to recompute every summary row from the batches;
+     * @return the number of summary rows created;
+     */
+    @Modifying
+    @Query(value = "INSERT INTO product_stock_summary (product_id, warehouse_id, due_date, quantity) " +
+            "SELECT b.product_id, s.warehouse_id, b.due_date, SUM(b.current_quantity) FROM batch b " +
+            "JOIN order_entry o ON o.id = b.order_entry_id JOIN section s ON s.id = o.section_id " +
+            "GROUP BY b.product_id, s.warehouse_id, b.due_date", nativeQuery = true)
+    int insertFromBatches();
+}
@@ -0,0 +1,165 @@
+package dh.meli.projeto_integrador.repository;
+
+import dh.meli.projeto_integrador.dto.dtoOutput.BatchStockDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.ProductOutputDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.TotalProductByWarehouseDto;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Class that reads the catalogue and the stock through R2DBC, without blocking the calling thread. The rows of each
+ * Flux are fetched from the database as the subscriber requests them.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@Repository
+public class ReactiveStockRepository {
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final String SELECT_BATCH_STOCK = "SELECT b.id, b.product_id, p.type, b.due_date, " +
+            "b.current_quantity FROM batch b JOIN product p ON p.id = b.product_id ";
+
+    /**
+     * Dependency Injection of the reactive DatabaseClient.
+     */
+    @Autowired
+    private DatabaseClient reactiveDatabaseClient;
+
+    /**
+     * Method to stream all products, ordered by id;
+     * @return a Flux of objects of type ProductOutputDto;
+     */
+    public Flux<ProductOutputDto> findAllProducts() {
+        return reactiveDatabaseClient.sql("SELECT name, type, price FROM product ORDER BY id")
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .map(ReactiveStockRepository::toProduct)
+                .all();
+    }
+
+    /**
+     * Method to stream the products of a type, ordered by id;
+     * @param type String that represents the product type;
+     * @return a Flux of objects of type ProductOutputDto;
+     */
+    public Flux<ProductOutputDto> findProductsByType(String type) {
+        return reactiveDatabaseClient.sql("SELECT name, type, price FROM product WHERE type = :type ORDER BY id")
+                .bind("type", type)
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .map(ReactiveStockRepository::toProduct)
+                .all();
+    }
+
+    /**
+     * Method to check if there is any product, of any type when the type is null;
+     * @param type String that represents the product type, or null;
+     * @return a Mono emitting true if at least one product exists;
+     */
+    public Mono<Boolean> existsProduct(String type) {
+        DatabaseClient.GenericExecuteSpec spec = type == null
+                ? reactiveDatabaseClient.sql("SELECT 1 FROM product LIMIT 1")
+                : reactiveDatabaseClient.sql("SELECT 1 FROM product WHERE type = :type LIMIT 1").bind("type", type);
+
+        return spec.map(row -> 1).first().hasElement();
+    }
+
+    /**
+     * Method to find the total quantity of a product in each warehouse, from the stock summary;
+     * @param productId long that represents Product identifier;
+     * @return a Flux of objects of type TotalProductByWarehouseDto ordered by warehouse identifier;
+     */
+    public Flux<TotalProductByWarehouseDto> findTotalQuantityByWarehouse(long productId) {
+        return reactiveDatabaseClient.sql("SELECT warehouse_id, SUM(quantity) AS total_quantity " +
+                        "FROM product_stock_summary WHERE product_id = :productId " +
+                        "GROUP BY warehouse_id ORDER BY warehouse_id")
+                .bind("productId", productId)
+                .map(row -> new TotalProductByWarehouseDto(row.get("warehouse_id", Long.class),
+                        row.get("total_quantity", Number.class).longValue()))
+                .all();
+    }
+
+    /**
+     * Method to stream the stock of a section whose due date falls inside the given window, ordered by due date;
+     * @param sectionId long that represents Section identifier;
+     * @param startDate LocalDate. Only batches due after this date are returned;
+     * @param endDate LocalDate. Only batches due before this date are returned;
+     * @return a Flux of objects of type BatchStockDto ordered by due date;
+     */
+    public Flux<BatchStockDto> findBatchStockBySectionIdAndDueDateBetween(long sectionId, LocalDate startDate,
+                                                                          LocalDate endDate) {
+        return reactiveDatabaseClient.sql(SELECT_BATCH_STOCK + "JOIN order_entry o ON o.id = b.order_entry_id " +
+                        "WHERE o.section_id = :sectionId AND b.due_date > :startDate AND b.due_date < :endDate " +
+                        "ORDER BY b.due_date, b.id")
+                .bind("sectionId", sectionId)
+                .bind("startDate", startDate)
+                .bind("endDate", endDate)
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .map(ReactiveStockRepository::toBatchStock)
+                .all();
+    }
+
+    /**
+     * Method to stream the stock of a product type whose due date falls inside the given window, ordered by due date;
+     * @param productType String that represents the product type;
+     * @param startDate LocalDate. Only batches due after this date are returned;
+     * @param endDate LocalDate. Only batches due before this date are returned;
+     * @return a Flux of objects of type BatchStockDto ordered by due date;
+     */
+    public Flux<BatchStockDto> findBatchStockByProductTypeAndDueDateBetween(String productType, LocalDate startDate,
+                                                                            LocalDate endDate) {
+        return reactiveDatabaseClient.sql(SELECT_BATCH_STOCK +
+                        "WHERE p.type = :productType AND b.due_date > :startDate AND b.due_date < :endDate " +
+                        "ORDER BY b.due_date, b.id")
+                .bind("productType", productType)
+                .bind("startDate", startDate)
+                .bind("endDate", endDate)
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .map(ReactiveStockRepository::toBatchStock)
+                .all();
+    }
+
+    /**
+     * Method to check if a section stores any batch;
+     * @param sectionId long that represents Section identifier;
+     * @return a Mono emitting true if at least one batch belongs to the section;
+     */
+    public Mono<Boolean> existsBatchBySectionId(long sectionId) {
+        return reactiveDatabaseClient.sql("SELECT 1 FROM batch b JOIN order_entry o ON o.id = b.order_entry_id " +
+                        "WHERE o.section_id = :sectionId LIMIT 1")
+                .bind("sectionId", sectionId)
+                .map(row -> 1)
+                .first()
+                .hasElement();
+    }
+
+    /**
+     * Method to check if there is any batch of a given product type;
+     * @param productType String that represents the product type;
+     * @return a Mono emitting true if at least one batch has a product of the given type;
+     */
+    public Mono<Boolean> existsBatchByProductType(String productType) {
+        return reactiveDatabaseClient.sql("SELECT 1 FROM batch b JOIN product p ON p.id = b.product_id " +
+                        "WHERE p.type = :productType LIMIT 1")
+                .bind("productType", productType)
+                .map(row -> 1)
+                .first()
+                .hasElement();
+    }
+
+    private static ProductOutputDto toProduct(Row row) {
+        return new ProductOutputDto(row.get("name", String.class), row.get("type", String.class),
+                row.get("price", Double.class));
+    }
+
+    private static BatchStockDto toBatchStock(Row row) {
+        return new BatchStockDto(row.get("id", Long.class), row.get("product_id", Long.class),
+                row.get("type", String.class), row.get("due_date", LocalDate.class),
+                row.get("current_quantity", Integer.class));
+    }
+}
@@ -0,0 +1,109 @@
+package dh.meli.projeto_integrador.retry;
+
+import dh.meli.projeto_integrador.exception.ConflictException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Aspect that retries, with exponential backoff, the methods annotated with RetryOnConflict.
+ * It runs before the transaction interceptor, so each attempt opens a new transaction and re-reads the rows that
+ * caused the conflict. When the attempts are exhausted a ConflictException is thrown.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ConflictRetryAspect {
+
+    /**
+     * Dependency Injection of the ConflictRetryStatistics.
+     */
+    @Autowired
+    private ConflictRetryStatistics statistics;
+
+    /**
+     * Maximum number of attempts, including the first one, before the conflict is reported to the client.
+     */
+    @Value("${concurrency.retry.max-attempts:3}")
+    private int maxAttempts = 3;
+
+    /**
+     * Waiting time in milliseconds before the first retry.
+     */
+    @Value("${concurrency.retry.initial-backoff-ms:20}")
+    private long initialBackoffMs = 20;
+
+    /**
+     * Factor applied to the waiting time after each retry.
+     */
+    @Value("${concurrency.retry.multiplier:2.0}")
+    private double multiplier = 2.0;
+
+    /**
+     * Upper bound, in milliseconds, of the waiting time between retries.
+     */
+    @Value("${concurrency.retry.max-backoff-ms:500}")
+    private long maxBackoffMs = 500;
+
+    /**
+     * Method that executes the annotated method, retrying it while it fails with a concurrency failure.
+     * @param joinPoint the intercepted method execution
+     * @return the value returned by the intercepted method
+     * @throws Throwable any exception thrown by the intercepted method that is not a concurrency failure
+     */
+    @Around("@annotation(dh.meli.projeto_integrador.retry.RetryOnConflict)")
+    public Object retryOnConflict(ProceedingJoinPoint joinPoint) throws Throwable {
+        String operation = joinPoint.getSignature().getDeclaringType().getSimpleName() + "."
+                + joinPoint.getSignature().getName();
+        long backoffMs = initialBackoffMs;
+
+        statistics.recordInvocation(operation);
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (ConcurrencyFailureException e) {
+                statistics.recordConflict(operation);
+
+                if (attempt >= maxAttempts) {
+                    statistics.recordExhausted(operation);
+                    throw new ConflictException(String.format(
+                            "The operation could not be completed due to concurrent updates, please try again (%s)",
+                            operation));
+                }
+
+                statistics.recordRetry(operation);
+                sleep(backoffMs);
+                backoffMs = Math.min(maxBackoffMs, Math.round(backoffMs * multiplier));
+            }
+        }
+    }
+
+    /**
+     * Method that waits before the next attempt. A random jitter of up to the given backoff is added, so
+     * transactions that conflicted with each other do not retry at the same instant.
+     * @param backoffMs of type long. Base waiting time in milliseconds
+     */
+    private static void sleep(long backoffMs) {
+        if (backoffMs <= 0) {
+            return;
+        }
+
+        try {
+            Thread.sleep(backoffMs + ThreadLocalRandom.current().nextLong(backoffMs + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("The operation was interrupted while waiting to be retried");
+        }
+    }
+}
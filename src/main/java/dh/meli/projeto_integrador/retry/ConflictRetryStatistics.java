@@ -0,0 +1,91 @@
+package dh.meli.projeto_integrador.retry;
+
+import dh.meli.projeto_integrador.dto.dtoOutput.ConflictRetryStatisticsDto;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Class that keeps, for each operation annotated with RetryOnConflict, how many times it was invoked, how many
+ * attempts failed with a conflict, how many were retried and how many gave up.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@Component
+public class ConflictRetryStatistics {
+
+    private final Map<String, Counters> countersByOperation = new ConcurrentHashMap<>();
+
+    /**
+     * Method to register a new invocation of an operation.
+     * @param operation String that identifies the operation
+     */
+    public void recordInvocation(String operation) {
+        counters(operation).invocations.increment();
+    }
+
+    /**
+     * Method to register an attempt that failed because of a concurrent change.
+     * @param operation String that identifies the operation
+     */
+    public void recordConflict(String operation) {
+        counters(operation).conflicts.increment();
+    }
+
+    /**
+     * Method to register that a failed attempt is going to be retried.
+     * @param operation String that identifies the operation
+     */
+    public void recordRetry(String operation) {
+        counters(operation).retries.increment();
+    }
+
+    /**
+     * Method to register that an operation gave up after reaching the maximum number of attempts.
+     * @param operation String that identifies the operation
+     */
+    public void recordExhausted(String operation) {
+        counters(operation).exhausted.increment();
+    }
+
+    /**
+     * Method to list the counters of every operation.
+     * @return a List of objects of type ConflictRetryStatisticsDto
+     */
+    public List<ConflictRetryStatisticsDto> getStatistics() {
+        return countersByOperation.entrySet().stream()
+                .map(entry -> entry.getValue().toDto(entry.getKey()))
+                .collect(Collectors.toList());
+    }
+
+    private Counters counters(String operation) {
+        return countersByOperation.computeIfAbsent(operation, key -> new Counters());
+    }
+
+    private static class Counters {
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder conflicts = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder exhausted = new LongAdder();
+
+        private ConflictRetryStatisticsDto toDto(String operation) {
+            long invocationCount = invocations.sum();
+            long conflictCount = conflicts.sum();
+            long retryCount = retries.sum();
+
+            return ConflictRetryStatisticsDto.builder()
+                    .operation(operation)
+                    .invocations(invocationCount)
+                    .conflicts(conflictCount)
+                    .retries(retryCount)
+                    .exhausted(exhausted.sum())
+                    .conflictRate(invocationCount == 0 ? 0.0 : (double) conflictCount / invocationCount)
+                    .retryRate(invocationCount == 0 ? 0.0 : (double) retryCount / invocationCount)
+                    .build();
+        }
+    }
+}
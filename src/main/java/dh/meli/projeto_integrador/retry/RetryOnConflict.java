@@ -0,0 +1,18 @@
+package dh.meli.projeto_integrador.retry;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation that marks a service method whose transaction must be retried, with backoff, when it fails because of a
+ * concurrent change (optimistic version check or lock acquisition failure).
+ * The retry wraps the whole transaction, so every attempt re-reads the data it depends on.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
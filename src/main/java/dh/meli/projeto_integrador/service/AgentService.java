@@ -1,5 +1,6 @@
 package dh.meli.projeto_integrador.service;
 
+import dh.meli.projeto_integrador.cache.ReferenceDataCache;
 import dh.meli.projeto_integrador.exception.ResourceNotFoundException;
 import dh.meli.projeto_integrador.model.Agent;
 import dh.meli.projeto_integrador.repository.IAgentRepository;
@@ -23,12 +24,27 @@ public class AgentService implements IAgentService{
     private IAgentRepository agentRepository;
 
     /**
-     * Method to find an agent by id;
+     * Dependency Injection of the ReferenceDataCache.
+     */
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    /**
+     * Method to find an agent by id, read through the reference data cache;
      * @param id of type long. Agent identifier;
      * @return an object of type Agent;
      */
     @Override
     public Agent findAgent(long id) {
+        return referenceDataCache.agents().get(id, this::loadAgent);
+    }
+
+    /**
+     * Method to read an agent from the database;
+     * @param id of type long. Agent identifier;
+     * @return an object of type Agent;
+     */
+    private Agent loadAgent(long id) {
         Optional<Agent> agent = agentRepository.findById(id);
 
         if (agent.isEmpty()) {
@@ -7,6 +7,7 @@ import dh.meli.projeto_integrador.exception.ResourceNotFoundException;
 import dh.meli.projeto_integrador.model.Batch;
 import dh.meli.projeto_integrador.model.OrderEntry;
 import dh.meli.projeto_integrador.repository.IBatchRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -43,6 +44,47 @@ public class BatchService implements IBatchService {
         }
     }
 
+    /**
+     * Method to save new batches. Their ids come from a pooled sequence, so the inserts are sent in JDBC batches
+     * when the transaction is flushed;
+     * @param batches a Collection of objects of type Batch;
+     * @return a List of the saved objects of type Batch, with their ids;
+     */
+    @Transactional
+    @Override
+    public List<Batch> createBatches(Collection<Batch> batches) {
+        try {
+            return batchRepository.saveAll(batches);
+        } catch (Exception e) {
+            throw new InternalServerErrorException(e.getMessage());
+        }
+    }
+
+    /**
+     * Method to delete the given batches. They are removed one by one through the entity manager, so the entity
+     * listeners of Batch are notified;
+     * @param batches a Collection of objects of type Batch;
+     */
+    @Transactional
+    @Override
+    public void deleteBatches(Collection<Batch> batches) {
+        batchRepository.deleteAll(batches);
+    }
+
+    /**
+     * Method to find which of the given batches already had stock reserved by a cart. Those batches are referenced
+     * by the cart lines and can not be deleted;
+     * @param batches a Collection of objects of type Batch;
+     * @return a List of Long with the identifiers of the reserved batches, in ascending order;
+     */
+    @Override
+    public List<Long> findReservedBatchIds(Collection<Batch> batches) {
+        List<Long> batchIds = new ArrayList<>();
+        batches.forEach(batch -> batchIds.add(batch.getId()));
+
+        return batchIds.isEmpty() ? List.of() : batchRepository.findReservedIds(batchIds);
+    }
+
     /**
      * Method to find all batches that belongs to a given Order Entry;
      * @param orderEntry of type OrderEntry. OrderEntry instance;
@@ -54,37 +96,48 @@ public class BatchService implements IBatchService {
     };
 
     /**
-     * Method used to get batch entries by section ordered by due date
+     * Method used to get batch entries by section ordered by due date. The due date window and the ordering are
+     * applied by the database
      * @param sectionId of type long represents section identifier
      * @param numberOfDays of type long represents the amount of days further than now to query batchStock
      * @return a List of objects of type BatchStockDto
      */
     @Override
+    @Timed("business.batch.section.list")
     public List<BatchStockDto> getBatchBySectionOrderedByDueDate(long sectionId, long numberOfDays) {
-        List<Batch> batchList =  batchRepository.findBatchBySectionId(sectionId);
+        LocalDate now = LocalDate.now();
 
-        if (batchList.isEmpty()) {
+        List<BatchStockDto> batchStockDtoList = batchRepository
+                .findBatchStockBySectionIdAndDueDateBetween(sectionId, now, now.plusDays(numberOfDays));
+
+        if (batchStockDtoList.isEmpty() && !batchRepository.existsByOrderEntrySectionId(sectionId)) {
             throw new ResourceNotFoundException("The given section does not have available batch stock");
         }
 
-        return filterBatchStockByDueDate(numberOfDays, batchList);
+        return batchStockDtoList;
     }
 
     /**
-     * Method used to get batch entries by category ordered by due date
+     * Method used to get batch entries by category ordered by due date. The due date window and the ordering are
+     * applied by the database
      * @param category of type String represents the product type
      * @param numberOfDays of type long represents the amount of days further than now to query batchStock
      * @return a List of objects of type BatchStockDto
      */
     @Override
+    @Timed("business.batch.category.list")
     public List<BatchStockDto> getBatchByProductTypeOrderedByDueDate(long numberOfDays, CategoryDto category) {
-        List<Batch> batchList = batchRepository.findBatchByProductType(category.getProductType());
+        LocalDate now = LocalDate.now();
+        String productType = category.getProductType();
+
+        List<BatchStockDto> batchStockDtoList = batchRepository
+                .findBatchStockByProductTypeAndDueDateBetween(productType, now, now.plusDays(numberOfDays));
 
-        if (batchList.isEmpty()) {
+        if (batchStockDtoList.isEmpty() && !batchRepository.existsByProductType(productType)) {
             throw new ResourceNotFoundException("The given category does not have available batch stock");
         }
 
-        return filterBatchStockByDueDate(numberOfDays, batchList);
+        return batchStockDtoList;
     }
 
     /**
@@ -3,29 +3,47 @@ package dh.meli.projeto_integrador.service;
 import dh.meli.projeto_integrador.dto.dtoInput.ProductDto;
 
 import dh.meli.projeto_integrador.dto.dtoOutput.CartOutputDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.CartResultDto;
 import dh.meli.projeto_integrador.dto.dtoOutput.CartProductsOutputDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.ProductStockAggregateDto;
 import dh.meli.projeto_integrador.dto.dtoOutput.TotalPriceDto;
 
 import dh.meli.projeto_integrador.dto.dtoOutput.UpdateStatusDto;
 import dh.meli.projeto_integrador.enumClass.PurchaseOrderStatusEnum;
 import dh.meli.projeto_integrador.dto.dtoInput.CartDto;
+import dh.meli.projeto_integrador.exception.ConflictException;
 import dh.meli.projeto_integrador.exception.ForbiddenException;
 
 import dh.meli.projeto_integrador.exception.ResourceNotFoundException;
+import dh.meli.projeto_integrador.hotstock.HotStockCounters;
 import dh.meli.projeto_integrador.model.*;
+import dh.meli.projeto_integrador.monitoring.BusinessMetrics;
 import dh.meli.projeto_integrador.repository.*;
+import dh.meli.projeto_integrador.retry.RetryOnConflict;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import javax.transaction.Transactional;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
-import static java.time.temporal.ChronoUnit.DAYS;
-
 /**
  * Class responsible for business rules and communication with the Cart Repository layer
  * @author Gabriela Azevedo, Rafael Cavalcante.
@@ -41,10 +59,10 @@ public class CartService implements ICartService {
     private ICartRepository cartRepository;
 
     /**
-     * Dependency Injection of the Batch Repository.
+     * Dependency Injection of the ProductStockSummary Repository.
      */
     @Autowired
-    private IBatchRepository batchRepository;
+    private IProductStockSummaryRepository productStockSummaryRepository;
 
     /**
      * Dependency Injection of the BatchCart Repository.
@@ -64,6 +82,36 @@ public class CartService implements ICartService {
     @Autowired
     private ICustomerRepository customerRepository;
 
+    /**
+     * Dependency Injection of the StockReservation Service.
+     */
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    /**
+     * Dependency Injection of the BusinessMetrics.
+     */
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
+    /**
+     * Dependency Injection of the Outbox Service.
+     */
+    @Autowired
+    private OutboxService outboxService;
+
+    /**
+     * Dependency Injection of the HotStockCounters.
+     */
+    @Autowired
+    private HotStockCounters hotStockCounters;
+
+    /**
+     * Dependency Injection of the Validator.
+     */
+    @Autowired
+    private Validator validator;
+
     /**
      * Method that receives an object of type CartDto, build the cart object and saves on the Cart table.
      * @param cartDto an object of type CartDto
@@ -80,61 +128,145 @@ public class CartService implements ICartService {
         return cartRepository.save(cart);
     }
 
+    /**
+     * Method that loads, in a single query, all the products referenced by the cart lines and keeps them indexed by id.
+     * @param productsList a list of objects of type ProductDto
+     * @return a Map of product id to the corresponding object of type Product
+     */
+    private Map<Long, Product> findCartProducts(List<ProductDto> productsList) {
+        Set<Long> productIds = productsList.stream()
+                .map(ProductDto::getProductId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Map<Long, Product> productsById = new HashMap<>();
+        productRepository.findAllById(productIds).forEach(product -> productsById.put(product.getId(), product));
+
+        productIds.forEach(productId -> {
+            if (!productsById.containsKey(productId)) {
+                throw new ResourceNotFoundException(String.format("Could not find valid product for id %d", productId));
+            }
+        });
+
+        return productsById;
+    }
+
+    /**
+     * Method that loads, in a single query, the stock aggregate of every product of the cart and keeps it indexed by
+     * product id. The stock is read from the stock summary; stock with less than 3 weeks until its due date is
+     * counted as invalid.
+     * @param productIds a Set of Long with the product identifiers
+     * @return a Map of product id to the corresponding object of type ProductStockAggregateDto
+     */
+    private Map<Long, ProductStockAggregateDto> findCartStock(Set<Long> productIds) {
+        return productStockSummaryRepository.findStockAggregateByProductIds(productIds, LocalDate.now().plusDays(21))
+                .stream()
+                .collect(Collectors.toMap(ProductStockAggregateDto::getProductId, Function.identity()));
+    }
+
     /**
      * Method that receives an object of type Cart and a List of objects of type ProductDto and saves the data on the BatchCart table.
      * @param savedCart an object of type Cart
      * @param productsList a list of objects of type ProductDto
+     * @param productsById a Map of product id to the corresponding object of type Product
+     * @return a list of objects of type ProductCart, as saved on the database
      */
-    private void buildProductCart(Cart savedCart, List<ProductDto> productsList) {
+    private List<ProductCart> buildProductCart(Cart savedCart, List<ProductDto> productsList, Map<Long, Product> productsById) {
+        Map<Long, ProductStockAggregateDto> stockByProductId = findCartStock(productsById.keySet());
 
         List<String> listInvalidProducts = new ArrayList<>();
-        List<ProductDto> listValidProducts = new ArrayList<>();
 
         productsList.forEach(product -> {
-            Product productById = productRepository.findById(product.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException(String.format("Could not find valid product for id %d", product.getProductId())));
-            Integer totalQuantity = batchRepository.findTotalQuantityByProductId(productById.getId());
+            Product productById = productsById.get(product.getProductId());
+            ProductStockAggregateDto stock = stockByProductId.get(productById.getId());
+
+            if (stock == null || stock.getInvalidDueDateBatches() >= 1 || product.getQuantity() > stock.getTotalQuantity()) {
+                listInvalidProducts.add(productById.getName());
+            }
+        });
+
+        if (listInvalidProducts.size() >= 1) {
+            businessMetrics.recordStockRejection();
+            throw new ForbiddenException(String.format("The product(s): %s does not have enough quantity in stock or due date is not valid.", listInvalidProducts));
+        }
 
-            List<Batch> batchById = batchRepository.findBatchByProductId(productById.getId());
+        return saveProductCarts(savedCart, productsList, productsById, false);
+    }
 
-            List<Batch> invalidDueDate = filterByDueDate(batchById);
+    /**
+     * Method that saves the lines of a cart on the BatchCart table.
+     * @param savedCart an object of type Cart
+     * @param productsList a list of objects of type ProductDto
+     * @param productsById a Map of product id to the corresponding object of type Product
+     * @param stockPending true when the batches of the lines are reserved later by the HotStockReconciler
+     * @return a list of objects of type ProductCart, as saved on the database
+     */
+    private List<ProductCart> saveProductCarts(Cart savedCart, List<ProductDto> productsList,
+                                               Map<Long, Product> productsById, boolean stockPending) {
+        List<ProductCart> productCarts = productsList.stream()
+                .map(product -> ProductCart.builder()
+                        .cart(savedCart)
+                        .product(productsById.get(product.getProductId()))
+                        .quantity(product.getQuantity())
+                        .stockPending(stockPending)
+                        .build())
+                .collect(Collectors.toList());
 
-                if (totalQuantity == null || invalidDueDate.size() >= 1 || product.getQuantity() > totalQuantity) {
-                    listInvalidProducts.add(productById.getName());
-                }
+        List<ProductCart> savedProductCarts = new ArrayList<>();
+        productCartRepository.saveAll(productCarts).forEach(savedProductCarts::add);
 
-                else if (product.getQuantity() <= totalQuantity) {
-                    listValidProducts.add(product);
-                }
-        });
+        return savedProductCarts;
+    }
 
-        if (listInvalidProducts.size() >= 1) {
+    /**
+     * Method that takes the quantities of the hot products of the cart from the HotStockCounters, without any query.
+     * When every product of the cart is hot and their pending quantities are under the cap, the batches of the cart
+     * are reserved later by the HotStockReconciler; otherwise the cart goes on to the stock summary as any other.
+     * @param productsList a list of objects of type ProductDto
+     * @param productsById a Map of product id to the corresponding object of type Product
+     * @return true when the batches of the cart are reserved later
+     */
+    private boolean admitHotStock(List<ProductDto> productsList, Map<Long, Product> productsById) {
+        Map<Long, Long> hotDemand = new LinkedHashMap<>();
+        boolean allHot = true;
+
+        for (ProductDto product : productsList) {
+            if (hotStockCounters.isHot(product.getProductId())) {
+                hotDemand.merge(product.getProductId(), (long) product.getQuantity(), Long::sum);
+            } else {
+                allHot = false;
+            }
+        }
+
+        if (hotDemand.isEmpty()) {
+            return false;
+        }
+
+        Set<Long> rejected = hotStockCounters.acquire(hotDemand);
+
+        if (!rejected.isEmpty()) {
+            List<String> listInvalidProducts = hotDemand.keySet().stream()
+                    .filter(rejected::contains)
+                    .map(productId -> productsById.get(productId).getName())
+                    .collect(Collectors.toList());
+
+            businessMetrics.recordStockRejection();
             throw new ForbiddenException(String.format("The product(s): %s does not have enough quantity in stock or due date is not valid.", listInvalidProducts));
         }
 
-        listValidProducts.forEach(product -> {
-            Product productById = productRepository.findById(product.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException(String.format("Could not find valid product for id %d", product.getProductId())));
-            ProductCart productCart = ProductCart.builder()
-                    .cart(savedCart)
-                    .product(productById)
-                    .quantity(product.getQuantity())
-                    .build();
-            productCartRepository.save(productCart);
-        });
+        return allHot && hotStockCounters.defer(hotDemand);
     }
 
     /**
      * Method that receives a list of type ProductDto and calculates the total price of the cart products.
      * @param productsList List of objects of type ProductDto
+     * @param productsById a Map of product id to the corresponding object of type Product
      * @return an object of type TotalPriceDto with an attribute totalPrice of type Double.
      */
-    private TotalPriceDto totalCartPrice(List<ProductDto> productsList) {
+    private TotalPriceDto totalCartPrice(List<ProductDto> productsList, Map<Long, Product> productsById) {
         TotalPriceDto total = new TotalPriceDto(0.0);
 
         productsList.forEach(product -> {
-            Product productById = productRepository.findById(product.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Cart not found with this id"));
+            Product productById = productsById.get(product.getProductId());
 
             total.setTotalPrice(productById.getPrice() * product.getQuantity() + total.getTotalPrice());
         });
@@ -143,38 +275,302 @@ public class CartService implements ICartService {
 
     /**
      * Method that calls the other methods of this class and persists the info of the carts on the database and returns the total price for the user.
+     * Products and stock are loaded once for the whole cart, so the number of queries does not grow with the number of lines.
+     * The stock of every line is then reserved, decrementing the batches in first-expire-first-out order.
+     * The hot products are admitted by the HotStockCounters instead, and a cart of hot products only is saved with its
+     * lines flagged as pending, their batches being reserved after the commit by the HotStockReconciler.
+     * Retried when a concurrent checkout or inbound order changes the same batches.
      * @param cartDto an object of type CartDto
      * @return an object of type TotalPriceDto with an attribute totalPrice of type Double.
      */
     @Override
+    @Timed("business.cart.create")
+    @RetryOnConflict
     @Transactional
     public TotalPriceDto createCart(CartDto cartDto) {
         Cart savedCart = buildCart(cartDto);
         List<ProductDto> productsList = cartDto.getProducts();
-        buildProductCart(savedCart, productsList);
-        return totalCartPrice(productsList);
+        businessMetrics.recordCartLines(productsList.size());
+        Map<Long, Product> productsById = findCartProducts(productsList);
+        List<ProductCart> savedProductCarts;
+
+        if (admitHotStock(productsList, productsById)) {
+            savedProductCarts = saveProductCarts(savedCart, productsList, productsById, true);
+            hotStockCounters.enqueue(savedProductCarts.stream().map(ProductCart::getId).collect(Collectors.toList()));
+        } else {
+            savedProductCarts = buildProductCart(savedCart, productsList, productsById);
+            stockReservationService.reserve(savedProductCarts);
+        }
+
+        outboxService.cartCreated(savedCart, savedProductCarts);
+        return totalCartPrice(productsList, productsById);
     }
 
     /**
-<<<<<<< HEAD
-     * A method that recive a list of ProductCart fetch the products and create a list of CartProductsOutputDto.
-     * @param cartProducts a list of objects of type ProductCart.
-     * @return a list of CartProductsOutputDto.
+     * Method that creates many carts at once and reports, for each one, if it was accepted or rejected.
+     * Customers, products and stock are loaded once for the whole request and the stock is validated by product
+     * across all the carts, in request order, so a cart is rejected when the carts before it already took the stock
+     * it needs. The accepted carts and their lines are saved together, in JDBC batches, and their stock is reserved
+     * once per product. A rejected cart does not prevent the others from being saved: when a concurrent checkout
+     * takes the stock of a product after it was validated, the carts that need it are rejected and the stock of
+     * the remaining carts is reserved again.
+     * Retried when a concurrent checkout or inbound order changes the same batches. The business metrics are
+     * recorded once the transaction commits, so a retried request is counted once.
+     * @param cartDtos a list of objects of type CartDto
+     * @return a list of objects of type CartResultDto, in request order
      */
-    private List<CartProductsOutputDto> createCartProductList (List<ProductCart> cartProducts) {
-        List<CartProductsOutputDto> cartProductsDtos = new ArrayList<>();
-        for (ProductCart productCart : cartProducts) {
-            Product product = productRepository.findById(productCart.getProduct().getId()).get();
-            cartProductsDtos.add(CartProductsOutputDto.builder()
-                    .name(product.getName())
-                    .type(product.getType())
-                    .price(product.getPrice())
-                    .quantity(productCart.getQuantity())
-                    .subtotal(product.getPrice() * productCart.getQuantity())
-                    .build()
-            );
+    @Override
+    @Timed("business.cart.create.bulk")
+    @RetryOnConflict
+    @Transactional
+    public List<CartResultDto> createCarts(List<CartDto> cartDtos) {
+        Map<Long, CartResultDto> results = new TreeMap<>();
+        Map<Long, CartDto> validCarts = new LinkedHashMap<>();
+
+        for (int i = 0; i < cartDtos.size(); i++) {
+            long index = i + 1;
+            String violations = validateCart(cartDtos.get(i));
+
+            if (violations == null) {
+                validCarts.put(index, cartDtos.get(i));
+            } else {
+                results.put(index, CartResultDto.rejected(index, violations));
+            }
         }
-        return cartProductsDtos;
+
+        Map<Long, Customer> customersById = new HashMap<>();
+        customerRepository.findAllById(validCarts.values().stream().map(CartDto::getBuyerId)
+                .collect(Collectors.toSet())).forEach(customer -> customersById.put(customer.getId(), customer));
+
+        Map<Long, Product> productsById = new HashMap<>();
+        productRepository.findAllById(validCarts.values().stream()
+                .flatMap(cartDto -> cartDto.getProducts().stream())
+                .map(ProductDto::getProductId)
+                .collect(Collectors.toSet())).forEach(product -> productsById.put(product.getId(), product));
+
+        Map<Long, Long> availableByProductId = new HashMap<>();
+        findCartStock(productsById.keySet()).forEach((productId, stock) -> {
+            if (stock.getInvalidDueDateBatches() == 0) {
+                availableByProductId.put(productId, stock.getTotalQuantity());
+            }
+        });
+
+        Map<Long, Cart> acceptedCarts = new LinkedHashMap<>();
+        List<ProductCart> productCarts = new ArrayList<>();
+
+        validCarts.forEach((index, cartDto) -> {
+            String rejection = allocateCart(cartDto, customersById, productsById, availableByProductId);
+
+            if (rejection != null) {
+                results.put(index, CartResultDto.rejected(index, rejection));
+                return;
+            }
+
+            Cart cart = Cart.builder()
+                    .date(cartDto.getDate())
+                    .status(cartDto.getOrderStatus())
+                    .customer(customersById.get(cartDto.getBuyerId()))
+                    .build();
+
+            cartDto.getProducts().forEach(product -> productCarts.add(ProductCart.builder()
+                    .cart(cart)
+                    .product(productsById.get(product.getProductId()))
+                    .quantity(product.getQuantity())
+                    .build()));
+            acceptedCarts.put(index, cart);
+        });
+
+        if (!acceptedCarts.isEmpty()) {
+            cartRepository.saveAll(acceptedCarts.values());
+            List<ProductCart> savedProductCarts = new ArrayList<>();
+            productCartRepository.saveAll(productCarts).forEach(savedProductCarts::add);
+            reserveAcceptedCarts(acceptedCarts, savedProductCarts, productsById, results);
+
+            Map<Cart, List<ProductCart>> productCartsByCart = savedProductCarts.stream()
+                    .collect(Collectors.groupingBy(ProductCart::getCart));
+            acceptedCarts.values().forEach(cart -> outboxService.cartCreated(cart, productCartsByCart.get(cart)));
+        }
+
+        acceptedCarts.forEach((index, cart) -> {
+            CartDto cartDto = validCarts.get(index);
+            recordAfterCommit(() -> businessMetrics.recordCartLines(cartDto.getProducts().size()));
+            results.put(index, CartResultDto.accepted(index, cart.getId(),
+                    totalCartPrice(cartDto.getProducts(), productsById).getTotalPrice()));
+        });
+
+        return new ArrayList<>(results.values());
+    }
+
+    /**
+     * Method that checks the constraints of a cart of a bulk purchase order.
+     * @param cartDto an object of type CartDto
+     * @return a String with the violated constraints, null if the cart is valid
+     */
+    private String validateCart(CartDto cartDto) {
+        Set<ConstraintViolation<CartDto>> violations = validator.validate(cartDto);
+
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+
+        if (cartDto.getProducts() == null) {
+            return "products: The products list not to be empty";
+        }
+
+        if (cartDto.getOrderStatus() == PurchaseOrderStatusEnum.FINISHED) {
+            return "The new cart cannot be created with order status 'FINISHED'";
+        }
+
+        return null;
+    }
+
+    /**
+     * Method that checks if the customer and the products of a cart exist and if there is still stock for every
+     * line. When there is, the quantities of the cart are taken from the available stock.
+     * @param cartDto an object of type CartDto
+     * @param customersById a Map of customer id to the corresponding object of type Customer
+     * @param productsById a Map of product id to the corresponding object of type Product
+     * @param availableByProductId a Map of product id to the stock not yet taken by the previous carts
+     * @return a String with the reason the cart was rejected, null if it was accepted
+     */
+    private String allocateCart(CartDto cartDto, Map<Long, Customer> customersById, Map<Long, Product> productsById,
+                                Map<Long, Long> availableByProductId) {
+        if (!customersById.containsKey(cartDto.getBuyerId())) {
+            return String.format("Could not find valid customer for id %d", cartDto.getBuyerId());
+        }
+
+        Map<Long, Long> demandByProductId = new LinkedHashMap<>();
+
+        for (ProductDto product : cartDto.getProducts()) {
+            if (!productsById.containsKey(product.getProductId())) {
+                return String.format("Could not find valid product for id %d", product.getProductId());
+            }
+            demandByProductId.merge(product.getProductId(), (long) product.getQuantity(), Long::sum);
+        }
+
+        List<String> listInvalidProducts = new ArrayList<>();
+
+        demandByProductId.forEach((productId, demand) -> {
+            if (demand > availableByProductId.getOrDefault(productId, 0L)) {
+                listInvalidProducts.add(productsById.get(productId).getName());
+            }
+        });
+
+        if (listInvalidProducts.size() >= 1) {
+            return stockRejection(listInvalidProducts);
+        }
+
+        demandByProductId.forEach((productId, demand) ->
+                availableByProductId.merge(productId, -demand, Long::sum));
+
+        return null;
+    }
+
+    /**
+     * Method that reserves the stock of the carts accepted by a bulk purchase order. When a concurrent checkout took
+     * the stock of some products after the carts were validated, nothing is reserved: the carts that need those
+     * products are rejected, their lines and the carts are deleted, and the lines of the remaining carts are
+     * reserved again, until the reservation succeeds or no cart is left.
+     * @param acceptedCarts a Map of request index to the saved Cart, where the rejected carts are removed
+     * @param savedProductCarts a list with the saved lines of the accepted carts, where the rejected lines are removed
+     * @param productsById a Map of product id to the corresponding object of type Product
+     * @param results a Map of request index to CartResultDto, where the rejected carts are added
+     */
+    private void reserveAcceptedCarts(Map<Long, Cart> acceptedCarts, List<ProductCart> savedProductCarts,
+                                      Map<Long, Product> productsById, Map<Long, CartResultDto> results) {
+        Set<Long> invalidProductIds = stockReservationService.reserveIfAvailable(savedProductCarts);
+
+        while (!invalidProductIds.isEmpty()) {
+            Set<Long> productIds = invalidProductIds;
+            Map<Cart, List<ProductCart>> rejectedLinesByCart = new LinkedHashMap<>();
+            savedProductCarts.stream()
+                    .filter(productCart -> productIds.contains(productCart.getProduct().getId()))
+                    .forEach(productCart -> rejectedLinesByCart.computeIfAbsent(productCart.getCart(),
+                            cart -> new ArrayList<>()).add(productCart));
+
+            List<ProductCart> rejectedLines = new ArrayList<>();
+            acceptedCarts.entrySet().removeIf(accepted -> {
+                List<ProductCart> invalidLines = rejectedLinesByCart.get(accepted.getValue());
+
+                if (invalidLines == null) {
+                    return false;
+                }
+
+                List<String> listInvalidProducts = invalidLines.stream()
+                        .map(productCart -> productsById.get(productCart.getProduct().getId()).getName())
+                        .distinct()
+                        .collect(Collectors.toList());
+                results.put(accepted.getKey(), CartResultDto.rejected(accepted.getKey(),
+                        stockRejection(listInvalidProducts)));
+                savedProductCarts.stream()
+                        .filter(productCart -> productCart.getCart() == accepted.getValue())
+                        .forEach(rejectedLines::add);
+                return true;
+            });
+
+            savedProductCarts.removeAll(rejectedLines);
+            productCartRepository.deleteAll(rejectedLines);
+            cartRepository.deleteAll(rejectedLinesByCart.keySet());
+
+            invalidProductIds = savedProductCarts.isEmpty()
+                    ? Set.of()
+                    : stockReservationService.reserveIfAvailable(savedProductCarts);
+        }
+    }
+
+    /**
+     * Method that builds the reason a cart of a bulk purchase order was rejected for lack of stock, and counts the
+     * rejection once the transaction commits.
+     * @param listInvalidProducts a list with the names of the products without enough stock
+     * @return a String with the reason the cart was rejected
+     */
+    private String stockRejection(List<String> listInvalidProducts) {
+        recordAfterCommit(businessMetrics::recordStockRejection);
+        return String.format("The product(s): %s does not have enough quantity in stock or due date is not valid.", listInvalidProducts);
+    }
+
+    /**
+     * Method that records a business metric when the current transaction commits, or right away outside of a
+     * transaction, so a request retried by @RetryOnConflict records its metrics once.
+     * @param record a Runnable that records the metric
+     */
+    private void recordAfterCommit(Runnable record) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record.run();
+            }
+        });
+    }
+
+    /**
+     * A method that recive the lines of a cart, already loaded with their products, and create a list of
+     * CartProductsOutputDto ordered as the lines were created.
+     * @param cartProducts a collection of objects of type ProductCart.
+     * @return a list of CartProductsOutputDto.
+     */
+    private List<CartProductsOutputDto> createCartProductList (Collection<ProductCart> cartProducts) {
+        return cartProducts.stream()
+                .sorted(Comparator.comparingLong(ProductCart::getId))
+                .map(productCart -> {
+                    Product product = productCart.getProduct();
+                    return CartProductsOutputDto.builder()
+                            .name(product.getName())
+                            .type(product.getType())
+                            .price(product.getPrice())
+                            .quantity(productCart.getQuantity())
+                            .subtotal(product.getPrice() * productCart.getQuantity())
+                            .build();
+                })
+                .collect(Collectors.toList());
     }
 
     /**
@@ -192,21 +588,20 @@ public class CartService implements ICartService {
 
     /**
      * Method that handles the request to fetch a cart in the database and return an Dto with the relevant information.
+     * The cart, its customer, its lines and their products are read in a single query.
      * @param id a Long with the id of the cart requested
      * @return an object of type CartOutputDto with all the information regarding the cart requested.
      */
+    @Timed("business.cart.get")
     public CartOutputDto getCartById(Long id) {
-        Cart existCart = findCartIfExists(id);
-
-        Customer customer = customerRepository.findById(existCart.getCustomer().getId()).get();
+        Cart existCart = cartRepository.findCartWithProductsById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Cart not found with this id"));
 
-        List<ProductCart> cartProducts = new ArrayList<>(existCart.getProductCarts());
-
-        List<CartProductsOutputDto> cartProductsDtos = createCartProductList(cartProducts);
+        List<CartProductsOutputDto> cartProductsDtos = createCartProductList(existCart.getProductCarts());
 
         Double total = calculateCartTotal(cartProductsDtos);
         return CartOutputDto.builder()
-                .customerName(customer.getName())
+                .customerName(existCart.getCustomer().getName())
                 .status(existCart.getStatus())
                 .date(existCart.getDate())
                 .products(cartProductsDtos)
@@ -215,17 +610,25 @@ public class CartService implements ICartService {
     }
     /**
      * Method that calls the other methods of this class and persists the info of the carts on the database and returns the total price for the user.
+     * A cart admitted by the HotStockCounters can only be finished once the HotStockReconciler reserved its batches.
      * @param id of type Long
      * @return an object of type UpdateStatusDto with an attribute message of type String.
      */
+    @Timed("business.cart.finish")
+    @Transactional
     public UpdateStatusDto updateStatusCart(Long id){
         Cart existCart = findCartIfExists(id);
 
         if(existCart.getStatus() == PurchaseOrderStatusEnum.FINISHED) throw new ForbiddenException("Cart already Finished");
 
+        if(existCart.getStatus() == PurchaseOrderStatusEnum.CANCELLED) throw new ForbiddenException("Cart was Cancelled");
+
+        if(productCartRepository.hasStockPending(id)) throw new ConflictException("The stock of the cart is still being reserved, try again later");
+
         existCart.setStatus(PurchaseOrderStatusEnum.FINISHED);
 
         cartRepository.save(existCart);
+        outboxService.cartFinished(existCart);
 
         return new UpdateStatusDto("Cart Finished successfully");
 
@@ -238,15 +641,4 @@ public class CartService implements ICartService {
     private Cart findCartIfExists(Long id) {
         return cartRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Cart not found with this id"));
     }
-
-    /**
-     * Method to filter a list of batches to contain only batches that have 3 or more weeks until their due date;
-     * @param batchList a  List of Batch to be filtered.
-     * @return a filtered list of batches;
-     */
-    private static List<Batch> filterByDueDate(List<Batch> batchList) {
-        return batchList.stream()
-                .filter(batch -> DAYS.between(LocalDate.now(), batch.getDueDate()) < 21)
-                .collect(Collectors.toList());
-    }
 }
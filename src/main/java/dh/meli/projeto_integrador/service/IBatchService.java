@@ -5,6 +5,7 @@ import dh.meli.projeto_integrador.dto.dtoOutput.BatchStockDto;
 import dh.meli.projeto_integrador.model.Batch;
 import dh.meli.projeto_integrador.model.OrderEntry;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -21,6 +22,26 @@ public interface IBatchService {
      */
     Batch createBatch(Batch batch);
 
+    /**
+     * Method for to create many Batches at once
+     * @param batches a Collection of objects of type Batch
+     * @return a List of the saved objects of type Batch
+     */
+    List<Batch> createBatches(Collection<Batch> batches);
+
+    /**
+     * Method for to delete many Batches at once
+     * @param batches a Collection of objects of type Batch
+     */
+    void deleteBatches(Collection<Batch> batches);
+
+    /**
+     * Method for to find which Batches already had stock reserved by a cart
+     * @param batches a Collection of objects of type Batch
+     * @return a List of Long with the identifiers of the reserved batches
+     */
+    List<Long> findReservedBatchIds(Collection<Batch> batches);
+
     /**
      * Method to find all batches that belongs to a given Order Entry;
      * @param orderEntry of type OrderEntry. OrderEntry instance;
@@ -1,9 +1,12 @@
 package dh.meli.projeto_integrador.service;
 
 import dh.meli.projeto_integrador.dto.dtoInput.CartDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.CartResultDto;
 import dh.meli.projeto_integrador.dto.dtoOutput.TotalPriceDto;
 import dh.meli.projeto_integrador.dto.dtoOutput.UpdateStatusDto;
 
+import java.util.List;
+
 /**
  * Interface ICartService will manage data persistence for Cart object instances.
  * Will read, save, update and delete data through the GET, POST, PUT and DELETE requests.
@@ -18,6 +21,13 @@ public interface ICartService {
      */
     TotalPriceDto createCart(CartDto cartDto);
 
+    /**
+     * Method that creates many Carts at once
+     * @param cartDtos a list of objects of type CartDto coming from user request
+     * @return a list of objects of type CartResultDto, one per cart
+     */
+    List<CartResultDto> createCarts(List<CartDto> cartDtos);
+
     /**
      * Method that updates the cart status
      * @param id Long
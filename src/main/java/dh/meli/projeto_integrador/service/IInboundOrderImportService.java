@@ -0,0 +1,22 @@
+package dh.meli.projeto_integrador.service;
+
+import dh.meli.projeto_integrador.dto.dtoInput.OrderEntryDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.InboundOrderResultDto;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Interface to specify service methods implemented on InboundOrderImportService class.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+public interface IInboundOrderImportService {
+
+    /**
+     * Method for to import a stream of inbound orders in chunks, reporting the result of each order
+     * @param orders an Iterator of objects of type OrderEntryDto, read while the import runs
+     * @param results a Consumer that receives the result of each order, in upload order
+     */
+    void importInboundOrders(Iterator<OrderEntryDto> orders, Consumer<InboundOrderResultDto> results);
+}
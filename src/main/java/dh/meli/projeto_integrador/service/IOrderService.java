@@ -2,8 +2,10 @@ package dh.meli.projeto_integrador.service;
 
 import dh.meli.projeto_integrador.dto.dtoInput.BatchDto;
 import dh.meli.projeto_integrador.dto.dtoInput.OrderEntryDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.InboundOrderResultDto;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interface to specify service methods implemented on OrderService class.
@@ -18,4 +20,11 @@ public interface IOrderService {
      * @return a list of objects of type BatchDto
      */
     List<BatchDto> createInboundOrder(OrderEntryDto orderEntryDto);
+
+    /**
+     * Method for to create a chunk of OrderEntries in a single transaction
+     * @param orderEntryDtos a Map of the position of each order in the upload to the order
+     * @return a Map of the position of each order in the upload to its result
+     */
+    Map<Long, InboundOrderResultDto> createInboundOrders(Map<Long, OrderEntryDto> orderEntryDtos);
 }
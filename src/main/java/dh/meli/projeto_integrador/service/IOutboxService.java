@@ -0,0 +1,67 @@
+package dh.meli.projeto_integrador.service;
+
+import dh.meli.projeto_integrador.dto.dtoInput.BatchDto;
+import dh.meli.projeto_integrador.model.Cart;
+import dh.meli.projeto_integrador.model.OrderEntry;
+import dh.meli.projeto_integrador.model.ProductCart;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interface to specify service methods implemented on OutboxService class.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+public interface IOutboxService {
+
+    /**
+     * Method that records the creation of a cart
+     * @param cart an object of type Cart, already saved
+     * @param productCarts a collection of the ProductCart lines of the cart
+     */
+    void cartCreated(Cart cart, Collection<ProductCart> productCarts);
+
+    /**
+     * Method that records that a cart was finished
+     * @param cart an object of type Cart, already saved
+     */
+    void cartFinished(Cart cart);
+
+    /**
+     * Method that records that a cart was cancelled
+     * @param cart an object of type Cart, already saved
+     */
+    void cartCancelled(Cart cart);
+
+    /**
+     * Method that records the creation of an inbound order
+     * @param orderEntry an object of type OrderEntry, already saved
+     * @param batches a list of objects of type BatchDto with the batches of the order
+     */
+    void inboundOrderCreated(OrderEntry orderEntry, List<BatchDto> batches);
+
+    /**
+     * Method that records the update of an inbound order
+     * @param orderEntry an object of type OrderEntry, already saved
+     * @param batches a list of objects of type BatchDto with every batch of the order after the update
+     * @param removedBatchIds a list of the ids of the batches removed by the update
+     */
+    void inboundOrderUpdated(OrderEntry orderEntry, List<BatchDto> batches, List<Long> removedBatchIds);
+
+    /**
+     * Method that records that batches entered the due date window, one event per batch
+     * @param day LocalDate. The day the batches left sale
+     * @param batches a Map of batch id to product id
+     */
+    void batchesLeftSale(LocalDate day, Map<Long, Long> batches);
+
+    /**
+     * Method that records that batches reached their due date, one event per batch
+     * @param day LocalDate. The day the batches expired
+     * @param batches a Map of batch id to product id
+     */
+    void batchesExpired(LocalDate day, Map<Long, Long> batches);
+}
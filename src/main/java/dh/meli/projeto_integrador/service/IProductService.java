@@ -2,10 +2,11 @@ package dh.meli.projeto_integrador.service;
 
 import dh.meli.projeto_integrador.dto.dtoOutput.ProductStockDto;
 import dh.meli.projeto_integrador.dto.dtoOutput.ProductOutputDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.ProductPageDto;
 import dh.meli.projeto_integrador.dto.dtoOutput.ListProductByWarehouseDto;
 import dh.meli.projeto_integrador.model.Product;
 
-import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Interface to specify service methods implemented on ProductService class.
@@ -14,17 +15,28 @@ import java.util.List;
  */
 public interface IProductService {
     /**
-     * Method for to get all products
-     * @return a list of objects of type ProductOutputDto
+     * Method for to get a page of products
+     * @param cursor long id of the last product of the previous page, 0 for the first page
+     * @param limit Integer maximum number of products of the page, null for the default page size
+     * @return an object of type ProductPageDto
      */
-    List<ProductOutputDto> getAllProducts();
+    ProductPageDto getAllProducts(long cursor, Integer limit);
 
     /**
-     * Method for to get products by category
+     * Method for to get a page of products by category
      * @param category String
-     * @return a list of output objects of type ProductOutputDto
+     * @param cursor long id of the last product of the previous page, 0 for the first page
+     * @param limit Integer maximum number of products of the page, null for the default page size
+     * @return an object of type ProductPageDto
      */
-    List<ProductOutputDto> getProductsByCategory(String category);
+    ProductPageDto getProductsByCategory(String category, long cursor, Integer limit);
+
+    /**
+     * Method for to export all products, or the products of a category, one at a time
+     * @param category String, null to export all products
+     * @param action Consumer called with each object of type ProductOutputDto
+     */
+    void exportProducts(String category, Consumer<ProductOutputDto> action);
 
     /**
      * Method for to find product by id
@@ -0,0 +1,39 @@
+package dh.meli.projeto_integrador.service;
+
+import dh.meli.projeto_integrador.model.Batch;
+import dh.meli.projeto_integrador.model.ProductStockSummaryId;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Interface to specify service methods implemented on ProductStockSummaryService class.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+public interface IProductStockSummaryService {
+
+    /**
+     * Method that adds the current quantity of the given batches to the stock summary
+     * @param batches a collection of objects of type Batch, with their product and warehouse
+     */
+    void addBatches(Collection<Batch> batches);
+
+    /**
+     * Method that removes the current quantity of the given batches from the stock summary
+     * @param batches a collection of objects of type Batch, with their product and warehouse
+     */
+    void removeBatches(Collection<Batch> batches);
+
+    /**
+     * Method that adds the given quantities, negative to remove stock, to the stock summary rows
+     * @param quantities a Map of summary row key to the quantity to be added
+     */
+    void addQuantities(Map<ProductStockSummaryId, Long> quantities);
+
+    /**
+     * Method that recomputes the whole stock summary from the batches
+     * @return the number of summary rows created
+     */
+    int rebuild();
+}
@@ -0,0 +1,46 @@
+package dh.meli.projeto_integrador.service;
+
+import dh.meli.projeto_integrador.dto.dtoInput.CategoryDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.BatchStockDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.ListProductByWarehouseDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.ProductOutputDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Interface to specify service methods implemented on ReactiveStockService class.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+public interface IReactiveStockService {
+
+    /**
+     * Method to stream all products, or the products of a category.
+     * @param category of type String. Null to stream all products.
+     * @return a Mono emitting the Flux of objects of type ProductOutputDto, or a ResourceNotFoundException error
+     */
+    Mono<Flux<ProductOutputDto>> streamProducts(String category);
+
+    /**
+     * Method to find the stock of a product in each warehouse.
+     * @param productId of type long. Product identifier
+     * @return a Mono of an object of type ListProductByWarehouseDto
+     */
+    Mono<ListProductByWarehouseDto> listProductByWarehouse(long productId);
+
+    /**
+     * Method to stream the batch stock of a section ordered by due date
+     * @param sectionId of type long represents section identifier
+     * @param numberOfDays of type long represents the amount of days further than now to query batchStock
+     * @return a Mono emitting the Flux of objects of type BatchStockDto, or a ResourceNotFoundException error
+     */
+    Mono<Flux<BatchStockDto>> streamBatchBySectionOrderedByDueDate(long sectionId, long numberOfDays);
+
+    /**
+     * Method to stream the batch stock of a category ordered by due date
+     * @param numberOfDays of type long represents the amount of days further than now to query batchStock
+     * @param category of type CategoryDto represents the product type
+     * @return a Mono emitting the Flux of objects of type BatchStockDto, or a ResourceNotFoundException error
+     */
+    Mono<Flux<BatchStockDto>> streamBatchByProductTypeOrderedByDueDate(long numberOfDays, CategoryDto category);
+}
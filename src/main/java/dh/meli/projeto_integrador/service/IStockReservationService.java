@@ -0,0 +1,29 @@
+package dh.meli.projeto_integrador.service;
+
+import dh.meli.projeto_integrador.model.ProductCart;
+import dh.meli.projeto_integrador.model.ProductCartBatch;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Interface to specify service methods implemented on StockReservationService class.
+ * @author Gabriela Azevedo
+ * @version 0.0.1
+ */
+public interface IStockReservationService {
+
+    /**
+     * Method that reserves the stock of every given cart line, decrementing the batches current quantity
+     * @param productCarts a list of objects of type ProductCart already persisted
+     * @return a list of objects of type ProductCartBatch, recording which batches fed each cart line
+     */
+    List<ProductCartBatch> reserve(List<ProductCart> productCarts);
+
+    /**
+     * Method that reserves the stock of every given cart line only if every product has enough stock
+     * @param productCarts a list of objects of type ProductCart already persisted
+     * @return a set with the ids of the products without enough stock, empty when the lines were reserved
+     */
+    Set<Long> reserveIfAvailable(List<ProductCart> productCarts);
+}
@@ -0,0 +1,137 @@
+package dh.meli.projeto_integrador.service;
+
+import dh.meli.projeto_integrador.dto.dtoInput.OrderEntryDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.InboundOrderResultDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Class responsible for importing a stream of inbound orders. Orders are read one at a time and saved in chunks of
+ * a configurable size, each chunk in its own transaction, so the memory used does not depend on the upload size.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@Service
+public class InboundOrderImportService implements IInboundOrderImportService {
+
+    /**
+     * Dependency Injection of the Order Service.
+     */
+    @Autowired
+    private OrderService orderService;
+
+    /**
+     * Dependency Injection of the Validator.
+     */
+    @Autowired
+    private Validator validator;
+
+    /**
+     * Number of orders saved in each transaction.
+     */
+    @Value("${inbound-order.bulk.chunk-size:100}")
+    private int chunkSize = 100;
+
+    /**
+     * Method that imports the given orders in chunks and reports the result of each one, in upload order, as soon as
+     * its chunk is committed. An order that cannot be read ends the import: the orders read before it are still
+     * imported and a rejected result is reported in its position.
+     * @param orders an Iterator of objects of type OrderEntryDto, read while the import runs
+     * @param results a Consumer that receives the result of each order
+     */
+    @Override
+    public void importInboundOrders(Iterator<OrderEntryDto> orders, Consumer<InboundOrderResultDto> results) {
+        List<OrderEntryDto> chunk = new ArrayList<>(chunkSize);
+        long index = 1;
+
+        while (true) {
+            OrderEntryDto order;
+
+            try {
+                if (!orders.hasNext()) {
+                    break;
+                }
+                order = orders.next();
+            } catch (RuntimeException e) {
+                importChunk(index - chunk.size(), chunk, results);
+                results.accept(InboundOrderResultDto.rejected(index,
+                        String.format("The order could not be read, the import was stopped: %s", e.getMessage())));
+                return;
+            }
+
+            chunk.add(order);
+            index++;
+
+            if (chunk.size() == chunkSize) {
+                importChunk(index - chunk.size(), chunk, results);
+                chunk.clear();
+            }
+        }
+
+        importChunk(index - chunk.size(), chunk, results);
+    }
+
+    /**
+     * Method that validates and saves a chunk of orders in a single transaction. When the transaction fails as a
+     * whole, for instance because a concurrent request changed the same section, every order of the chunk is saved
+     * again on its own, so only the failing orders are rejected.
+     * @param firstIndex of type long. Position of the first order of the chunk in the upload
+     * @param chunk a list of objects of type OrderEntryDto
+     * @param results a Consumer that receives the result of each order
+     */
+    private void importChunk(long firstIndex, List<OrderEntryDto> chunk, Consumer<InboundOrderResultDto> results) {
+        Map<Long, InboundOrderResultDto> chunkResults = new TreeMap<>();
+        Map<Long, OrderEntryDto> validOrders = new LinkedHashMap<>();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            long index = firstIndex + i;
+            Set<ConstraintViolation<OrderEntryDto>> violations = validator.validate(chunk.get(i));
+
+            if (violations.isEmpty()) {
+                validOrders.put(index, chunk.get(i));
+            } else {
+                chunkResults.put(index, InboundOrderResultDto.rejected(index, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; "))));
+            }
+        }
+
+        if (!validOrders.isEmpty()) {
+            try {
+                chunkResults.putAll(orderService.createInboundOrders(validOrders));
+            } catch (RuntimeException e) {
+                validOrders.forEach((index, order) -> chunkResults.put(index, importOrder(index, order)));
+            }
+        }
+
+        chunkResults.values().forEach(results);
+    }
+
+    /**
+     * Method that saves a single order in its own transaction.
+     * @param index of type long. Position of the order in the upload
+     * @param order an object of type OrderEntryDto
+     * @return an object of type InboundOrderResultDto
+     */
+    private InboundOrderResultDto importOrder(long index, OrderEntryDto order) {
+        try {
+            return InboundOrderResultDto.created(index, orderService.createInboundOrder(order));
+        } catch (RuntimeException e) {
+            return InboundOrderResultDto.rejected(index, e.getMessage());
+        }
+    }
+}
@@ -1,14 +1,22 @@
 package dh.meli.projeto_integrador.service;
 
+import dh.meli.projeto_integrador.cache.SellableBatchCache;
 import dh.meli.projeto_integrador.dto.dtoInput.OrderEntryDto;
 import dh.meli.projeto_integrador.dto.dtoInput.BatchDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.InboundOrderResultDto;
+import dh.meli.projeto_integrador.exception.ConflictException;
 import dh.meli.projeto_integrador.exception.ForbiddenException;
 import dh.meli.projeto_integrador.exception.InternalServerErrorException;
 import dh.meli.projeto_integrador.exception.ResourceNotFoundException;
 import dh.meli.projeto_integrador.model.*;
+import dh.meli.projeto_integrador.monitoring.BusinessMetrics;
 import dh.meli.projeto_integrador.repository.*;
+import dh.meli.projeto_integrador.retry.RetryOnConflict;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import javax.transaction.Transactional;
 
 import java.util.ArrayList;
@@ -16,6 +24,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * Class responsible for business rules and communication with the OrderEntry Repository layer;
@@ -61,30 +70,87 @@ public class OrderService implements IOrderService {
     @Autowired
     private BatchService batchService;
 
+    /**
+     * Dependency Injection of the ProductStockSummary Service.
+     */
+    @Autowired
+    private ProductStockSummaryService productStockSummaryService;
+
+    /**
+     * Dependency Injection of the BusinessMetrics.
+     */
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
+    /**
+     * Dependency Injection of the Outbox Service.
+     */
+    @Autowired
+    private OutboxService outboxService;
+
+    /**
+     * Dependency Injection of the SellableBatchCache.
+     */
+    @Autowired
+    private SellableBatchCache sellableBatchCache;
+
+    /**
+     * Dependency Injection of the Entity Manager.
+     */
+    @PersistenceContext
+    private EntityManager entityManager;
+
     /**
      * Method to save new Inbound Order. Validates Warehouse, Section and Agent before inserting into
-     * application database;
+     * application database. Retried when a concurrent inbound order changes the same section;
      * @param orderEntryDto of type OrderEntryDto. OrderEntry POJO;
      * @return a Set of Batches;
      */
+    @Timed("business.inbound.order.create")
+    @RetryOnConflict
     @Transactional
     @Override
     public List<BatchDto> createInboundOrder(OrderEntryDto orderEntryDto) {
-        Warehouse warehouse = warehouseService.findWarehouse(orderEntryDto.getSection().getWarehouseId());
-
-        Section section = sectionService.findSection(orderEntryDto.getSection().getSectionId());
+        return saveInboundOrder(orderEntryDto);
+    }
 
-        Agent agent = agentService.findAgent(orderEntryDto.getAgentId());
+    /**
+     * Method to save a chunk of new Inbound Orders in a single transaction. An order rejected by the business rules
+     * is reported in its result and does not stop the others, since it is rejected before anything is written.
+     * The persistence context is cleared at the end, so importing many chunks in the same request does not keep
+     * every saved entity in memory;
+     * @param orderEntryDtos a Map of the position of each order in the upload to the order;
+     * @return a Map of the position of each order in the upload to its result;
+     */
+    @Timed("business.inbound.order.create.bulk")
+    @Transactional
+    @Override
+    public Map<Long, InboundOrderResultDto> createInboundOrders(Map<Long, OrderEntryDto> orderEntryDtos) {
+        Map<Long, InboundOrderResultDto> results = new TreeMap<>();
+
+        orderEntryDtos.forEach((index, orderEntryDto) -> {
+            try {
+                results.put(index, InboundOrderResultDto.created(index, saveInboundOrder(orderEntryDto)));
+            } catch (ForbiddenException | ResourceNotFoundException e) {
+                results.put(index, InboundOrderResultDto.rejected(index, e.getMessage()));
+            }
+        });
 
-        long agentWarehouseId = agent.getWarehouse().getId();
+        entityManager.flush();
+        entityManager.clear();
 
-        if (agentWarehouseId != warehouse.getId()) {
-            throw new ForbiddenException("Agent's warehouse ID does not belong to section's warehouse ID");
-        }
+        return results;
+    }
 
-        if (section.getWarehouse().getId() != warehouse.getId()) {
-            throw new ForbiddenException("Section does not belong to the given warehouse");
-        }
+    /**
+     * Method that validates Warehouse, Section and Agent of an Inbound Order and saves it in the current transaction.
+     * Every validation happens before the first write, so a rejected order leaves nothing behind;
+     * @param orderEntryDto of type OrderEntryDto. OrderEntry POJO;
+     * @return a list of objects of type BatchDto;
+     */
+    private List<BatchDto> saveInboundOrder(OrderEntryDto orderEntryDto) {
+        // The section load is updated below, so it is read from the database instead of the cache
+        Section section = findValidSection(orderEntryDto);
 
         OrderEntry orderEntry = new OrderEntry();
 
@@ -98,26 +164,7 @@ public class OrderService implements IOrderService {
         for (BatchDto batchDto : orderEntryDto.getBatchStock()) {
             Batch batch = new Batch();
 
-            Product product = productService.findProduct(batchDto.getProductId());
-
-            String sectionProductType = orderEntry.getSection().getProductType();
-
-            String productType = product.getType();
-
-            // Validates if product's section equals request given section
-            if (!productType.equals(sectionProductType)) {
-                throw new ForbiddenException(String.format("Product's %s section does not equals the given section",
-                        product.getName()));
-            }
-
-            batch.setCurrentTemperature(batchDto.getCurrentTemperature());
-            batch.setMinimumTemperature(batchDto.getMinimumTemperature());
-            batch.setInitialQuantity(batchDto.getInitialQuantity());
-            batch.setCurrentQuantity(batchDto.getCurrentQuantity());
-            batch.setManufacturingDate(batchDto.getManufacturingDate());
-            batch.setManufacturingTime(batchDto.getManufacturingTime());
-            batch.setDueDate(batchDto.getDueDate());
-            batch.setProduct(product);
+            copyBatchDto(batchDto, findValidProduct(batchDto, section), batch);
             batch.setOrderEntry(orderEntry);
 
             batches.add(batch);
@@ -128,12 +175,14 @@ public class OrderService implements IOrderService {
 
         // Validates if wanted section has available space for storing new products
         if (section.getCurrentProductLoad() + finalQuantity > section.getMaxProductLoad()) {
+            businessMetrics.recordSectionCapacityRejection();
             throw new ForbiddenException("Product batches quantity sum overtakes section maximum product load");
         }
 
         try {
+            // Batches are cascaded from the order entry; their ids come from a pooled sequence, so the inserts are
+            // sent in JDBC batches when the transaction is flushed
             orderRepository.save(orderEntry);
-            batches.forEach(batchService::createBatch);
 
             section.setCurrentProductLoad(section.getCurrentProductLoad() + finalQuantity);
             sectionService.saveSection(section);
@@ -141,32 +190,271 @@ public class OrderService implements IOrderService {
             throw new InternalServerErrorException(e.getMessage());
         }
 
+        productStockSummaryService.addBatches(batches);
+        businessMetrics.recordInboundOrderBatches(batches.size());
+
         List<BatchDto> batchDtoList = new ArrayList<BatchDto>();
 
         batches.forEach(batch -> {
             batchDtoList.add(new BatchDto(batch));
         });
 
+        outboxService.inboundOrderCreated(orderEntry, batchDtoList);
+
         return batchDtoList;
     }
 
     /**
-     * Method to replace(delete old and create new) Inbound Order. Validates if given id is valid
-     * Also Validates Warehouse, Section and Agent before inserting into application database;
+     * Method to update an Inbound Order in place. Validates if given id is valid, and Warehouse, Section and Agent
+     * as in the creation. The batches sent are matched to the batches of the order by their batchNumber: batches
+     * without a number are inserted, batches with a number are updated only when some field changed, and the
+     * batches of the order that were not sent are deleted, unless a cart already reserved their stock; for the same
+     * reason the product of a batch can only change while no cart reserved it. The section
+     * load and the stock summary are adjusted by the net change only, so correcting one field of a large order
+     * writes a single batch;
      * @param orderEntryDto of type OrderEntryDto. OrderEntry POJO;
      * @param id of type Long. OrderEntry identifier
-     * @return a Set of Batches;
+     * @return a List of objects of type BatchDto with every batch of the updated order, ordered by batchNumber;
      */
+    @Timed("business.inbound.order.update")
+    @RetryOnConflict
     @Transactional
-    public BatchDto updateInboundOrder(OrderEntryDto orderEntryDto, Long id) {
-        OrderEntry foundOrder = findOrderEntry(id); // Checks if the order entry with a given id exists
-        List<Batch> batchList = batchService.findAllByOrderEntry(foundOrder);
-        Section section = foundOrder.getSection();
+    public List<BatchDto> updateInboundOrder(OrderEntryDto orderEntryDto, Long id) {
+        OrderEntry orderEntry = findOrderEntry(id); // Checks if the order entry with a given id exists
+        Section previousSection = orderEntry.getSection();
+        Section section = findValidSection(orderEntryDto);
+        boolean sectionChanged = previousSection.getId() != section.getId();
+
+        Map<Long, Batch> remainingBatches = new HashMap<>();
+        batchService.findAllByOrderEntry(orderEntry).forEach(batch -> remainingBatches.put(batch.getId(), batch));
+
+        Map<Batch, BatchDto> changedBatches = new LinkedHashMap<>();
+        Map<Batch, Product> changedProducts = new HashMap<>();
+        List<Batch> movedBatches = new ArrayList<>();
+        List<Batch> keptBatches = new ArrayList<>();
+        List<Batch> newBatches = new ArrayList<>();
+
+        for (BatchDto batchDto : orderEntryDto.getBatchStock()) {
+            Product product = findValidProduct(batchDto, section);
+
+            if (batchDto.getBatchId() == 0) {
+                Batch batch = new Batch();
+                copyBatchDto(batchDto, product, batch);
+                batch.setOrderEntry(orderEntry);
+                newBatches.add(batch);
+                continue;
+            }
+
+            Batch batch = remainingBatches.remove(batchDto.getBatchId());
+
+            if (batch == null) {
+                throw new ResourceNotFoundException(String.format("Could not find batch %d in order entry %d",
+                        batchDto.getBatchId(), id));
+            }
+
+            keptBatches.add(batch);
+
+            // Moving the order to another section changes the warehouse of every batch in the stock summary
+            if (sectionChanged || isChanged(batch, batchDto)) {
+                changedBatches.put(batch, batchDto);
+                changedProducts.put(batch, product);
+            }
+
+            if (batch.getProduct().getId() != product.getId()) {
+                movedBatches.add(batch);
+            }
+        }
+
+        List<Batch> deletedBatches = new ArrayList<>(remainingBatches.values());
+        List<Batch> checkedBatches = new ArrayList<>(deletedBatches);
+        checkedBatches.addAll(movedBatches);
+        List<Long> reservedBatchIds = batchService.findReservedBatchIds(checkedBatches);
+
+        // A batch that already fed a cart is referenced by its lines: it must be sent again, with quantity 0 to retire it
+        List<Long> reservedDeletedIds = filterBatchIds(deletedBatches, reservedBatchIds);
+
+        if (!reservedDeletedIds.isEmpty()) {
+            throw new ConflictException(String.format("Batches %s of order entry %d already had stock reserved by "
+                    + "carts and can not be removed; send them with current quantity 0 instead", reservedDeletedIds, id));
+        }
+
+        // Nor can it move to another product, or the cart lines would point to a batch of a different product
+        List<Long> reservedMovedIds = filterBatchIds(movedBatches, reservedBatchIds);
+
+        if (!reservedMovedIds.isEmpty()) {
+            throw new ConflictException(String.format("Batches %s of order entry %d already had stock reserved by "
+                    + "carts and can not change product; retire them with current quantity 0 and send a new batch "
+                    + "instead", reservedMovedIds, id));
+        }
+
+        // Stock leaving the previous section and stock entering the new one, counted as in the creation and the
+        // deletion of an order: new batches add their initial quantity, removed batches their current quantity
+        long removedLoad = 0;
+        long addedLoad = 0;
+
+        for (Batch batch : deletedBatches) {
+            removedLoad += batch.getCurrentQuantity();
+        }
+
+        for (Map.Entry<Batch, BatchDto> changed : changedBatches.entrySet()) {
+            removedLoad += changed.getKey().getCurrentQuantity();
+            addedLoad += changed.getValue().getCurrentQuantity();
+        }
 
-        updateSectionProductLoadBeforeOrderDelete(batchList, section);
-        delete(id); // Deletes the old order entry
+        for (Batch batch : newBatches) {
+            addedLoad += batch.getInitialQuantity();
+        }
+
+        long resultingLoad = section.getCurrentProductLoad() + addedLoad - (sectionChanged ? 0 : removedLoad);
+
+        // Validates if the section has available space, unless the update only reduces its load
+        if (resultingLoad > section.getMaxProductLoad() && (sectionChanged || addedLoad > removedLoad)) {
+            businessMetrics.recordSectionCapacityRejection();
+            throw new ForbiddenException("Product batches quantity sum overtakes section maximum product load");
+        }
+
+        // The stock of the batches is removed from the summary before they change, and added back afterwards
+        List<Batch> removedStock = new ArrayList<>(deletedBatches);
+        removedStock.addAll(changedBatches.keySet());
+        productStockSummaryService.removeBatches(removedStock);
+
+        try {
+            if (!deletedBatches.isEmpty()) {
+                orderEntry.getBatches().removeAll(deletedBatches);
+                batchService.deleteBatches(deletedBatches);
+            }
+
+            // The entity listener only sees the new product of a moved batch, so the previous one is invalidated here
+            movedBatches.forEach(batch -> sellableBatchCache.invalidate(batch.getProduct().getId()));
+            changedBatches.forEach((batch, batchDto) -> copyBatchDto(batchDto, changedProducts.get(batch), batch));
+
+            orderEntry.setSection(section);
+            orderEntry.setOrderDate(orderEntryDto.getOrderDate());
+
+            if (!newBatches.isEmpty()) {
+                newBatches = batchService.createBatches(newBatches);
+                orderEntry.getBatches().addAll(newBatches);
+            }
+
+            if (sectionChanged) {
+                previousSection.setCurrentProductLoad(previousSection.getCurrentProductLoad() - removedLoad);
+                sectionService.saveSection(previousSection);
+            }
+
+            section.setCurrentProductLoad(resultingLoad);
+            sectionService.saveSection(section);
+        } catch (Exception e) {
+            throw new InternalServerErrorException(e.getMessage());
+        }
+
+        List<Batch> addedStock = new ArrayList<>(changedBatches.keySet());
+        addedStock.addAll(newBatches);
+        productStockSummaryService.addBatches(addedStock);
+
+        keptBatches.addAll(newBatches);
+        keptBatches.sort(Comparator.comparingLong(Batch::getId));
+
+        List<BatchDto> batchDtoList = new ArrayList<BatchDto>();
+
+        keptBatches.forEach(batch -> {
+            batchDtoList.add(new BatchDto(batch));
+        });
+
+        outboxService.inboundOrderUpdated(orderEntry, batchDtoList,
+                deletedBatches.stream().map(Batch::getId).collect(Collectors.toList()));
+
+        return batchDtoList;
+    }
+
+    /**
+     * Method that finds the Warehouse, Section and Agent of an Inbound Order and validates that they belong together;
+     * @param orderEntryDto of type OrderEntryDto. OrderEntry POJO;
+     * @return the Section of the order, read from the database so its load can be updated;
+     */
+    private Section findValidSection(OrderEntryDto orderEntryDto) {
+        Warehouse warehouse = warehouseService.findWarehouse(orderEntryDto.getSection().getWarehouseId());
+
+        Section section = sectionService.findManagedSection(orderEntryDto.getSection().getSectionId());
 
-        return createInboundOrder(orderEntryDto).get(0); // Replaces it with a newly created one
+        Agent agent = agentService.findAgent(orderEntryDto.getAgentId());
+
+        long agentWarehouseId = agent.getWarehouse().getId();
+
+        if (agentWarehouseId != warehouse.getId()) {
+            throw new ForbiddenException("Agent's warehouse ID does not belong to section's warehouse ID");
+        }
+
+        if (section.getWarehouse().getId() != warehouse.getId()) {
+            throw new ForbiddenException("Section does not belong to the given warehouse");
+        }
+
+        return section;
+    }
+
+    /**
+     * Method that finds the Product of a batch and validates that it can be stored in the given Section;
+     * @param batchDto of type BatchDto. Batch POJO;
+     * @param section an instance of Section;
+     * @return the Product of the batch;
+     */
+    private Product findValidProduct(BatchDto batchDto, Section section) {
+        Product product = productService.findProduct(batchDto.getProductId());
+
+        // Validates if product's section equals request given section
+        if (!product.getType().equals(section.getProductType())) {
+            throw new ForbiddenException(String.format("Product's %s section does not equals the given section",
+                    product.getName()));
+        }
+
+        return product;
+    }
+
+    /**
+     * Method that copies the fields of a BatchDto to a Batch;
+     * @param batchDto of type BatchDto. Batch POJO;
+     * @param product the Product of the batch;
+     * @param batch the Batch to be filled;
+     */
+    private static void copyBatchDto(BatchDto batchDto, Product product, Batch batch) {
+        batch.setCurrentTemperature(batchDto.getCurrentTemperature());
+        batch.setMinimumTemperature(batchDto.getMinimumTemperature());
+        batch.setInitialQuantity(batchDto.getInitialQuantity());
+        batch.setCurrentQuantity(batchDto.getCurrentQuantity());
+        batch.setManufacturingDate(batchDto.getManufacturingDate());
+        batch.setManufacturingTime(batchDto.getManufacturingTime());
+        batch.setDueDate(batchDto.getDueDate());
+        batch.setProduct(product);
+    }
+
+    /**
+     * Method that selects the given batches whose identifier is in a list;
+     * @param batches a List of objects of type Batch;
+     * @param batchIds a List of Long with Batch identifiers;
+     * @return a List of Long with the identifiers of the selected batches, in ascending order;
+     */
+    private static List<Long> filterBatchIds(List<Batch> batches, List<Long> batchIds) {
+        return batches.stream()
+                .map(Batch::getId)
+                .filter(batchIds::contains)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Method that checks if a BatchDto differs from the stored Batch in any field;
+     * @param batch the stored Batch;
+     * @param batchDto of type BatchDto. Batch POJO;
+     * @return true if the batch has to be updated;
+     */
+    private static boolean isChanged(Batch batch, BatchDto batchDto) {
+        return batch.getProduct().getId() != batchDto.getProductId()
+                || batch.getCurrentTemperature() != batchDto.getCurrentTemperature()
+                || batch.getMinimumTemperature() != batchDto.getMinimumTemperature()
+                || batch.getInitialQuantity() != batchDto.getInitialQuantity()
+                || batch.getCurrentQuantity() != batchDto.getCurrentQuantity()
+                || !Objects.equals(batch.getManufacturingDate(), batchDto.getManufacturingDate())
+                || !Objects.equals(batch.getManufacturingTime(), batchDto.getManufacturingTime())
+                || !Objects.equals(batch.getDueDate(), batchDto.getDueDate());
     }
 
     /**
@@ -185,7 +473,7 @@ public class OrderService implements IOrderService {
     }
 
     /**
-     * Method to delete an order entry given an id.
+     * Method to delete an order entry given an id. The stock of its batches is removed from the stock summary.
      * Validates if given id is valid.
      * @param id of type Long. OrderEntry identifier
      * @return the deleted order entry. An object of type OrderEntry;
@@ -195,24 +483,9 @@ public class OrderService implements IOrderService {
         if (orderEntry.isEmpty()) {
             throw new ResourceNotFoundException(String.format("Could not find valid order entry for id %d", id));
         }
+        productStockSummaryService.removeBatches(batchService.findAllByOrderEntry(orderEntry.get()));
         orderRepository.delete(orderEntry.get());
 
         return orderEntry.get();
     }
-
-    /**
-     * Method to update the productLoad attribute of a given Section class before deleting an order entry instance.
-     * Decrements the productLoad in a section given all the batch stocks quantities that were stored in that section
-     * that came from the same order entry.
-     * @param batchList: List of objects of type Batch. Iterable list
-     * @param section an instance of Section. Section identifier
-     */
-    static private void updateSectionProductLoadBeforeOrderDelete (List<Batch> batchList, Section section) {
-        long currentProductLoad = section.getCurrentProductLoad();
-        for (Batch batch : batchList) {
-            currentProductLoad -= batch.getCurrentQuantity();
-        }
-        section.setCurrentProductLoad(currentProductLoad);
-    }
 }
-
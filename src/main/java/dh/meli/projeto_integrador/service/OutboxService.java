@@ -0,0 +1,203 @@
+package dh.meli.projeto_integrador.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dh.meli.projeto_integrador.dto.dtoInput.BatchDto;
+import dh.meli.projeto_integrador.dto.dtoInput.ProductDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.BatchDueDateEventDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.CartEventDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.InboundOrderEventDto;
+import dh.meli.projeto_integrador.exception.InternalServerErrorException;
+import dh.meli.projeto_integrador.model.Cart;
+import dh.meli.projeto_integrador.model.OrderEntry;
+import dh.meli.projeto_integrador.model.OutboxEvent;
+import dh.meli.projeto_integrador.model.ProductCart;
+import dh.meli.projeto_integrador.repository.IOutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.transaction.Transactional;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Class responsible for saving the domain events of carts, inbound orders and batches in the outbox table. Every method
+ * joins the transaction of the change it records, and fails when called outside of one, so an event is saved if and
+ * only if its change is committed. The OutboxPublisher ships the saved events afterwards.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@Service
+public class OutboxService implements IOutboxService {
+
+    /**
+     * Aggregate type of the events of a cart.
+     */
+    public static final String CART = "CART";
+
+    /**
+     * Aggregate type of the events of an inbound order.
+     */
+    public static final String ORDER_ENTRY = "ORDER_ENTRY";
+
+    /**
+     * Aggregate type of the events of a batch.
+     */
+    public static final String BATCH = "BATCH";
+
+    /**
+     * Event type of a new cart.
+     */
+    public static final String CART_CREATED = "CART_CREATED";
+
+    /**
+     * Event type of a cart whose status changed to FINISHED.
+     */
+    public static final String CART_FINISHED = "CART_FINISHED";
+
+    /**
+     * Event type of a cart cancelled because its stock could not be reserved.
+     */
+    public static final String CART_CANCELLED = "CART_CANCELLED";
+
+    /**
+     * Event type of a new inbound order.
+     */
+    public static final String INBOUND_ORDER_CREATED = "INBOUND_ORDER_CREATED";
+
+    /**
+     * Event type of an updated inbound order.
+     */
+    public static final String INBOUND_ORDER_UPDATED = "INBOUND_ORDER_UPDATED";
+
+    /**
+     * Event type of a batch that entered the due date window and can no longer be sold.
+     */
+    public static final String BATCH_LEFT_SALE = "BATCH_LEFT_SALE";
+
+    /**
+     * Event type of a batch that reached its due date.
+     */
+    public static final String BATCH_EXPIRED = "BATCH_EXPIRED";
+
+    /**
+     * Dependency Injection of the OutboxEvent Repository.
+     */
+    @Autowired
+    private IOutboxEventRepository outboxEventRepository;
+
+    /**
+     * Dependency Injection of the ObjectMapper.
+     */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Method that records the creation of a cart
+     * @param cart an object of type Cart, already saved
+     * @param productCarts a collection of the ProductCart lines of the cart
+     */
+    @Override
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void cartCreated(Cart cart, Collection<ProductCart> productCarts) {
+        List<ProductDto> products = productCarts.stream()
+                .map(productCart -> new ProductDto(productCart.getProduct().getId(), productCart.getQuantity()))
+                .collect(Collectors.toList());
+
+        save(CART, cart.getId(), CART_CREATED, new CartEventDto(cart.getId(), cart.getCustomer().getId(),
+                cart.getStatus(), cart.getDate(), products));
+    }
+
+    /**
+     * Method that records that a cart was finished
+     * @param cart an object of type Cart, already saved
+     */
+    @Override
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void cartFinished(Cart cart) {
+        save(CART, cart.getId(), CART_FINISHED, new CartEventDto(cart.getId(), cart.getCustomer().getId(),
+                cart.getStatus(), cart.getDate(), List.of()));
+    }
+
+    /**
+     * Method that records that a cart was cancelled
+     * @param cart an object of type Cart, already saved
+     */
+    @Override
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void cartCancelled(Cart cart) {
+        save(CART, cart.getId(), CART_CANCELLED, new CartEventDto(cart.getId(), cart.getCustomer().getId(),
+                cart.getStatus(), cart.getDate(), List.of()));
+    }
+
+    /**
+     * Method that records the creation of an inbound order
+     * @param orderEntry an object of type OrderEntry, already saved
+     * @param batches a list of objects of type BatchDto with the batches of the order
+     */
+    @Override
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void inboundOrderCreated(OrderEntry orderEntry, List<BatchDto> batches) {
+        save(ORDER_ENTRY, orderEntry.getId(), INBOUND_ORDER_CREATED, new InboundOrderEventDto(orderEntry.getId(),
+                orderEntry.getSection().getId(), batches, List.of()));
+    }
+
+    /**
+     * Method that records the update of an inbound order
+     * @param orderEntry an object of type OrderEntry, already saved
+     * @param batches a list of objects of type BatchDto with every batch of the order after the update
+     * @param removedBatchIds a list of the ids of the batches removed by the update
+     */
+    @Override
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void inboundOrderUpdated(OrderEntry orderEntry, List<BatchDto> batches, List<Long> removedBatchIds) {
+        save(ORDER_ENTRY, orderEntry.getId(), INBOUND_ORDER_UPDATED, new InboundOrderEventDto(orderEntry.getId(),
+                orderEntry.getSection().getId(), batches, removedBatchIds));
+    }
+
+    /**
+     * Method that records that batches entered the due date window, one event per batch
+     * @param day LocalDate. The day the batches left sale
+     * @param batches a Map of batch id to product id
+     */
+    @Override
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void batchesLeftSale(LocalDate day, Map<Long, Long> batches) {
+        saveBatchEvents(BATCH_LEFT_SALE, day, batches);
+    }
+
+    /**
+     * Method that records that batches reached their due date, one event per batch
+     * @param day LocalDate. The day the batches expired
+     * @param batches a Map of batch id to product id
+     */
+    @Override
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void batchesExpired(LocalDate day, Map<Long, Long> batches) {
+        saveBatchEvents(BATCH_EXPIRED, day, batches);
+    }
+
+    private void saveBatchEvents(String eventType, LocalDate day, Map<Long, Long> batches) {
+        new TreeMap<>(batches).forEach((batchId, productId) ->
+                save(BATCH, batchId, eventType, new BatchDueDateEventDto(batchId, productId, day)));
+    }
+
+    private void save(String aggregateType, long aggregateId, String eventType, Object payload) {
+        try {
+            outboxEventRepository.save(OutboxEvent.builder()
+                    .aggregateType(aggregateType)
+                    .aggregateId(aggregateId)
+                    .eventType(eventType)
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new InternalServerErrorException(e.getMessage());
+        }
+    }
+}
@@ -1,21 +1,31 @@
 package dh.meli.projeto_integrador.service;
 
+import dh.meli.projeto_integrador.dto.dtoOutput.BatchDto;
 import dh.meli.projeto_integrador.dto.dtoOutput.ProductOutputDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.ProductPageDto;
 import dh.meli.projeto_integrador.dto.dtoOutput.ListProductByWarehouseDto;
 import dh.meli.projeto_integrador.dto.dtoOutput.ProductStockDto;
 import dh.meli.projeto_integrador.dto.dtoOutput.TotalProductByWarehouseDto;
+import dh.meli.projeto_integrador.cache.ReferenceDataCache;
+import dh.meli.projeto_integrador.cache.SellableBatchCache;
+import dh.meli.projeto_integrador.cache.SellableBatches;
+import dh.meli.projeto_integrador.exception.InvalidParameterTypeException;
 import dh.meli.projeto_integrador.exception.ResourceNotFoundException;
-import dh.meli.projeto_integrador.model.Batch;
 import dh.meli.projeto_integrador.model.Product;
 import dh.meli.projeto_integrador.repository.IBatchRepository;
 import dh.meli.projeto_integrador.repository.IProductRepository;
+import dh.meli.projeto_integrador.repository.IProductStockSummaryRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import static java.time.temporal.ChronoUnit.DAYS;
 
-import java.time.LocalDate;
+import javax.transaction.Transactional;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Class responsible for business rules and communication with the Product Repository layer;
@@ -39,42 +49,112 @@ public class ProductService implements IProductService {
     private IBatchRepository batchRepository;
 
     /**
-     * Method to find a list of products and return a ProductDto.
+     * Dependency Injection of the ProductStockSummary Repository.
+     */
+    @Autowired
+    private IProductStockSummaryRepository productStockSummaryRepository;
+
+    /**
+     * Dependency Injection of the ReferenceDataCache.
+     */
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    /**
+     * Dependency Injection of the SellableBatchCache.
+     */
+    @Autowired
+    private SellableBatchCache sellableBatchCache;
+
+    /**
+     * Number of products of a page when the user does not give a limit.
+     */
+    @Value("${products.page.default-size:100}")
+    private int defaultPageSize = 100;
+
+    /**
+     * Maximum number of products of a page, whatever limit the user gives.
+     */
+    @Value("${products.page.max-size:500}")
+    private int maxPageSize = 500;
+
+    /**
+     * Method to find a page of products and return it as a ProductPageDto. Products are listed by id, starting after
+     * the given cursor, so each page is a single indexed range query.
      *
-     * @return a list of objects of type ProductDto.
+     * @param cursor of type long. Identifier of the last product of the previous page, 0 for the first page.
+     * @param limit of type Integer. Maximum number of products of the page, null for the default page size.
+     * @return an object of type ProductPageDto.
      */
     @Override
-    public List<ProductOutputDto> getAllProducts() {
-        List<Product> products = (List<Product>) productRepository.findAll();
+    @Timed("business.product.list")
+    public ProductPageDto getAllProducts(long cursor, Integer limit) {
+        int pageSize = pageSize(limit);
 
-        if (products.size() == 0) throw new ResourceNotFoundException("No Products Found");
+        List<Product> products = productRepository.findByIdGreaterThanOrderByIdAsc(cursor,
+                PageRequest.of(0, pageSize + 1));
 
-        return products.stream().map(ProductOutputDto::new).collect(Collectors.toList());
+        if (products.size() == 0 && cursor == 0) throw new ResourceNotFoundException("No Products Found");
+
+        return toPage(products, pageSize);
     }
 
     /**
-     * Method to find a list of products of a specified category and return a ProductDto.
+     * Method to find a page of products of a specified category and return it as a ProductPageDto.
      *
      * @param category of type String.
-     * @return a list of objects of type ProductDto.
+     * @param cursor of type long. Identifier of the last product of the previous page, 0 for the first page.
+     * @param limit of type Integer. Maximum number of products of the page, null for the default page size.
+     * @return an object of type ProductPageDto.
      */
     @Override
-    public List<ProductOutputDto> getProductsByCategory(String category) {
-        List<Product> products = productRepository.findAllByType(category);
+    @Timed("business.product.list.category")
+    public ProductPageDto getProductsByCategory(String category, long cursor, Integer limit) {
+        int pageSize = pageSize(limit);
+
+        List<Product> products = productRepository.findByTypeAndIdGreaterThanOrderByIdAsc(category, cursor,
+                PageRequest.of(0, pageSize + 1));
 
-        if (products.size() == 0) throw new ResourceNotFoundException("No Products Found");
+        if (products.size() == 0 && cursor == 0) throw new ResourceNotFoundException("No Products Found");
 
-        return products.stream().map(ProductOutputDto::new).collect(Collectors.toList());
+        return toPage(products, pageSize);
     }
 
     /**
-     * Method to find a product by id;
+     * Method to export all products, or the products of a category, without loading them all in memory. The
+     * products are read from a database cursor and handed to the action one at a time.
+     *
+     * @param category of type String. Null to export all products.
+     * @param action Consumer called with each object of type ProductOutputDto.
+     */
+    @Override
+    @Transactional
+    public void exportProducts(String category, Consumer<ProductOutputDto> action) {
+        try (Stream<ProductOutputDto> products = category == null
+                ? productRepository.streamAll()
+                : productRepository.streamAllByType(category)) {
+            products.forEach(action);
+        }
+    }
+
+    /**
+     * Method to find a product by id, read through the reference data cache;
      *
      * @param id of type long. Product identifier;
      * @return an object of type Product;
      */
     @Override
     public Product findProduct(long id) {
+        return referenceDataCache.products().get(id, this::loadProduct);
+    }
+
+    /**
+     * Method to read a product from the database;
+     *
+     * @param id of type long. Product identifier;
+     * @return an object of type Product;
+     */
+    private Product loadProduct(long id) {
         Optional<Product> product = productRepository.findById(id);
 
         if (product.isEmpty()) {
@@ -85,105 +165,97 @@ public class ProductService implements IProductService {
     }
 
     /**
-     * Method to list product stock quantity by Warehouse;
+     * Method to list product stock quantity by Warehouse. The quantities are read from the stock summary;
      *
      * @param productId of type long. Product identifier;
      * @return an object of type Product;
      */
     @Override
+    @Timed("business.product.warehouse.list")
     public ListProductByWarehouseDto listProductByWarehouse(long productId) {
-        List<Batch> batchList = batchRepository.findBatchByProductId(productId);
+        List<TotalProductByWarehouseDto> totalProductByWarehouseDtoList = productStockSummaryRepository
+                .findTotalQuantityByWarehouse(productId);
 
-        if (batchList.isEmpty()) {
+        if (totalProductByWarehouseDtoList.isEmpty()) {
             throw new ResourceNotFoundException(String.format("Could not find valid batch stock for product %d",
                     productId));
         }
 
-        List<TotalProductByWarehouseDto> totalProductByWarehouseDtoList = new ArrayList<TotalProductByWarehouseDto>();
-
-        for (Batch batch : batchList) {
-            TotalProductByWarehouseDto totalProductByWarehouseDto = new TotalProductByWarehouseDto(
-                    batch.getOrderEntry().getSection().getWarehouse().getId(),
-                    batch.getCurrentQuantity()
-            );
-
-            long batchWarehouseId = batch.getOrderEntry().getSection().getWarehouse().getId();
-
-            List<TotalProductByWarehouseDto> hasWarehouse = totalProductByWarehouseDtoList
-                    .stream()
-                    .filter(totalProductByWh -> totalProductByWh.getWarehouseCode() == batchWarehouseId)
-                    .collect(Collectors.toList());
-
-            if (hasWarehouse.isEmpty()) {
-                totalProductByWarehouseDtoList.add(totalProductByWarehouseDto);
-            } else {
-                totalProductByWarehouseDtoList.forEach(totalProductByWarehouse -> {
-                    if (totalProductByWarehouse.getWarehouseCode() == batchWarehouseId) {
-                        int finalQuantity = totalProductByWarehouse.getTotalQuantity() + batch.getCurrentQuantity();
-                        totalProductByWarehouse.setTotalQuantity(finalQuantity);
-                    }
-                });
-            }
-        }
-
         return new ListProductByWarehouseDto(productId, totalProductByWarehouseDtoList);
     }
 
     /**
-     * Method to find a product by id and return some properties about the batches;
+     * Method to find a product by id and return some properties about the batches. The sellable batches of the
+     * product are read through the sellable batch cache, already filtered and sorted in every order;
      * @param id of type long. Product identifier;
      * @param order of type character that identifies the specified order to list the result.
      * @return a DTO with informations of the product and his batches;
      */
     @Override
+    @Timed("business.product.batches.list")
     public ProductStockDto getProductBatchProps(Long id, Character order) {
         Product product = findProduct(id);
 
-        List<Batch> batchesInput = batchRepository.findBatchByProductId(id);
+        SellableBatches sellableBatches = sellableBatchCache.get(id, this::loadBatches);
 
-        if (batchesInput.isEmpty()) {
+        if (!sellableBatches.productHasBatches()) {
             throw new ResourceNotFoundException("No available batch found for this product.");
         }
-        List<Batch> sortedFilteredList = sortByOrder(filterByDueDate(batchesInput), order);
+        List<BatchDto> sortedFilteredList = sellableBatches.sortedBy(order);
 
         if (sortedFilteredList.isEmpty()) {
             throw new ResourceNotFoundException("Product found, but no Batch of given product has 3 or more weeks until due date");
         }
 
-        return new ProductStockDto(product, sortedFilteredList);
+        return ProductStockDto.builder()
+                .id(product.getId())
+                .section(product.getType())
+                .name(product.getName())
+                .batchStockDto(sortedFilteredList)
+                .build();
     }
 
     /**
-     * Method to filter a list of batches to contain only batches that have 3 or more weeks until their due date;
-     * @param batchList a  List of Batch to be filtered.
-     * @return a filtered list of batches;
+     * Method to read every batch of a product from the database, with the warehouse that stores it;
+     * @param productId of type long. Product identifier;
+     * @return a List of objects of type BatchDto;
      */
-    private static List<Batch> filterByDueDate(List<Batch> batchList) {
-        return batchList.stream()
-                .filter(batch -> DAYS.between(LocalDate.now(), batch.getDueDate()) > 21)
+    private List<BatchDto> loadBatches(long productId) {
+        return batchRepository.findBatchByProductId(productId).stream()
+                .map(batch -> new BatchDto(batch.getOrderEntry().getSection().getWarehouse().getId(), batch.getId(),
+                        batch.getCurrentQuantity(), batch.getDueDate()))
                 .collect(Collectors.toList());
     }
 
     /**
-     * Method to sorted a list of batches
-     * @param batchList a  List of Batch to be sorted.
-     * @param order a  List of Batch to be sorted.
-     * @return a filtered list of batches;
-     */
-    private static List<Batch> sortByOrder(List<Batch> batchList, Character order) {
-        switch (order) {
-            case 'L':
-                return batchList.stream()
-                        .sorted(Comparator.comparingLong(Batch::getId))
-                        .collect(Collectors.toList());
-            case 'Q':
-                return batchList.stream()
-                        .sorted(Comparator.comparingInt(Batch::getCurrentQuantity))
-                        .collect(Collectors.toList());
-            default:
-                return batchList.stream()
-                        .sorted(Comparator.comparing(Batch::getDueDate))
-                        .collect(Collectors.toList());
+     * Method to resolve the page size requested by the user, applying the default and the maximum page size;
+     * @param limit of type Integer. Requested page size, null for the default page size.
+     * @return the page size to be used;
+     */
+    private int pageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+
+        if (limit < 1) {
+            throw new InvalidParameterTypeException(String.format("Invalid value %d for limit param", limit));
         }
+
+        return Math.min(limit, maxPageSize);
+    }
+
+    /**
+     * Method to build a page from a list of products fetched with one extra element, used to tell if there is a
+     * next page;
+     * @param products a List of Product with at most pageSize + 1 elements.
+     * @param pageSize of type int. Size of the page.
+     * @return an object of type ProductPageDto;
+     */
+    private static ProductPageDto toPage(List<Product> products, int pageSize) {
+        List<Product> page = products.size() > pageSize ? products.subList(0, pageSize) : products;
+
+        Long nextCursor = products.size() > pageSize ? page.get(page.size() - 1).getId() : null;
+
+        return new ProductPageDto(page.stream().map(ProductOutputDto::new).collect(Collectors.toList()), nextCursor);
     }
 }
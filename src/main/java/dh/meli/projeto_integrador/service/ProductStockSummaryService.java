@@ -0,0 +1,118 @@
+package dh.meli.projeto_integrador.service;
+
+import dh.meli.projeto_integrador.datasource.MySqlDataSourcePostProcessor;
+import dh.meli.projeto_integrador.hotstock.HotStockCounters;
+import dh.meli.projeto_integrador.model.Batch;
+import dh.meli.projeto_integrador.model.ProductStockSummaryId;
+import dh.meli.projeto_integrador.repository.IProductStockSummaryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.transaction.Transactional;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Class responsible for keeping the product stock summary in step with the batches. Every flow that changes the
+ * current quantity of a batch applies the same change to the summary row of the batch, inside its own transaction.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@Service
+public class ProductStockSummaryService implements IProductStockSummaryService {
+
+    /**
+     * Dependency Injection of the ProductStockSummary Repository.
+     */
+    @Autowired
+    private IProductStockSummaryRepository productStockSummaryRepository;
+
+    /**
+     * JDBC URL of the database, used to pick the upsert statement of its vendor.
+     */
+    @Value("${spring.datasource.url:}")
+    private String datasourceUrl;
+
+    /**
+     * Dependency Injection of the HotStockCounters.
+     */
+    @Autowired
+    private HotStockCounters hotStockCounters;
+
+    /**
+     * Method that adds the current quantity of the given batches to the stock summary
+     * @param batches a collection of objects of type Batch, with their product and warehouse
+     */
+    @Override
+    public void addBatches(Collection<Batch> batches) {
+        addQuantities(quantitiesOf(batches, 1));
+    }
+
+    /**
+     * Method that removes the current quantity of the given batches from the stock summary
+     * @param batches a collection of objects of type Batch, with their product and warehouse
+     */
+    @Override
+    public void removeBatches(Collection<Batch> batches) {
+        addQuantities(quantitiesOf(batches, -1));
+    }
+
+    /**
+     * Method that adds the given quantities, negative to remove stock, to the stock summary rows. Each row is
+     * upserted by a single statement, in the transaction of the caller, creating it when it does not exist: a row
+     * created concurrently by another writer is simply incremented. Rows are written in key order, so concurrent
+     * writers never deadlock on each other. The hot products changed are reseeded once the transaction commits.
+     * @param quantities a Map of summary row key to the quantity to be added
+     */
+    @Override
+    @Transactional
+    public void addQuantities(Map<ProductStockSummaryId, Long> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+
+        boolean mySql = MySqlDataSourcePostProcessor.isMySql(datasourceUrl);
+
+        new TreeMap<>(quantities).forEach((id, quantity) -> {
+            if (quantity == 0) {
+                return;
+            }
+
+            if (mySql) {
+                productStockSummaryRepository.upsertQuantityMySql(id, quantity);
+            } else {
+                productStockSummaryRepository.mergeQuantityH2(id, quantity);
+            }
+        });
+
+        hotStockCounters.markChanged(quantities.keySet().stream()
+                .map(ProductStockSummaryId::getProductId)
+                .collect(Collectors.toSet()));
+    }
+
+    /**
+     * Method that recomputes the whole stock summary from the batches and reseeds every hot product
+     * @return the number of summary rows created
+     */
+    @Override
+    @Transactional
+    public int rebuild() {
+        productStockSummaryRepository.deleteAllRows();
+        hotStockCounters.markChanged(hotStockCounters.getHotProductIds());
+        return productStockSummaryRepository.insertFromBatches();
+    }
+
+    /**
+     * Method that groups the current quantity of the given batches by summary row.
+     * @param batches a collection of objects of type Batch
+     * @param sign int. 1 to add stock, -1 to remove it
+     * @return a Map of summary row key to quantity
+     */
+    private static Map<ProductStockSummaryId, Long> quantitiesOf(Collection<Batch> batches, int sign) {
+        return batches.stream().collect(Collectors.toMap(ProductStockSummaryId::of,
+                batch -> (long) sign * batch.getCurrentQuantity(), Long::sum, TreeMap::new));
+    }
+}
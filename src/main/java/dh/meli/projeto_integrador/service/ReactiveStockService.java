@@ -0,0 +1,114 @@
+package dh.meli.projeto_integrador.service;
+
+import dh.meli.projeto_integrador.dto.dtoInput.CategoryDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.BatchStockDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.ListProductByWarehouseDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.ProductOutputDto;
+import dh.meli.projeto_integrador.exception.ResourceNotFoundException;
+import dh.meli.projeto_integrador.repository.ReactiveStockRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Class responsible for the non-blocking read only queries of the catalogue and of the stock. The streams are
+ * returned inside a Mono that only completes after a cheap existence query, so a missing resource is reported before
+ * the first element is written and the response can still be a 404. The same checks of ProductService and
+ * BatchService are applied.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@Service
+public class ReactiveStockService implements IReactiveStockService {
+
+    /**
+     * Dependency Injection of the Reactive Stock Repository.
+     */
+    @Autowired
+    private ReactiveStockRepository reactiveStockRepository;
+
+    /**
+     * Method to stream all products, or the products of a category, ordered by id.
+     * @param category of type String. Null to stream all products.
+     * @return a Mono emitting the Flux of objects of type ProductOutputDto, or a ResourceNotFoundException error
+     * when there is no product
+     */
+    @Override
+    public Mono<Flux<ProductOutputDto>> streamProducts(String category) {
+        return requireExists(reactiveStockRepository.existsProduct(category), "No Products Found",
+                category == null
+                        ? reactiveStockRepository.findAllProducts()
+                        : reactiveStockRepository.findProductsByType(category));
+    }
+
+    /**
+     * Method to find the stock of a product in each warehouse, from the stock summary.
+     * @param productId of type long. Product identifier
+     * @return a Mono of an object of type ListProductByWarehouseDto, or a ResourceNotFoundException error when the
+     * product has no stock
+     */
+    @Override
+    public Mono<ListProductByWarehouseDto> listProductByWarehouse(long productId) {
+        return reactiveStockRepository.findTotalQuantityByWarehouse(productId)
+                .collectList()
+                .flatMap(warehouses -> warehouses.isEmpty()
+                        ? Mono.error(new ResourceNotFoundException(String.format(
+                                "Could not find valid batch stock for product %d", productId)))
+                        : Mono.just(new ListProductByWarehouseDto(productId, warehouses)));
+    }
+
+    /**
+     * Method to stream the batch stock of a section whose due date is inside the given number of days, ordered by
+     * due date.
+     * @param sectionId of type long represents section identifier
+     * @param numberOfDays of type long represents the amount of days further than now to query batchStock
+     * @return a Mono emitting the Flux of objects of type BatchStockDto, or a ResourceNotFoundException error when
+     * the section has no batch
+     */
+    @Override
+    public Mono<Flux<BatchStockDto>> streamBatchBySectionOrderedByDueDate(long sectionId, long numberOfDays) {
+        LocalDate now = LocalDate.now();
+
+        return requireExists(reactiveStockRepository.existsBatchBySectionId(sectionId),
+                "The given section does not have available batch stock",
+                reactiveStockRepository.findBatchStockBySectionIdAndDueDateBetween(sectionId, now,
+                        now.plusDays(numberOfDays)));
+    }
+
+    /**
+     * Method to stream the batch stock of a category whose due date is inside the given number of days, ordered by
+     * due date.
+     * @param numberOfDays of type long represents the amount of days further than now to query batchStock
+     * @param category of type CategoryDto represents the product type
+     * @return a Mono emitting the Flux of objects of type BatchStockDto, or a ResourceNotFoundException error when
+     * the category has no batch
+     */
+    @Override
+    public Mono<Flux<BatchStockDto>> streamBatchByProductTypeOrderedByDueDate(long numberOfDays,
+                                                                             CategoryDto category) {
+        LocalDate now = LocalDate.now();
+        String productType = category.getProductType();
+
+        return requireExists(reactiveStockRepository.existsBatchByProductType(productType),
+                "The given category does not have available batch stock",
+                reactiveStockRepository.findBatchStockByProductTypeAndDueDateBetween(productType, now,
+                        now.plusDays(numberOfDays)));
+    }
+
+    /**
+     * Method that emits the given stream once the existence query returns true. The stream is lazy, so its query
+     * only runs when the response subscribes to it.
+     * @param exists a Mono of type Boolean with the result of the existence query
+     * @param notFoundMessage the message of the ResourceNotFoundException raised when nothing exists
+     * @param stream the Flux to be emitted
+     * @return a Mono emitting the stream, or a ResourceNotFoundException error
+     */
+    private static <T> Mono<Flux<T>> requireExists(Mono<Boolean> exists, String notFoundMessage, Flux<T> stream) {
+        return exists.flatMap(found -> found
+                ? Mono.just(stream)
+                : Mono.error(new ResourceNotFoundException(notFoundMessage)));
+    }
+}
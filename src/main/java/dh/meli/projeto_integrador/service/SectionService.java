@@ -1,5 +1,6 @@
 package dh.meli.projeto_integrador.service;
 
+import dh.meli.projeto_integrador.cache.ReferenceDataCache;
 import dh.meli.projeto_integrador.exception.InternalServerErrorException;
 import dh.meli.projeto_integrador.exception.ResourceNotFoundException;
 import dh.meli.projeto_integrador.model.Section;
@@ -24,12 +25,29 @@ public class SectionService implements ISectionService {
     private ISectionRepository sectionRepository;
 
     /**
-     * Method to find a section by id;
+     * Dependency Injection of the ReferenceDataCache.
+     */
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    /**
+     * Method to find a section by id. The section is read through the reference data cache, so the returned
+     * instance must not be changed; use findManagedSection to update a section;
      * @param id of type long. Section identifier;
      * @return an object of type Section;
      */
     @Override
     public Section findSection(long id) {
+        return referenceDataCache.sections().get(id, this::findManagedSection);
+    }
+
+    /**
+     * Method to find a section by id bypassing the cache. The returned section belongs to the current transaction,
+     * so it can be updated and saved;
+     * @param id of type long. Section identifier;
+     * @return an object of type Section;
+     */
+    public Section findManagedSection(long id) {
         Optional<Section> section = sectionRepository.findById(id);
 
         if (section.isEmpty()) {
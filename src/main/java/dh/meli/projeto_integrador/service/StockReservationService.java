@@ -0,0 +1,230 @@
+package dh.meli.projeto_integrador.service;
+
+import dh.meli.projeto_integrador.cache.SellableBatchCache;
+import dh.meli.projeto_integrador.dto.dtoOutput.BatchAllocationDto;
+import dh.meli.projeto_integrador.exception.ForbiddenException;
+import dh.meli.projeto_integrador.exception.ConflictException;
+import dh.meli.projeto_integrador.model.Batch;
+import dh.meli.projeto_integrador.model.ProductCart;
+import dh.meli.projeto_integrador.model.ProductCartBatch;
+import dh.meli.projeto_integrador.model.ProductStockSummaryId;
+import dh.meli.projeto_integrador.monitoring.BusinessMetrics;
+import dh.meli.projeto_integrador.repository.IBatchRepository;
+import dh.meli.projeto_integrador.repository.IProductCartBatchRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.transaction.Transactional;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Class responsible for reserving the stock of cart lines, allocating each line across batches in
+ * first-expire-first-out order and decrementing the batches current quantity;
+ * @author Gabriela Azevedo
+ * @version 0.0.1
+ */
+@Service
+public class StockReservationService implements IStockReservationService {
+
+    /**
+     * Dependency Injection of the Batch Repository.
+     */
+    @Autowired
+    private IBatchRepository batchRepository;
+
+    /**
+     * Dependency Injection of the ProductCartBatch Repository.
+     */
+    @Autowired
+    private IProductCartBatchRepository productCartBatchRepository;
+
+    /**
+     * Dependency Injection of the ProductStockSummary Service.
+     */
+    @Autowired
+    private ProductStockSummaryService productStockSummaryService;
+
+    /**
+     * Dependency Injection of the SellableBatchCache.
+     */
+    @Autowired
+    private SellableBatchCache sellableBatchCache;
+
+    /**
+     * Dependency Injection of the BusinessMetrics.
+     */
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
+    /**
+     * Maximum number of times a single batch is retried when a concurrent reservation changes its quantity.
+     */
+    @Value("${stock.reservation.max-attempts:3}")
+    private int maxAttempts = 3;
+
+    /**
+     * Method that reserves the stock of every given cart line. Lines are grouped by product and the products are
+     * handled in ascending id order, so concurrent reservations always lock batch rows in the same order.
+     * Each batch is decremented with a conditional update; when a concurrent reservation wins the race the row is
+     * re-read with a lock and the reservation retried, up to the configured number of attempts. The reserved
+     * quantities are then removed from the stock summary, and the cached sellable batches of every product are
+     * invalidated, since the conditional updates bypass the entity listeners.
+     * @param productCarts a list of objects of type ProductCart already persisted
+     * @return a list of objects of type ProductCartBatch, recording which batches fed each cart line
+     */
+    @Override
+    @Transactional
+    public List<ProductCartBatch> reserve(List<ProductCart> productCarts) {
+        List<ProductCartBatch> reservations = new ArrayList<>();
+        Map<Long, String> invalidProducts = reserveProducts(productCarts, reservations);
+
+        if (invalidProducts.size() >= 1) {
+            businessMetrics.recordStockRejection();
+            throw new ForbiddenException(String.format("The product(s): %s does not have enough quantity in stock or due date is not valid.", new ArrayList<>(invalidProducts.values())));
+        }
+
+        return reservations;
+    }
+
+    /**
+     * Method that reserves the stock of every given cart line, as reserve does, when every product has enough
+     * stock. When a product runs out, because a concurrent reservation took its stock after the caller checked it,
+     * nothing is reserved: the quantities already taken from the batches are given back, and the caller can drop
+     * the carts of the returned products and reserve the others again.
+     * @param productCarts a list of objects of type ProductCart already persisted
+     * @return a set with the ids of the products without enough stock, empty when the lines were reserved
+     */
+    @Override
+    @Transactional
+    public Set<Long> reserveIfAvailable(List<ProductCart> productCarts) {
+        return reserveProducts(productCarts, new ArrayList<>()).keySet();
+    }
+
+    /**
+     * Method that reserves the lines of each product and, when every product was reserved, saves the allocations
+     * and removes the reserved quantities from the stock summary. Otherwise every batch decremented is restored.
+     * @param productCarts a list of objects of type ProductCart already persisted
+     * @param reservations a list of objects of type ProductCartBatch where the allocations are added
+     * @return a Map of product id to name of the products without enough stock, in ascending id order
+     */
+    private Map<Long, String> reserveProducts(List<ProductCart> productCarts, List<ProductCartBatch> reservations) {
+        Map<Long, List<ProductCart>> linesByProduct = productCarts.stream()
+                .collect(Collectors.groupingBy(productCart -> productCart.getProduct().getId(), TreeMap::new,
+                        Collectors.toList()));
+
+        LocalDate minimumDueDate = LocalDate.now().plusDays(21);
+        Map<ProductStockSummaryId, Long> reservedQuantities = new TreeMap<>();
+        Map<Long, String> invalidProducts = new TreeMap<>();
+
+        linesByProduct.forEach((productId, lines) -> {
+            if (!reserveProduct(productId, lines, minimumDueDate, reservations, reservedQuantities)) {
+                invalidProducts.put(productId, lines.get(0).getProduct().getName());
+            }
+            sellableBatchCache.invalidate(productId);
+        });
+
+        if (!invalidProducts.isEmpty()) {
+            restore(reservations);
+            reservations.clear();
+            return invalidProducts;
+        }
+
+        productCartBatchRepository.saveAll(reservations);
+        productStockSummaryService.addQuantities(reservedQuantities);
+
+        return invalidProducts;
+    }
+
+    /**
+     * Method that gives back to each batch the quantity the given allocations took from it, in ascending batch id
+     * order, as the batches are locked.
+     * @param reservations a list of objects of type ProductCartBatch not yet saved
+     */
+    private void restore(List<ProductCartBatch> reservations) {
+        reservations.stream()
+                .collect(Collectors.groupingBy(reservation -> reservation.getBatch().getId(), TreeMap::new,
+                        Collectors.summingInt(ProductCartBatch::getQuantity)))
+                .forEach(batchRepository::incrementCurrentQuantity);
+    }
+
+    /**
+     * Method that allocates all the lines of a single product across its reservable batches, in due date order.
+     * The quantity taken from each batch covers as many lines as it can, so every batch is decremented once,
+     * however many carts and lines share the product.
+     * @param productId of type long. Product identifier
+     * @param lines a list of objects of type ProductCart of the same product
+     * @param minimumDueDate of type LocalDate. Batches due before this date are not reserved
+     * @param reservations a list of objects of type ProductCartBatch where the allocations are added
+     * @param reservedQuantities a Map of stock summary row key to the quantity removed from it, negative
+     * @return true if every line was fully reserved, false if the product ran out of stock
+     */
+    private boolean reserveProduct(long productId, List<ProductCart> lines, LocalDate minimumDueDate,
+                                   List<ProductCartBatch> reservations,
+                                   Map<ProductStockSummaryId, Long> reservedQuantities) {
+        Iterator<BatchAllocationDto> candidates = batchRepository
+                .findReservableBatchesByProductId(productId, minimumDueDate).iterator();
+        Iterator<ProductCart> pendingLines = lines.iterator();
+
+        ProductCart line = pendingLines.next();
+        int lineRemaining = line.getQuantity();
+        int demand = lines.stream().mapToInt(ProductCart::getQuantity).sum();
+
+        while (demand > 0) {
+            if (!candidates.hasNext()) {
+                return false;
+            }
+
+            BatchAllocationDto candidate = candidates.next();
+            int available = candidate.getCurrentQuantity();
+            int attempts = 0;
+
+            while (available > 0 && demand > 0) {
+                int quantity = Math.min(demand, available);
+
+                if (batchRepository.decrementCurrentQuantity(candidate.getBatchId(), quantity) != 1) {
+                    if (++attempts >= maxAttempts) {
+                        throw new ConflictException(String.format(
+                                "Could not reserve batch %d after %d attempts", candidate.getBatchId(), attempts));
+                    }
+                    Integer lockedQuantity = batchRepository.findCurrentQuantityForUpdate(candidate.getBatchId());
+                    available = lockedQuantity == null ? 0 : lockedQuantity;
+                    continue;
+                }
+
+                Batch batch = batchRepository.getReferenceById(candidate.getBatchId());
+                reservedQuantities.merge(new ProductStockSummaryId(productId, candidate.getWarehouseId(),
+                        candidate.getDueDate()), (long) -quantity, Long::sum);
+                available -= quantity;
+                demand -= quantity;
+
+                // Splits the quantity taken from the batch across the lines it feeds
+                while (quantity > 0) {
+                    int lineQuantity = Math.min(quantity, lineRemaining);
+
+                    reservations.add(ProductCartBatch.builder()
+                            .productCart(line)
+                            .batch(batch)
+                            .quantity(lineQuantity)
+                            .build());
+                    quantity -= lineQuantity;
+                    lineRemaining -= lineQuantity;
+
+                    if (lineRemaining == 0 && pendingLines.hasNext()) {
+                        line = pendingLines.next();
+                        lineRemaining = line.getQuantity();
+                    }
+                }
+            }
+        }
+
+        return true;
+    }
+}
@@ -1,5 +1,6 @@
 package dh.meli.projeto_integrador.service;
 
+import dh.meli.projeto_integrador.cache.ReferenceDataCache;
 import dh.meli.projeto_integrador.exception.ResourceNotFoundException;
 import dh.meli.projeto_integrador.model.Warehouse;
 import dh.meli.projeto_integrador.repository.IWarehouseRepository;
@@ -23,12 +24,27 @@ public class WarehouseService implements IWarehouseService {
     private IWarehouseRepository warehouseRepository;
 
     /**
-     * Method to find a warehouse by id;
+     * Dependency Injection of the ReferenceDataCache.
+     */
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    /**
+     * Method to find a warehouse by id, read through the reference data cache;
      * @param id of type long. Warehouse identifier;
      * @return an object of type Warehouse;
      */
     @Override
     public Warehouse findWarehouse(long id) {
+        return referenceDataCache.warehouses().get(id, this::loadWarehouse);
+    }
+
+    /**
+     * Method to read a warehouse from the database;
+     * @param id of type long. Warehouse identifier;
+     * @return an object of type Warehouse;
+     */
+    private Warehouse loadWarehouse(long id) {
         Optional<Warehouse> warehouse = warehouseRepository.findById(id);
 
         if (warehouse.isEmpty()) {
@@ -0,0 +1,15 @@
+package dh.meli.projeto_integrador.threads;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Class that enables the @Scheduled methods of the application: the day rollover of the ExpiryScheduler, the
+ * OutboxPublisher and the HotStockReconciler.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
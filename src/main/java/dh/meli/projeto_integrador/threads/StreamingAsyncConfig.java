@@ -0,0 +1,53 @@
+package dh.meli.projeto_integrador.threads;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Class that gives the asynchronous responses, the NDJSON streams of products and of the bulk inbound orders, their
+ * own bounded thread pool, so a burst of long exports can not take the threads of the rest of the application and is
+ * rejected once the pool and its queue are full. When spring.threads.virtual.enabled is true, VirtualThreadConfig
+ * runs the streams on virtual threads instead. The time limit of the streams is spring.mvc.async.request-timeout.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "false", matchIfMissing = true)
+public class StreamingAsyncConfig implements WebMvcConfigurer {
+
+    /**
+     * Number of threads writing streams at the same time.
+     */
+    @Value("${streaming.executor.pool-size}")
+    private int poolSize;
+
+    /**
+     * Number of streams waiting for a thread before new ones are rejected.
+     */
+    @Value("${streaming.executor.queue-capacity}")
+    private int queueCapacity;
+
+    /**
+     * Method that creates the executor that writes the asynchronous responses.
+     * @return a ThreadPoolTaskExecutor with a fixed number of threads and a bounded queue
+     */
+    @Bean
+    public ThreadPoolTaskExecutor streamingTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("streaming-");
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamingTaskExecutor());
+    }
+}
@@ -0,0 +1,59 @@
+package dh.meli.projeto_integrador.threads;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Class that runs the request handling on virtual threads when spring.threads.virtual.enabled is true. Tomcat hands
+ * every request to a new virtual thread instead of its platform thread pool, and so does Spring MVC for the
+ * asynchronous responses, like the NDJSON streams. A thread blocked on JDBC then no longer holds a platform thread,
+ * and the number of concurrent requests is bounded by the JDBC connection pool instead of the Tomcat pool.
+ * Virtual threads need Java 21; the application is still compiled for Java 11, so the executor is looked up at
+ * runtime and the startup fails when the running JVM does not provide it. The property has the same name Spring Boot
+ * 3.2 uses for the same feature, so this class can be removed once the application is migrated.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig implements WebMvcConfigurer {
+
+    /**
+     * Method that creates the executor that starts a new virtual thread for each task.
+     * @return an ExecutorService backed by virtual threads
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(String.format("spring.threads.virtual.enabled requires Java 21 or newer, "
+                    + "but the application is running on Java %s", System.getProperty("java.version")), e);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Could not create the virtual thread executor", e);
+        }
+    }
+
+    /**
+     * Method that makes Tomcat process each request on a virtual thread.
+     * @return the customizer of the Tomcat protocol handler
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor());
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(new TaskExecutorAdapter(virtualThreadExecutor()));
+    }
+}
@@ -0,0 +1,121 @@
+-- Esquema inicial, igual ao gerado pelo Hibernate (ddl-auto) antes das migracoes.
+
+CREATE SEQUENCE batch_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE cart_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE product_cart_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE product_cart_batch_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE warehouse (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    address VARCHAR(255),
+    name VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE agent (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    email_address VARCHAR(255),
+    name VARCHAR(255),
+    phone_number VARCHAR(255),
+    warehouse_id BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_agent_warehouse FOREIGN KEY (warehouse_id) REFERENCES warehouse (id)
+);
+
+CREATE TABLE section (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    current_product_load BIGINT,
+    max_product_load BIGINT,
+    product_type VARCHAR(255),
+    version BIGINT NOT NULL,
+    warehouse_id BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_section_warehouse FOREIGN KEY (warehouse_id) REFERENCES warehouse (id)
+);
+
+CREATE TABLE order_entry (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    order_date DATE,
+    section_id BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_order_entry_section FOREIGN KEY (section_id) REFERENCES section (id)
+);
+
+CREATE INDEX idx_order_entry_section ON order_entry (section_id);
+
+CREATE TABLE product (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(255),
+    price DOUBLE PRECISION,
+    type VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_product_type ON product (type);
+
+CREATE TABLE batch (
+    id BIGINT NOT NULL,
+    current_quantity INTEGER,
+    current_temperature FLOAT,
+    due_date DATE,
+    initial_quantity INTEGER,
+    manufacturing_date DATE,
+    manufacturing_time TIME,
+    minimum_temperature FLOAT,
+    version BIGINT NOT NULL,
+    order_entry_id BIGINT,
+    product_id BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_batch_order_entry FOREIGN KEY (order_entry_id) REFERENCES order_entry (id),
+    CONSTRAINT fk_batch_product FOREIGN KEY (product_id) REFERENCES product (id)
+);
+
+CREATE INDEX idx_batch_due_date ON batch (due_date);
+CREATE INDEX idx_batch_order_entry_due_date ON batch (order_entry_id, due_date);
+CREATE INDEX idx_batch_product_due_date ON batch (product_id, due_date);
+
+CREATE TABLE customer (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    cpf VARCHAR(255),
+    email_address VARCHAR(255),
+    name VARCHAR(255),
+    phone_number VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE cart (
+    id BIGINT NOT NULL,
+    date DATE,
+    status VARCHAR(255),
+    customer_id BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_cart_customer FOREIGN KEY (customer_id) REFERENCES customer (id)
+);
+
+CREATE TABLE product_cart (
+    id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL,
+    cart_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_product_cart_cart FOREIGN KEY (cart_id) REFERENCES cart (id),
+    CONSTRAINT fk_product_cart_product FOREIGN KEY (product_id) REFERENCES product (id)
+);
+
+CREATE TABLE product_cart_batch (
+    id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL,
+    batch_id BIGINT NOT NULL,
+    product_cart_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_product_cart_batch_batch FOREIGN KEY (batch_id) REFERENCES batch (id),
+    CONSTRAINT fk_product_cart_batch_product_cart FOREIGN KEY (product_cart_id) REFERENCES product_cart (id)
+);
+
+CREATE TABLE product_stock_summary (
+    due_date DATE NOT NULL,
+    product_id BIGINT NOT NULL,
+    warehouse_id BIGINT NOT NULL,
+    quantity BIGINT NOT NULL,
+    PRIMARY KEY (due_date, product_id, warehouse_id)
+);
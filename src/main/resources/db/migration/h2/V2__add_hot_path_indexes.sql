@@ -0,0 +1,30 @@
+-- Mesmos indices da migracao do MySQL (db/migration/mysql), usados pelos testes.
+
+-- reserva de estoque (findReservableBatchesByProductId), soma por produto e lotes por produto: coberto pelo indice
+CREATE INDEX idx_batch_product_due_date_quantity ON batch (product_id, due_date, current_quantity);
+
+-- lotes de uma ordem de entrada e janela de vencimento por setor: coberto pelo indice
+CREATE INDEX idx_batch_order_entry_due_date_stock ON batch (order_entry_id, due_date, product_id, current_quantity);
+
+DROP INDEX idx_batch_product_due_date;
+DROP INDEX idx_batch_order_entry_due_date;
+
+-- nenhuma consulta filtra apenas pelo vencimento
+DROP INDEX idx_batch_due_date;
+
+-- produtos por categoria paginados pelo id (findByTypeAndIdGreaterThanOrderByIdAsc)
+CREATE INDEX idx_product_type_id ON product (type, id);
+DROP INDEX idx_product_type;
+
+-- colunas de chave estrangeira usadas em juncoes, com nome proprio em vez do indice criado pela constraint
+CREATE INDEX idx_section_warehouse ON section (warehouse_id);
+CREATE INDEX idx_agent_warehouse ON agent (warehouse_id);
+CREATE INDEX idx_cart_customer ON cart (customer_id);
+CREATE INDEX idx_product_cart_cart ON product_cart (cart_id);
+CREATE INDEX idx_product_cart_product ON product_cart (product_id);
+CREATE INDEX idx_product_cart_batch_product_cart ON product_cart_batch (product_cart_id);
+CREATE INDEX idx_product_cart_batch_batch ON product_cart_batch (batch_id);
+
+-- o resumo de estoque e sempre lido por produto: a chave primaria passa a comecar pelo produto
+ALTER TABLE product_stock_summary DROP PRIMARY KEY;
+ALTER TABLE product_stock_summary ADD PRIMARY KEY (product_id, warehouse_id, due_date);
@@ -0,0 +1,3 @@
+-- Mesma coluna da migracao do MySQL (db/migration/mysql), usada pelos testes.
+
+ALTER TABLE product_cart ADD COLUMN stock_pending BOOLEAN NOT NULL DEFAULT FALSE;
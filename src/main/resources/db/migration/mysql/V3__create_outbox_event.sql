@@ -0,0 +1,17 @@
+-- Eventos de carrinho e de ordem de entrada gravados na mesma transacao da alteracao (outbox). O OutboxPublisher le os
+-- pendentes em ordem de id e apaga os publicados, entao a tabela fica pequena e a leitura usa apenas a chave primaria.
+
+CREATE TABLE outbox_event (
+    id BIGINT NOT NULL,
+    aggregate_type VARCHAR(255) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    event_type VARCHAR(255) NOT NULL,
+    payload LONGTEXT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+-- ids alocados em blocos de 50, como os dos lotes, para que os eventos de um carrinho em lote sejam inseridos em
+-- lotes JDBC
+CREATE TABLE outbox_event_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO outbox_event_seq VALUES (1);
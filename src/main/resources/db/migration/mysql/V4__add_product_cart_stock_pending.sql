@@ -0,0 +1,4 @@
+-- Linhas de carrinho de produtos em alta (hot-stock) aceitas pelos contadores em memoria e ainda sem lotes
+-- reservados: o HotStockReconciler reserva os lotes em segundo plano e desmarca a linha. Na subida as linhas ainda
+-- marcadas voltam para a fila.
+ALTER TABLE product_cart ADD COLUMN stock_pending BIT(1) NOT NULL DEFAULT 0;
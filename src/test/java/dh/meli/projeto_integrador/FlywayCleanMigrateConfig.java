@@ -0,0 +1,28 @@
+package dh.meli.projeto_integrador;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Test configuration that recreates the schema every time an application context starts. The in-memory database is
+ * shared by every cached test context, so each new context drops what the previous ones left and runs the migrations
+ * again, as ddl-auto create-drop used to do.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@Configuration
+public class FlywayCleanMigrateConfig {
+
+    /**
+     * Method that cleans the database before migrating it.
+     * @return the FlywayMigrationStrategy used by the Flyway auto-configuration
+     */
+    @Bean
+    public FlywayMigrationStrategy cleanMigrateStrategy() {
+        return flyway -> {
+            flyway.clean();
+            flyway.migrate();
+        };
+    }
+}
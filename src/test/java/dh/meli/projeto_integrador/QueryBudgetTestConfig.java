@@ -0,0 +1,25 @@
+package dh.meli.projeto_integrador;
+
+import dh.meli.projeto_integrador.monitoring.QueryBudgetResultMatcher;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Test configuration that checks every MockMvc request of the integration tests against the QueryBudget of its
+ * controller method. The budgets are only enforced here: at runtime a request over its budget is just counted.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+@Configuration
+public class QueryBudgetTestConfig {
+
+    /**
+     * Method that adds the QueryBudgetResultMatcher to the expectations of every MockMvc request.
+     * @return the MockMvcBuilderCustomizer applied by the MockMvc auto-configuration
+     */
+    @Bean
+    public MockMvcBuilderCustomizer queryBudgetCustomizer() {
+        return builder -> builder.alwaysExpect(new QueryBudgetResultMatcher());
+    }
+}
@@ -0,0 +1,86 @@
+package dh.meli.projeto_integrador.cache;
+
+import dh.meli.projeto_integrador.dto.dtoOutput.CacheStatisticsDto;
+import dh.meli.projeto_integrador.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LookupCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final LookupCache<Long, String> cache = new LookupCache<>("test", 2, Duration.ofSeconds(10), clock::get);
+
+    private String load(Long key) {
+        loads.incrementAndGet();
+        return "value-" + key;
+    }
+
+    @Test
+    void get_returnCachedValue_whenKeyWasLoaded() {
+        cache.get(1L, this::load);
+        String value = cache.get(1L, this::load);
+
+        CacheStatisticsDto statistics = cache.getStatistics();
+
+        assertThat(value).isEqualTo("value-1");
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(statistics.getHits()).isEqualTo(1);
+        assertThat(statistics.getMisses()).isEqualTo(1);
+        assertThat(statistics.getHitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    void get_reloadValue_whenEntryIsExpired() {
+        cache.get(1L, this::load);
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        cache.get(1L, this::load);
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(cache.getStatistics().getExpirations()).isEqualTo(1);
+    }
+
+    @Test
+    void get_evictLeastRecentlyUsedEntry_whenCacheIsFull() {
+        cache.get(1L, this::load);
+        cache.get(2L, this::load);
+        cache.get(1L, this::load);
+        cache.get(3L, this::load);
+
+        cache.get(1L, this::load);
+        cache.get(2L, this::load);
+
+        assertThat(loads.get()).isEqualTo(4);
+        assertThat(cache.getStatistics().getSize()).isEqualTo(2);
+        assertThat(cache.getStatistics().getEvictions()).isEqualTo(2);
+    }
+
+    @Test
+    void get_doesNotCacheValue_whenInvalidatedWhileLoading() {
+        cache.get(1L, key -> {
+            cache.invalidate(key);
+            return load(key);
+        });
+        cache.get(1L, this::load);
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(cache.getStatistics().getInvalidations()).isEqualTo(1);
+    }
+
+    @Test
+    void get_doesNotCacheValue_whenLoaderFails() {
+        assertThrows(ResourceNotFoundException.class, () -> cache.get(1L, key -> {
+            throw new ResourceNotFoundException("not found");
+        }));
+
+        assertThat(cache.getStatistics().getSize()).isZero();
+    }
+}
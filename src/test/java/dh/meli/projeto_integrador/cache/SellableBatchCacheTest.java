@@ -0,0 +1,103 @@
+package dh.meli.projeto_integrador.cache;
+
+import dh.meli.projeto_integrador.dto.dtoOutput.BatchDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SellableBatchCacheTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2022, 8, 10);
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(TODAY.atTime(23, 59)
+            .toInstant(ZoneOffset.UTC));
+
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now.get();
+        }
+    };
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final SellableBatchCache cache = new SellableBatchCache(10, 3600, clock);
+
+    private List<BatchDto> load(Long productId) {
+        loads.incrementAndGet();
+        return List.of(new BatchDto(1L, 3L, 5, TODAY.plusDays(40)),
+                new BatchDto(1L, 1L, 30, TODAY.plusDays(30)),
+                new BatchDto(1L, 2L, 10, TODAY.plusDays(22)),
+                new BatchDto(1L, 4L, 50, TODAY.plusDays(21)));
+    }
+
+    private static List<Long> batchNumbers(List<BatchDto> batches) {
+        return batches.stream().map(BatchDto::getBatchNumber).collect(Collectors.toList());
+    }
+
+    @Test
+    void get_serveEveryOrderFromOneLoad_whenProductWasLoaded() {
+        SellableBatches sellableBatches = cache.get(1L, this::load);
+        cache.get(1L, this::load);
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(sellableBatches.productHasBatches()).isTrue();
+        assertThat(batchNumbers(sellableBatches.sortedBy('L'))).containsExactly(1L, 2L, 3L);
+        assertThat(batchNumbers(sellableBatches.sortedBy('Q'))).containsExactly(3L, 2L, 1L);
+        assertThat(batchNumbers(sellableBatches.sortedBy('V'))).containsExactly(2L, 1L, 3L);
+        assertThat(sellableBatches.sortedBy('V')).isSameAs(cache.get(1L, this::load).sortedBy('V'));
+    }
+
+    @Test
+    void get_reloadBatches_whenProductIsInvalidated() {
+        cache.get(1L, this::load);
+        cache.invalidate(1L);
+        cache.get(1L, this::load);
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(cache.getStatistics().getInvalidations()).isEqualTo(1);
+    }
+
+    @Test
+    void get_shiftDueDateWindowWithoutLoading_whenLocalMidnightPasses() {
+        cache.get(1L, this::load);
+        now.set(TODAY.plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC));
+
+        SellableBatches sellableBatches = cache.get(1L, this::load);
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(sellableBatches.getDay()).isEqualTo(TODAY.plusDays(1));
+        assertThat(batchNumbers(sellableBatches.sortedBy('L'))).containsExactly(1L, 3L);
+        assertThat(batchNumbers(sellableBatches.sortedBy('Q'))).containsExactly(3L, 1L);
+        assertThat(batchNumbers(sellableBatches.sortedBy('V'))).containsExactly(1L, 3L);
+        assertThat(cache.get(1L, this::load)).isSameAs(sellableBatches);
+    }
+
+    @Test
+    void get_keepProductWithoutSellableBatch_whenEveryBatchIsDueSoon() {
+        SellableBatches sellableBatches = cache.get(1L, productId -> List.of(new BatchDto(1L, 1L, 5, TODAY)));
+
+        assertThat(sellableBatches.productHasBatches()).isTrue();
+        assertThat(sellableBatches.sortedBy('L')).isEmpty();
+    }
+}
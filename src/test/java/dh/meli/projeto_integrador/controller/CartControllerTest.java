@@ -1,6 +1,8 @@
 package dh.meli.projeto_integrador.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import dh.meli.projeto_integrador.idempotency.IdempotencyStore;
 import dh.meli.projeto_integrador.service.CartService;
 import dh.meli.projeto_integrador.util.Generators;
 import org.hamcrest.CoreMatchers;
@@ -9,6 +11,7 @@ import org.mockito.BDDMockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
@@ -29,6 +32,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
@@ -47,6 +51,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
 @WebMvcTest(CartController.class)
+@Import(IdempotencyStore.class)
 class CartControllerTest {
 
     @Autowired
@@ -61,6 +66,9 @@ class CartControllerTest {
     @Mock
     private CartService cartService;
 
+    @Spy
+    private IdempotencyStore idempotencyStore = new IdempotencyStore(100, 60, 1000, new ObjectMapper().findAndRegisterModules());
+
     @Test
     void getCartById_returnCartDto_whenSuccess() throws Exception {
 
@@ -89,7 +97,7 @@ class CartControllerTest {
 
         TotalPriceDto totalPriceDto = GenerateTotalPrice.newTotalPrice();
 
-        ResponseEntity<TotalPriceDto> response = cartController.createNewPurchaseOrder(cartDto);
+        ResponseEntity<TotalPriceDto> response = cartController.createNewPurchaseOrder(cartDto, null);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
         assertThat(response.getBody()).isNotNull();
@@ -103,7 +111,7 @@ class CartControllerTest {
         CartDto cartDto = GenerateCartDto.newCartDtoFinished();
 
         ForbiddenException exception = Assertions.assertThrows(ForbiddenException.class, () -> {
-            cartController.createNewPurchaseOrder(cartDto);
+            cartController.createNewPurchaseOrder(cartDto, null);
         });
     }
 
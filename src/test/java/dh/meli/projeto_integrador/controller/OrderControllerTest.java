@@ -1,7 +1,9 @@
 package dh.meli.projeto_integrador.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import dh.meli.projeto_integrador.dto.dtoInput.BatchDto;
 import dh.meli.projeto_integrador.dto.dtoInput.OrderEntryDto;
+import dh.meli.projeto_integrador.idempotency.IdempotencyStore;
 import dh.meli.projeto_integrador.service.OrderService;
 import dh.meli.projeto_integrador.util.Generators;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,6 +13,7 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
@@ -22,6 +25,7 @@ import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,12 +38,15 @@ public class OrderControllerTest {
     @Mock
     OrderService orderService;
 
+    @Spy
+    IdempotencyStore idempotencyStore = new IdempotencyStore(100, 60, 1000, new ObjectMapper().findAndRegisterModules());
+
     @BeforeEach
     void setup() {
         BDDMockito.when(orderService.createInboundOrder(ArgumentMatchers.any(OrderEntryDto.class)))
                 .thenReturn(Generators.createInboundOrder());
         BDDMockito.when(orderService.updateInboundOrder(ArgumentMatchers.any(OrderEntryDto.class), ArgumentMatchers.anyLong()))
-                .thenReturn(Generators.createInboundOrder().get(0));
+                .thenReturn(Generators.createInboundOrder());
     }
 
     @Test
@@ -48,7 +55,7 @@ public class OrderControllerTest {
 
         List<BatchDto> batchDtoList = new ArrayList<BatchDto>(orderEntryDto.getBatchStock());
 
-        ResponseEntity<List<BatchDto>> response = orderController.createInboundOrder(orderEntryDto);
+        ResponseEntity<List<BatchDto>> response = orderController.createInboundOrder(orderEntryDto, null);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
         assertThat(response.getBody()).isNotNull();
@@ -58,6 +65,18 @@ public class OrderControllerTest {
         verify(orderService, atLeastOnce()).createInboundOrder(orderEntryDto);
     }
 
+    @Test
+    void createInboundOrder_returnStoredResponse_whenIdempotencyKeyIsReplayed() {
+        OrderEntryDto orderEntryDto = Generators.createOrderEntryDto();
+
+        ResponseEntity<List<BatchDto>> first = orderController.createInboundOrder(orderEntryDto, "order-1");
+        ResponseEntity<List<BatchDto>> replay = orderController.createInboundOrder(orderEntryDto, "order-1");
+
+        assertThat(replay.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(replay.getBody()).isSameAs(first.getBody());
+        verify(orderService, times(1)).createInboundOrder(orderEntryDto);
+    }
+
     @Test
     void updateInboundOrderTest() {
         OrderEntryDto orderEntryDto = Generators.createOrderEntryDto();
@@ -66,11 +85,12 @@ public class OrderControllerTest {
 
         long id = 1;
 
-        ResponseEntity<BatchDto> response = orderController.updateInboundOrder(orderEntryDto, id);
+        ResponseEntity<List<BatchDto>> response = orderController.updateInboundOrder(orderEntryDto, id);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isNotNull();
-        assertThat(response.getBody().getBatchId()).isEqualTo(batchDtoList.get(0).getBatchId());
+        assertThat(response.getBody().size()).isEqualTo(batchDtoList.size());
+        assertThat(response.getBody().get(0).getBatchId()).isEqualTo(batchDtoList.get(0).getBatchId());
 
         verify(orderService, atLeastOnce()).updateInboundOrder(ArgumentMatchers.any(OrderEntryDto.class),
                 ArgumentMatchers.anyLong());
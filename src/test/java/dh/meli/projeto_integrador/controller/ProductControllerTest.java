@@ -2,6 +2,7 @@ package dh.meli.projeto_integrador.controller;
 
 import dh.meli.projeto_integrador.dto.dtoOutput.ListProductByWarehouseDto;
 import dh.meli.projeto_integrador.dto.dtoOutput.ProductOutputDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.ProductPageDto;
 import dh.meli.projeto_integrador.dto.dtoOutput.ProductStockDto;
 import dh.meli.projeto_integrador.service.ProductService;
 import dh.meli.projeto_integrador.util.Generators;
@@ -28,6 +29,7 @@ import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -55,13 +57,14 @@ class ProductControllerTest {
     @Test
     void listAllProducts_returnListOfProducts_whenSuccessTest() throws Exception {
         List<ProductOutputDto> list = Generators.productDtoList();
-        BDDMockito.when(service.getAllProducts())
-                .thenReturn(list);
+        BDDMockito.when(service.getAllProducts(anyLong(), any()))
+                .thenReturn(new ProductPageDto(list, null));
 
         ResultActions response = mockMvc.perform(get("/api/v1/fresh-products/")
                 .contentType(MediaType.APPLICATION_JSON));
 
         response.andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(jsonPath("$.size()",
                         CoreMatchers.is(list.size())))
                 .andExpect(jsonPath("$[0].name",
@@ -69,11 +72,28 @@ class ProductControllerTest {
     }
 
 
+    @Test
+    void listAllProducts_returnNextCursorHeader_whenThereIsNextPageTest() throws Exception {
+        List<ProductOutputDto> list = Generators.productDtoList();
+        BDDMockito.when(service.getAllProducts(10L, 2))
+                .thenReturn(new ProductPageDto(list, 12L));
+
+        ResultActions response = mockMvc.perform(get("/api/v1/fresh-products")
+                .param("cursor", "10")
+                .param("limit", "2")
+                .contentType(MediaType.APPLICATION_JSON));
+
+        response.andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "12"))
+                .andExpect(jsonPath("$.size()",
+                        CoreMatchers.is(list.size())));
+    }
+
     @Test
     void listProductByCategoryTest() throws Exception {
         List<ProductOutputDto> list = Generators.productDtoList();
-        BDDMockito.when(service.getProductsByCategory(anyString()))
-                .thenReturn(list);
+        BDDMockito.when(service.getProductsByCategory(anyString(), anyLong(), any()))
+                .thenReturn(new ProductPageDto(list, null));
 
         ResultActions response = mockMvc.perform(get("/api/v1/fresh-products/{cayegory}",
                 Generators.validProductDto1().getType())
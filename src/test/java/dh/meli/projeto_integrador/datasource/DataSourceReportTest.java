@@ -0,0 +1,94 @@
+package dh.meli.projeto_integrador.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataSourceReportTest {
+
+    private final DataSourceReport report = new DataSourceReport();
+
+    private final MockEnvironment environment = new MockEnvironment();
+
+    private final HikariDataSource pool = new HikariDataSource();
+
+    @BeforeEach
+    void setup() {
+        ReflectionTestUtils.setField(report, "environment", environment);
+
+        environment.setProperty("spring.jpa.properties.hibernate.jdbc.batch_size", "50");
+        environment.setProperty("spring.jpa.properties.javax.persistence.query.timeout", "5000");
+
+        pool.setJdbcUrl("jdbc:mysql://localhost:3306/projeto_integrador");
+        pool.setMaximumPoolSize(10);
+        pool.setMaxLifetime(1740000);
+        new MySqlDataSourcePostProcessor().postProcessBeforeInitialization(pool, "dataSource");
+    }
+
+    @Test
+    void findWarnings_returnEmptyList_whenPoolAndJpaAreTuned() {
+        List<String> warnings = report.findWarnings(pool, Map.of("max_connections", 151L, "wait_timeout", 28800L));
+
+        assertThat(warnings).isEmpty();
+    }
+
+    @Test
+    void findWarnings_reportJpaSettings_whenShowSqlIsOnAndTimeoutsAreMissing() {
+        environment.setProperty("spring.jpa.show-sql", "true");
+        environment.setProperty("spring.jpa.properties.hibernate.jdbc.batch_size", "1");
+        environment.setProperty("spring.jpa.properties.javax.persistence.query.timeout", "0");
+
+        List<String> warnings = report.findWarnings(pool, Map.of());
+
+        assertThat(warnings).hasSize(3);
+        assertThat(warnings.get(0)).startsWith("spring.jpa.show-sql is true");
+        assertThat(warnings.get(1)).startsWith("hibernate.jdbc.batch_size is not set");
+        assertThat(warnings.get(2)).startsWith("no query timeout");
+    }
+
+    @Test
+    void findWarnings_acceptTransactionTimeout_whenQueryTimeoutIsMissing() {
+        environment.setProperty("spring.jpa.properties.javax.persistence.query.timeout", "0");
+        environment.setProperty("spring.transaction.default-timeout", "30s");
+
+        assertThat(report.findWarnings(pool, Map.of())).isEmpty();
+    }
+
+    @Test
+    void findWarnings_reportDriverProperties_whenMySqlPoolIsNotTuned() {
+        HikariDataSource untuned = new HikariDataSource();
+        untuned.setJdbcUrl("jdbc:mysql://localhost:3306/projeto_integrador?rewriteBatchedStatements=true");
+
+        List<String> warnings = report.findWarnings(untuned, Map.of());
+
+        assertThat(warnings).containsExactly("driver property cachePrepStmts is not enabled",
+                "driver property useServerPrepStmts is not enabled");
+    }
+
+    @Test
+    void findWarnings_reportPoolSize_whenServerLimitsAreLower() {
+        pool.setMaximumPoolSize(200);
+        pool.setMaxLifetime(0);
+
+        List<String> warnings = report.findWarnings(pool, Map.of("max_connections", 151L, "wait_timeout", 600L));
+
+        assertThat(warnings).hasSize(2);
+        assertThat(warnings.get(0)).startsWith("maximumPoolSize 200 is over the max_connections 151");
+        assertThat(warnings.get(1)).startsWith("maxLifetime 0ms is not below the wait_timeout 600s");
+    }
+
+    @Test
+    void findWarnings_skipDriverProperties_whenDatabaseIsNotMySql() {
+        HikariDataSource h2 = new HikariDataSource();
+        h2.setJdbcUrl("jdbc:h2:mem:test_db");
+
+        assertThat(report.findWarnings(h2, Map.of())).isEmpty();
+    }
+}
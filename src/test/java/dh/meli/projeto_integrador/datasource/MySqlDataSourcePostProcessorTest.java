@@ -0,0 +1,51 @@
+package dh.meli.projeto_integrador.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MySqlDataSourcePostProcessorTest {
+
+    private final MySqlDataSourcePostProcessor postProcessor = new MySqlDataSourcePostProcessor();
+
+    private static HikariDataSource pool(String jdbcUrl) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(jdbcUrl);
+        return dataSource;
+    }
+
+    @Test
+    void postProcessBeforeInitialization_addDriverProperties_whenPoolIsMySql() {
+        HikariDataSource dataSource = pool("jdbc:mysql://localhost:3306/projeto_integrador");
+
+        postProcessor.postProcessBeforeInitialization(dataSource, "dataSource");
+
+        MySqlDataSourcePostProcessor.DRIVER_PROPERTIES.forEach((name, value) ->
+                assertThat(dataSource.getDataSourceProperties().getProperty(name)).isEqualTo(value));
+    }
+
+    @Test
+    void postProcessBeforeInitialization_keepConfiguredValues_whenPropertyIsAlreadySet() {
+        HikariDataSource dataSource = pool("jdbc:mysql://localhost:3306/projeto_integrador"
+                + "?serverTimezone=UTC&rewriteBatchedStatements=false");
+        dataSource.addDataSourceProperty("prepStmtCacheSize", "500");
+
+        postProcessor.postProcessBeforeInitialization(dataSource, "dataSource");
+
+        assertThat(dataSource.getDataSourceProperties().getProperty("prepStmtCacheSize")).isEqualTo("500");
+        assertThat(dataSource.getDataSourceProperties().getProperty("rewriteBatchedStatements")).isNull();
+        assertThat(MySqlDataSourcePostProcessor.driverProperty(dataSource, "rewriteBatchedStatements"))
+                .isEqualTo("false");
+        assertThat(dataSource.getDataSourceProperties().getProperty("cachePrepStmts")).isEqualTo("true");
+    }
+
+    @Test
+    void postProcessBeforeInitialization_keepPool_whenDatabaseIsNotMySql() {
+        HikariDataSource dataSource = pool("jdbc:h2:mem:test_db");
+
+        postProcessor.postProcessBeforeInitialization(dataSource, "dataSource");
+
+        assertThat(dataSource.getDataSourceProperties()).isEmpty();
+    }
+}
@@ -0,0 +1,60 @@
+package dh.meli.projeto_integrador.expiry;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DueDateIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2022, 8, 10);
+
+    private final DueDateIndex index = new DueDateIndex();
+
+    @Test
+    void findDueBetween_returnOnlyBatchesInsideTheDays_whenBatchesAreIndexed() {
+        index.put(1L, 10L, TODAY);
+        index.put(2L, 10L, TODAY.plusDays(1));
+        index.put(3L, 20L, TODAY.plusDays(2));
+        index.put(4L, 20L, TODAY.plusDays(3));
+
+        assertThat(index.findDueBetween(TODAY, TODAY.plusDays(2))).isEqualTo(Map.of(2L, 10L, 3L, 20L));
+        assertThat(index.findDueBetween(TODAY.plusDays(2), TODAY.plusDays(2))).isEmpty();
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    void put_moveBatchToNewBucket_whenDueDateChanges() {
+        index.put(1L, 10L, TODAY.plusDays(5));
+        index.put(1L, 10L, TODAY.plusDays(1));
+
+        assertThat(index.findDueBetween(TODAY, TODAY.plusDays(1))).isEqualTo(Map.of(1L, 10L));
+        assertThat(index.findDueBetween(TODAY.plusDays(1), TODAY.plusDays(5))).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void pollDueUpTo_removeDueBatches_whenDayIsReached() {
+        index.put(1L, 10L, TODAY.minusDays(1));
+        index.put(2L, 20L, TODAY);
+        index.put(3L, 30L, TODAY.plusDays(1));
+
+        Map<Long, Long> expired = index.pollDueUpTo(TODAY);
+
+        assertThat(expired).isEqualTo(Map.of(1L, 10L, 2L, 20L));
+        assertThat(index.pollDueUpTo(TODAY)).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void remove_dropBatch_whenBatchIsDeleted() {
+        index.put(1L, 10L, TODAY);
+        index.remove(1L);
+        index.remove(2L);
+
+        assertThat(index.pollDueUpTo(TODAY)).isEmpty();
+        assertThat(index.size()).isEqualTo(0);
+    }
+}
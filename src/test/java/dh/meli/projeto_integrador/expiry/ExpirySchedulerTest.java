@@ -0,0 +1,144 @@
+package dh.meli.projeto_integrador.expiry;
+
+import dh.meli.projeto_integrador.dto.dtoOutput.BatchDueDateDto;
+import dh.meli.projeto_integrador.monitoring.BusinessMetrics;
+import dh.meli.projeto_integrador.repository.IBatchRepository;
+import dh.meli.projeto_integrador.service.OutboxService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ExpirySchedulerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2022, 8, 10);
+
+    @Mock
+    IBatchRepository batchRepository;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    OutboxService outboxService;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    DueDateIndex dueDateIndex = new DueDateIndex();
+
+    ExpiryScheduler expiryScheduler;
+
+    @BeforeEach
+    void setup() {
+        BDDMockito.when(batchRepository.findBatchDueDatesAfter(TODAY))
+                .thenReturn(List.of(new BatchDueDateDto(1L, 10L, TODAY.plusDays(1)),
+                        new BatchDueDateDto(2L, 10L, TODAY.plusDays(22)),
+                        new BatchDueDateDto(3L, 20L, TODAY.plusDays(23)),
+                        new BatchDueDateDto(4L, 30L, TODAY.plusDays(60))));
+
+        Clock clock = Clock.fixed(TODAY.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        expiryScheduler = new ExpiryScheduler(batchRepository, dueDateIndex, eventPublisher,
+                new BusinessMetrics(meterRegistry), outboxService, transactionManager, clock);
+        expiryScheduler.loadIndex();
+    }
+
+    @Test
+    void rollOver_publishLeftSaleAndExpiredBatches_whenDayChanges() {
+        expiryScheduler.rollOver(TODAY.plusDays(1));
+
+        ArgumentCaptor<BatchDueDateEvent> events = ArgumentCaptor.forClass(BatchDueDateEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+
+        BatchDueDateEvent leftSale = events.getAllValues().get(0);
+        assertThat(leftSale.getStage()).isEqualTo(BatchDueDateEvent.Stage.LEFT_SALE);
+        assertThat(leftSale.getDay()).isEqualTo(TODAY.plusDays(1));
+        assertThat(leftSale.getBatchIds()).isEqualTo(Set.of(2L));
+        assertThat(leftSale.getProductIds()).isEqualTo(Set.of(10L));
+
+        BatchDueDateEvent expired = events.getAllValues().get(1);
+        assertThat(expired.getStage()).isEqualTo(BatchDueDateEvent.Stage.EXPIRED);
+        assertThat(expired.getBatchIds()).isEqualTo(Set.of(1L));
+
+        assertThat(dueDateIndex.size()).isEqualTo(3);
+        assertThat(meterRegistry.counter("business.batches.left.sale").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("business.batches.expired").count()).isEqualTo(1);
+    }
+
+    @Test
+    void rollOver_writeLeftSaleAndExpiredBatchesToOutbox_whenDayChanges() {
+        expiryScheduler.rollOver(TODAY.plusDays(1));
+
+        verify(outboxService, times(1)).batchesLeftSale(TODAY.plusDays(1), Map.of(2L, 10L));
+        verify(outboxService, times(1)).batchesExpired(TODAY.plusDays(1), Map.of(1L, 10L));
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void rollOver_keepIndex_whenOutboxWriteFails() {
+        doThrow(new IllegalStateException("database down")).when(outboxService).batchesExpired(any(), anyMap());
+
+        assertThatThrownBy(() -> expiryScheduler.rollOver(TODAY.plusDays(1)))
+                .isInstanceOf(IllegalStateException.class);
+
+        verify(eventPublisher, never()).publishEvent(any(BatchDueDateEvent.class));
+        assertThat(dueDateIndex.size()).isEqualTo(4);
+
+        doNothing().when(outboxService).batchesExpired(any(), anyMap());
+        expiryScheduler.rollOver(TODAY.plusDays(1));
+
+        verify(outboxService, times(2)).batchesExpired(TODAY.plusDays(1), Map.of(1L, 10L));
+        assertThat(dueDateIndex.size()).isEqualTo(3);
+    }
+
+    @Test
+    void rollOver_coverMissedDays_whenRolloverIsLate() {
+        expiryScheduler.rollOver(TODAY.plusDays(2));
+
+        ArgumentCaptor<BatchDueDateEvent> events = ArgumentCaptor.forClass(BatchDueDateEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+
+        assertThat(events.getAllValues().get(0).getBatchIds()).isEqualTo(Set.of(2L, 3L));
+        assertThat(events.getAllValues().get(0).getProductIds()).isEqualTo(Set.of(10L, 20L));
+    }
+
+    @Test
+    void rollOver_publishNothing_whenDayDidNotChange() {
+        expiryScheduler.rollOver(TODAY);
+
+        verify(eventPublisher, never()).publishEvent(any(BatchDueDateEvent.class));
+        verify(outboxService, never()).batchesExpired(any(), anyMap());
+        assertThat(dueDateIndex.size()).isEqualTo(4);
+    }
+
+    @Test
+    void rollOver_publishEachBatchOnce_whenRunTwiceOnSameDay() {
+        expiryScheduler.rollOver(TODAY.plusDays(1));
+        expiryScheduler.rollOver(TODAY.plusDays(1));
+
+        verify(eventPublisher, times(2)).publishEvent(any(BatchDueDateEvent.class));
+    }
+}
@@ -0,0 +1,143 @@
+package dh.meli.projeto_integrador.hotstock;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotStockCountersTest {
+
+    private final HotStockCounters counters = new HotStockCounters(true, Set.of(1L, 2L), 10);
+
+    @Test
+    void isHot_returnFalse_untilProductIsSeeded() {
+        assertThat(counters.isHot(1L)).isFalse();
+
+        counters.reseed(1L, Map.of(1L, 5L));
+
+        assertThat(counters.isHot(1L)).isTrue();
+        assertThat(counters.isHot(3L)).isFalse();
+        assertThat(new HotStockCounters(false, Set.of(1L), 10).isHot(1L)).isFalse();
+    }
+
+    @Test
+    void acquire_takeQuantityAcrossStripes_whenStockIsEnough() {
+        counters.reseed(1L, Map.of(1L, 5L, 2L, 5L));
+
+        assertThat(counters.acquire(Map.of(1L, 8L))).isEmpty();
+        assertThat(counters.getAvailable(1L)).isEqualTo(2);
+        assertThat(counters.acquire(Map.of(1L, 3L))).containsExactly(1L);
+        assertThat(counters.getAvailable(1L)).isEqualTo(2);
+    }
+
+    @Test
+    void acquire_takeNothing_whenAnyProductHasNotEnoughStock() {
+        counters.reseed(1L, Map.of(1L, 10L));
+        counters.reseed(2L, Map.of(1L, 1L));
+
+        assertThat(counters.acquire(Map.of(1L, 5L, 2L, 2L))).containsExactly(2L);
+        assertThat(counters.getAvailable(1L)).isEqualTo(10);
+        assertThat(counters.getAvailable(2L)).isEqualTo(1);
+    }
+
+    @Test
+    void defer_returnFalse_whenPendingQuantityGoesOverTheCap() {
+        counters.reseed(1L, Map.of(1L, 100L));
+        counters.reseed(2L, Map.of(1L, 100L));
+
+        assertThat(counters.defer(Map.of(1L, 6L))).isTrue();
+        assertThat(counters.defer(Map.of(2L, 1L, 1L, 5L))).isFalse();
+        assertThat(counters.getPending(1L)).isEqualTo(6);
+        assertThat(counters.getPending(2L)).isEqualTo(0);
+
+        counters.settle(Map.of(1L, 6L));
+
+        assertThat(counters.defer(Map.of(1L, 10L))).isTrue();
+    }
+
+    @Test
+    void reseed_subtractPendingQuantity_fromSellableStock() {
+        counters.reseed(1L, Map.of(1L, 20L, 2L, 20L));
+        counters.acquire(Map.of(1L, 8L));
+        counters.defer(Map.of(1L, 8L));
+
+        counters.reseed(1L, Map.of(1L, 4L, 2L, 20L));
+
+        assertThat(counters.getAvailable(1L)).isEqualTo(16);
+
+        counters.reseed(1L, Map.of(2L, 3L));
+
+        assertThat(counters.getAvailable(1L)).isEqualTo(0);
+    }
+
+    @Test
+    void pollPendingCarts_takeWholeCarts_untilTheLinesReachTheLimit() {
+        counters.enqueue(List.of(1L, 2L));
+        counters.enqueue(List.of(3L));
+        counters.enqueue(List.of(4L));
+
+        assertThat(counters.pollPendingCarts(3)).containsExactly(List.of(1L, 2L), List.of(3L));
+        assertThat(counters.pollPendingCarts(3)).containsExactly(List.of(4L));
+        assertThat(counters.pollPendingCarts(3)).isEmpty();
+    }
+
+    @Test
+    void markChanged_keepOnlyHotProducts() {
+        counters.markChanged(List.of(1L, 3L));
+
+        assertThat(counters.pollChangedProducts()).containsExactly(1L);
+        assertThat(counters.pollChangedProducts()).isEmpty();
+    }
+
+    @Test
+    void acquire_neverOversell_whenCartsRunConcurrently() throws Exception {
+        HotStockCounters hotCounters = new HotStockCounters(true, Set.of(1L), 10);
+        hotCounters.reseed(1L, Map.of(1L, 250L, 2L, 250L, 3L, 250L, 4L, 250L));
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < 200; j++) {
+                        if (hotCounters.acquire(Map.of(1L, 3L)).isEmpty()) {
+                            admitted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(admitted.get() * 3L + hotCounters.getAvailable(1L)).isEqualTo(1000);
+
+        // A cart may fail while another one gives back a partial take, so the rest is drained by a single thread
+        while (hotCounters.acquire(Map.of(1L, 3L)).isEmpty()) {
+            admitted.incrementAndGet();
+        }
+
+        assertThat(admitted.get()).isEqualTo(333);
+        assertThat(hotCounters.getAvailable(1L)).isEqualTo(1);
+    }
+}
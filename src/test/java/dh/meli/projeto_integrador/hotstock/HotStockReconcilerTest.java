@@ -0,0 +1,224 @@
+package dh.meli.projeto_integrador.hotstock;
+
+import dh.meli.projeto_integrador.dto.dtoOutput.TotalProductByWarehouseDto;
+import dh.meli.projeto_integrador.enumClass.PurchaseOrderStatusEnum;
+import dh.meli.projeto_integrador.exception.ConflictException;
+import dh.meli.projeto_integrador.exception.ForbiddenException;
+import dh.meli.projeto_integrador.model.Cart;
+import dh.meli.projeto_integrador.model.Product;
+import dh.meli.projeto_integrador.model.ProductCart;
+import dh.meli.projeto_integrador.monitoring.BusinessMetrics;
+import dh.meli.projeto_integrador.repository.ICartRepository;
+import dh.meli.projeto_integrador.repository.IProductCartRepository;
+import dh.meli.projeto_integrador.repository.IProductStockSummaryRepository;
+import dh.meli.projeto_integrador.service.OutboxService;
+import dh.meli.projeto_integrador.service.StockReservationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class HotStockReconcilerTest {
+
+    @InjectMocks
+    HotStockReconciler hotStockReconciler;
+
+    @Spy
+    HotStockCounters hotStockCounters = new HotStockCounters(true, Set.of(1L), 1000);
+
+    @Mock
+    StockReservationService stockReservationService;
+
+    @Mock
+    IProductCartRepository productCartRepository;
+
+    @Mock
+    ICartRepository cartRepository;
+
+    @Mock
+    IProductStockSummaryRepository productStockSummaryRepository;
+
+    @Mock
+    OutboxService outboxService;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    BusinessMetrics businessMetrics = new BusinessMetrics(meterRegistry);
+
+    @BeforeEach
+    void setup() {
+        ReflectionTestUtils.setField(hotStockReconciler, "batchSize", 10);
+        BDDMockito.when(productCartRepository.claimStockPending(anyCollection()))
+                .thenAnswer(invocation -> invocation.<Collection<Long>>getArgument(0).size());
+        BDDMockito.when(productStockSummaryRepository.findSellableQuantityByWarehouse(eq(1L), any(LocalDate.class)))
+                .thenReturn(List.of(new TotalProductByWarehouseDto(1L, 20L)));
+        hotStockReconciler.start();
+    }
+
+    private static ProductCart line(long id, long cartId, int quantity) {
+        return ProductCart.builder()
+                .id(id)
+                .cart(Cart.builder().id(cartId).status(PurchaseOrderStatusEnum.OPEN).build())
+                .product(Product.builder().id(1).build())
+                .quantity(quantity)
+                .stockPending(true)
+                .build();
+    }
+
+    private void admit(ProductCart line) {
+        hotStockCounters.acquire(Map.of(1L, (long) line.getQuantity()));
+        hotStockCounters.defer(Map.of(1L, (long) line.getQuantity()));
+        hotStockCounters.enqueue(List.of(line.getId()));
+    }
+
+    @Test
+    void start_seedCounters_fromSellableStock() {
+        assertThat(hotStockCounters.isHot(1L)).isTrue();
+        assertThat(hotStockCounters.getAvailable(1L)).isEqualTo(20);
+    }
+
+    @Test
+    void reconcile_reserveQueuedCartsTogether_andSettlePending() {
+        ProductCart first = line(1L, 1L, 5);
+        ProductCart second = line(2L, 2L, 3);
+        admit(first);
+        admit(second);
+        BDDMockito.when(productCartRepository.findWithCartAndProductByIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(first, second));
+
+        assertThat(hotStockReconciler.reconcile()).isEqualTo(2);
+
+        verify(stockReservationService, times(1)).reserve(List.of(first, second));
+        verify(productCartRepository).claimStockPending(List.of(1L, 2L));
+        assertThat(hotStockCounters.getPending(1L)).isEqualTo(0);
+    }
+
+    @Test
+    void reconcile_cancelOnlyCartsTheDatabaseCanNotCover_whenStockWasOversold() {
+        ProductCart first = line(1L, 1L, 5);
+        ProductCart second = line(2L, 2L, 3);
+        admit(first);
+        admit(second);
+        BDDMockito.when(productCartRepository.findWithCartAndProductByIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(first, second));
+        BDDMockito.when(productCartRepository.findWithCartAndProductByIdIn(List.of(1L))).thenReturn(List.of(first));
+        BDDMockito.when(productCartRepository.findWithCartAndProductByIdIn(List.of(2L))).thenReturn(List.of(second));
+        doThrow(new ForbiddenException("not enough stock")).when(stockReservationService).reserve(List.of(first, second));
+        doThrow(new ForbiddenException("not enough stock")).when(stockReservationService).reserve(List.of(second));
+
+        assertThat(hotStockReconciler.reconcile()).isEqualTo(1);
+
+        verify(stockReservationService).reserve(List.of(first));
+        assertThat(second.getCart().getStatus()).isEqualTo(PurchaseOrderStatusEnum.CANCELLED);
+        verify(cartRepository).save(second.getCart());
+        verify(outboxService).cartCancelled(second.getCart());
+        // Claimed by the reservation rolled back, then by the cancellation
+        verify(productCartRepository, times(2)).claimStockPending(List.of(2L));
+        assertThat(first.getCart().getStatus()).isEqualTo(PurchaseOrderStatusEnum.OPEN);
+        assertThat(hotStockCounters.getPending(1L)).isEqualTo(0);
+        assertThat(meterRegistry.counter("business.carts.cancelled").count()).isEqualTo(1);
+    }
+
+    @Test
+    void reconcile_neverCancelFinishedCart_whenItsStockCanNotBeReserved() {
+        ProductCart first = line(1L, 1L, 5);
+        first.getCart().setStatus(PurchaseOrderStatusEnum.FINISHED);
+        admit(first);
+        BDDMockito.when(productCartRepository.findWithCartAndProductByIdIn(List.of(1L))).thenReturn(List.of(first));
+        doThrow(new ForbiddenException("not enough stock")).when(stockReservationService).reserve(anyList());
+
+        hotStockReconciler.reconcile();
+
+        assertThat(first.getCart().getStatus()).isEqualTo(PurchaseOrderStatusEnum.FINISHED);
+        verify(cartRepository, never()).save(any(Cart.class));
+        verify(outboxService, never()).cartCancelled(any(Cart.class));
+        assertThat(hotStockCounters.getPending(1L)).isEqualTo(0);
+    }
+
+    @Test
+    void reconcile_skipLinesAlreadySettled_whenCartIsQueuedTwice() {
+        ProductCart first = line(1L, 1L, 5);
+        ProductCart settled = line(2L, 2L, 3);
+        settled.setStockPending(false);
+        admit(first);
+        admit(settled);
+        BDDMockito.when(productCartRepository.findWithCartAndProductByIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(first, settled));
+
+        hotStockReconciler.reconcile();
+
+        verify(productCartRepository).claimStockPending(List.of(1L));
+        verify(stockReservationService, times(1)).reserve(List.of(first));
+        assertThat(hotStockCounters.getPending(1L)).isEqualTo(0);
+    }
+
+    @Test
+    void reconcile_reserveNothing_whenAnotherInstanceClaimedTheLines() {
+        ProductCart first = line(1L, 1L, 5);
+        admit(first);
+        BDDMockito.when(productCartRepository.findWithCartAndProductByIdIn(List.of(1L))).thenReturn(List.of(first));
+        BDDMockito.when(productCartRepository.claimStockPending(List.of(1L))).thenReturn(0);
+
+        assertThat(hotStockReconciler.reconcile()).isEqualTo(0);
+
+        verify(stockReservationService, never()).reserve(anyList());
+        assertThat(hotStockCounters.pollPendingCarts(10)).containsExactly(List.of(1L));
+    }
+
+    @Test
+    void reconcile_keepCartsQueued_whenDatabaseFails() {
+        ProductCart first = line(1L, 1L, 5);
+        admit(first);
+        BDDMockito.when(productCartRepository.findWithCartAndProductByIdIn(List.of(1L))).thenReturn(List.of(first));
+        doThrow(new ConflictException("batch changed")).when(stockReservationService).reserve(anyList());
+
+        assertThat(hotStockReconciler.reconcile()).isEqualTo(0);
+
+        verify(stockReservationService, times(1)).reserve(anyList());
+        assertThat(hotStockCounters.pollPendingCarts(10)).containsExactly(List.of(1L));
+        assertThat(hotStockCounters.getPending(1L)).isEqualTo(5);
+    }
+
+    @Test
+    void start_queueAgainLinesLeftPending_andSubtractThemFromTheCounters() {
+        ProductCart first = line(1L, 1L, 5);
+        ProductCart second = line(2L, 1L, 3);
+        BDDMockito.when(productCartRepository.findStockPendingIds()).thenReturn(List.of(1L, 2L));
+        BDDMockito.when(productCartRepository.findWithCartAndProductByIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(first, second));
+
+        hotStockReconciler.start();
+
+        assertThat(hotStockCounters.pollPendingCarts(10)).containsExactly(List.of(1L, 2L));
+        assertThat(hotStockCounters.getPending(1L)).isEqualTo(8);
+        assertThat(hotStockCounters.getAvailable(1L)).isEqualTo(12);
+    }
+}
@@ -0,0 +1,215 @@
+package dh.meli.projeto_integrador.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dh.meli.projeto_integrador.exception.ConflictException;
+import dh.meli.projeto_integrador.exception.ForbiddenException;
+import dh.meli.projeto_integrador.exception.InvalidParameterTypeException;
+import dh.meli.projeto_integrador.exception.UnprocessableEntityException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IdempotencyStoreTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final AtomicInteger runs = new AtomicInteger();
+
+    private static final Map<String, Object> BODY = Map.of("customerId", 1, "products", List.of(2, 3));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final IdempotencyStore store = new IdempotencyStore(2, Duration.ofSeconds(10), 5000, clock::get,
+            objectMapper);
+
+    private ResponseEntity<String> create() {
+        return new ResponseEntity<>("created-" + runs.incrementAndGet(), HttpStatus.CREATED);
+    }
+
+    @Test
+    void execute_returnStoredResponse_whenKeyIsReplayed() {
+        ResponseEntity<String> first = store.execute("POST /orders", "key-1", BODY, this::create);
+        ResponseEntity<String> replay = store.execute("POST /orders", "key-1", BODY, this::create);
+
+        assertThat(replay).isSameAs(first);
+        assertThat(runs.get()).isEqualTo(1);
+    }
+
+    @Test
+    void execute_returnStoredResponse_whenReplayBodyIsEqual() {
+        ResponseEntity<String> first = store.execute("POST /orders", "key-1", BODY, this::create);
+        ResponseEntity<String> replay = store.execute("POST /orders", "key-1",
+                Map.of("customerId", 1, "products", List.of(2, 3)), this::create);
+
+        assertThat(replay).isSameAs(first);
+        assertThat(runs.get()).isEqualTo(1);
+    }
+
+    @Test
+    void execute_throwUnprocessableEntity_whenKeyIsReplayedWithAnotherBody() {
+        store.execute("POST /orders", "key-1", BODY, this::create);
+
+        UnprocessableEntityException exception = assertThrows(UnprocessableEntityException.class,
+                () -> store.execute("POST /orders", "key-1", Map.of("customerId", 2, "products", List.of(2, 3)),
+                        this::create));
+
+        assertThat(exception.getMessage()).isEqualTo("The Idempotency-Key was already used with a different " +
+                "request body");
+        assertThat(runs.get()).isEqualTo(1);
+    }
+
+    @Test
+    void execute_throwUnprocessableEntity_whenAnotherBodyArrivesWhileFirstExecutionRuns() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<ResponseEntity<String>> first = executor.submit(() -> store.execute("POST /orders", "key-1", BODY,
+                    () -> {
+                        started.countDown();
+                        await(release);
+                        return create();
+                    }));
+            started.await(5, TimeUnit.SECONDS);
+
+            assertThrows(UnprocessableEntityException.class, () -> store.execute("POST /orders", "key-1",
+                    Map.of("customerId", 2), this::create));
+
+            release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS).getBody()).isEqualTo("created-1");
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_runEveryTime_whenKeyIsMissing() {
+        store.execute("POST /orders", null, BODY, this::create);
+        store.execute("POST /orders", null, BODY, this::create);
+
+        assertThat(runs.get()).isEqualTo(2);
+        assertThat(store.size()).isEqualTo(0);
+    }
+
+    @Test
+    void execute_runAgain_whenSameKeyIsUsedOnAnotherOperation() {
+        store.execute("POST /orders", "key-1", BODY, this::create);
+        store.execute("POST /inboundorder", "key-1", BODY, this::create);
+
+        assertThat(runs.get()).isEqualTo(2);
+    }
+
+    @Test
+    void execute_runAgain_whenStoredResponseIsExpired() {
+        store.execute("POST /orders", "key-1", BODY, this::create);
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        ResponseEntity<String> response = store.execute("POST /orders", "key-1", BODY, this::create);
+
+        assertThat(response.getBody()).isEqualTo("created-2");
+    }
+
+    @Test
+    void execute_evictOldestResponse_whenStoreIsFull() {
+        store.execute("POST /orders", "key-1", BODY, this::create);
+        store.execute("POST /orders", "key-2", BODY, this::create);
+        store.execute("POST /orders", "key-3", BODY, this::create);
+        store.execute("POST /orders", "key-4", BODY, this::create);
+
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.execute("POST /orders", "key-4", BODY, this::create).getBody()).isEqualTo("created-4");
+    }
+
+    @Test
+    void execute_releaseKey_whenOperationFails() {
+        assertThrows(ForbiddenException.class, () -> store.execute("POST /orders", "key-1", BODY, () -> {
+            throw new ForbiddenException("no stock");
+        }));
+
+        ResponseEntity<String> response = store.execute("POST /orders", "key-1", BODY, this::create);
+
+        assertThat(response.getBody()).isEqualTo("created-1");
+    }
+
+    @Test
+    void execute_rejectKey_whenKeyIsBlank() {
+        assertThrows(InvalidParameterTypeException.class, () -> store.execute("POST /orders", " ", BODY, this::create));
+    }
+
+    @Test
+    void execute_waitForFirstExecution_whenReplayArrivesWhileItRuns() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<ResponseEntity<String>> first = executor.submit(() -> store.execute("POST /orders", "key-1", BODY,
+                    () -> {
+                        started.countDown();
+                        await(release);
+                        return create();
+                    }));
+            started.await(5, TimeUnit.SECONDS);
+
+            Future<ResponseEntity<String>> replay = executor.submit(() ->
+                    store.execute("POST /orders", "key-1", BODY, this::create));
+
+            Thread.sleep(100);
+            assertThat(replay.isDone()).isFalse();
+            release.countDown();
+
+            assertThat(replay.get(5, TimeUnit.SECONDS)).isSameAs(first.get(5, TimeUnit.SECONDS));
+            assertThat(runs.get()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_throwConflict_whenFirstExecutionDoesNotFinishInTime() throws Exception {
+        IdempotencyStore impatientStore = new IdempotencyStore(2, Duration.ofSeconds(10), 50, clock::get,
+                objectMapper);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            executor.submit(() -> impatientStore.execute("POST /orders", "key-1", BODY, () -> {
+                started.countDown();
+                await(release);
+                return create();
+            }));
+            started.await(5, TimeUnit.SECONDS);
+
+            assertThrows(ConflictException.class, () -> impatientStore.execute("POST /orders", "key-1", BODY,
+                    this::create));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
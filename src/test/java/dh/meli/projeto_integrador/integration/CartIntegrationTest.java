@@ -2,12 +2,19 @@ package dh.meli.projeto_integrador.integration;
 
 import dh.meli.projeto_integrador.model.Cart;
 import dh.meli.projeto_integrador.model.Customer;
+import dh.meli.projeto_integrador.model.OrderEntry;
 import dh.meli.projeto_integrador.model.Product;
 import dh.meli.projeto_integrador.model.ProductCart;
+import dh.meli.projeto_integrador.model.Section;
+import dh.meli.projeto_integrador.model.Warehouse;
 import dh.meli.projeto_integrador.repository.ICartRepository;
 import dh.meli.projeto_integrador.repository.ICustomerRepository;
+import dh.meli.projeto_integrador.repository.IOrderRepository;
 import dh.meli.projeto_integrador.repository.IProductCartRepository;
 import dh.meli.projeto_integrador.repository.IProductRepository;
+import dh.meli.projeto_integrador.repository.ISectionRepository;
+import dh.meli.projeto_integrador.repository.IWarehouseRepository;
+import dh.meli.projeto_integrador.service.ProductStockSummaryService;
 import dh.meli.projeto_integrador.util.Generators;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import dh.meli.projeto_integrador.dto.dtoInput.CartDto;
@@ -27,10 +34,15 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -55,6 +67,18 @@ public class CartIntegrationTest {
     @Autowired
     private IBatchRepository batchRepository;
 
+    @Autowired
+    private IWarehouseRepository warehouseRepository;
+
+    @Autowired
+    private ISectionRepository sectionRepository;
+
+    @Autowired
+    private IOrderRepository orderRepository;
+
+    @Autowired
+    private ProductStockSummaryService productStockSummaryService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -94,6 +118,9 @@ public class CartIntegrationTest {
 
 
         response.andExpect(status().isOk())
+                .andExpect(header().string("X-Query-Count", "1"))
+                .andExpect(jsonPath("$.products.size()",
+                        CoreMatchers.is(2)))
                 .andExpect(jsonPath("$.total",
                         CoreMatchers.is(Generators.validCartDto().getTotal())))
                 .andExpect(jsonPath("$.customerName",
@@ -125,9 +152,14 @@ public class CartIntegrationTest {
         customerRepository.save(customer);
         Product product = GenerateProduct.newProduct1();
         Product newProduct = productRepository.save(product);
+        Warehouse warehouse = warehouseRepository.save(Generators.getCleanWarehouse(0));
+        Section section = sectionRepository.save(Generators.getCleanSection(warehouse, 2000));
+        OrderEntry orderEntry = orderRepository.save(Generators.getCleanOrderEntry(section));
         Batch batch = GenerateBatch.newBatch1();
         batch.setProduct(newProduct);
-        batchRepository.save(batch);
+        batch.setOrderEntry(orderEntry);
+        Batch savedBatch = batchRepository.save(batch);
+        productStockSummaryService.rebuild();
         cartDto.getProducts().get(0).setProductId(newProduct.getId());
 
         ResultActions response = mockMvc.perform(post("/api/v1/fresh-products/orders")
@@ -136,6 +168,44 @@ public class CartIntegrationTest {
 
         response.andExpect(status().isCreated())
                 .andExpect(jsonPath("$.totalPrice", CoreMatchers.is(totalPriceDto.getTotalPrice())));
+
+        assertThat(batchRepository.findById(savedBatch.getId()).get().getCurrentQuantity())
+                .isEqualTo(savedBatch.getCurrentQuantity() - cartDto.getProducts().get(0).getQuantity());
+    }
+
+    @Test
+    public void createBulk_returnOutcomePerCart_whenStockRunsOut() throws Exception {
+        customerRepository.save(GenerateCustomer.newCustomer1());
+        Product newProduct = productRepository.save(GenerateProduct.newProduct1());
+        Warehouse warehouse = warehouseRepository.save(Generators.getCleanWarehouse(0));
+        Section section = sectionRepository.save(Generators.getCleanSection(warehouse, 2000));
+        OrderEntry orderEntry = orderRepository.save(Generators.getCleanOrderEntry(section));
+        Batch batch = GenerateBatch.newBatch1();
+        batch.setProduct(newProduct);
+        batch.setOrderEntry(orderEntry);
+        Batch savedBatch = batchRepository.save(batch);
+        productStockSummaryService.rebuild();
+
+        List<CartDto> cartDtos = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            CartDto cartDto = GenerateCartDto.newCartDto();
+            cartDto.getProducts().get(0).setProductId(newProduct.getId());
+            cartDtos.add(cartDto);
+        }
+
+        mockMvc.perform(post("/api/v1/fresh-products/orders/bulk")
+                        .content(objectMapper.writeValueAsString(cartDtos))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", CoreMatchers.is(3)))
+                .andExpect(jsonPath("$[0].status", CoreMatchers.is("ACCEPTED")))
+                .andExpect(jsonPath("$[1].status", CoreMatchers.is("ACCEPTED")))
+                .andExpect(jsonPath("$[2].status", CoreMatchers.is("REJECTED")))
+                .andExpect(jsonPath("$[2].cartId").doesNotExist());
+
+        assertThat(cartRepository.count()).isEqualTo(2);
+        assertThat(productCartRepository.count()).isEqualTo(2);
+        assertThat(batchRepository.findById(savedBatch.getId()).get().getCurrentQuantity()).isEqualTo(0);
     }
 
     @Test
@@ -0,0 +1,142 @@
+package dh.meli.projeto_integrador.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dh.meli.projeto_integrador.dto.dtoInput.CartDto;
+import dh.meli.projeto_integrador.dto.dtoInput.OrderEntryDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.TotalProductByWarehouseDto;
+import dh.meli.projeto_integrador.hotstock.HotStockCounters;
+import dh.meli.projeto_integrador.hotstock.HotStockReconciler;
+import dh.meli.projeto_integrador.model.*;
+import dh.meli.projeto_integrador.repository.*;
+import dh.meli.projeto_integrador.util.Generators;
+import dh.meli.projeto_integrador.utils.GenerateCartDto;
+import dh.meli.projeto_integrador.utils.GenerateCustomer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "hot-stock.enabled=true", "hot-stock.product-ids=1", "hot-stock.reconcile-delay-ms=3600000"})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class HotStockIntegrationTest {
+
+    @Autowired
+    private IWarehouseRepository warehouseRepository;
+
+    @Autowired
+    private ISectionRepository sectionRepository;
+
+    @Autowired
+    private IProductRepository productRepository;
+
+    @Autowired
+    private IAgentRepository agentRepository;
+
+    @Autowired
+    private ICustomerRepository customerRepository;
+
+    @Autowired
+    private IProductCartRepository productCartRepository;
+
+    @Autowired
+    private IProductStockSummaryRepository productStockSummaryRepository;
+
+    @Autowired
+    private HotStockCounters hotStockCounters;
+
+    @Autowired
+    private HotStockReconciler hotStockReconciler;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private long sellable(long productId) {
+        return productStockSummaryRepository.findSellableQuantityByWarehouse(productId, LocalDate.now().plusDays(21))
+                .stream()
+                .mapToLong(TotalProductByWarehouseDto::getTotalQuantity)
+                .sum();
+    }
+
+    @Test
+    void createCart_reserveBatchesInBackground_whenProductIsHot() throws Exception {
+        Warehouse warehouse = warehouseRepository.save(Generators.getCleanWarehouse(1));
+        Section section = sectionRepository.save(Generators.getCleanSection(warehouse, 2000));
+        Product product = productRepository.save(Generators.getProduct());
+        Agent agent = agentRepository.save(Generators.getCleanAgent(warehouse));
+        Customer customer = customerRepository.save(GenerateCustomer.newCustomer1());
+
+        assertThat(product.getId()).isEqualTo(1L);
+
+        OrderEntryDto orderEntryDto = Generators.getCleanOrderEntryDto(agent.getId(), warehouse.getId(),
+                section.getId(), product.getId());
+        orderEntryDto.getBatchStock().forEach(batchDto -> batchDto.setDueDate(LocalDate.now().plusDays(45)));
+
+        mockMvc.perform(post("/api/v1/fresh-products/inboundorder")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderEntryDto)))
+                .andExpect(status().isCreated());
+
+        // The inbound order marked the product as changed: the reconciler reseeds it from the stock summary
+        hotStockReconciler.reconcile();
+        long stock = sellable(product.getId());
+
+        assertThat(stock).isGreaterThan(5);
+        assertThat(hotStockCounters.getAvailable(product.getId())).isEqualTo(stock);
+
+        CartDto cartDto = GenerateCartDto.newCartDto();
+        cartDto.setBuyerId(customer.getId());
+        cartDto.getProducts().get(0).setProductId(product.getId());
+        cartDto.getProducts().get(0).setQuantity(5);
+
+        mockMvc.perform(post("/api/v1/fresh-products/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cartDto)))
+                .andExpect(status().isCreated());
+
+        assertThat(hotStockCounters.getAvailable(product.getId())).isEqualTo(stock - 5);
+        assertThat(hotStockCounters.getPending(product.getId())).isEqualTo(5);
+        assertThat(productCartRepository.findStockPendingIds()).hasSize(1);
+        assertThat(sellable(product.getId())).isEqualTo(stock);
+
+        long cartId = productCartRepository.findWithCartAndProductByIdIn(productCartRepository.findStockPendingIds())
+                .get(0).getCart().getId();
+
+        // The cart can not be finished before its batches are reserved
+        mockMvc.perform(put("/api/v1/fresh-products/{id}", cartId))
+                .andExpect(status().isConflict());
+
+        assertThat(hotStockReconciler.reconcile()).isEqualTo(1);
+
+        mockMvc.perform(put("/api/v1/fresh-products/{id}", cartId))
+                .andExpect(status().isOk());
+
+        assertThat(productCartRepository.findStockPendingIds()).isEmpty();
+        assertThat(sellable(product.getId())).isEqualTo(stock - 5);
+        assertThat(hotStockCounters.getPending(product.getId())).isEqualTo(0);
+        assertThat(hotStockCounters.getAvailable(product.getId())).isEqualTo(stock - 5);
+
+        cartDto.getProducts().get(0).setQuantity((int) stock);
+
+        mockMvc.perform(post("/api/v1/fresh-products/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cartDto)))
+                .andExpect(status().isForbidden());
+
+        assertThat(hotStockCounters.getAvailable(product.getId())).isEqualTo(stock - 5);
+    }
+}
@@ -0,0 +1,70 @@
+package dh.meli.projeto_integrador.integration;
+
+import dh.meli.projeto_integrador.model.*;
+import dh.meli.projeto_integrador.repository.*;
+import dh.meli.projeto_integrador.service.ProductStockSummaryService;
+import dh.meli.projeto_integrador.util.Generators;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class MetricsIntegrationTest {
+
+    @Autowired
+    private IWarehouseRepository warehouseRepository;
+
+    @Autowired
+    private ISectionRepository sectionRepository;
+
+    @Autowired
+    private IOrderRepository orderRepository;
+
+    @Autowired
+    private IProductRepository productRepository;
+
+    @Autowired
+    private IBatchRepository batchRepository;
+
+    @Autowired
+    private ProductStockSummaryService productStockSummaryService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void prometheus_exposeServiceTimersAndPoolAndHibernateMetrics_whenServiceWasCalled() throws Exception {
+        Warehouse warehouse = warehouseRepository.save(Generators.getCleanWarehouse(0));
+        Section section = sectionRepository.save(Generators.getCleanSection(warehouse, 2000));
+        OrderEntry orderEntry = orderRepository.save(Generators.getCleanOrderEntry(section));
+        Product product = productRepository.save(Generators.getProduct());
+        batchRepository.save(Generators.getCleanBatch(product, orderEntry));
+        productStockSummaryService.rebuild();
+
+        mockMvc.perform(get("/api/v1/fresh-products/warehouse/product/{productId}", product.getId()))
+                .andExpect(status().isOk());
+
+        String metrics = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(metrics)
+                .contains("business_product_warehouse_list_seconds_count")
+                .contains("business_product_warehouse_list_seconds_bucket")
+                .contains("business_stock_rejections_total")
+                .contains("business_cart_lines_bucket")
+                .contains("hikaricp_connections_active")
+                .contains("hibernate_statements_total");
+    }
+}
@@ -2,10 +2,14 @@ package dh.meli.projeto_integrador.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import dh.meli.projeto_integrador.dto.dtoInput.BatchDto;
+import dh.meli.projeto_integrador.dto.dtoInput.CartDto;
 import dh.meli.projeto_integrador.dto.dtoInput.OrderEntryDto;
+import dh.meli.projeto_integrador.expiry.DueDateIndex;
 import dh.meli.projeto_integrador.model.*;
 import dh.meli.projeto_integrador.repository.*;
 import dh.meli.projeto_integrador.util.Generators;
+import dh.meli.projeto_integrador.utils.GenerateCartDto;
+import dh.meli.projeto_integrador.utils.GenerateCustomer;
 import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,12 +19,20 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -49,9 +61,15 @@ public class OrderEntryIntegrationTest {
     @Autowired
     private IOrderRepository orderRepository;
 
+    @Autowired
+    private ICustomerRepository customerRepository;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private DueDateIndex dueDateIndex;
+
     @BeforeEach
     void setup() {
         batchRepository.deleteAll();
@@ -102,6 +120,239 @@ public class OrderEntryIntegrationTest {
                         CoreMatchers.is(expectedCurrentTemperature)));
     }
 
+    @Test
+    void createInboundOrder_UpdateStockSummary_WhenInboundOrderIsCreated() throws Exception {
+        Warehouse warehouse = warehouseRepository.save(Generators.getCleanWarehouse(1));
+
+        Section section = sectionRepository.save(Generators.getCleanSection(warehouse, 2000));
+
+        Product product = productRepository.save(Generators.getProduct());
+
+        Agent agent = agentRepository.save(Generators.getCleanAgent(warehouse));
+
+        OrderEntryDto orderEntryDto = Generators.getCleanOrderEntryDto(agent.getId(), warehouse.getId(),
+                section.getId(), product.getId());
+
+        mockMvc.perform(post("/api/v1/fresh-products/inboundorder")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderEntryDto)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/v1/fresh-products/warehouse/product/{productId}", product.getId())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.warehouses[0].warehouseCode",
+                        CoreMatchers.is((int) warehouse.getId())))
+                .andExpect(jsonPath("$.warehouses[0].totalQuantity",
+                        CoreMatchers.is(20)));
+    }
+
+    @Test
+    void createInboundOrder_CreateBatchesOnce_WhenIdempotencyKeyIsReplayed() throws Exception {
+        Warehouse warehouse = warehouseRepository.save(Generators.getCleanWarehouse(1));
+
+        Section section = sectionRepository.save(Generators.getCleanSection(warehouse, 2000));
+
+        Product product = productRepository.save(Generators.getProduct());
+
+        Agent agent = agentRepository.save(Generators.getCleanAgent(warehouse));
+
+        OrderEntryDto orderEntryDto = Generators.getCleanOrderEntryDto(agent.getId(), warehouse.getId(),
+                section.getId(), product.getId());
+
+        int initialQuantity = orderEntryDto.getBatchStock().iterator().next().getInitialQuantity();
+
+        String firstResponse = mockMvc.perform(post("/api/v1/fresh-products/inboundorder")
+                        .header("Idempotency-Key", "inbound-order-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderEntryDto)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(post("/api/v1/fresh-products/inboundorder")
+                        .header("Idempotency-Key", "inbound-order-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderEntryDto)))
+                .andExpect(status().isCreated())
+                .andExpect(content().json(firstResponse, true));
+
+        assertThat(batchRepository.count()).isEqualTo(1);
+        assertThat(sectionRepository.findById(section.getId()).get().getCurrentProductLoad())
+                .isEqualTo(section.getCurrentProductLoad() + initialQuantity);
+
+        orderEntryDto.setOrderDate(orderEntryDto.getOrderDate().minusDays(1));
+
+        mockMvc.perform(post("/api/v1/fresh-products/inboundorder")
+                        .header("Idempotency-Key", "inbound-order-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderEntryDto)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.title", CoreMatchers.is("Unprocessable Entity")));
+
+        assertThat(batchRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void updateInboundOrder_KeepBatchIdsAndApplyNetLoad_WhenOrderIsCorrected() throws Exception {
+        Warehouse warehouse = warehouseRepository.save(Generators.getCleanWarehouse(1));
+
+        Section section = sectionRepository.save(Generators.getCleanSection(warehouse, 2000));
+
+        Product product = productRepository.save(Generators.getProduct());
+
+        Agent agent = agentRepository.save(Generators.getCleanAgent(warehouse));
+
+        OrderEntryDto orderEntryDto = Generators.getCleanOrderEntryDto(agent.getId(), warehouse.getId(),
+                section.getId(), product.getId());
+
+        String createResponse = mockMvc.perform(post("/api/v1/fresh-products/inboundorder")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderEntryDto)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        BatchDto createdBatch = objectMapper.readValue(createResponse, BatchDto[].class)[0];
+        long orderEntryId = batchRepository.findById(createdBatch.getBatchId()).get().getOrderEntry().getId();
+
+        createdBatch.setCurrentQuantity(15);
+
+        BatchDto newBatch = Generators.getCleanOrderEntryDto(agent.getId(), warehouse.getId(), section.getId(),
+                product.getId()).getBatchStock().iterator().next();
+
+        Set<BatchDto> batchStock = new HashSet<>();
+        batchStock.add(createdBatch);
+        batchStock.add(newBatch);
+        orderEntryDto.setBatchStock(batchStock);
+
+        mockMvc.perform(put("/api/v1/fresh-products/inboundorder/{id}", orderEntryId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderEntryDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].batchNumber").value(createdBatch.getBatchId()))
+                .andExpect(jsonPath("$[0].currentQuantity").value(15));
+
+        assertThat(batchRepository.count()).isEqualTo(2);
+        assertThat(orderRepository.count()).isEqualTo(1);
+        assertThat(batchRepository.findById(createdBatch.getBatchId()).get().getCurrentQuantity()).isEqualTo(15);
+        // 20 from the creation, 5 removed by the correction and 20 from the new batch
+        assertThat(sectionRepository.findById(section.getId()).get().getCurrentProductLoad())
+                .isEqualTo(section.getCurrentProductLoad() + 35);
+
+        orderEntryDto.setBatchStock(Set.of(createdBatch));
+
+        mockMvc.perform(put("/api/v1/fresh-products/inboundorder/{id}", orderEntryId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderEntryDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+
+        assertThat(batchRepository.count()).isEqualTo(1);
+        assertThat(sectionRepository.findById(section.getId()).get().getCurrentProductLoad())
+                .isEqualTo(section.getCurrentProductLoad() + 15);
+        assertThat(dueDateIndex.size()).isEqualTo(1);
+    }
+
+    @Test
+    void updateInboundOrder_ReturnConflict_WhenOmittedBatchWasReservedByACart() throws Exception {
+        Warehouse warehouse = warehouseRepository.save(Generators.getCleanWarehouse(1));
+        Section section = sectionRepository.save(Generators.getCleanSection(warehouse, 2000));
+        Product product = productRepository.save(Generators.getProduct());
+        Agent agent = agentRepository.save(Generators.getCleanAgent(warehouse));
+        Customer customer = customerRepository.save(GenerateCustomer.newCustomer1());
+
+        OrderEntryDto orderEntryDto = Generators.getCleanOrderEntryDto(agent.getId(), warehouse.getId(),
+                section.getId(), product.getId());
+        orderEntryDto.getBatchStock().forEach(batchDto -> batchDto.setDueDate(LocalDate.now().plusDays(45)));
+
+        String createResponse = mockMvc.perform(post("/api/v1/fresh-products/inboundorder")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderEntryDto)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        BatchDto createdBatch = objectMapper.readValue(createResponse, BatchDto[].class)[0];
+        long orderEntryId = batchRepository.findById(createdBatch.getBatchId()).get().getOrderEntry().getId();
+
+        CartDto cartDto = GenerateCartDto.newCartDto();
+        cartDto.setBuyerId(customer.getId());
+        cartDto.getProducts().get(0).setProductId(product.getId());
+        cartDto.getProducts().get(0).setQuantity(5);
+
+        mockMvc.perform(post("/api/v1/fresh-products/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cartDto)))
+                .andExpect(status().isCreated());
+
+        BatchDto newBatch = Generators.getCleanOrderEntryDto(agent.getId(), warehouse.getId(), section.getId(),
+                product.getId()).getBatchStock().iterator().next();
+        orderEntryDto.setBatchStock(Set.of(newBatch));
+
+        mockMvc.perform(put("/api/v1/fresh-products/inboundorder/{id}", orderEntryId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderEntryDto)))
+                .andExpect(status().isConflict());
+
+        assertThat(batchRepository.count()).isEqualTo(1);
+        assertThat(batchRepository.findById(createdBatch.getBatchId()).get().getCurrentQuantity())
+                .isEqualTo(createdBatch.getCurrentQuantity() - 5);
+
+        // The reserved batch can still be retired by sending it with no stock left
+        createdBatch.setCurrentQuantity(0);
+        orderEntryDto.setBatchStock(Set.of(createdBatch));
+
+        mockMvc.perform(put("/api/v1/fresh-products/inboundorder/{id}", orderEntryId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderEntryDto)))
+                .andExpect(status().isOk());
+
+        assertThat(batchRepository.findById(createdBatch.getBatchId()).get().getCurrentQuantity()).isEqualTo(0);
+    }
+
+    @Test
+    void createInboundOrders_ReturnOneResultPerLine_WhenOrdersAreStreamed() throws Exception {
+        Warehouse warehouse = warehouseRepository.save(Generators.getCleanWarehouse(1));
+
+        Section section = sectionRepository.save(Generators.getCleanSection(warehouse, 2000));
+
+        Product product = productRepository.save(Generators.getProduct());
+
+        Agent agent = agentRepository.save(Generators.getCleanAgent(warehouse));
+
+        OrderEntryDto orderEntryDto = Generators.getCleanOrderEntryDto(agent.getId(), warehouse.getId(),
+                section.getId(), product.getId());
+
+        OrderEntryDto unknownAgentOrderEntryDto = Generators.getCleanOrderEntryDto(agent.getId() + 1,
+                warehouse.getId(), section.getId(), product.getId());
+
+        String body = objectMapper.writeValueAsString(orderEntryDto) + "\n"
+                + objectMapper.writeValueAsString(unknownAgentOrderEntryDto) + "\n"
+                + objectMapper.writeValueAsString(orderEntryDto) + "\n"
+                + "{\"agentId\": \n";
+
+        MvcResult asyncResult = mockMvc.perform(post("/api/v1/fresh-products/inboundorder/bulk")
+                        .contentType("application/x-ndjson")
+                        .accept("application/x-ndjson")
+                        .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] lines = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+
+        assertThat(lines).hasSize(4);
+        assertThat(objectMapper.readTree(lines[0]).get("status").asText()).isEqualTo("CREATED");
+        assertThat(objectMapper.readTree(lines[1]).get("status").asText()).isEqualTo("REJECTED");
+        assertThat(objectMapper.readTree(lines[2]).get("status").asText()).isEqualTo("CREATED");
+        assertThat(objectMapper.readTree(lines[3]).get("index").asLong()).isEqualTo(4L);
+        assertThat(objectMapper.readTree(lines[3]).get("status").asText()).isEqualTo("REJECTED");
+
+        assertThat(orderRepository.count()).isEqualTo(2);
+        assertThat(sectionRepository.findById(section.getId()).get().getCurrentProductLoad())
+                .isEqualTo(section.getCurrentProductLoad() + 40);
+    }
+
     @Test
     void createInboundOrder_WhenAgentDoesNotBelongToWarehouseTest() throws Exception {
         Warehouse warehouse = warehouseRepository.save(Generators.getCleanWarehouse(0));
@@ -218,4 +469,43 @@ public class OrderEntryIntegrationTest {
                 .andExpect(jsonPath("$.title",
                         CoreMatchers.is("Forbidden Operation")));
     }
+
+    @Test
+    void createInboundOrder_WithManyBatchesTest() throws Exception {
+        Warehouse warehouse = warehouseRepository.save(Generators.getCleanWarehouse(1));
+
+        Section section = sectionRepository.save(Generators.getCleanSection(warehouse, 5000));
+
+        Product product = productRepository.save(Generators.getProduct());
+
+        Agent agent = agentRepository.save(Generators.getCleanAgent(warehouse));
+
+        OrderEntryDto orderEntryDto = Generators.getCleanOrderEntryDto(agent.getId(), warehouse.getId(),
+                section.getId(), product.getId());
+
+        BatchDto template = orderEntryDto.getBatchStock().iterator().next();
+        Set<BatchDto> batchDtoSet = new HashSet<BatchDto>();
+
+        // More batches than a single sequence allocation, so the id pool is refilled during the insert
+        for (int i = 0; i < 120; i++) {
+            BatchDto batchDto = objectMapper.readValue(objectMapper.writeValueAsString(template), BatchDto.class);
+            batchDto.setCurrentTemperature(i);
+            batchDtoSet.add(batchDto);
+        }
+
+        orderEntryDto.setBatchStock(batchDtoSet);
+
+        ResultActions response = mockMvc.perform(
+                post("/api/v1/fresh-products/inboundorder")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderEntryDto)));
+
+        response.andExpect(status().isCreated())
+                .andExpect(jsonPath("$.size()",
+                        CoreMatchers.is(120)));
+
+        assertThat(batchRepository.count()).isEqualTo(120);
+        assertThat(sectionRepository.findById(section.getId()).get().getCurrentProductLoad())
+                .isEqualTo(130 + 120 * template.getInitialQuantity());
+    }
 }
@@ -0,0 +1,179 @@
+package dh.meli.projeto_integrador.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dh.meli.projeto_integrador.dto.dtoInput.BatchDto;
+import dh.meli.projeto_integrador.dto.dtoInput.CartDto;
+import dh.meli.projeto_integrador.dto.dtoInput.OrderEntryDto;
+import dh.meli.projeto_integrador.expiry.ExpiryScheduler;
+import dh.meli.projeto_integrador.model.*;
+import dh.meli.projeto_integrador.outbox.OutboxPublisher;
+import dh.meli.projeto_integrador.repository.*;
+import dh.meli.projeto_integrador.service.OutboxService;
+import dh.meli.projeto_integrador.util.Generators;
+import dh.meli.projeto_integrador.utils.GenerateCartDto;
+import dh.meli.projeto_integrador.utils.GenerateCustomer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class OutboxIntegrationTest {
+
+    @TestConfiguration
+    static class PublishedEvents {
+
+        private final List<OutboxEvent> events = new ArrayList<>();
+
+        @EventListener
+        void onOutboxEvent(OutboxEvent event) {
+            events.add(event);
+        }
+    }
+
+    @Autowired
+    private IWarehouseRepository warehouseRepository;
+
+    @Autowired
+    private ISectionRepository sectionRepository;
+
+    @Autowired
+    private IProductRepository productRepository;
+
+    @Autowired
+    private IAgentRepository agentRepository;
+
+    @Autowired
+    private ICustomerRepository customerRepository;
+
+    @Autowired
+    private ICartRepository cartRepository;
+
+    @Autowired
+    private IOutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxPublisher outboxPublisher;
+
+    @Autowired
+    private ExpiryScheduler expiryScheduler;
+
+    @Autowired
+    private PublishedEvents publishedEvents;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void publishPending_shipEventsOfCommittedChangesInOrder_whenCartAndInboundOrderChange() throws Exception {
+        Warehouse warehouse = warehouseRepository.save(Generators.getCleanWarehouse(1));
+        Section section = sectionRepository.save(Generators.getCleanSection(warehouse, 2000));
+        Product product = productRepository.save(Generators.getProduct());
+        Agent agent = agentRepository.save(Generators.getCleanAgent(warehouse));
+        Customer customer = customerRepository.save(GenerateCustomer.newCustomer1());
+
+        OrderEntryDto orderEntryDto = Generators.getCleanOrderEntryDto(agent.getId(), warehouse.getId(),
+                section.getId(), product.getId());
+        orderEntryDto.getBatchStock().forEach(batchDto -> batchDto.setDueDate(LocalDate.now().plusDays(45)));
+
+        mockMvc.perform(post("/api/v1/fresh-products/inboundorder")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderEntryDto)))
+                .andExpect(status().isCreated());
+
+        CartDto cartDto = GenerateCartDto.newCartDto();
+        cartDto.setBuyerId(customer.getId());
+        cartDto.getProducts().get(0).setProductId(product.getId());
+        cartDto.getProducts().get(0).setQuantity(5);
+
+        mockMvc.perform(post("/api/v1/fresh-products/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cartDto)))
+                .andExpect(status().isCreated());
+
+        long cartId = cartRepository.findAll().iterator().next().getId();
+
+        mockMvc.perform(put("/api/v1/fresh-products/{id}", cartId))
+                .andExpect(status().isOk());
+
+        // A rejected change leaves no event behind
+        mockMvc.perform(put("/api/v1/fresh-products/{id}", cartId))
+                .andExpect(status().isForbidden());
+
+        List<OutboxEvent> pending = outboxEventRepository.findAll(Sort.by("id"));
+
+        assertThat(pending.stream().map(OutboxEvent::getEventType).collect(Collectors.toList())).containsExactly(
+                OutboxService.INBOUND_ORDER_CREATED, OutboxService.CART_CREATED, OutboxService.CART_FINISHED);
+        assertThat(pending.get(1).getAggregateId()).isEqualTo(cartId);
+        assertThat(objectMapper.readTree(pending.get(0).getPayload()).get("batchStock").get(0)
+                .get("productId").asLong()).isEqualTo(product.getId());
+        assertThat(objectMapper.readTree(pending.get(1).getPayload()).get("products").get(0)
+                .get("quantity").asInt()).isEqualTo(5);
+
+        int published = outboxPublisher.publishPending();
+
+        assertThat(published).isEqualTo(3);
+        assertThat(outboxEventRepository.count()).isEqualTo(0);
+        assertThat(publishedEvents.events.stream().map(OutboxEvent::getId).collect(Collectors.toList()))
+                .containsExactlyElementsOf(pending.stream().map(OutboxEvent::getId).collect(Collectors.toList()));
+        assertThat(outboxPublisher.publishPending()).isEqualTo(0);
+    }
+
+    @Test
+    void rollOver_shipBatchEvents_whenBatchLeavesSaleAndExpires() throws Exception {
+        Warehouse warehouse = warehouseRepository.save(Generators.getCleanWarehouse(1));
+        Section section = sectionRepository.save(Generators.getCleanSection(warehouse, 2000));
+        Product product = productRepository.save(Generators.getProduct());
+        Agent agent = agentRepository.save(Generators.getCleanAgent(warehouse));
+
+        OrderEntryDto orderEntryDto = Generators.getCleanOrderEntryDto(agent.getId(), warehouse.getId(),
+                section.getId(), product.getId());
+        orderEntryDto.getBatchStock().forEach(batchDto -> batchDto.setDueDate(LocalDate.now().plusDays(22)));
+
+        mockMvc.perform(post("/api/v1/fresh-products/inboundorder")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderEntryDto)))
+                .andExpect(status().isCreated());
+
+        outboxEventRepository.deleteAll();
+
+        expiryScheduler.rollOver(LocalDate.now().plusDays(1));
+        expiryScheduler.rollOver(LocalDate.now().plusDays(22));
+
+        List<OutboxEvent> pending = outboxEventRepository.findAll(Sort.by("id"));
+        int batches = orderEntryDto.getBatchStock().size();
+
+        assertThat(pending).hasSize(2 * batches);
+        assertThat(pending.subList(0, batches)).extracting(OutboxEvent::getEventType)
+                .containsOnly(OutboxService.BATCH_LEFT_SALE);
+        assertThat(pending.subList(batches, 2 * batches)).extracting(OutboxEvent::getEventType)
+                .containsOnly(OutboxService.BATCH_EXPIRED);
+        assertThat(pending).extracting(OutboxEvent::getAggregateType).containsOnly(OutboxService.BATCH);
+        assertThat(objectMapper.readTree(pending.get(0).getPayload()).get("productId").asLong())
+                .isEqualTo(product.getId());
+
+        assertThat(outboxPublisher.publishPending()).isEqualTo(2 * batches);
+        assertThat(publishedEvents.events).hasSize(2 * batches);
+    }
+}
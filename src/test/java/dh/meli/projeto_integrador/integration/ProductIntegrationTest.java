@@ -3,6 +3,7 @@ package dh.meli.projeto_integrador.integration;
 import dh.meli.projeto_integrador.dto.dtoOutput.ProductStockDto;
 import dh.meli.projeto_integrador.model.*;
 import dh.meli.projeto_integrador.repository.*;
+import dh.meli.projeto_integrador.service.ProductStockSummaryService;
 import dh.meli.projeto_integrador.util.Generators;
 import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,15 +12,22 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -45,6 +53,12 @@ public class ProductIntegrationTest {
     @Autowired
     private IAgentRepository agentRepository;
 
+    @Autowired
+    private ProductStockSummaryService productStockSummaryService;
+
+    @Autowired
+    private ThreadPoolTaskExecutor streamingTaskExecutor;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -78,6 +92,76 @@ public class ProductIntegrationTest {
         ;
     }
 
+    @Test
+    public void findAllProducts_ReturnPagesLinkedByCursor_whenLimitIsGiven() throws Exception {
+        List<Product> list = new ArrayList<>();
+        list.add(Generators.validProduct1());
+        list.add(Generators.validProduct2());
+        list.add(Generators.getCleanProduct());
+
+        List<Product> savedProducts = (List<Product>) productRepository.saveAll(list);
+
+        MvcResult firstPage = mockMvc.perform(get("/api/v1/fresh-products")
+                        .param("limit", "2")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()",
+                        CoreMatchers.is(2)))
+                .andExpect(header().string("X-Next-Cursor", String.valueOf(savedProducts.get(1).getId())))
+                .andReturn();
+
+        mockMvc.perform(get("/api/v1/fresh-products")
+                        .param("cursor", firstPage.getResponse().getHeader("X-Next-Cursor"))
+                        .param("limit", "2")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()",
+                        CoreMatchers.is(1)))
+                .andExpect(jsonPath("$[0].name",
+                        CoreMatchers.is(Generators.getCleanProduct().getName())))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    public void exportAllProducts_ReturnOneProductPerLine_whenNdjsonIsAccepted() throws Exception {
+        List<Product> list = new ArrayList<>();
+        list.add(Generators.validProduct1());
+        list.add(Generators.validProduct2());
+
+        productRepository.saveAll(list);
+
+        MvcResult asyncResult = mockMvc.perform(get("/api/v1/fresh-products")
+                        .accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] lines = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains(Generators.validProduct1().getName());
+        assertThat(lines[1]).contains(Generators.validProduct2().getName());
+    }
+
+    @Test
+    public void exportAllProducts_StreamOnTheStreamingExecutorWithTheConfiguredTimeout() throws Exception {
+        productRepository.save(Generators.validProduct1());
+        long tasksBefore = streamingTaskExecutor.getThreadPoolExecutor().getTaskCount();
+
+        MvcResult asyncResult = mockMvc.perform(get("/api/v1/fresh-products")
+                        .accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk());
+
+        assertThat(asyncResult.getRequest().getAsyncContext().getTimeout()).isEqualTo(600000L);
+        assertThat(streamingTaskExecutor.getThreadPoolExecutor().getTaskCount()).isEqualTo(tasksBefore + 1);
+    }
+
     @Test
     public void findAllProducts_ReturnNotFound_whenProductsDoesntExists() throws Exception {
         ResultActions response = mockMvc.perform(get("/api/v1/fresh-products/")
@@ -148,11 +232,56 @@ public class ProductIntegrationTest {
 
         Batch batch = batchRepository.save(Generators.getCleanBatch(product, orderEntry));
 
+        Batch secondBatch = Generators.getCleanBatch(product, orderEntry);
+        secondBatch.setId(0);
+        batchRepository.save(secondBatch);
+        productStockSummaryService.rebuild();
+
         ResultActions response = mockMvc.perform(
                 get("/api/v1/fresh-products/warehouse/product/{productId}", product.getId())
                 .contentType(MediaType.APPLICATION_JSON));
 
-        response.andExpect(status().isOk());
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.warehouses.size()",
+                        CoreMatchers.is(1)))
+                .andExpect(jsonPath("$.warehouses[0].warehouseCode",
+                        CoreMatchers.is((int) warehouse.getId())))
+                .andExpect(jsonPath("$.warehouses[0].totalQuantity",
+                        CoreMatchers.is(batch.getCurrentQuantity() * 2)));
+    }
+
+    @Test
+    public void listProductByWarehouse_ReturnQueryCountHeaders_whenStockIsAggregatedInOneQuery() throws Exception {
+        Warehouse warehouse = warehouseRepository.save(Generators.getCleanWarehouse(0));
+
+        Section section = sectionRepository.save(Generators.getCleanSection(warehouse, 2000));
+
+        OrderEntry orderEntry = orderRepository.save(Generators.getCleanOrderEntry(section));
+
+        Product product = productRepository.save(Generators.getProduct());
+
+        for (int i = 0; i < 10; i++) {
+            Batch batch = Generators.getCleanBatch(product, orderEntry);
+            batch.setId(0);
+            batchRepository.save(batch);
+        }
+        productStockSummaryService.rebuild();
+
+        ResultActions response = mockMvc.perform(
+                get("/api/v1/fresh-products/warehouse/product/{productId}", product.getId())
+                .contentType(MediaType.APPLICATION_JSON));
+
+        response.andExpect(status().isOk())
+                .andExpect(header().string("X-Query-Count", "1"))
+                .andExpect(header().string("X-Query-Rows", "1"))
+                .andExpect(header().string("X-Entity-Loads", "0"));
+
+        mockMvc.perform(get("/api/v1/statistics/queries"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.operation == 'ProductController.listProductByWarehouse')].requests",
+                        CoreMatchers.hasItem(1)))
+                .andExpect(jsonPath("$[?(@.operation == 'ProductController.listProductByWarehouse')].budgetViolations",
+                        CoreMatchers.hasItem(0)));
     }
 
     @Test
@@ -0,0 +1,230 @@
+package dh.meli.projeto_integrador.integration;
+
+import dh.meli.projeto_integrador.enumClass.PurchaseOrderStatusEnum;
+import dh.meli.projeto_integrador.model.*;
+import dh.meli.projeto_integrador.repository.*;
+import dh.meli.projeto_integrador.service.ProductStockSummaryService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs EXPLAIN on the SQL of every query of the batch, product, stock summary and cart repositories, against a
+ * seeded database migrated by Flyway, and fails when any of them reads a whole table. The SQL is captured from
+ * Hibernate while the repository method runs, so the plan is the one of the statement actually sent.
+ * Queries that read whole tables on purpose (streamAll, the stock summary rebuild) are not checked.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "dh.meli.projeto_integrador.integration.QueryPlanIntegrationTest$SqlCapture")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class QueryPlanIntegrationTest {
+
+    private static final String TABLE_SCAN = ".tableScan";
+
+    private static final String[] TYPES = {"Fresco", "Refrigerado", "Congelado"};
+
+    @Autowired
+    private IWarehouseRepository warehouseRepository;
+
+    @Autowired
+    private ISectionRepository sectionRepository;
+
+    @Autowired
+    private IOrderRepository orderRepository;
+
+    @Autowired
+    private IProductRepository productRepository;
+
+    @Autowired
+    private IBatchRepository batchRepository;
+
+    @Autowired
+    private ICustomerRepository customerRepository;
+
+    @Autowired
+    private ICartRepository cartRepository;
+
+    @Autowired
+    private IProductCartRepository productCartRepository;
+
+    @Autowired
+    private IProductStockSummaryRepository productStockSummaryRepository;
+
+    @Autowired
+    private ProductStockSummaryService productStockSummaryService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Product product;
+
+    private Section section;
+
+    private OrderEntry orderEntry;
+
+    private Cart cart;
+
+    private final List<String> tableScans = new ArrayList<>();
+
+    /**
+     * Hibernate StatementInspector that records the SQL of every statement prepared.
+     */
+    public static class SqlCapture implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @BeforeEach
+    void setup() {
+        Warehouse warehouse = warehouseRepository.save(Warehouse.builder().name("Armazem A").address("Rua A").build());
+        List<Product> products = new ArrayList<>();
+
+        for (int i = 0; i < 30; i++) {
+            products.add(Product.builder().name("Produto " + i).type(TYPES[i % TYPES.length]).price(10.0).build());
+        }
+        productRepository.saveAll(products);
+
+        List<Batch> batches = new ArrayList<>();
+
+        for (String type : TYPES) {
+            Section typeSection = sectionRepository.save(Section.builder().warehouse(warehouse).productType(type)
+                    .maxProductLoad(10000).build());
+
+            for (int i = 0; i < 2; i++) {
+                OrderEntry typeOrderEntry = orderRepository.save(OrderEntry.builder().section(typeSection)
+                        .orderDate(LocalDate.now()).build());
+
+                for (int j = 0; j < 50; j++) {
+                    Product batchProduct = products.get((j * TYPES.length + List.of(TYPES).indexOf(type))
+                            % products.size());
+                    batches.add(Batch.builder().product(batchProduct).orderEntry(typeOrderEntry)
+                            .initialQuantity(100).currentQuantity(j % 10 == 0 ? 0 : 100)
+                            .currentTemperature(5).minimumTemperature(0)
+                            .manufacturingDate(LocalDate.now()).manufacturingTime(LocalTime.NOON)
+                            .dueDate(LocalDate.now().plusDays(j)).build());
+                }
+
+                section = typeSection;
+                orderEntry = typeOrderEntry;
+            }
+        }
+        batchRepository.saveAll(batches);
+        productStockSummaryService.rebuild();
+
+        product = products.get(0);
+        Customer customer = customerRepository.save(Customer.builder().name("Alberto").cpf("111.111.111-11")
+                .build());
+        cart = cartRepository.save(Cart.builder().customer(customer).status(PurchaseOrderStatusEnum.OPEN)
+                .date(LocalDate.now()).build());
+        productCartRepository.saveAll(products.subList(0, 5).stream()
+                .map(cartProduct -> ProductCart.builder().cart(cart).product(cartProduct).quantity(1).build())
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Runs the query inside a transaction that is rolled back, and records the plans of its statements that read a
+     * whole table.
+     * @param name the repository method, used in the failure message
+     * @param query the call of the repository method
+     */
+    private void explain(String name, Runnable query) {
+        SqlCapture.STATEMENTS.clear();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            query.run();
+            status.setRollbackOnly();
+        });
+
+        assertThat(SqlCapture.STATEMENTS).as("SQL of %s", name).isNotEmpty();
+
+        for (String sql : SqlCapture.STATEMENTS) {
+            String plan = jdbcTemplate.query("EXPLAIN " + sql, statement -> {
+                int parameterCount = statement.getParameterMetaData().getParameterCount();
+
+                for (int i = 1; i <= parameterCount; i++) {
+                    statement.setObject(i, null);
+                }
+            }, resultSet -> resultSet.next() ? resultSet.getString(1) : "");
+
+            if (plan.contains(TABLE_SCAN)) {
+                tableScans.add(name + ":\n" + plan);
+            }
+        }
+    }
+
+    @Test
+    void batchRepositoryQueries_UseIndexes() {
+        LocalDate now = LocalDate.now();
+
+        Product productWithoutBatch = productRepository.save(Product.builder().name("Produto sem lote")
+                .type("Fresco").price(10.0).build());
+
+        explain("findByProduct", () -> batchRepository.findByProduct(productWithoutBatch));
+        explain("findBatchByProductId", () -> batchRepository.findBatchByProductId(product.getId()));
+        explain("findByOrderEntry", () -> batchRepository.findByOrderEntry(orderEntry));
+        explain("findBatchStockBySectionIdAndDueDateBetween", () -> batchRepository
+                .findBatchStockBySectionIdAndDueDateBetween(section.getId(), now, now.plusDays(20)));
+        explain("findBatchStockByProductTypeAndDueDateBetween", () -> batchRepository
+                .findBatchStockByProductTypeAndDueDateBetween("Fresco", now, now.plusDays(20)));
+        explain("existsByOrderEntrySectionId", () -> batchRepository.existsByOrderEntrySectionId(section.getId()));
+        explain("existsByProductType", () -> batchRepository.existsByProductType("Fresco"));
+        explain("findTotalQuantityByProductId", () -> batchRepository.findTotalQuantityByProductId(product.getId()));
+        explain("findReservableBatchesByProductId", () -> batchRepository
+                .findReservableBatchesByProductId(product.getId(), now.plusDays(21)));
+        explain("decrementCurrentQuantity", () -> batchRepository.decrementCurrentQuantity(1L, 1));
+        explain("findCurrentQuantityForUpdate", () -> batchRepository.findCurrentQuantityForUpdate(1L));
+
+        assertThat(tableScans).isEmpty();
+    }
+
+    @Test
+    void productRepositoryQueries_UseIndexes() {
+        explain("findAllByType", () -> productRepository.findAllByType("Fresco"));
+        explain("findByIdGreaterThanOrderByIdAsc", () -> productRepository
+                .findByIdGreaterThanOrderByIdAsc(product.getId(), PageRequest.of(0, 10)));
+        explain("findByTypeAndIdGreaterThanOrderByIdAsc", () -> productRepository
+                .findByTypeAndIdGreaterThanOrderByIdAsc("Fresco", product.getId(), PageRequest.of(0, 10)));
+
+        assertThat(tableScans).isEmpty();
+    }
+
+    @Test
+    void stockSummaryAndCartRepositoryQueries_UseIndexes() {
+        Set<Long> productIds = Set.of(product.getId());
+
+        explain("mergeQuantityH2", () -> productStockSummaryRepository.mergeQuantityH2(
+                new ProductStockSummaryId(product.getId(), 1L, LocalDate.now()), 1L));
+        explain("findStockAggregateByProductIds", () -> productStockSummaryRepository
+                .findStockAggregateByProductIds(productIds, LocalDate.now().plusDays(21)));
+        explain("findTotalQuantityByWarehouse", () -> productStockSummaryRepository
+                .findTotalQuantityByWarehouse(product.getId()));
+        explain("findCartWithProductsById", () -> cartRepository.findCartWithProductsById(cart.getId()));
+
+        assertThat(tableScans).isEmpty();
+    }
+}
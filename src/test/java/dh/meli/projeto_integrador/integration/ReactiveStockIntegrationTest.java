@@ -0,0 +1,206 @@
+package dh.meli.projeto_integrador.integration;
+
+import dh.meli.projeto_integrador.model.*;
+import dh.meli.projeto_integrador.repository.*;
+import dh.meli.projeto_integrador.service.ProductStockSummaryService;
+import dh.meli.projeto_integrador.util.Generators;
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class ReactiveStockIntegrationTest {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IProductRepository productRepository;
+
+    @Autowired
+    private ISectionRepository sectionRepository;
+
+    @Autowired
+    private IWarehouseRepository warehouseRepository;
+
+    @Autowired
+    private IBatchRepository batchRepository;
+
+    @Autowired
+    private IOrderRepository orderRepository;
+
+    @Autowired
+    private ProductStockSummaryService productStockSummaryService;
+
+    @BeforeEach
+    void setup() {
+        batchRepository.deleteAll();
+        orderRepository.deleteAll();
+        sectionRepository.deleteAll();
+        warehouseRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+        MvcResult asyncResult = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        ResultActions response = mockMvc.perform(asyncDispatch(asyncResult));
+        MvcResult dispatchResult = response.andReturn();
+
+        // A streamed Flux is written by the MVC task executor after the dispatch, so wait until it is complete
+        if (dispatchResult.getRequest().isAsyncStarted()) {
+            dispatchResult.getAsyncResult();
+        }
+
+        return response;
+    }
+
+    private static String[] lines(ResultActions response) throws Exception {
+        return response.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+    }
+
+    private Section saveSection() {
+        Warehouse warehouse = warehouseRepository.save(Generators.getCleanWarehouse(1));
+
+        return sectionRepository.save(Generators.getCleanSection(warehouse, 2000));
+    }
+
+    private Batch saveBatch(Section section) {
+        Product product = productRepository.save(Generators.getProduct());
+        OrderEntry orderEntry = orderRepository.save(Generators.getCleanOrderEntry(section));
+
+        return batchRepository.save(Generators.getCleanBatch(product, orderEntry));
+    }
+
+    @Test
+    void listAllProducts_ReturnOneProductPerLine_whenProductsExist() throws Exception {
+        productRepository.saveAll(List.of(Generators.validProduct1(), Generators.validProduct2()));
+
+        ResultActions response = performAsync(get("/api/v1/reactive/fresh-products").accept(NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(NDJSON));
+
+        String[] lines = lines(response);
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains(Generators.validProduct1().getName());
+        assertThat(lines[1]).contains(Generators.validProduct2().getName());
+    }
+
+    @Test
+    void listAllProducts_ReturnJsonArray_whenNdjsonIsNotAccepted() throws Exception {
+        productRepository.saveAll(List.of(Generators.validProduct1(), Generators.validProduct2()));
+
+        // The Mono resolves the response entity and the Flux is then collected, each in its own async dispatch
+        MvcResult collectResult = performAsync(get("/api/v1/reactive/fresh-products")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(collectResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()",
+                        CoreMatchers.is(2)))
+                .andExpect(jsonPath("$[0].name",
+                        CoreMatchers.is(Generators.validProduct1().getName())));
+    }
+
+    @Test
+    void listProductByCategory_ReturnNotFound_whenCategoryHasNoProducts() throws Exception {
+        productRepository.save(Generators.validProduct1());
+
+        performAsync(get("/api/v1/reactive/fresh-products/{category}", Generators.validProduct2().getType())
+                .accept(NDJSON, MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message",
+                        CoreMatchers.is("No Products Found")));
+    }
+
+    @Test
+    void listProductByWarehouse_ReturnStockByWarehouse_whenProductHasStock() throws Exception {
+        Batch batch = saveBatch(saveSection());
+        productStockSummaryService.rebuild();
+
+        performAsync(get("/api/v1/reactive/fresh-products/warehouse/product/{productId}",
+                batch.getProduct().getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productId",
+                        CoreMatchers.is((int) batch.getProduct().getId())))
+                .andExpect(jsonPath("$.warehouses.size()",
+                        CoreMatchers.is(1)))
+                .andExpect(jsonPath("$.warehouses[0].totalQuantity",
+                        CoreMatchers.is(batch.getCurrentQuantity())));
+    }
+
+    @Test
+    void listProductByWarehouse_ReturnNotFound_whenProductHasNoStock() throws Exception {
+        performAsync(get("/api/v1/reactive/fresh-products/warehouse/product/{productId}", 20))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message",
+                        CoreMatchers.is("Could not find valid batch stock for product 20")));
+    }
+
+    @Test
+    void getBatchBySectionOrderedByDueDate_ReturnOneBatchPerLine_whenSectionHasBatches() throws Exception {
+        Section section = saveSection();
+        Batch batch = saveBatch(section);
+
+        String[] lines = lines(performAsync(
+                get("/api/v1/reactive/fresh-products/due-date/section/{sectionId}/number-of-days/{numberOfDays}",
+                        section.getId(), 90).accept(NDJSON))
+                .andExpect(status().isOk()));
+
+        assertThat(lines).hasSize(1);
+        assertThat(lines[0]).contains("\"batchNumber\":" + batch.getId());
+    }
+
+    @Test
+    void getBatchBySectionOrderedByDueDate_ReturnNotFound_whenSectionHasNoBatches() throws Exception {
+        Section section = saveSection();
+
+        performAsync(
+                get("/api/v1/reactive/fresh-products/due-date/section/{sectionId}/number-of-days/{numberOfDays}",
+                        section.getId(), 90).accept(NDJSON, MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message",
+                        CoreMatchers.is("The given section does not have available batch stock")));
+    }
+
+    @Test
+    void getBatchByProductTypeOrderedByDueDate_ReturnOneBatchPerLine_whenCategoryHasBatches() throws Exception {
+        Batch batch = saveBatch(saveSection());
+
+        String[] lines = lines(performAsync(
+                get("/api/v1/reactive/fresh-products/due-date/number-of-days/{numberOfDays}/category/{category}",
+                        90, "FS").accept(NDJSON))
+                .andExpect(status().isOk()));
+
+        assertThat(lines).hasSize(1);
+        assertThat(lines[0]).contains("\"productType\":\"" + batch.getProduct().getType() + "\"");
+    }
+}
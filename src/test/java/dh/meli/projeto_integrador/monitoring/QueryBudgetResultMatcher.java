@@ -0,0 +1,37 @@
+package dh.meli.projeto_integrador.monitoring;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.web.method.HandlerMethod;
+
+/**
+ * ResultMatcher that fails a MockMvc request over the QueryBudget of its controller method, reading the counters the
+ * QueryCountResponseAdvice writes as response headers.
+ * @author Diovana Valim
+ * @version 0.0.1
+ */
+public class QueryBudgetResultMatcher implements ResultMatcher {
+
+    @Override
+    public void match(MvcResult result) {
+        if (!(result.getHandler() instanceof HandlerMethod)) {
+            return;
+        }
+
+        HandlerMethod handler = (HandlerMethod) result.getHandler();
+        QueryBudget budget = handler.getMethodAnnotation(QueryBudget.class);
+        String statements = result.getResponse().getHeader(QueryCountResponseAdvice.STATEMENTS_HEADER);
+        String entityLoads = result.getResponse().getHeader(QueryCountResponseAdvice.ENTITY_LOADS_HEADER);
+
+        if (budget == null || statements == null || entityLoads == null) {
+            return;
+        }
+
+        if (Long.parseLong(statements) > budget.statements() || Long.parseLong(entityLoads) > budget.entityLoads()) {
+            throw new AssertionError(String.format(
+                    "%s.%s executed %s statements and loaded %s entities, over its budget of %d statements and %d entities",
+                    handler.getBeanType().getSimpleName(), handler.getMethod().getName(), statements, entityLoads,
+                    budget.statements(), budget.entityLoads()));
+        }
+    }
+}
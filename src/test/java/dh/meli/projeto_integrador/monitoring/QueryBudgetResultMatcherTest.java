@@ -0,0 +1,51 @@
+package dh.meli.projeto_integrador.monitoring;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class QueryBudgetResultMatcherTest {
+
+    private final QueryBudgetResultMatcher matcher = new QueryBudgetResultMatcher();
+
+    @QueryBudget(statements = 2)
+    String budgetedOperation() {
+        return "body";
+    }
+
+    private MvcResult result(int statements) throws NoSuchMethodException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setHeader(QueryCountResponseAdvice.STATEMENTS_HEADER, String.valueOf(statements));
+        response.setHeader(QueryCountResponseAdvice.ENTITY_LOADS_HEADER, "0");
+
+        MvcResult result = mock(MvcResult.class);
+        given(result.getHandler()).willReturn(new HandlerMethod(this,
+                QueryBudgetResultMatcherTest.class.getDeclaredMethod("budgetedOperation")));
+        given(result.getResponse()).willReturn(response);
+        return result;
+    }
+
+    @Test
+    void match_pass_whenRequestIsWithinBudget() throws Exception {
+        MvcResult result = result(2);
+
+        assertDoesNotThrow(() -> matcher.match(result));
+    }
+
+    @Test
+    void match_fail_whenRequestIsOverBudget() throws Exception {
+        MvcResult result = result(3);
+
+        AssertionError error = assertThrows(AssertionError.class, () -> matcher.match(result));
+
+        assertThat(error.getMessage()).isEqualTo("QueryBudgetResultMatcherTest.budgetedOperation executed 3 " +
+                "statements and loaded 0 entities, over its budget of 2 statements and 2147483647 entities");
+    }
+}
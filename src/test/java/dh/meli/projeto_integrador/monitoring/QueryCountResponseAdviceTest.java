@@ -0,0 +1,86 @@
+package dh.meli.projeto_integrador.monitoring;
+
+import dh.meli.projeto_integrador.dto.dtoOutput.QueryStatisticsDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class QueryCountResponseAdviceTest {
+
+    @InjectMocks
+    QueryCountResponseAdvice queryCountResponseAdvice;
+
+    @Spy
+    QueryStatistics statistics;
+
+    @Mock
+    ServerHttpRequest request;
+
+    @Mock
+    ServerHttpResponse response;
+
+    private final HttpHeaders headers = new HttpHeaders();
+
+    @QueryBudget(statements = 2)
+    String budgetedOperation() {
+        return "body";
+    }
+
+    private Object writeBody(int statements) throws NoSuchMethodException {
+        RequestQueryCounter.start();
+        for (int i = 0; i < statements; i++) {
+            RequestQueryCounter.recordStatement();
+        }
+
+        given(response.getHeaders()).willReturn(headers);
+        MethodParameter returnType = new MethodParameter(
+                QueryCountResponseAdviceTest.class.getDeclaredMethod("budgetedOperation"), -1);
+
+        return queryCountResponseAdvice.beforeBodyWrite("body", returnType, MediaType.APPLICATION_JSON,
+                MappingJackson2HttpMessageConverter.class, request, response);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestQueryCounter.stop();
+    }
+
+    @Test
+    void beforeBodyWrite_addQueryCountHeaders_whenRequestIsWithinBudget() throws Exception {
+        Object body = writeBody(2);
+
+        assertThat(body).isEqualTo("body");
+        assertThat(headers.getFirst(QueryCountResponseAdvice.STATEMENTS_HEADER)).isEqualTo("2");
+        assertThat(headers.getFirst(QueryCountResponseAdvice.ROWS_HEADER)).isEqualTo("0");
+        assertThat(headers.getFirst(QueryCountResponseAdvice.ENTITY_LOADS_HEADER)).isEqualTo("0");
+        assertThat(statistics.getStatistics()).isEmpty();
+    }
+
+    @Test
+    void beforeBodyWrite_recordViolationAndWriteBody_whenRequestIsOverBudget() throws Exception {
+        Object body = writeBody(3);
+
+        assertThat(body).isEqualTo("body");
+
+        QueryStatisticsDto operationStatistics = statistics.getStatistics().get(0);
+        assertThat(operationStatistics.getOperation()).isEqualTo("QueryCountResponseAdviceTest.budgetedOperation");
+        assertThat(operationStatistics.getBudgetViolations()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,82 @@
+package dh.meli.projeto_integrador.outbox;
+
+import dh.meli.projeto_integrador.model.OutboxEvent;
+import dh.meli.projeto_integrador.repository.IOutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OutboxPublisherTest {
+
+    @InjectMocks
+    OutboxPublisher outboxPublisher;
+
+    @Mock
+    IOutboxEventRepository outboxEventRepository;
+
+    @Mock
+    OutboxEventSink outboxEventSink;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setup() {
+        ReflectionTestUtils.setField(outboxPublisher, "batchSize", 2);
+    }
+
+    private static OutboxEvent event(long id) {
+        return OutboxEvent.builder().id(id).eventType("CART_CREATED").build();
+    }
+
+    @Test
+    void publishPending_shipAndDeleteBatchByBatch_whenEventsArePending() {
+        BDDMockito.when(outboxEventRepository.findByOrderByIdAsc(PageRequest.of(0, 2)))
+                .thenReturn(List.of(event(1), event(2)))
+                .thenReturn(List.of(event(3)));
+
+        int published = outboxPublisher.publishPending();
+
+        assertThat(published).isEqualTo(3);
+        verify(outboxEventSink, times(2)).publish(anyList());
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(3L));
+    }
+
+    @Test
+    void publishPending_shipNothing_whenNoEventIsPending() {
+        BDDMockito.when(outboxEventRepository.findByOrderByIdAsc(any())).thenReturn(List.of());
+
+        assertThat(outboxPublisher.publishPending()).isEqualTo(0);
+        verify(outboxEventSink, never()).publish(anyList());
+    }
+
+    @Test
+    void publishPending_keepEvents_whenSinkFails() {
+        BDDMockito.when(outboxEventRepository.findByOrderByIdAsc(any())).thenReturn(List.of(event(1)));
+        doThrow(new IllegalStateException("sink down")).when(outboxEventSink).publish(anyList());
+
+        assertThatThrownBy(() -> outboxPublisher.publishPending()).isInstanceOf(IllegalStateException.class);
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+        verify(transactionManager).rollback(any());
+    }
+}
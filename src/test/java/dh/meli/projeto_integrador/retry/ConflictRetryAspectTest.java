@@ -0,0 +1,89 @@
+package dh.meli.projeto_integrador.retry;
+
+import dh.meli.projeto_integrador.dto.dtoOutput.ConflictRetryStatisticsDto;
+import dh.meli.projeto_integrador.exception.ConflictException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ConflictRetryAspectTest {
+
+    @InjectMocks
+    ConflictRetryAspect conflictRetryAspect;
+
+    @Spy
+    ConflictRetryStatistics statistics;
+
+    @Mock
+    ProceedingJoinPoint joinPoint;
+
+    @Mock
+    Signature signature;
+
+    @BeforeEach
+    void setup() {
+        ReflectionTestUtils.setField(conflictRetryAspect, "initialBackoffMs", 0L);
+
+        BDDMockito.when(joinPoint.getSignature()).thenReturn(signature);
+        BDDMockito.when(signature.getDeclaringType()).thenReturn(ConflictRetryAspectTest.class);
+        BDDMockito.when(signature.getName()).thenReturn("operation");
+    }
+
+    @Test
+    void retryOnConflict_returnResult_whenConflictIsResolvedByRetry() throws Throwable {
+        BDDMockito.when(joinPoint.proceed())
+                .thenThrow(new OptimisticLockingFailureException("stale section"))
+                .thenReturn("done");
+
+        Object result = conflictRetryAspect.retryOnConflict(joinPoint);
+
+        assertThat(result).isEqualTo("done");
+        verify(joinPoint, times(2)).proceed();
+
+        ConflictRetryStatisticsDto operationStatistics = statistics.getStatistics().get(0);
+        assertThat(operationStatistics.getOperation()).isEqualTo("ConflictRetryAspectTest.operation");
+        assertThat(operationStatistics.getInvocations()).isEqualTo(1);
+        assertThat(operationStatistics.getConflicts()).isEqualTo(1);
+        assertThat(operationStatistics.getRetries()).isEqualTo(1);
+        assertThat(operationStatistics.getExhausted()).isZero();
+    }
+
+    @Test
+    void retryOnConflict_returnException_whenAttemptsAreExhausted() throws Throwable {
+        BDDMockito.when(joinPoint.proceed())
+                .thenThrow(new OptimisticLockingFailureException("stale section"));
+
+        assertThrows(ConflictException.class, () -> conflictRetryAspect.retryOnConflict(joinPoint));
+
+        verify(joinPoint, times(3)).proceed();
+        assertThat(statistics.getStatistics().get(0).getExhausted()).isEqualTo(1);
+    }
+
+    @Test
+    void retryOnConflict_doesNotRetry_whenExceptionIsNotAConflict() throws Throwable {
+        BDDMockito.when(joinPoint.proceed())
+                .thenThrow(new IllegalStateException("unexpected"));
+
+        assertThrows(IllegalStateException.class, () -> conflictRetryAspect.retryOnConflict(joinPoint));
+
+        verify(joinPoint, times(1)).proceed();
+        verify(statistics, never()).recordConflict(anyString());
+    }
+}
@@ -19,6 +19,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -60,8 +61,9 @@ public class BatchServiceTest {
         Product product = Generators.getProduct();
         List<BatchStockDto> generatedBatchStockDtoList = Generators.getBatchStockDto(batch, product);
 
-        BDDMockito.when(batchRepository.findBatchBySectionId(ArgumentMatchers.anyLong()))
-                .thenReturn(Generators.getBatches());
+        BDDMockito.when(batchRepository.findBatchStockBySectionIdAndDueDateBetween(ArgumentMatchers.anyLong(),
+                        ArgumentMatchers.any(LocalDate.class), ArgumentMatchers.any(LocalDate.class)))
+                .thenReturn(generatedBatchStockDtoList);
 
         List<BatchStockDto> batchStockDtoList = batchService
                 .getBatchBySectionOrderedByDueDate(batch.getOrderEntry().getSection().getId(), 90);
@@ -73,17 +75,19 @@ public class BatchServiceTest {
         assertThat(batchStockDtoList.get(0).getProductId())
                 .isEqualTo(generatedBatchStockDtoList.get(0).getProductId());
 
-        verify(batchRepository, atLeastOnce()).findBatchBySectionId(ArgumentMatchers.anyLong());
+        verify(batchRepository, atLeastOnce()).findBatchStockBySectionIdAndDueDateBetween(ArgumentMatchers.anyLong(),
+                ArgumentMatchers.eq(LocalDate.now()), ArgumentMatchers.eq(LocalDate.now().plusDays(90)));
     }
 
     @Test
     void getBatchBySectionOrderedByDueDateTest_WhenBatchListIsEmpty() throws Exception {
-        List<Batch> batchList = new ArrayList<Batch>();
-
         Batch batch = Generators.getBatch();
 
-        BDDMockito.when(batchRepository.findBatchBySectionId(ArgumentMatchers.anyLong()))
-                .thenReturn(batchList);
+        BDDMockito.when(batchRepository.findBatchStockBySectionIdAndDueDateBetween(ArgumentMatchers.anyLong(),
+                        ArgumentMatchers.any(LocalDate.class), ArgumentMatchers.any(LocalDate.class)))
+                .thenReturn(new ArrayList<BatchStockDto>());
+        BDDMockito.when(batchRepository.existsByOrderEntrySectionId(ArgumentMatchers.anyLong()))
+                .thenReturn(false);
 
         ResourceNotFoundException exception = Assertions.assertThrows(ResourceNotFoundException.class, () -> {
             List<BatchStockDto> batchStockDtoList = batchService.getBatchBySectionOrderedByDueDate(
@@ -93,6 +97,19 @@ public class BatchServiceTest {
         assertThat(exception.getMessage()).isEqualTo("The given section does not have available batch stock");
     }
 
+    @Test
+    void getBatchBySectionOrderedByDueDateTest_WhenNoBatchIsInWindow() {
+        BDDMockito.when(batchRepository.findBatchStockBySectionIdAndDueDateBetween(ArgumentMatchers.anyLong(),
+                        ArgumentMatchers.any(LocalDate.class), ArgumentMatchers.any(LocalDate.class)))
+                .thenReturn(new ArrayList<BatchStockDto>());
+        BDDMockito.when(batchRepository.existsByOrderEntrySectionId(ArgumentMatchers.anyLong()))
+                .thenReturn(true);
+
+        List<BatchStockDto> batchStockDtoList = batchService.getBatchBySectionOrderedByDueDate(1L, 5);
+
+        assertThat(batchStockDtoList).isEmpty();
+    }
+
     @Test
     void getBatchByProductTypeOrderedByDueDate() {
         Batch batch = Generators.getBatch();
@@ -102,8 +119,9 @@ public class BatchServiceTest {
         String category = "FS";
         CategoryDto categoryDto = new CategoryDto(category);
 
-        BDDMockito.when(batchRepository.findBatchByProductType(ArgumentMatchers.anyString()))
-                .thenReturn(Generators.getBatches());
+        BDDMockito.when(batchRepository.findBatchStockByProductTypeAndDueDateBetween(ArgumentMatchers.anyString(),
+                        ArgumentMatchers.any(LocalDate.class), ArgumentMatchers.any(LocalDate.class)))
+                .thenReturn(generatedBatchStockDtoList);
 
         List<BatchStockDto> batchStockDtoList = batchService
                 .getBatchByProductTypeOrderedByDueDate(90, categoryDto);
@@ -115,18 +133,21 @@ public class BatchServiceTest {
         assertThat(batchStockDtoList.get(0).getProductId())
                 .isEqualTo(generatedBatchStockDtoList.get(0).getProductId());
 
-        verify(batchRepository, atLeastOnce()).findBatchByProductType(ArgumentMatchers.anyString());
+        verify(batchRepository, atLeastOnce()).findBatchStockByProductTypeAndDueDateBetween(
+                ArgumentMatchers.eq("Fresco"), ArgumentMatchers.any(LocalDate.class),
+                ArgumentMatchers.any(LocalDate.class));
     }
 
     @Test
     void getBatchByProductTypeOrderedByDueDate_WhenBatchListIsEmpty() throws Exception {
-        List<Batch> batchList = new ArrayList<Batch>();
-
         String category = "FS";
         CategoryDto categoryDto = new CategoryDto(category);
 
-        BDDMockito.when(batchRepository.findBatchByProductType(ArgumentMatchers.anyString()))
-                .thenReturn(batchList);
+        BDDMockito.when(batchRepository.findBatchStockByProductTypeAndDueDateBetween(ArgumentMatchers.anyString(),
+                        ArgumentMatchers.any(LocalDate.class), ArgumentMatchers.any(LocalDate.class)))
+                .thenReturn(new ArrayList<BatchStockDto>());
+        BDDMockito.when(batchRepository.existsByProductType(ArgumentMatchers.anyString()))
+                .thenReturn(false);
 
         ResourceNotFoundException exception = Assertions.assertThrows(ResourceNotFoundException.class, () -> {
             List<BatchStockDto> batchStockDtoList = batchService.getBatchByProductTypeOrderedByDueDate(
@@ -4,14 +4,20 @@ import dh.meli.projeto_integrador.dto.dtoInput.CartDto;
 
 import dh.meli.projeto_integrador.dto.dtoInput.ProductDto;
 import dh.meli.projeto_integrador.dto.dtoOutput.CartOutputDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.CartResultDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.ProductStockAggregateDto;
 import dh.meli.projeto_integrador.dto.dtoOutput.UpdateStatusDto;
+import dh.meli.projeto_integrador.enumClass.PurchaseOrderStatusEnum;
 
+import dh.meli.projeto_integrador.exception.ConflictException;
 import dh.meli.projeto_integrador.exception.ResourceNotFoundException;
+import dh.meli.projeto_integrador.hotstock.HotStockCounters;
 import dh.meli.projeto_integrador.model.Cart;
 import dh.meli.projeto_integrador.model.Customer;
 import dh.meli.projeto_integrador.repository.ICartRepository;
 import dh.meli.projeto_integrador.repository.ICustomerRepository;
 import dh.meli.projeto_integrador.repository.IProductRepository;
+import dh.meli.projeto_integrador.monitoring.BusinessMetrics;
 import dh.meli.projeto_integrador.util.Generators;
 import dh.meli.projeto_integrador.utils.GenerateCart;
 import dh.meli.projeto_integrador.utils.GenerateCustomer;
@@ -23,6 +29,7 @@ import dh.meli.projeto_integrador.model.*;
 import dh.meli.projeto_integrador.repository.*;
 import dh.meli.projeto_integrador.utils.*;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -30,6 +37,7 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
@@ -37,8 +45,15 @@ import org.mockito.quality.Strictness;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -62,7 +77,24 @@ class CartServiceTest {
     IProductCartRepository productCartRepository;
 
     @Mock
-    IBatchRepository batchRepository;
+    IProductStockSummaryRepository productStockSummaryRepository;
+
+    @Mock
+    StockReservationService stockReservationService;
+
+    @Mock
+    OutboxService outboxService;
+
+    @Mock
+    HotStockCounters hotStockCounters;
+
+    @Spy
+    Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    BusinessMetrics businessMetrics = new BusinessMetrics(meterRegistry);
 
     @Test
     void createCart() {
@@ -78,16 +110,13 @@ class CartServiceTest {
                 .thenReturn(Optional.of(newCustomer));
         BDDMockito.when(cartRepository.save(ArgumentMatchers.any(Cart.class)))
                 .thenReturn(newCartWithId);
-        BDDMockito.when(productRepository.findById(ArgumentMatchers.anyLong()))
-                .thenReturn(Optional.of(newProduct));
-        BDDMockito.when(batchRepository.findTotalQuantityByProductId(ArgumentMatchers.anyLong()))
-                .thenReturn(20);
-//        BDDMockito.when(batchRepository.findByProduct(ArgumentMatchers.any(Product.class)))
-//                .thenReturn(newBatch);
-        BDDMockito.when(batchRepository.findBatchByProductId(ArgumentMatchers.anyLong()))
-                .thenReturn(List.of(newBatch));
-        BDDMockito.when(productCartRepository.save(ArgumentMatchers.any(ProductCart.class)))
-                .thenReturn(newProductCart);
+        BDDMockito.when(productRepository.findAllById(ArgumentMatchers.anyIterable()))
+                .thenReturn(List.of(newProduct));
+        BDDMockito.when(productStockSummaryRepository.findStockAggregateByProductIds(ArgumentMatchers.anyCollection(),
+                        ArgumentMatchers.any(LocalDate.class)))
+                .thenReturn(List.of(new ProductStockAggregateDto(newProduct.getId(), newBatch.getCurrentQuantity(), 0)));
+        BDDMockito.when(productCartRepository.saveAll(ArgumentMatchers.anyIterable()))
+                .thenReturn(List.of(newProductCart));
 
 
         TotalPriceDto result = cartService.createCart(newCartDto);
@@ -95,7 +124,204 @@ class CartServiceTest {
         assertThat(result.getTotalPrice()).isEqualTo(newProduct.getPrice() * newProductDto.getQuantity());
         verify(customerRepository, atLeastOnce()).findById(1L);
         verify(cartRepository, atLeastOnce()).save(ArgumentMatchers.any(Cart.class));
-        verify(productCartRepository, atLeastOnce()).save(ArgumentMatchers.any(ProductCart.class));
+        verify(productRepository, times(1)).findAllById(ArgumentMatchers.anyIterable());
+        verify(productStockSummaryRepository, times(1)).findStockAggregateByProductIds(ArgumentMatchers.anyCollection(),
+                ArgumentMatchers.any(LocalDate.class));
+        verify(productRepository, never()).findById(ArgumentMatchers.anyLong());
+        verify(productCartRepository, atLeastOnce()).saveAll(ArgumentMatchers.anyIterable());
+        verify(stockReservationService, times(1)).reserve(ArgumentMatchers.anyList());
+        verify(outboxService, times(1)).cartCreated(newCartWithId, List.of(newProductCart));
+    }
+
+    @Test
+    void createCart_deferReservation_whenAllProductsAreHot() {
+        Cart newCartWithId = GenerateCart.newCartWithId1();
+        Product newProduct = GenerateProduct.newProduct1();
+        ProductCart newProductCart = GenerateProductCart.newProductCart1();
+
+        BDDMockito.when(customerRepository.findById(ArgumentMatchers.anyLong()))
+                .thenReturn(Optional.of(GenerateCustomer.newCustomer1()));
+        BDDMockito.when(cartRepository.save(ArgumentMatchers.any(Cart.class)))
+                .thenReturn(newCartWithId);
+        BDDMockito.when(productRepository.findAllById(ArgumentMatchers.anyIterable()))
+                .thenReturn(List.of(newProduct));
+        BDDMockito.when(hotStockCounters.isHot(1L)).thenReturn(true);
+        BDDMockito.when(hotStockCounters.acquire(Map.of(1L, 10L))).thenReturn(Set.of());
+        BDDMockito.when(hotStockCounters.defer(Map.of(1L, 10L))).thenReturn(true);
+        BDDMockito.when(productCartRepository.saveAll(ArgumentMatchers.anyIterable()))
+                .thenReturn(List.of(newProductCart));
+
+        TotalPriceDto result = cartService.createCart(GenerateCart.newCartDto1());
+
+        assertThat(result.getTotalPrice()).isEqualTo(newProduct.getPrice() * 10);
+        verify(productCartRepository, times(1)).saveAll(ArgumentMatchers.<Iterable<ProductCart>>argThat(lines -> {
+            lines.forEach(line -> assertThat(line.isStockPending()).isTrue());
+            return true;
+        }));
+        verify(hotStockCounters, times(1)).enqueue(List.of(1L));
+        verify(productStockSummaryRepository, never()).findStockAggregateByProductIds(ArgumentMatchers.anyCollection(),
+                ArgumentMatchers.any(LocalDate.class));
+        verify(stockReservationService, never()).reserve(ArgumentMatchers.anyList());
+        verify(outboxService, times(1)).cartCreated(newCartWithId, List.of(newProductCart));
+    }
+
+    @Test
+    void createCart_reserveNow_whenHotProductIsOverThePendingCap() {
+        Product newProduct = GenerateProduct.newProduct1();
+
+        BDDMockito.when(customerRepository.findById(ArgumentMatchers.anyLong()))
+                .thenReturn(Optional.of(GenerateCustomer.newCustomer1()));
+        BDDMockito.when(cartRepository.save(ArgumentMatchers.any(Cart.class)))
+                .thenReturn(GenerateCart.newCartWithId1());
+        BDDMockito.when(productRepository.findAllById(ArgumentMatchers.anyIterable()))
+                .thenReturn(List.of(newProduct));
+        BDDMockito.when(hotStockCounters.isHot(1L)).thenReturn(true);
+        BDDMockito.when(hotStockCounters.acquire(Map.of(1L, 10L))).thenReturn(Set.of());
+        BDDMockito.when(hotStockCounters.defer(Map.of(1L, 10L))).thenReturn(false);
+        BDDMockito.when(productStockSummaryRepository.findStockAggregateByProductIds(ArgumentMatchers.anyCollection(),
+                        ArgumentMatchers.any(LocalDate.class)))
+                .thenReturn(List.of(new ProductStockAggregateDto(newProduct.getId(), 100, 0)));
+        BDDMockito.when(productCartRepository.saveAll(ArgumentMatchers.anyIterable()))
+                .thenReturn(List.of(GenerateProductCart.newProductCart1()));
+
+        cartService.createCart(GenerateCart.newCartDto1());
+
+        verify(stockReservationService, times(1)).reserve(ArgumentMatchers.anyList());
+        verify(hotStockCounters, never()).enqueue(ArgumentMatchers.anyList());
+    }
+
+    @Test
+    void createCart_returnException_whenHotStockIsExhausted() {
+        BDDMockito.when(customerRepository.findById(ArgumentMatchers.anyLong()))
+                .thenReturn(Optional.of(GenerateCustomer.newCustomer1()));
+        BDDMockito.when(cartRepository.save(ArgumentMatchers.any(Cart.class)))
+                .thenReturn(GenerateCart.newCartWithId1());
+        BDDMockito.when(productRepository.findAllById(ArgumentMatchers.anyIterable()))
+                .thenReturn(List.of(GenerateProduct.newProduct1()));
+        BDDMockito.when(hotStockCounters.isHot(1L)).thenReturn(true);
+        BDDMockito.when(hotStockCounters.acquire(Map.of(1L, 10L))).thenReturn(Set.of(1L));
+
+        ForbiddenException exception = assertThrows(ForbiddenException.class, () -> {
+            cartService.createCart(GenerateCart.newCartDto1());
+        });
+
+        assertThat(exception.getMessage()).isEqualTo("The product(s): [Morango] does not have enough quantity in stock or due date is not valid.");
+        assertThat(meterRegistry.counter("business.stock.rejections").count()).isEqualTo(1);
+        verify(hotStockCounters, never()).defer(ArgumentMatchers.anyMap());
+        verify(productCartRepository, never()).saveAll(ArgumentMatchers.anyIterable());
+    }
+
+    @Test
+    void createCarts_rejectCart_whenPreviousCartsTookTheStock() {
+        Product newProduct = GenerateProduct.newProduct1();
+        List<CartDto> cartDtos = List.of(GenerateCart.newCartDto1(), GenerateCartDto.newCartDtoFinished(),
+                GenerateCart.newCartDto1(), GenerateCart.newCartDto1());
+
+        BDDMockito.when(customerRepository.findAllById(ArgumentMatchers.anyIterable()))
+                .thenReturn(List.of(GenerateCustomer.newCustomer1()));
+        BDDMockito.when(productRepository.findAllById(ArgumentMatchers.anyIterable()))
+                .thenReturn(List.of(newProduct));
+        BDDMockito.when(productStockSummaryRepository.findStockAggregateByProductIds(ArgumentMatchers.anyCollection(),
+                        ArgumentMatchers.any(LocalDate.class)))
+                .thenReturn(List.of(new ProductStockAggregateDto(newProduct.getId(), 25, 0)));
+        BDDMockito.when(productCartRepository.saveAll(ArgumentMatchers.anyIterable()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<CartResultDto> results = cartService.createCarts(cartDtos);
+
+        assertThat(results.size()).isEqualTo(4);
+        assertThat(results.get(0).getStatus()).isEqualTo(CartResultDto.ACCEPTED);
+        assertThat(results.get(0).getTotalPrice()).isEqualTo(newProduct.getPrice() * 10);
+        assertThat(results.get(1).getStatus()).isEqualTo(CartResultDto.REJECTED);
+        assertThat(results.get(1).getMessage()).isEqualTo("The new cart cannot be created with order status 'FINISHED'");
+        assertThat(results.get(2).getStatus()).isEqualTo(CartResultDto.ACCEPTED);
+        assertThat(results.get(3).getStatus()).isEqualTo(CartResultDto.REJECTED);
+        assertThat(results.get(3).getMessage()).isEqualTo("The product(s): [Morango] does not have enough quantity in stock or due date is not valid.");
+
+        verify(customerRepository, times(1)).findAllById(ArgumentMatchers.anyIterable());
+        verify(productRepository, times(1)).findAllById(ArgumentMatchers.anyIterable());
+        verify(productStockSummaryRepository, times(1)).findStockAggregateByProductIds(ArgumentMatchers.anyCollection(),
+                ArgumentMatchers.any(LocalDate.class));
+        verify(cartRepository, times(1)).saveAll(ArgumentMatchers.<Iterable<Cart>>argThat(carts -> {
+            List<Cart> saved = new ArrayList<>();
+            carts.forEach(saved::add);
+            return saved.size() == 2;
+        }));
+        verify(stockReservationService, times(1)).reserveIfAvailable(ArgumentMatchers.argThat(lines -> lines.size() == 2));
+        verify(outboxService, times(2)).cartCreated(ArgumentMatchers.any(Cart.class),
+                ArgumentMatchers.argThat(lines -> lines.size() == 1));
+    }
+
+    @Test
+    void createCarts_rejectCart_whenCustomerIsNotFound() {
+        BDDMockito.when(customerRepository.findAllById(ArgumentMatchers.anyIterable()))
+                .thenReturn(List.of());
+        BDDMockito.when(productRepository.findAllById(ArgumentMatchers.anyIterable()))
+                .thenReturn(List.of(GenerateProduct.newProduct1()));
+
+        List<CartResultDto> results = cartService.createCarts(List.of(GenerateCart.newCartDto1()));
+
+        assertThat(results.get(0).getStatus()).isEqualTo(CartResultDto.REJECTED);
+        assertThat(results.get(0).getMessage()).isEqualTo("Could not find valid customer for id 1");
+        verify(cartRepository, never()).saveAll(ArgumentMatchers.anyIterable());
+        verify(stockReservationService, never()).reserveIfAvailable(ArgumentMatchers.anyList());
+        verify(outboxService, never()).cartCreated(ArgumentMatchers.any(Cart.class), ArgumentMatchers.anyCollection());
+    }
+
+    @Test
+    void createCarts_rejectOnlyCartsOfTheProduct_whenStockIsTakenBeforeTheReservation() {
+        Product morango = GenerateProduct.newProduct1();
+        Product banana = Product.builder().id(2).name("Banana").type("Fresco").price(3.0).build();
+        CartDto morangoCart = GenerateCart.newCartDto1();
+        CartDto mixedCart = GenerateCart.newCartDto1();
+        mixedCart.setProducts(List.of(ProductDto.builder().productId(1L).quantity(5).build(),
+                ProductDto.builder().productId(2L).quantity(5).build()));
+        CartDto bananaCart = GenerateCart.newCartDto1();
+        bananaCart.setProducts(List.of(ProductDto.builder().productId(2L).quantity(5).build()));
+
+        BDDMockito.when(customerRepository.findAllById(ArgumentMatchers.anyIterable()))
+                .thenReturn(List.of(GenerateCustomer.newCustomer1()));
+        BDDMockito.when(productRepository.findAllById(ArgumentMatchers.anyIterable()))
+                .thenReturn(List.of(morango, banana));
+        BDDMockito.when(productStockSummaryRepository.findStockAggregateByProductIds(ArgumentMatchers.anyCollection(),
+                        ArgumentMatchers.any(LocalDate.class)))
+                .thenReturn(List.of(new ProductStockAggregateDto(1L, 25, 0), new ProductStockAggregateDto(2L, 20, 0)));
+        BDDMockito.when(productCartRepository.saveAll(ArgumentMatchers.anyIterable()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        // A concurrent checkout takes the stock of the bananas between the validation and the reservation
+        List<List<Long>> reservedProductIds = new ArrayList<>();
+        BDDMockito.when(stockReservationService.reserveIfAvailable(ArgumentMatchers.anyList()))
+                .thenAnswer(invocation -> {
+                    List<ProductCart> lines = invocation.getArgument(0);
+                    reservedProductIds.add(lines.stream().map(line -> line.getProduct().getId())
+                            .collect(Collectors.toList()));
+                    return reservedProductIds.size() == 1 ? Set.of(2L) : Set.of();
+                });
+
+        List<CartResultDto> results = cartService.createCarts(List.of(morangoCart, mixedCart, bananaCart));
+
+        assertThat(results.get(0).getStatus()).isEqualTo(CartResultDto.ACCEPTED);
+        assertThat(results.get(1).getStatus()).isEqualTo(CartResultDto.REJECTED);
+        assertThat(results.get(1).getMessage()).isEqualTo("The product(s): [Banana] does not have enough quantity in stock or due date is not valid.");
+        assertThat(results.get(2).getStatus()).isEqualTo(CartResultDto.REJECTED);
+        assertThat(results.get(2).getMessage()).isEqualTo("The product(s): [Banana] does not have enough quantity in stock or due date is not valid.");
+        assertThat(meterRegistry.counter("business.stock.rejections").count()).isEqualTo(2);
+        assertThat(meterRegistry.summary("business.cart.lines").count()).isEqualTo(1);
+
+        assertThat(reservedProductIds).isEqualTo(List.of(List.of(1L, 1L, 2L, 2L), List.of(1L)));
+        verify(productCartRepository, times(1)).deleteAll(ArgumentMatchers.<Iterable<ProductCart>>argThat(lines -> {
+            List<ProductCart> deleted = new ArrayList<>();
+            lines.forEach(deleted::add);
+            return deleted.size() == 3;
+        }));
+        verify(cartRepository, times(1)).deleteAll(ArgumentMatchers.<Iterable<Cart>>argThat(carts -> {
+            List<Cart> deleted = new ArrayList<>();
+            carts.forEach(deleted::add);
+            return deleted.size() == 2;
+        }));
+        verify(stockReservationService, never()).reserve(ArgumentMatchers.anyList());
+        verify(outboxService, times(1)).cartCreated(ArgumentMatchers.any(Cart.class),
+                ArgumentMatchers.argThat(lines -> lines.size() == 1));
     }
 
     @Test
@@ -110,20 +336,41 @@ class CartServiceTest {
             .thenReturn(Optional.of(newCustomer));
         BDDMockito.when(cartRepository.save(ArgumentMatchers.any(Cart.class)))
                 .thenReturn(newCartWithId);
-        BDDMockito.when(productRepository.findById(ArgumentMatchers.anyLong()))
-                .thenReturn(Optional.of(newProduct));
-//        BDDMockito.when(batchRepository.findByProduct(ArgumentMatchers.any(Product.class)))
-//                .thenReturn(newBatch);
-        BDDMockito.when(batchRepository.findBatchByProductId(ArgumentMatchers.anyLong()))
-                .thenReturn(List.of(newBatch));
+        BDDMockito.when(productRepository.findAllById(ArgumentMatchers.anyIterable()))
+                .thenReturn(List.of(newProduct));
+        BDDMockito.when(productStockSummaryRepository.findStockAggregateByProductIds(ArgumentMatchers.anyCollection(),
+                        ArgumentMatchers.any(LocalDate.class)))
+                .thenReturn(List.of(new ProductStockAggregateDto(newProduct.getId(), newBatch.getCurrentQuantity(), 0)));
         ForbiddenException exception = assertThrows(ForbiddenException.class, () -> {
             cartService.createCart(cartDto);
         });
 
         assertThat(exception.getMessage()).isEqualTo("The product(s): [Morango] does not have enough quantity in stock or due date is not valid.");
+        assertThat(meterRegistry.counter("business.stock.rejections").count()).isEqualTo(1);
         verify(cartRepository, never()).save(GenerateCart.newCart1());
     }
 
+    @Test
+    void create_returnException_whenProductIsNotFound() {
+        Cart newCartWithId = GenerateCart.newCartWithId1();
+        Customer newCustomer = GenerateCustomer.newCustomer1();
+        CartDto cartDto = GenerateCartDto.newCartDto();
+
+        BDDMockito.when(customerRepository.findById(ArgumentMatchers.anyLong()))
+                .thenReturn(Optional.of(newCustomer));
+        BDDMockito.when(cartRepository.save(ArgumentMatchers.any(Cart.class)))
+                .thenReturn(newCartWithId);
+        BDDMockito.when(productRepository.findAllById(ArgumentMatchers.anyIterable()))
+                .thenReturn(List.of());
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
+            cartService.createCart(cartDto);
+        });
+
+        assertThat(exception.getMessage()).isEqualTo("Could not find valid product for id 1");
+        verify(productCartRepository, never()).saveAll(ArgumentMatchers.anyIterable());
+    }
+
     @Test
     @DisplayName("Test update with success")
     void updateStatusCartWithSuccess() {
@@ -134,6 +381,8 @@ class CartServiceTest {
 
         assertThat(result.getMessage()).isEqualTo("Cart Finished successfully");
         verify(cartRepository, atLeastOnce()).findById(1L);
+        verify(outboxService, times(1)).cartFinished(ArgumentMatchers.argThat(cart ->
+                cart.getStatus() == PurchaseOrderStatusEnum.FINISHED));
     }
 
 
@@ -161,11 +410,43 @@ class CartServiceTest {
 
         assertThat(exception.getMessage()).isEqualTo("Cart already Finished");
         verify(cartRepository, never()).save(GenerateCart.newCart1());
+        verify(outboxService, never()).cartFinished(ArgumentMatchers.any(Cart.class));
+    }
+
+    @Test
+    void update_returnException_WhenCartWasCancelled() {
+        Cart cancelledCart = GenerateCart.newCartWithId1();
+        cancelledCart.setStatus(PurchaseOrderStatusEnum.CANCELLED);
+
+        BDDMockito.when(cartRepository.findById(ArgumentMatchers.anyLong()))
+                .thenReturn(Optional.of(cancelledCart));
+
+        ForbiddenException exception = assertThrows(ForbiddenException.class, () -> {
+            cartService.updateStatusCart(1L);
+        });
+
+        assertThat(exception.getMessage()).isEqualTo("Cart was Cancelled");
+        verify(outboxService, never()).cartFinished(ArgumentMatchers.any(Cart.class));
+    }
+
+    @Test
+    void update_returnException_WhenCartStockIsStillPending() {
+        BDDMockito.when(cartRepository.findById(ArgumentMatchers.anyLong()))
+                .thenReturn(Optional.of(GenerateCart.newCartWithId1()));
+        BDDMockito.when(productCartRepository.hasStockPending(1L)).thenReturn(true);
+
+        ConflictException exception = assertThrows(ConflictException.class, () -> {
+            cartService.updateStatusCart(1L);
+        });
+
+        assertThat(exception.getMessage()).isEqualTo("The stock of the cart is still being reserved, try again later");
+        verify(cartRepository, never()).save(ArgumentMatchers.any(Cart.class));
+        verify(outboxService, never()).cartFinished(ArgumentMatchers.any(Cart.class));
     }
 
     @Test
     void getCartById_WhenCartIsNotFound_ReturnException() {
-        BDDMockito.when(cartRepository.findById(anyLong()))
+        BDDMockito.when(cartRepository.findCartWithProductsById(anyLong()))
                 .thenReturn(Optional.empty());
 
         long id = 0;
@@ -175,23 +456,14 @@ class CartServiceTest {
 
         assertThat(exception.getMessage()).isEqualTo("Cart not found with this id");
 
-        verify(cartRepository, atLeastOnce()).findById(id);
+        verify(cartRepository, atLeastOnce()).findCartWithProductsById(id);
     }
 
     @Test
     void getCartById_WhenCartIsFound_ReturnACartOutputDto() {
-        BDDMockito.when(cartRepository.findById(anyLong()))
+        BDDMockito.when(cartRepository.findCartWithProductsById(anyLong()))
                 .thenReturn(Optional.ofNullable(Generators.validCart1()));
 
-        BDDMockito.when(customerRepository.findById(anyLong()))
-                .thenReturn(Optional.ofNullable(Generators.validCustomer1()));
-
-        BDDMockito.when(productRepository.findById(1L))
-                .thenReturn(Optional.ofNullable(Generators.validProduct1()));
-
-        BDDMockito.when(productRepository.findById(2L))
-                .thenReturn(Optional.ofNullable(Generators.validProduct2()));
-
         long id = 1;
          CartOutputDto cart = cartService.getCartById(id);
 
@@ -210,9 +482,8 @@ class CartServiceTest {
                 .isEqualTo(Generators.validProduct1().getPrice() * Generators.validProductCart1().getQuantity()
                 + Generators.validProduct2().getPrice() * Generators.validProductCart2().getQuantity());
 
-        verify(cartRepository, atLeastOnce()).findById(id);
-        verify(customerRepository, atLeastOnce()).findById(id);
-        verify(productRepository, atLeastOnce()).findById(1L);
-        verify(productRepository, atLeastOnce()).findById(2L);
+        verify(cartRepository, atLeastOnce()).findCartWithProductsById(id);
+        verify(customerRepository, never()).findById(anyLong());
+        verify(productRepository, never()).findById(anyLong());
     }
 }
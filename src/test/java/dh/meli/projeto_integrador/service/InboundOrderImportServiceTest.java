@@ -0,0 +1,149 @@
+package dh.meli.projeto_integrador.service;
+
+import dh.meli.projeto_integrador.dto.dtoInput.BatchDto;
+import dh.meli.projeto_integrador.dto.dtoInput.OrderEntryDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.InboundOrderResultDto;
+import dh.meli.projeto_integrador.exception.ForbiddenException;
+import dh.meli.projeto_integrador.util.Generators;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class InboundOrderImportServiceTest {
+
+    @InjectMocks
+    InboundOrderImportService inboundOrderImportService;
+
+    @Mock
+    OrderService orderService;
+
+    @Spy
+    Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @BeforeEach
+    void setup() {
+        ReflectionTestUtils.setField(inboundOrderImportService, "chunkSize", 2);
+
+        BDDMockito.when(orderService.createInboundOrders(ArgumentMatchers.anyMap()))
+                .thenAnswer(invocation -> {
+                    Map<Long, OrderEntryDto> orders = invocation.getArgument(0);
+                    Map<Long, InboundOrderResultDto> results = new TreeMap<>();
+                    orders.keySet().forEach(index -> results.put(index, InboundOrderResultDto.created(index, List.of())));
+                    return results;
+                });
+    }
+
+    private static List<OrderEntryDto> newOrders(int count) {
+        List<OrderEntryDto> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            orders.add(Generators.createOrderEntryDto());
+        }
+        return orders;
+    }
+
+    private List<InboundOrderResultDto> importOrders(Iterator<OrderEntryDto> orders) {
+        List<InboundOrderResultDto> results = new ArrayList<>();
+        inboundOrderImportService.importInboundOrders(orders, results::add);
+        return results;
+    }
+
+    @Test
+    void importInboundOrders_saveOneTransactionPerChunk() {
+        List<InboundOrderResultDto> results = importOrders(newOrders(5).iterator());
+
+        assertThat(results.stream().map(InboundOrderResultDto::getIndex).collect(Collectors.toList()))
+                .containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(results).allMatch(result -> result.getStatus().equals(InboundOrderResultDto.CREATED));
+        verify(orderService, times(3)).createInboundOrders(ArgumentMatchers.anyMap());
+        verify(orderService, never()).createInboundOrder(ArgumentMatchers.any());
+    }
+
+    @Test
+    void importInboundOrders_rejectInvalidOrder_withoutSavingIt() {
+        List<OrderEntryDto> orders = newOrders(2);
+        BatchDto batchDto = orders.get(1).getBatchStock().iterator().next();
+        batchDto.setCurrentQuantity(0);
+
+        List<InboundOrderResultDto> results = importOrders(orders.iterator());
+
+        assertThat(results.get(0).getStatus()).isEqualTo(InboundOrderResultDto.CREATED);
+        assertThat(results.get(1).getStatus()).isEqualTo(InboundOrderResultDto.REJECTED);
+        assertThat(results.get(1).getMessage()).startsWith("batchStock[].currentQuantity");
+        verify(orderService, times(1)).createInboundOrders(ArgumentMatchers.argThat(
+                (Map<Long, OrderEntryDto> chunk) -> chunk.keySet().equals(Set.of(1L))));
+    }
+
+    @Test
+    void importInboundOrders_saveEachOrderAlone_whenChunkTransactionFails() {
+        List<OrderEntryDto> orders = newOrders(2);
+
+        BDDMockito.when(orderService.createInboundOrders(ArgumentMatchers.anyMap()))
+                .thenThrow(new OptimisticLockingFailureException("stale section"));
+        BDDMockito.when(orderService.createInboundOrder(orders.get(0)))
+                .thenReturn(List.of());
+        BDDMockito.when(orderService.createInboundOrder(orders.get(1)))
+                .thenThrow(new ForbiddenException("Product batches quantity sum overtakes section maximum product load"));
+
+        List<InboundOrderResultDto> results = importOrders(orders.iterator());
+
+        assertThat(results.get(0).getStatus()).isEqualTo(InboundOrderResultDto.CREATED);
+        assertThat(results.get(1).getStatus()).isEqualTo(InboundOrderResultDto.REJECTED);
+        assertThat(results.get(1).getMessage())
+                .isEqualTo("Product batches quantity sum overtakes section maximum product load");
+    }
+
+    @Test
+    void importInboundOrders_stopImport_whenOrderCannotBeRead() {
+        Iterator<OrderEntryDto> valid = newOrders(3).iterator();
+        Iterator<OrderEntryDto> orders = new Iterator<>() {
+            private int read = 0;
+
+            @Override
+            public boolean hasNext() {
+                if (read == 3) {
+                    throw new IllegalStateException("Unexpected character at line 4");
+                }
+                return true;
+            }
+
+            @Override
+            public OrderEntryDto next() {
+                read++;
+                return valid.next();
+            }
+        };
+
+        List<InboundOrderResultDto> results = importOrders(orders);
+
+        assertThat(results.size()).isEqualTo(4);
+        assertThat(results.subList(0, 3)).allMatch(result -> result.getStatus().equals(InboundOrderResultDto.CREATED));
+        assertThat(results.get(3).getIndex()).isEqualTo(4L);
+        assertThat(results.get(3).getStatus()).isEqualTo(InboundOrderResultDto.REJECTED);
+        assertThat(results.get(3).getMessage()).contains("Unexpected character at line 4");
+    }
+}
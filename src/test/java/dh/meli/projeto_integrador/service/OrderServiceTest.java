@@ -1,20 +1,27 @@
 package dh.meli.projeto_integrador.service;
 
+import dh.meli.projeto_integrador.cache.SellableBatchCache;
 import dh.meli.projeto_integrador.dto.dtoInput.BatchDto;
 import dh.meli.projeto_integrador.dto.dtoInput.OrderEntryDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.InboundOrderResultDto;
+import dh.meli.projeto_integrador.exception.ConflictException;
 import dh.meli.projeto_integrador.exception.ForbiddenException;
 import dh.meli.projeto_integrador.exception.ResourceNotFoundException;
 import dh.meli.projeto_integrador.model.*;
 import dh.meli.projeto_integrador.repository.IOrderRepository;
+import dh.meli.projeto_integrador.monitoring.BusinessMetrics;
 import dh.meli.projeto_integrador.util.Generators;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
 import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
@@ -22,7 +29,10 @@ import org.mockito.quality.Strictness;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -51,6 +61,23 @@ public class OrderServiceTest {
     @Mock
     BatchService batchService;
 
+    @Mock
+    ProductStockSummaryService productStockSummaryService;
+
+    @Mock
+    OutboxService outboxService;
+
+    @Mock
+    SellableBatchCache sellableBatchCache;
+
+    @Mock
+    EntityManager entityManager;
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    BusinessMetrics businessMetrics = new BusinessMetrics(meterRegistry);
+
     @BeforeEach
     void setup() {
         BDDMockito.when(orderRepository.save(ArgumentMatchers.any(OrderEntry.class)))
@@ -59,14 +86,12 @@ public class OrderServiceTest {
                 .thenReturn(Generators.getProduct());
         BDDMockito.when(warehouseService.findWarehouse(ArgumentMatchers.anyLong()))
                 .thenReturn(Generators.getWarehouse());
-        BDDMockito.when(sectionService.findSection(ArgumentMatchers.anyLong()))
+        BDDMockito.when(sectionService.findManagedSection(ArgumentMatchers.anyLong()))
                 .thenReturn(Generators.getSection());
         BDDMockito.when(sectionService.saveSection(ArgumentMatchers.any(Section.class)))
                 .thenReturn(Generators.getSection());
         BDDMockito.when(agentService.findAgent(ArgumentMatchers.anyLong()))
                 .thenReturn(Generators.getAgent());
-        BDDMockito.when(batchService.createBatch(ArgumentMatchers.any(Batch.class)))
-                .thenReturn(Generators.createBatch());
     }
 
     @Test
@@ -83,8 +108,36 @@ public class OrderServiceTest {
         assertThat(batches.get(0).getProductId()).isEqualTo(generatedBatches.get(0).getProduct().getId());
 
         verify(warehouseService, atLeastOnce()).findWarehouse(orderEntryDto.getSection().getWarehouseId());
-        verify(sectionService, atLeastOnce()).findSection(orderEntryDto.getSection().getSectionId());
+        verify(sectionService, atLeastOnce()).findManagedSection(orderEntryDto.getSection().getSectionId());
         verify(agentService, atLeastOnce()).findAgent(orderEntryDto.getAgentId());
+        verify(productStockSummaryService, times(1)).addBatches(ArgumentMatchers.argThat(added -> added.size() == 1));
+        assertThat(meterRegistry.summary("business.inbound.order.batches").totalAmount()).isEqualTo(1);
+        verify(outboxService, times(1)).inboundOrderCreated(ArgumentMatchers.any(OrderEntry.class),
+                ArgumentMatchers.eq(batches));
+    }
+
+    @Test
+    void createInboundOrdersTest() {
+        OrderEntryDto orderEntryDto = Generators.createOrderEntryDto();
+        OrderEntryDto unknownAgentOrderEntryDto = Generators.createOrderEntryDto();
+        unknownAgentOrderEntryDto.setAgentId(99L);
+
+        BDDMockito.when(agentService.findAgent(99L))
+                .thenThrow(new ResourceNotFoundException("Could not find valid agent for id 99"));
+
+        Map<Long, InboundOrderResultDto> results = orderService.createInboundOrders(Map.of(
+                1L, orderEntryDto,
+                2L, unknownAgentOrderEntryDto));
+
+        assertThat(results.get(1L).getStatus()).isEqualTo(InboundOrderResultDto.CREATED);
+        assertThat(results.get(1L).getBatchStock().size()).isEqualTo(1);
+        assertThat(results.get(2L).getStatus()).isEqualTo(InboundOrderResultDto.REJECTED);
+        assertThat(results.get(2L).getMessage()).isEqualTo("Could not find valid agent for id 99");
+
+        verify(orderRepository, times(1)).save(ArgumentMatchers.any(OrderEntry.class));
+        InOrder inOrder = inOrder(entityManager);
+        inOrder.verify(entityManager).flush();
+        inOrder.verify(entityManager).clear();
     }
 
     @Test
@@ -105,9 +158,10 @@ public class OrderServiceTest {
 
         assertThat(exception.getMessage()).isEqualTo(String.format("Product batches quantity sum overtakes section " +
                 "maximum product load"));
+        assertThat(meterRegistry.counter("business.section.capacity.rejections").count()).isEqualTo(1);
 
         verify(warehouseService, atLeastOnce()).findWarehouse(orderEntryDto.getSection().getWarehouseId());
-        verify(sectionService, atLeastOnce()).findSection(orderEntryDto.getSection().getSectionId());
+        verify(sectionService, atLeastOnce()).findManagedSection(orderEntryDto.getSection().getSectionId());
         verify(agentService, atLeastOnce()).findAgent(orderEntryDto.getAgentId());
     }
 
@@ -115,7 +169,7 @@ public class OrderServiceTest {
     void createInboundOrder_WrongProductSession() throws Exception {
         OrderEntryDto orderEntryDto = Generators.createOrderEntryDto();
 
-        BDDMockito.when(sectionService.findSection(ArgumentMatchers.anyLong()))
+        BDDMockito.when(sectionService.findManagedSection(ArgumentMatchers.anyLong()))
                 .thenReturn(Generators.getUnavailableSection());
 
         ForbiddenException exception = Assertions.assertThrows(ForbiddenException.class, () -> {
@@ -125,7 +179,7 @@ public class OrderServiceTest {
         assertThat(exception.getMessage()).isEqualTo("Product's Maçã section does not equals the given section");
 
         verify(warehouseService, atLeastOnce()).findWarehouse(orderEntryDto.getSection().getWarehouseId());
-        verify(sectionService, atLeastOnce()).findSection(orderEntryDto.getSection().getSectionId());
+        verify(sectionService, atLeastOnce()).findManagedSection(orderEntryDto.getSection().getSectionId());
         verify(agentService, atLeastOnce()).findAgent(orderEntryDto.getAgentId());
     }
 
@@ -143,7 +197,7 @@ public class OrderServiceTest {
         assertThat(exception.getMessage()).isEqualTo("Agent's warehouse ID does not belong to section's warehouse ID");
 
         verify(warehouseService, atLeastOnce()).findWarehouse(orderEntryDto.getSection().getWarehouseId());
-        verify(sectionService, atLeastOnce()).findSection(orderEntryDto.getSection().getSectionId());
+        verify(sectionService, atLeastOnce()).findManagedSection(orderEntryDto.getSection().getSectionId());
         verify(agentService, atLeastOnce()).findAgent(orderEntryDto.getAgentId());
     }
 
@@ -203,33 +257,223 @@ public class OrderServiceTest {
         assertThat(orderEntry.getOrderDate()).isEqualTo(orderEntryMock.getOrderDate());
         assertThat(orderEntry.getId()).isEqualTo(orderEntryMock.getId());
         assertThat(orderEntry.getBatches()).isEqualTo(orderEntryMock.getBatches());
+        verify(productStockSummaryService, times(1)).removeBatches(ArgumentMatchers.anyCollection());
     }
 
     @Test
-    void updateInboundOrderTest() {
+    void updateInboundOrder_updateOnlyChangedBatch_whenOneFieldIsCorrected() {
+        OrderEntry orderEntry = Generators.getOrderEntry();
+        Batch storedBatch = orderEntry.getBatches().iterator().next();
+        Section section = Generators.getSection();
+
+        BatchDto batchDto = new BatchDto(storedBatch);
+        batchDto.setCurrentQuantity(80);
+
+        OrderEntryDto orderEntryDto = Generators.createOrderEntryDto();
+        orderEntryDto.setBatchStock(Set.of(batchDto));
+
+        BDDMockito.when(orderRepository.findById(ArgumentMatchers.anyLong())).thenReturn(Optional.of(orderEntry));
+        BDDMockito.when(batchService.findAllByOrderEntry(orderEntry))
+                .thenReturn(new ArrayList<>(orderEntry.getBatches()));
+        BDDMockito.when(sectionService.findManagedSection(ArgumentMatchers.anyLong())).thenReturn(section);
+
+        List<BatchDto> batches = orderService.updateInboundOrder(orderEntryDto, 1L);
+
+        assertThat(batches.size()).isEqualTo(1);
+        assertThat(batches.get(0).getBatchId()).isEqualTo(storedBatch.getId());
+        assertThat(batches.get(0).getCurrentQuantity()).isEqualTo(80);
+        assertThat(storedBatch.getCurrentQuantity()).isEqualTo(80);
+        assertThat(section.getCurrentProductLoad()).isEqualTo(110);
+
+        verify(batchService, never()).createBatches(ArgumentMatchers.anyCollection());
+        verify(batchService, never()).deleteBatches(ArgumentMatchers.anyCollection());
+        verify(productStockSummaryService, times(1)).removeBatches(List.of(storedBatch));
+        verify(productStockSummaryService, times(1)).addBatches(List.of(storedBatch));
+        verify(outboxService, times(1)).inboundOrderUpdated(orderEntry, batches, List.of());
+        verify(orderRepository, never()).delete(ArgumentMatchers.any(OrderEntry.class));
+    }
+
+    @Test
+    void updateInboundOrder_writeNothing_whenBatchesAreUnchanged() {
+        OrderEntry orderEntry = Generators.getOrderEntry();
+        Batch storedBatch = orderEntry.getBatches().iterator().next();
+        Section section = Generators.getSection();
+
+        OrderEntryDto orderEntryDto = Generators.createOrderEntryDto();
+        orderEntryDto.setBatchStock(Set.of(new BatchDto(storedBatch)));
+
+        BDDMockito.when(orderRepository.findById(ArgumentMatchers.anyLong())).thenReturn(Optional.of(orderEntry));
+        BDDMockito.when(batchService.findAllByOrderEntry(orderEntry))
+                .thenReturn(new ArrayList<>(orderEntry.getBatches()));
+        BDDMockito.when(sectionService.findManagedSection(ArgumentMatchers.anyLong())).thenReturn(section);
+
+        List<BatchDto> batches = orderService.updateInboundOrder(orderEntryDto, 1L);
+
+        assertThat(batches.size()).isEqualTo(1);
+        assertThat(section.getCurrentProductLoad()).isEqualTo(130);
+
+        verify(batchService, never()).createBatches(ArgumentMatchers.anyCollection());
+        verify(batchService, never()).deleteBatches(ArgumentMatchers.anyCollection());
+        verify(productStockSummaryService, times(1)).removeBatches(List.of());
+        verify(productStockSummaryService, times(1)).addBatches(List.of());
+    }
+
+    @Test
+    void updateInboundOrder_insertAndDeleteBatches_whenBatchesAreAddedAndOmitted() {
+        OrderEntry orderEntry = Generators.getOrderEntry();
+        Batch storedBatch = orderEntry.getBatches().iterator().next();
+        Section section = Generators.getSection();
+
+        BatchDto newBatchDto = new BatchDto(storedBatch);
+        newBatchDto.setBatchId(0);
+        newBatchDto.setInitialQuantity(30);
+        newBatchDto.setCurrentQuantity(30);
+
+        OrderEntryDto orderEntryDto = Generators.createOrderEntryDto();
+        orderEntryDto.setBatchStock(Set.of(newBatchDto));
+
+        BDDMockito.when(orderRepository.findById(ArgumentMatchers.anyLong())).thenReturn(Optional.of(orderEntry));
+        BDDMockito.when(batchService.findAllByOrderEntry(orderEntry))
+                .thenReturn(new ArrayList<>(orderEntry.getBatches()));
+        BDDMockito.when(sectionService.findManagedSection(ArgumentMatchers.anyLong())).thenReturn(section);
+        BDDMockito.when(batchService.createBatches(ArgumentMatchers.anyCollection()))
+                .thenAnswer(invocation -> new ArrayList<Batch>(invocation.getArgument(0)));
+
+        List<BatchDto> batches = orderService.updateInboundOrder(orderEntryDto, 1L);
+
+        assertThat(batches.size()).isEqualTo(1);
+        assertThat(batches.get(0).getCurrentQuantity()).isEqualTo(30);
+        assertThat(orderEntry.getBatches()).doesNotContain(storedBatch);
+        assertThat(section.getCurrentProductLoad()).isEqualTo(60);
+
+        verify(batchService, times(1)).deleteBatches(List.of(storedBatch));
+        verify(outboxService, times(1)).inboundOrderUpdated(orderEntry, batches, List.of(storedBatch.getId()));
+        verify(batchService, times(1)).createBatches(ArgumentMatchers.anyCollection());
+    }
+
+    @Test
+    void updateInboundOrder_throwResourceNotFoundException_whenBatchDoesNotBelongToOrder() {
+        OrderEntry orderEntry = Generators.getOrderEntry();
+
+        BDDMockito.when(orderRepository.findById(ArgumentMatchers.anyLong())).thenReturn(Optional.of(orderEntry));
+        BDDMockito.when(batchService.findAllByOrderEntry(orderEntry))
+                .thenReturn(new ArrayList<>(orderEntry.getBatches()));
+
         OrderEntryDto orderEntryDto = Generators.createOrderEntryDto2();
 
-        Long id = 1L;
+        Assertions.assertThrows(ResourceNotFoundException.class,
+                () -> orderService.updateInboundOrder(orderEntryDto, 1L));
 
-        BDDMockito.when(orderRepository.findById(ArgumentMatchers.anyLong()))
-            .thenReturn(Optional.of(Generators.getOrderEntry()));
-        BDDMockito.when(orderRepository.save(ArgumentMatchers.any(OrderEntry.class)))
-            .thenReturn(Generators.getOrderEntry2());
-        BDDMockito.when(batchService.createBatch(ArgumentMatchers.any(Batch.class)))
-            .thenReturn(Generators.createBatch2());
-        BDDMockito.when(productService.findProduct(ArgumentMatchers.anyLong()))
-            .thenReturn(Generators.getProduct2());
+        verify(productStockSummaryService, never()).removeBatches(ArgumentMatchers.anyCollection());
+        verify(sectionService, never()).saveSection(ArgumentMatchers.any(Section.class));
+    }
+
+    @Test
+    void updateInboundOrder_throwForbiddenException_whenCorrectionOvertakesSectionMaximumLoad() {
+        OrderEntry orderEntry = Generators.getOrderEntry();
+        Batch storedBatch = orderEntry.getBatches().iterator().next();
+
+        BatchDto batchDto = new BatchDto(storedBatch);
+        batchDto.setCurrentQuantity(5000);
+
+        OrderEntryDto orderEntryDto = Generators.createOrderEntryDto();
+        orderEntryDto.setBatchStock(Set.of(batchDto));
 
-        BatchDto batch = orderService.updateInboundOrder(orderEntryDto, id);
+        BDDMockito.when(orderRepository.findById(ArgumentMatchers.anyLong())).thenReturn(Optional.of(orderEntry));
+        BDDMockito.when(batchService.findAllByOrderEntry(orderEntry))
+                .thenReturn(new ArrayList<>(orderEntry.getBatches()));
 
-        Batch batch2 = Generators.createBatch2();
+        Assertions.assertThrows(ForbiddenException.class,
+                () -> orderService.updateInboundOrder(orderEntryDto, 1L));
 
-        assertThat(batch.getDueDate()).isEqualTo(batch2.getDueDate());
-        assertThat(batch.getCurrentQuantity()).isEqualTo(batch2.getCurrentQuantity());
-        assertThat(batch.getProductId()).isEqualTo(batch2.getProduct().getId());
+        assertThat(storedBatch.getCurrentQuantity()).isEqualTo(100);
+        assertThat(meterRegistry.counter("business.section.capacity.rejections").count()).isEqualTo(1);
+    }
+
+    @Test
+    void updateInboundOrder_throwConflictException_whenOmittedBatchWasReservedByCarts() {
+        OrderEntry orderEntry = Generators.getOrderEntry();
+        Batch storedBatch = orderEntry.getBatches().iterator().next();
+
+        BatchDto newBatchDto = new BatchDto(storedBatch);
+        newBatchDto.setBatchId(0);
+
+        OrderEntryDto orderEntryDto = Generators.createOrderEntryDto();
+        orderEntryDto.setBatchStock(Set.of(newBatchDto));
+
+        BDDMockito.when(orderRepository.findById(ArgumentMatchers.anyLong())).thenReturn(Optional.of(orderEntry));
+        BDDMockito.when(batchService.findAllByOrderEntry(orderEntry))
+                .thenReturn(new ArrayList<>(orderEntry.getBatches()));
+        BDDMockito.when(sectionService.findManagedSection(ArgumentMatchers.anyLong())).thenReturn(Generators.getSection());
+        BDDMockito.when(batchService.findReservedBatchIds(List.of(storedBatch))).thenReturn(List.of(storedBatch.getId()));
+
+        ConflictException exception = Assertions.assertThrows(ConflictException.class,
+                () -> orderService.updateInboundOrder(orderEntryDto, 1L));
+
+        assertThat(exception.getMessage()).isEqualTo(String.format("Batches [%d] of order entry 1 already had stock "
+                + "reserved by carts and can not be removed; send them with current quantity 0 instead",
+                storedBatch.getId()));
+        assertThat(orderEntry.getBatches()).contains(storedBatch);
+        verify(batchService, never()).deleteBatches(ArgumentMatchers.anyCollection());
+        verify(productStockSummaryService, never()).removeBatches(ArgumentMatchers.anyCollection());
+    }
+
+    @Test
+    void updateInboundOrder_invalidateBothProducts_whenBatchMovesToAnotherProduct() {
+        OrderEntry orderEntry = Generators.getOrderEntry();
+        Batch storedBatch = orderEntry.getBatches().iterator().next();
+        long previousProductId = storedBatch.getProduct().getId();
+        Product otherProduct = Generators.getProduct();
+        otherProduct.setId(previousProductId + 1);
+
+        BatchDto batchDto = new BatchDto(storedBatch);
+        batchDto.setProductId(otherProduct.getId());
 
-        verify(warehouseService, atLeastOnce()).findWarehouse(ArgumentMatchers.anyLong());
-        verify(sectionService, atLeastOnce()).findSection(ArgumentMatchers.anyLong());
-        verify(agentService, atLeastOnce()).findAgent(ArgumentMatchers.anyLong());
+        OrderEntryDto orderEntryDto = Generators.createOrderEntryDto();
+        orderEntryDto.setBatchStock(Set.of(batchDto));
+
+        BDDMockito.when(orderRepository.findById(ArgumentMatchers.anyLong())).thenReturn(Optional.of(orderEntry));
+        BDDMockito.when(batchService.findAllByOrderEntry(orderEntry))
+                .thenReturn(new ArrayList<>(orderEntry.getBatches()));
+        BDDMockito.when(productService.findProduct(otherProduct.getId())).thenReturn(otherProduct);
+
+        orderService.updateInboundOrder(orderEntryDto, 1L);
+
+        assertThat(storedBatch.getProduct()).isSameAs(otherProduct);
+        verify(batchService, times(1)).findReservedBatchIds(List.of(storedBatch));
+        verify(sellableBatchCache, times(1)).invalidate(previousProductId);
+        verify(productStockSummaryService, times(1)).removeBatches(List.of(storedBatch));
+        verify(productStockSummaryService, times(1)).addBatches(List.of(storedBatch));
+    }
+
+    @Test
+    void updateInboundOrder_throwConflictException_whenReservedBatchMovesToAnotherProduct() {
+        OrderEntry orderEntry = Generators.getOrderEntry();
+        Batch storedBatch = orderEntry.getBatches().iterator().next();
+        Product previousProduct = storedBatch.getProduct();
+        Product otherProduct = Generators.getProduct();
+        otherProduct.setId(previousProduct.getId() + 1);
+
+        BatchDto batchDto = new BatchDto(storedBatch);
+        batchDto.setProductId(otherProduct.getId());
+
+        OrderEntryDto orderEntryDto = Generators.createOrderEntryDto();
+        orderEntryDto.setBatchStock(Set.of(batchDto));
+
+        BDDMockito.when(orderRepository.findById(ArgumentMatchers.anyLong())).thenReturn(Optional.of(orderEntry));
+        BDDMockito.when(batchService.findAllByOrderEntry(orderEntry))
+                .thenReturn(new ArrayList<>(orderEntry.getBatches()));
+        BDDMockito.when(productService.findProduct(otherProduct.getId())).thenReturn(otherProduct);
+        BDDMockito.when(batchService.findReservedBatchIds(List.of(storedBatch))).thenReturn(List.of(storedBatch.getId()));
+
+        ConflictException exception = Assertions.assertThrows(ConflictException.class,
+                () -> orderService.updateInboundOrder(orderEntryDto, 1L));
+
+        assertThat(exception.getMessage()).isEqualTo(String.format("Batches [%d] of order entry 1 already had stock "
+                + "reserved by carts and can not change product; retire them with current quantity 0 and send a "
+                + "new batch instead", storedBatch.getId()));
+        assertThat(storedBatch.getProduct()).isSameAs(previousProduct);
+        verify(productStockSummaryService, never()).removeBatches(ArgumentMatchers.anyCollection());
+        verify(sellableBatchCache, never()).invalidate(ArgumentMatchers.anyLong());
     }
 }
@@ -1,14 +1,19 @@
 package dh.meli.projeto_integrador.service;
 
+import dh.meli.projeto_integrador.cache.ReferenceDataCache;
+import dh.meli.projeto_integrador.cache.SellableBatchCache;
 import dh.meli.projeto_integrador.dto.dtoOutput.ListProductByWarehouseDto;
 import dh.meli.projeto_integrador.dto.dtoOutput.ProductOutputDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.ProductPageDto;
 import dh.meli.projeto_integrador.dto.dtoOutput.ProductStockDto;
 import dh.meli.projeto_integrador.dto.dtoOutput.TotalProductByWarehouseDto;
+import dh.meli.projeto_integrador.exception.InvalidParameterTypeException;
 import dh.meli.projeto_integrador.exception.ResourceNotFoundException;
 import dh.meli.projeto_integrador.model.Batch;
 import dh.meli.projeto_integrador.model.Product;
 import dh.meli.projeto_integrador.repository.IBatchRepository;
 import dh.meli.projeto_integrador.repository.IProductRepository;
+import dh.meli.projeto_integrador.repository.IProductStockSummaryRepository;
 import dh.meli.projeto_integrador.util.Generators;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,9 +23,12 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -45,6 +53,15 @@ public class ProductServiceTest {
     @Mock
     IBatchRepository batchRepository;
 
+    @Mock
+    IProductStockSummaryRepository productStockSummaryRepository;
+
+    @Spy
+    ReferenceDataCache referenceDataCache = new ReferenceDataCache(100, 300);
+
+    @Spy
+    SellableBatchCache sellableBatchCache = new SellableBatchCache(100, 3600);
+
     @BeforeEach
     void setup() {
         BDDMockito.when(productRepository.findById(ArgumentMatchers.anyLong()))
@@ -78,34 +95,78 @@ public class ProductServiceTest {
         verify(productRepository, atLeastOnce()).findById(id);
     }
 
+    @Test
+    void findProduct_ReadsRepositoryOnce_WhenProductIsCachedTest() {
+        long id = 1;
+
+        productService.findProduct(id);
+        Product product = productService.findProduct(id);
+
+        assertThat(product.getId()).isEqualTo(Generators.getProduct().getId());
+        verify(productRepository, times(1)).findById(id);
+    }
+
     @Test
     void getAllProducts_returnListProducts_whenProductsExists() {
-        BDDMockito.when(productRepository.findAll())
+        BDDMockito.when(productRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class)))
                 .thenReturn(Generators.productList());
 
-        List<ProductOutputDto> products = productService.getAllProducts();
+        ProductPageDto page = productService.getAllProducts(0, null);
+        List<ProductOutputDto> products = page.getProducts();
 
 
         assertThat(products).isNotNull();
         assertThat((products.size())).isEqualTo(2);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getAllProducts_returnNextCursor_whenThereAreMoreProducts() {
+        BDDMockito.when(productRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class)))
+                .thenReturn(Generators.productList());
+
+        ProductPageDto page = productService.getAllProducts(0, 1);
+
+        assertThat(page.getProducts().size()).isEqualTo(1);
+        assertThat(page.getNextCursor()).isEqualTo(Generators.validProduct1().getId());
+        verify(productRepository).findByIdGreaterThanOrderByIdAsc(0, PageRequest.of(0, 2));
+    }
+
+    @Test
+    void getAllProducts_capsPageSize_whenLimitIsOverMaximum() {
+        BDDMockito.when(productRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class)))
+                .thenReturn(Generators.productList());
+
+        productService.getAllProducts(10, 100000);
+
+        verify(productRepository).findByIdGreaterThanOrderByIdAsc(10, PageRequest.of(0, 501));
+    }
+
+    @Test
+    void getAllProducts_throwsInvalidParameterException_whenLimitIsNotPositive() {
+        InvalidParameterTypeException exception = assertThrows(InvalidParameterTypeException.class,
+                () -> productService.getAllProducts(0, 0));
+
+        assertThat(exception.getMessage()).isEqualTo("Invalid value 0 for limit param");
     }
 
     @Test
     void getAllProducts_throwsNotFoundException_whenProductsDontExist() {
-        BDDMockito.when(productRepository.findAll())
+        BDDMockito.when(productRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class)))
                 .thenReturn(Generators.emptyProductDtoList());
 
-        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> productService.getAllProducts());
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> productService.getAllProducts(0, null));
 
         assertThat(exception.getMessage()).isEqualTo("No Products Found");
     }
 
     @Test
     void getProductsByCategory_returnListProducts_whenProductsExists() {
-        BDDMockito.when(productRepository.findAllByType(anyString()))
+        BDDMockito.when(productRepository.findByTypeAndIdGreaterThanOrderByIdAsc(anyString(), anyLong(), any(Pageable.class)))
                 .thenReturn(Generators.productList());
 
-        List<ProductOutputDto> products = productService.getProductsByCategory(Generators.validProduct1().getType());
+        List<ProductOutputDto> products = productService.getProductsByCategory(Generators.validProduct1().getType(), 0, null)
+                .getProducts();
 
 
         assertThat(products).isNotNull();
@@ -114,11 +175,11 @@ public class ProductServiceTest {
 
     @Test
     void getProductsByCategory_returnListProducts_whenProductsDontExist() {
-        BDDMockito.when(productRepository.findAllByType(anyString()))
+        BDDMockito.when(productRepository.findByTypeAndIdGreaterThanOrderByIdAsc(anyString(), anyLong(), any(Pageable.class)))
                 .thenReturn(Generators.emptyProductDtoList());
 
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () ->
-                productService.getProductsByCategory(Generators.validProduct1().getType()));
+                productService.getProductsByCategory(Generators.validProduct1().getType(), 0, null));
 
         assertThat(exception.getMessage()).isEqualTo("No Products Found");
     }
@@ -186,10 +247,35 @@ public class ProductServiceTest {
         verify(batchRepository, atLeastOnce()).findBatchByProductId(anyLong());
     }
 
+    @Test
+    void getProductBatchProps_readBatchesOnce_whenListedInEveryOrder() {
+        BDDMockito.when(batchRepository.findBatchByProductId(anyLong()))
+                .thenReturn(Generators.validBatchList());
+
+        productService.getProductBatchProps(1L, 'V');
+        productService.getProductBatchProps(1L, 'Q');
+        ProductStockDto productStockDto = productService.getProductBatchProps(1L, 'L');
+
+        assertThat(productStockDto.getBatchStockDto()).hasSize(2);
+        verify(batchRepository, times(1)).findBatchByProductId(1L);
+    }
+
+    @Test
+    void getProductBatchProps_reloadBatches_whenCacheIsInvalidated() {
+        BDDMockito.when(batchRepository.findBatchByProductId(anyLong()))
+                .thenReturn(Generators.validBatchList());
+
+        productService.getProductBatchProps(1L, 'V');
+        sellableBatchCache.invalidate(1L);
+        productService.getProductBatchProps(1L, 'V');
+
+        verify(batchRepository, times(2)).findBatchByProductId(1L);
+    }
+
     @Test
     void listProductByWarehouseTest() {
-        BDDMockito.when(batchRepository.findBatchByProductId(ArgumentMatchers.anyLong()))
-                .thenReturn(Generators.getBatches());
+        BDDMockito.when(productStockSummaryRepository.findTotalQuantityByWarehouse(ArgumentMatchers.anyLong()))
+                .thenReturn(Generators.getListProductByWarehouseDto().getWarehouses());
 
 
         Product product = Generators.getProduct();
@@ -213,14 +299,14 @@ public class ProductServiceTest {
                     .isEqualTo(generatedTotalProductByWarehouseDto.getTotalQuantity());
         }
 
-        verify(batchRepository, atLeastOnce()).findBatchByProductId(product.getId());
+        verify(productStockSummaryRepository, atLeastOnce()).findTotalQuantityByWarehouse(product.getId());
+        verify(batchRepository, never()).findBatchByProductId(anyLong());
     }
 
     @Test
     void listProductByWarehouse_WhenBatchListIsEmptyTest() {
-        List<Batch> batchList = new ArrayList<>();
-        BDDMockito.when(batchRepository.findBatchByProductId(ArgumentMatchers.anyLong()))
-                .thenReturn(batchList);
+        BDDMockito.when(productStockSummaryRepository.findTotalQuantityByWarehouse(ArgumentMatchers.anyLong()))
+                .thenReturn(new ArrayList<>());
 
         ResourceNotFoundException exception = Assertions.assertThrows(ResourceNotFoundException.class, () -> {
             ListProductByWarehouseDto listProductByWarehouseDto = productService.listProductByWarehouse(
@@ -231,6 +317,6 @@ public class ProductServiceTest {
         assertThat(exception.getMessage()).isEqualTo(String.format("Could not find valid batch stock for product %d",
                 Generators.getProduct().getId()));
 
-        verify(batchRepository, atLeastOnce()).findBatchByProductId(Generators.getProduct().getId());
+        verify(productStockSummaryRepository, atLeastOnce()).findTotalQuantityByWarehouse(Generators.getProduct().getId());
     }
 }
@@ -0,0 +1,95 @@
+package dh.meli.projeto_integrador.service;
+
+import dh.meli.projeto_integrador.hotstock.HotStockCounters;
+import dh.meli.projeto_integrador.model.Batch;
+import dh.meli.projeto_integrador.model.ProductStockSummaryId;
+import dh.meli.projeto_integrador.repository.IProductStockSummaryRepository;
+import dh.meli.projeto_integrador.util.Generators;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ProductStockSummaryServiceTest {
+
+    @InjectMocks
+    ProductStockSummaryService productStockSummaryService;
+
+    @Mock
+    IProductStockSummaryRepository productStockSummaryRepository;
+
+    @Mock
+    HotStockCounters hotStockCounters;
+
+    private static Batch newBatch(LocalDate dueDate, int quantity) {
+        Batch batch = Generators.createBatch();
+        batch.setDueDate(dueDate);
+        batch.setCurrentQuantity(quantity);
+        return batch;
+    }
+
+    @Test
+    void addBatches_mergeQuantityGroupedByDueDate_onH2() {
+        LocalDate dueDate = LocalDate.now().plusDays(30);
+        Batch batch = newBatch(dueDate, 20);
+        ProductStockSummaryId id = ProductStockSummaryId.of(batch);
+
+        productStockSummaryService.addBatches(List.of(batch, newBatch(dueDate, 5)));
+
+        verify(productStockSummaryRepository, times(1)).mergeQuantityH2(id, 25L);
+        verify(productStockSummaryRepository, never()).upsertQuantityMySql(ArgumentMatchers.any(), ArgumentMatchers.anyLong());
+        verify(hotStockCounters, times(1)).markChanged(Set.of(batch.getProduct().getId()));
+    }
+
+    @Test
+    void removeBatches_upsertRowsInKeyOrder_onMySql() {
+        ReflectionTestUtils.setField(productStockSummaryService, "datasourceUrl",
+                "jdbc:mysql://localhost:3306/projeto_integrador");
+        Batch later = newBatch(LocalDate.now().plusDays(40), 20);
+        Batch sooner = newBatch(LocalDate.now().plusDays(30), 10);
+
+        productStockSummaryService.removeBatches(List.of(later, sooner));
+
+        InOrder inOrder = inOrder(productStockSummaryRepository);
+        inOrder.verify(productStockSummaryRepository).upsertQuantityMySql(ProductStockSummaryId.of(sooner), -10L);
+        inOrder.verify(productStockSummaryRepository).upsertQuantityMySql(ProductStockSummaryId.of(later), -20L);
+        verify(productStockSummaryRepository, never()).mergeQuantityH2(ArgumentMatchers.any(), ArgumentMatchers.anyLong());
+    }
+
+    @Test
+    void addQuantities_doNothing_whenThereIsNoChange() {
+        productStockSummaryService.addQuantities(Map.of());
+
+        verifyNoInteractions(productStockSummaryRepository);
+    }
+
+    @Test
+    void rebuild_recomputeEveryRowFromBatches() {
+        BDDMockito.when(productStockSummaryRepository.insertFromBatches())
+                .thenReturn(9);
+
+        int rows = productStockSummaryService.rebuild();
+
+        assertThat(rows).isEqualTo(9);
+        InOrder inOrder = inOrder(productStockSummaryRepository);
+        inOrder.verify(productStockSummaryRepository).deleteAllRows();
+        inOrder.verify(productStockSummaryRepository).insertFromBatches();
+    }
+}
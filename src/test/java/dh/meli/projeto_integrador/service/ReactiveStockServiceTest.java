@@ -0,0 +1,122 @@
+package dh.meli.projeto_integrador.service;
+
+import dh.meli.projeto_integrador.dto.dtoInput.CategoryDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.BatchStockDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.ListProductByWarehouseDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.ProductOutputDto;
+import dh.meli.projeto_integrador.dto.dtoOutput.TotalProductByWarehouseDto;
+import dh.meli.projeto_integrador.exception.ResourceNotFoundException;
+import dh.meli.projeto_integrador.repository.ReactiveStockRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ReactiveStockServiceTest {
+
+    @InjectMocks
+    ReactiveStockService reactiveStockService;
+
+    @Mock
+    ReactiveStockRepository reactiveStockRepository;
+
+    @Test
+    void streamProducts_returnProductsOfCategory_whenCategoryHasProducts() {
+        BDDMockito.when(reactiveStockRepository.existsProduct("FS"))
+                .thenReturn(Mono.just(true));
+        BDDMockito.when(reactiveStockRepository.findProductsByType("FS"))
+                .thenReturn(Flux.just(new ProductOutputDto("Morango", "FS", 10.0)));
+
+        List<ProductOutputDto> products = reactiveStockService.streamProducts("FS").block().collectList().block();
+
+        assertThat(products.size()).isEqualTo(1);
+        assertThat(products.get(0).getName()).isEqualTo("Morango");
+        verify(reactiveStockRepository, never()).findAllProducts();
+    }
+
+    @Test
+    void streamProducts_returnException_whenThereIsNoProduct() {
+        BDDMockito.when(reactiveStockRepository.existsProduct(null))
+                .thenReturn(Mono.just(false));
+        BDDMockito.when(reactiveStockRepository.findAllProducts())
+                .thenReturn(Flux.empty());
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
+            reactiveStockService.streamProducts(null).block();
+        });
+
+        assertThat(exception.getMessage()).isEqualTo("No Products Found");
+    }
+
+    @Test
+    void listProductByWarehouse_returnStockByWarehouse_whenProductHasStock() {
+        BDDMockito.when(reactiveStockRepository.findTotalQuantityByWarehouse(1L))
+                .thenReturn(Flux.just(new TotalProductByWarehouseDto(1L, 30L),
+                        new TotalProductByWarehouseDto(2L, 10L)));
+
+        ListProductByWarehouseDto result = reactiveStockService.listProductByWarehouse(1L).block();
+
+        assertThat(result.getProductId()).isEqualTo(1L);
+        assertThat(result.getWarehouses().size()).isEqualTo(2);
+        assertThat(result.getWarehouses().get(0).getTotalQuantity()).isEqualTo(30L);
+    }
+
+    @Test
+    void listProductByWarehouse_returnException_whenProductHasNoStock() {
+        BDDMockito.when(reactiveStockRepository.findTotalQuantityByWarehouse(1L))
+                .thenReturn(Flux.empty());
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
+            reactiveStockService.listProductByWarehouse(1L).block();
+        });
+
+        assertThat(exception.getMessage()).isEqualTo("Could not find valid batch stock for product 1");
+    }
+
+    @Test
+    void streamBatchBySectionOrderedByDueDate_returnEmptyStream_whenSectionHasNoBatchInWindow() {
+        BDDMockito.when(reactiveStockRepository.existsBatchBySectionId(1L))
+                .thenReturn(Mono.just(true));
+        BDDMockito.when(reactiveStockRepository.findBatchStockBySectionIdAndDueDateBetween(ArgumentMatchers.eq(1L),
+                        ArgumentMatchers.any(LocalDate.class), ArgumentMatchers.any(LocalDate.class)))
+                .thenReturn(Flux.empty());
+
+        List<BatchStockDto> batches = reactiveStockService.streamBatchBySectionOrderedByDueDate(1L, 10)
+                .block().collectList().block();
+
+        assertThat(batches).isEmpty();
+        verify(reactiveStockRepository, times(1)).findBatchStockBySectionIdAndDueDateBetween(1L, LocalDate.now(),
+                LocalDate.now().plusDays(10));
+    }
+
+    @Test
+    void streamBatchByProductTypeOrderedByDueDate_returnException_whenCategoryHasNoBatch() {
+        BDDMockito.when(reactiveStockRepository.existsBatchByProductType("Congelado"))
+                .thenReturn(Mono.just(false));
+        BDDMockito.when(reactiveStockRepository.findBatchStockByProductTypeAndDueDateBetween(ArgumentMatchers.eq("Congelado"),
+                        ArgumentMatchers.any(LocalDate.class), ArgumentMatchers.any(LocalDate.class)))
+                .thenReturn(Flux.empty());
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
+            reactiveStockService.streamBatchByProductTypeOrderedByDueDate(10, new CategoryDto("FF")).block();
+        });
+
+        assertThat(exception.getMessage()).isEqualTo("The given category does not have available batch stock");
+    }
+}
@@ -1,5 +1,6 @@
 package dh.meli.projeto_integrador.service;
 
+import dh.meli.projeto_integrador.cache.ReferenceDataCache;
 import dh.meli.projeto_integrador.exception.ResourceNotFoundException;
 import dh.meli.projeto_integrador.model.Section;
 import dh.meli.projeto_integrador.repository.ISectionRepository;
@@ -12,6 +13,7 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
@@ -20,6 +22,7 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +35,9 @@ public class SectionServiceTest {
     @Mock
     ISectionRepository sectionRepository;
 
+    @Spy
+    ReferenceDataCache referenceDataCache = new ReferenceDataCache(100, 300);
+
     @BeforeEach
     void setup() {
         BDDMockito.when(sectionRepository.save(ArgumentMatchers.any(Section.class)))
@@ -52,6 +58,27 @@ public class SectionServiceTest {
         verify(sectionRepository, atLeastOnce()).findById(id);
     }
 
+    @Test
+    void findSection_ReadsRepositoryOnce_WhenSectionIsCachedTest() {
+        long id = 1;
+
+        sectionService.findSection(id);
+        Section section = sectionService.findSection(id);
+
+        assertThat(section.getId()).isEqualTo(Generators.getSection().getId());
+        verify(sectionRepository, times(1)).findById(id);
+    }
+
+    @Test
+    void findManagedSection_BypassesCacheTest() {
+        long id = 1;
+
+        sectionService.findSection(id);
+        sectionService.findManagedSection(id);
+
+        verify(sectionRepository, times(2)).findById(id);
+    }
+
     @Test
     void findSection_WhenSectionDontExistsTest() throws Exception {
         BDDMockito.when(sectionRepository.findById(ArgumentMatchers.anyLong()))
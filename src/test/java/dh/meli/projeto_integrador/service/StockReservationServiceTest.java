@@ -0,0 +1,192 @@
+package dh.meli.projeto_integrador.service;
+
+import dh.meli.projeto_integrador.cache.SellableBatchCache;
+import dh.meli.projeto_integrador.dto.dtoOutput.BatchAllocationDto;
+import dh.meli.projeto_integrador.exception.ForbiddenException;
+import dh.meli.projeto_integrador.model.Batch;
+import dh.meli.projeto_integrador.model.ProductCart;
+import dh.meli.projeto_integrador.model.ProductCartBatch;
+import dh.meli.projeto_integrador.model.ProductStockSummaryId;
+import dh.meli.projeto_integrador.monitoring.BusinessMetrics;
+import dh.meli.projeto_integrador.repository.IBatchRepository;
+import dh.meli.projeto_integrador.repository.IProductCartBatchRepository;
+import dh.meli.projeto_integrador.utils.GenerateCart;
+import dh.meli.projeto_integrador.utils.GenerateProduct;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class StockReservationServiceTest {
+
+    @InjectMocks
+    StockReservationService stockReservationService;
+
+    @Mock
+    IBatchRepository batchRepository;
+
+    @Mock
+    IProductCartBatchRepository productCartBatchRepository;
+
+    @Mock
+    ProductStockSummaryService productStockSummaryService;
+
+    @Mock
+    SellableBatchCache sellableBatchCache;
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    BusinessMetrics businessMetrics = new BusinessMetrics(meterRegistry);
+
+    private static final LocalDate FIRST_DUE_DATE = LocalDate.now().plusDays(30);
+
+    private static final LocalDate SECOND_DUE_DATE = LocalDate.now().plusDays(40);
+
+    @BeforeEach
+    void setup() {
+        BDDMockito.when(batchRepository.getReferenceById(ArgumentMatchers.anyLong()))
+                .thenAnswer(invocation -> Batch.builder().id(invocation.getArgument(0)).build());
+        BDDMockito.when(batchRepository.findReservableBatchesByProductId(ArgumentMatchers.anyLong(),
+                        ArgumentMatchers.any(LocalDate.class)))
+                .thenReturn(List.of(new BatchAllocationDto(1L, 20, 1L, FIRST_DUE_DATE),
+                        new BatchAllocationDto(2L, 10, 1L, SECOND_DUE_DATE)));
+    }
+
+    private static ProductCart newProductCart(int quantity) {
+        return ProductCart.builder()
+                .cart(GenerateCart.newCartWithId1())
+                .product(GenerateProduct.newProduct1())
+                .quantity(quantity)
+                .build();
+    }
+
+    @Test
+    void reserve_allocatesLinesInDueDateOrder() {
+        BDDMockito.when(batchRepository.decrementCurrentQuantity(ArgumentMatchers.anyLong(), ArgumentMatchers.anyInt()))
+                .thenReturn(1);
+
+        List<ProductCartBatch> reservations = stockReservationService.reserve(List.of(newProductCart(25)));
+
+        assertThat(reservations.size()).isEqualTo(2);
+        assertThat(reservations.get(0).getBatch().getId()).isEqualTo(1L);
+        assertThat(reservations.get(0).getQuantity()).isEqualTo(20);
+        assertThat(reservations.get(1).getBatch().getId()).isEqualTo(2L);
+        assertThat(reservations.get(1).getQuantity()).isEqualTo(5);
+
+        verify(batchRepository, times(1)).findReservableBatchesByProductId(ArgumentMatchers.anyLong(),
+                ArgumentMatchers.any(LocalDate.class));
+        verify(productCartBatchRepository, times(1)).saveAll(reservations);
+
+        long productId = GenerateProduct.newProduct1().getId();
+        verify(productStockSummaryService, times(1)).addQuantities(Map.of(
+                new ProductStockSummaryId(productId, 1L, FIRST_DUE_DATE), -20L,
+                new ProductStockSummaryId(productId, 1L, SECOND_DUE_DATE), -5L));
+        verify(sellableBatchCache, times(1)).invalidate(productId);
+    }
+
+    @Test
+    void reserve_rereadsBatchWithLock_whenConcurrentReservationWins() {
+        BDDMockito.when(batchRepository.decrementCurrentQuantity(1L, 15))
+                .thenReturn(0);
+        BDDMockito.when(batchRepository.decrementCurrentQuantity(1L, 8))
+                .thenReturn(1);
+        BDDMockito.when(batchRepository.decrementCurrentQuantity(2L, 7))
+                .thenReturn(1);
+        BDDMockito.when(batchRepository.findCurrentQuantityForUpdate(1L))
+                .thenReturn(8);
+
+        List<ProductCartBatch> reservations = stockReservationService.reserve(List.of(newProductCart(15)));
+
+        assertThat(reservations.size()).isEqualTo(2);
+        assertThat(reservations.get(0).getQuantity()).isEqualTo(8);
+        assertThat(reservations.get(1).getQuantity()).isEqualTo(7);
+
+        verify(batchRepository, times(1)).findCurrentQuantityForUpdate(1L);
+    }
+
+    @Test
+    void reserve_decrementEachBatchOnce_whenLinesShareTheBatch() {
+        BDDMockito.when(batchRepository.decrementCurrentQuantity(ArgumentMatchers.anyLong(), ArgumentMatchers.anyInt()))
+                .thenReturn(1);
+
+        List<ProductCartBatch> reservations = stockReservationService.reserve(List.of(newProductCart(8),
+                newProductCart(8), newProductCart(8)));
+
+        assertThat(reservations.size()).isEqualTo(4);
+        assertThat(reservations.get(2).getBatch().getId()).isEqualTo(1L);
+        assertThat(reservations.get(2).getQuantity()).isEqualTo(4);
+        assertThat(reservations.get(3).getBatch().getId()).isEqualTo(2L);
+        assertThat(reservations.get(3).getQuantity()).isEqualTo(4);
+        assertThat(reservations.get(3).getProductCart()).isSameAs(reservations.get(2).getProductCart());
+
+        verify(batchRepository, times(1)).decrementCurrentQuantity(1L, 20);
+        verify(batchRepository, times(1)).decrementCurrentQuantity(2L, 4);
+        verify(batchRepository, times(2)).decrementCurrentQuantity(ArgumentMatchers.anyLong(), ArgumentMatchers.anyInt());
+    }
+
+    @Test
+    void reserve_returnException_whenStockIsNotEnough() {
+        BDDMockito.when(batchRepository.decrementCurrentQuantity(ArgumentMatchers.anyLong(), ArgumentMatchers.anyInt()))
+                .thenReturn(1);
+
+        ForbiddenException exception = assertThrows(ForbiddenException.class, () -> {
+            stockReservationService.reserve(List.of(newProductCart(20), newProductCart(11)));
+        });
+
+        assertThat(exception.getMessage()).isEqualTo("The product(s): [Morango] does not have enough quantity in stock or due date is not valid.");
+        verify(productCartBatchRepository, never()).saveAll(ArgumentMatchers.anyIterable());
+        verify(productStockSummaryService, never()).addQuantities(ArgumentMatchers.anyMap());
+        assertThat(meterRegistry.counter("business.stock.rejections").count()).isEqualTo(1);
+    }
+
+    @Test
+    void reserveIfAvailable_restoreBatchesAndReturnProduct_whenStockWasTakenAfterTheCheck() {
+        BDDMockito.when(batchRepository.decrementCurrentQuantity(1L, 20)).thenReturn(1);
+        // A concurrent checkout emptied the second batch after the carts were checked against the summary
+        BDDMockito.when(batchRepository.decrementCurrentQuantity(2L, 5)).thenReturn(0);
+        BDDMockito.when(batchRepository.findCurrentQuantityForUpdate(2L)).thenReturn(0);
+
+        Set<Long> invalidProductIds = stockReservationService.reserveIfAvailable(List.of(newProductCart(20),
+                newProductCart(5)));
+
+        assertThat(invalidProductIds).containsExactly(1L);
+        verify(batchRepository, times(1)).incrementCurrentQuantity(1L, 20);
+        verify(batchRepository, times(1)).incrementCurrentQuantity(ArgumentMatchers.anyLong(), ArgumentMatchers.anyInt());
+        verify(productCartBatchRepository, never()).saveAll(ArgumentMatchers.anyIterable());
+        verify(productStockSummaryService, never()).addQuantities(ArgumentMatchers.anyMap());
+        assertThat(meterRegistry.counter("business.stock.rejections").count()).isEqualTo(0);
+    }
+
+    @Test
+    void reserveIfAvailable_saveReservations_whenStockIsEnough() {
+        BDDMockito.when(batchRepository.decrementCurrentQuantity(ArgumentMatchers.anyLong(), ArgumentMatchers.anyInt()))
+                .thenReturn(1);
+
+        Set<Long> invalidProductIds = stockReservationService.reserveIfAvailable(List.of(newProductCart(25)));
+
+        assertThat(invalidProductIds).isEmpty();
+        verify(batchRepository, never()).incrementCurrentQuantity(ArgumentMatchers.anyLong(), ArgumentMatchers.anyInt());
+        verify(productCartBatchRepository, times(1)).saveAll(ArgumentMatchers.anyIterable());
+        verify(productStockSummaryService, times(1)).addQuantities(ArgumentMatchers.anyMap());
+    }
+}
@@ -1,5 +1,6 @@
 package dh.meli.projeto_integrador.service;
 
+import dh.meli.projeto_integrador.cache.ReferenceDataCache;
 import dh.meli.projeto_integrador.exception.ResourceNotFoundException;
 import dh.meli.projeto_integrador.model.Warehouse;
 import dh.meli.projeto_integrador.repository.IWarehouseRepository;
@@ -12,6 +13,7 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
@@ -32,6 +34,9 @@ public class WarehouseServiceTest {
     @Mock
     IWarehouseRepository warehouseRepository;
 
+    @Spy
+    ReferenceDataCache referenceDataCache = new ReferenceDataCache(100, 300);
+
     @BeforeEach
     void setup() {
         BDDMockito.when(warehouseRepository.findById(ArgumentMatchers.anyLong()))
@@ -0,0 +1,41 @@
+package dh.meli.projeto_integrador.threads;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadConfigTest {
+
+    private static boolean supportsVirtualThreads() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    @Test
+    void virtualThreadExecutor_runTasksOnVirtualThreads_whenJavaSupportsThem() throws Exception {
+        assumeTrue(supportsVirtualThreads(), "virtual threads need Java 21");
+
+        ExecutorService executor = new VirtualThreadConfig().virtualThreadExecutor();
+
+        Boolean virtual = CompletableFuture.supplyAsync(
+                () -> Thread.currentThread().toString().startsWith("VirtualThread"), executor).get();
+
+        assertThat(virtual).isTrue();
+        executor.shutdown();
+    }
+
+    @Test
+    void virtualThreadExecutor_returnException_whenJavaDoesNotSupportThem() {
+        assumeFalse(supportsVirtualThreads(), "the JVM supports virtual threads");
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> new VirtualThreadConfig().virtualThreadExecutor());
+
+        assertThat(exception.getMessage()).startsWith("spring.threads.virtual.enabled requires Java 21 or newer");
+    }
+}
@@ -15,7 +15,7 @@ public class GenerateBatch {
                 .currentQuantity(20)
                 .manufacturingDate(LocalDate.of(2022, 3, 15))
                 .manufacturingTime(LocalTime.of(12,30))
-                .dueDate(LocalDate.of(2023, 3, 15))
+                .dueDate(LocalDate.now().plusMonths(6))
                 .product(GenerateProduct.newProduct1())
                 .build();
     }
@@ -28,7 +28,7 @@ public class GenerateBatch {
                 .currentQuantity(0)
                 .manufacturingDate(LocalDate.of(2022, 3, 15))
                 .manufacturingTime(LocalTime.of(12,30))
-                .dueDate(LocalDate.of(2023, 3, 15))
+                .dueDate(LocalDate.now().plusMonths(6))
                 .product(GenerateProduct.newProduct1())
                 .build();
     }